@@ -73,8 +73,23 @@ import sun.reflect.misc.ReflectUtil;
  * for every Method in every Standard MBean interface.
  */
 abstract class MBeanIntrospector<M> {
+    /**
+     * The map from interface to PerInterface for one type of MBean.  Each
+     * interface has its own entry, which holds the PerInterface weakly
+     * and is locked while the PerInterface is computed.
+     */
     static final class PerInterfaceMap<M>
-            extends WeakHashMap<Class<?>, WeakReference<PerInterface<M>>> {}
+            extends ClassValue<PerInterfaceMap.Entry<M>> {
+        static final class Entry<M> {
+            // @GuardedBy("this")
+            WeakReference<PerInterface<M>> ref;
+        }
+
+        @Override
+        protected Entry<M> computeValue(Class<?> mbeanInterface) {
+            return new Entry<M>();
+        }
+    }
 
     /** The map from interface to PerInterface for this type of MBean. */
     abstract PerInterfaceMap<M> getPerInterfaceMap();
@@ -183,9 +198,10 @@ abstract class MBeanIntrospector<M> {
 
     final PerInterface<M> getPerInterface(Class<?> mbeanInterface)
     throws NotCompliantMBeanException {
-        PerInterfaceMap<M> map = getPerInterfaceMap();
-        synchronized (map) {
-            WeakReference<PerInterface<M>> wr = map.get(mbeanInterface);
+        PerInterfaceMap.Entry<M> entry =
+                getPerInterfaceMap().get(mbeanInterface);
+        synchronized (entry) {
+            WeakReference<PerInterface<M>> wr = entry.ref;
             PerInterface<M> pi = (wr == null) ? null : wr.get();
             if (pi == null) {
                 try {
@@ -194,8 +210,7 @@ abstract class MBeanIntrospector<M> {
                             makeInterfaceMBeanInfo(mbeanInterface, analyzer);
                     pi = new PerInterface<M>(mbeanInterface, this, analyzer,
                             mbeanInfo);
-                    wr = new WeakReference<PerInterface<M>>(pi);
-                    map.put(mbeanInterface, wr);
+                    entry.ref = new WeakReference<PerInterface<M>>(pi);
                 } catch (Exception x) {
                     throw Introspector.throwException(mbeanInterface,x);
                 }
@@ -380,7 +395,12 @@ abstract class MBeanIntrospector<M> {
      * the MBeanInfo constructed for that base class and interface.
      */
     static class MBeanInfoMap
-            extends WeakHashMap<Class<?>, WeakHashMap<Class<?>, MBeanInfo>> {
+            extends ClassValue<WeakHashMap<Class<?>, MBeanInfo>> {
+        @Override
+        protected WeakHashMap<Class<?>, MBeanInfo> computeValue(
+                Class<?> resourceClass) {
+            return new WeakHashMap<Class<?>, MBeanInfo>();
+        }
     }
 
     /**
@@ -413,13 +433,9 @@ abstract class MBeanIntrospector<M> {
      */
     final MBeanInfo getClassMBeanInfo(Class<?> resourceClass,
             PerInterface<M> perInterface) {
-        MBeanInfoMap map = getMBeanInfoMap();
-        synchronized (map) {
-            WeakHashMap<Class<?>, MBeanInfo> intfMap = map.get(resourceClass);
-            if (intfMap == null) {
-                intfMap = new WeakHashMap<Class<?>, MBeanInfo>();
-                map.put(resourceClass, intfMap);
-            }
+        WeakHashMap<Class<?>, MBeanInfo> intfMap =
+                getMBeanInfoMap().get(resourceClass);
+        synchronized (intfMap) {
             Class<?> intfClass = perInterface.getMBeanInterface();
             MBeanInfo mbi = intfMap.get(intfClass);
             if (mbi == null) {
@@ -28,7 +28,6 @@ package com.sun.jmx.mbeanserver;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
-import java.util.WeakHashMap;
 import javax.management.Descriptor;
 import javax.management.ImmutableDescriptor;
 import javax.management.IntrospectionException;
@@ -163,28 +162,32 @@ class StandardMBeanIntrospector extends MBeanIntrospector<Method> {
     static boolean isDefinitelyImmutableInfo(Class<?> implClass) {
         if (!NotificationBroadcaster.class.isAssignableFrom(implClass))
             return true;
-        synchronized (definitelyImmutable) {
-            Boolean immutable = definitelyImmutable.get(implClass);
-            if (immutable == null) {
-                final Class<NotificationBroadcasterSupport> nbs =
-                        NotificationBroadcasterSupport.class;
-                if (nbs.isAssignableFrom(implClass)) {
-                    try {
-                        Method m = implClass.getMethod("getNotificationInfo");
-                        immutable = (m.getDeclaringClass() == nbs);
-                    } catch (Exception e) {
-                        // Too bad, we'll say no for now.
-                        return false;
-                    }
-                } else
-                    immutable = false;
-                definitelyImmutable.put(implClass, immutable);
-            }
-            return immutable;
+        Boolean immutable = definitelyImmutable.get(implClass);
+        if (immutable == null) {
+            // Too bad, we'll say no for now.
+            definitelyImmutable.remove(implClass);
+            return false;
         }
-    }
-    private static final WeakHashMap<Class<?>, Boolean> definitelyImmutable =
-            new WeakHashMap<Class<?>, Boolean>();
+        return immutable;
+    }
+    private static final ClassValue<Boolean> definitelyImmutable =
+            new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> implClass) {
+            final Class<NotificationBroadcasterSupport> nbs =
+                    NotificationBroadcasterSupport.class;
+            if (nbs.isAssignableFrom(implClass)) {
+                try {
+                    Method m = implClass.getMethod("getNotificationInfo");
+                    return (m.getDeclaringClass() == nbs);
+                } catch (Exception e) {
+                    // not cached, so that a later call tries again
+                    return null;
+                }
+            } else
+                return false;
+        }
+    };
 
     private static final PerInterfaceMap<Method>
         perInterfaceMap = new PerInterfaceMap<Method>();
@@ -26,7 +26,6 @@
 package java.beans;
 
 import com.sun.beans.TypeResolver;
-import com.sun.beans.WeakCache;
 import com.sun.beans.finder.ClassFinder;
 import com.sun.beans.finder.MethodFinder;
 
@@ -106,8 +105,13 @@ public class Introspector {
      */
     public final static int IGNORE_ALL_BEANINFO        = 3;
 
-    // Static Caches to speed up introspection.
-    private static final WeakCache<Class<?>, Method[]> declaredMethodCache = new WeakCache<>();
+    // Static Caches to speed up introspection.  The cache is replaced to
+    // flush it, as a ClassValue cannot be cleared.
+    private static volatile ClassValue<Method[]> declaredMethodCache =
+        newDeclaredMethodCache();
+
+    // Guards the BeanInfo caches of the thread group contexts.
+    private static final Object beanInfoCacheLock = new Object();
 
     private Class<?> beanClass;
     private BeanInfo explicitBeanInfo;
@@ -166,12 +170,12 @@ public class Introspector {
         }
         ThreadGroupContext context = ThreadGroupContext.getContext();
         BeanInfo beanInfo;
-        synchronized (declaredMethodCache) {
+        synchronized (beanInfoCacheLock) {
             beanInfo = context.getBeanInfo(beanClass);
         }
         if (beanInfo == null) {
             beanInfo = new Introspector(beanClass, null, USE_ALL_BEANINFO).getBeanInfo();
-            synchronized (declaredMethodCache) {
+            synchronized (beanInfoCacheLock) {
                 context.putBeanInfo(beanClass, beanInfo);
             }
         }
@@ -341,9 +345,9 @@ public class Introspector {
      */
 
     public static void flushCaches() {
-        synchronized (declaredMethodCache) {
+        synchronized (beanInfoCacheLock) {
             ThreadGroupContext.getContext().clearBeanInfoCache();
-            declaredMethodCache.clear();
+            declaredMethodCache = newDeclaredMethodCache();
         }
     }
 
@@ -366,9 +370,9 @@ public class Introspector {
         if (clz == null) {
             throw new NullPointerException();
         }
-        synchronized (declaredMethodCache) {
+        synchronized (beanInfoCacheLock) {
             ThreadGroupContext.getContext().removeBeanInfo(clz);
-            declaredMethodCache.put(clz, null);
+            declaredMethodCache.remove(clz);
         }
     }
 
@@ -1330,10 +1334,14 @@ public class Introspector {
         if (!ReflectUtil.isPackageAccessible(clz)) {
             return new Method[0];
         }
-        synchronized (declaredMethodCache) {
-            Method[] result = declaredMethodCache.get(clz);
-            if (result == null) {
-                result = clz.getMethods();
+        return declaredMethodCache.get(clz);
+    }
+
+    private static ClassValue<Method[]> newDeclaredMethodCache() {
+        return new ClassValue<Method[]>() {
+            @Override
+            protected Method[] computeValue(Class<?> clz) {
+                Method[] result = clz.getMethods();
                 for (int i = 0; i < result.length; i++) {
                     Method method = result[i];
                     if (!method.getDeclaringClass().equals(clz)) {
@@ -1353,10 +1361,9 @@ public class Introspector {
                         }
                     }
                 }
-                declaredMethodCache.put(clz, result);
+                return result;
             }
-            return result;
-        }
+        };
     }
 
     //======================================================================
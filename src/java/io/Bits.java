@@ -25,6 +25,9 @@
 
 package java.io;
 
+import java.nio.ByteOrder;
+import java.util.Objects;
+
 /**
  * Utility methods for packing/unpacking primitive values in/out of byte arrays
  * using big-endian byte ordering.
@@ -120,4 +123,21 @@ class Bits {
     static void putDouble(byte[] b, int off, double val) {
         putLong(b, off, Double.doubleToLongBits(val));
     }
+
+    /*
+     * Argument checking for the bulk array methods of DataInput and
+     * DataOutput implementations.
+     */
+
+    /**
+     * Checks that len values starting at off lie within an array of the
+     * given length, and returns true if the values must be byte-swapped
+     * from the big-endian order used by the methods above.
+     */
+    static boolean checkBulk(int length, int off, int len, ByteOrder order) {
+        Objects.requireNonNull(order);
+        if ((off | len | (off + len) | (length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        return order == ByteOrder.LITTLE_ENDIAN;
+    }
 }
@@ -26,6 +26,7 @@
 package java.io;
 
 import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * This class implements a character buffer that can be used as an Writer.
@@ -35,6 +36,13 @@ import java.util.Arrays;
  * Note: Invoking close() on this class has no effect, and methods
  * of this class can be called after the stream has closed
  * without generating an IOException.
+ * <P>
+ * A CharArrayWriter can also be constructed to collect its data in a
+ * {@link SegmentedStringBuilder}, which holds the data in chunks rather than
+ * in one array that is copied as it grows.  The builder can then write the
+ * data onwards without ever copying it into a single array.  In that case
+ * the protected <code>buf</code> and <code>count</code> fields are not
+ * used.
  *
  * @author      Herb Jellinek
  * @since       JDK1.1
@@ -51,6 +59,11 @@ class CharArrayWriter extends Writer {
      */
     protected int count;
 
+    /**
+     * The builder where data is stored instead of buf, or null.
+     */
+    private final SegmentedStringBuilder segments;
+
     /**
      * Creates a new CharArrayWriter.
      */
@@ -70,6 +83,19 @@ class CharArrayWriter extends Writer {
                                                + initialSize);
         }
         buf = new char[initialSize];
+        segments = null;
+    }
+
+    /**
+     * Creates a new CharArrayWriter that stores its data in the specified
+     * segmented builder, after any characters already in it.
+     *
+     * @param builder  the builder to which data is appended
+     * @since 1.8
+     */
+    public CharArrayWriter(SegmentedStringBuilder builder) {
+        buf = new char[0];
+        segments = Objects.requireNonNull(builder);
     }
 
     /**
@@ -77,6 +103,10 @@ class CharArrayWriter extends Writer {
      */
     public void write(int c) {
         synchronized (lock) {
+            if (segments != null) {
+                segments.append((char)c);
+                return;
+            }
             int newcount = count + 1;
             if (newcount > buf.length) {
                 buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newcount));
@@ -100,6 +130,10 @@ class CharArrayWriter extends Writer {
             return;
         }
         synchronized (lock) {
+            if (segments != null) {
+                segments.append(c, off, len);
+                return;
+            }
             int newcount = count + len;
             if (newcount > buf.length) {
                 buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newcount));
@@ -117,6 +151,11 @@ class CharArrayWriter extends Writer {
      */
     public void write(String str, int off, int len) {
         synchronized (lock) {
+            if (segments != null) {
+                // The builder would append "null"; keep the NPE of the array path
+                segments.append(Objects.requireNonNull(str), off, off + len);
+                return;
+            }
             int newcount = count + len;
             if (newcount > buf.length) {
                 buf = Arrays.copyOf(buf, Math.max(buf.length << 1, newcount));
@@ -134,6 +173,10 @@ class CharArrayWriter extends Writer {
      */
     public void writeTo(Writer out) throws IOException {
         synchronized (lock) {
+            if (segments != null) {
+                segments.writeTo(out);
+                return;
+            }
             out.write(buf, 0, count);
         }
     }
@@ -232,6 +275,12 @@ class CharArrayWriter extends Writer {
      * throwing away the already allocated buffer.
      */
     public void reset() {
+        if (segments != null) {
+            synchronized (lock) {
+                segments.clear();
+            }
+            return;
+        }
         count = 0;
     }
 
@@ -242,6 +291,11 @@ class CharArrayWriter extends Writer {
      */
     public char toCharArray()[] {
         synchronized (lock) {
+            if (segments != null) {
+                char[] a = new char[segments.length()];
+                segments.getChars(0, a.length, a, 0);
+                return a;
+            }
             return Arrays.copyOf(buf, count);
         }
     }
@@ -252,6 +306,11 @@ class CharArrayWriter extends Writer {
      * @return an int representing the current size of the buffer.
      */
     public int size() {
+        if (segments != null) {
+            synchronized (lock) {
+                return segments.length();
+            }
+        }
         return count;
     }
 
@@ -261,6 +320,8 @@ class CharArrayWriter extends Writer {
      */
     public String toString() {
         synchronized (lock) {
+            if (segments != null)
+                return segments.toString();
             return new String(buf, 0, count);
         }
     }
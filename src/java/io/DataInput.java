@@ -25,6 +25,9 @@
 
 package java.io;
 
+import java.nio.ByteOrder;
+import java.util.Objects;
+
 /**
  * The {@code DataInput} interface provides
  * for reading bytes from a binary stream and
@@ -586,4 +589,415 @@ interface DataInput {
      *               valid modified UTF-8 encoding of a string.
      */
     String readUTF() throws IOException;
+
+    /**
+     * Reads {@code len} {@code short} values into the array {@code v},
+     * starting at offset {@code off}.  Each value is read in exactly the
+     * manner of the {@code readShort} method, high byte first.  This method
+     * is suitable for reading values written by the {@code writeShorts}
+     * method of interface {@code DataOutput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #readShorts(short[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array into which the values are read.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readShorts(short[] v, int off, int len) throws IOException {
+        readShorts(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads {@code len} {@code short} values of two bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.
+     * <p>
+     * The default implementation reads each value with the {@code readShort} method, reversing
+     * its bytes if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  NullPointerException  if {@code v} or {@code order} is
+     *               {@code null}.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readShorts(short[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            short x = readShort();
+            v[off] = swap ? Short.reverseBytes(x) : x;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code int} values into the array {@code v},
+     * starting at offset {@code off}.  Each value is read in exactly the
+     * manner of the {@code readInt} method, high byte first.  This method
+     * is suitable for reading values written by the {@code writeInts}
+     * method of interface {@code DataOutput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #readInts(int[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array into which the values are read.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readInts(int[] v, int off, int len) throws IOException {
+        readInts(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads {@code len} {@code int} values of four bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.
+     * <p>
+     * The default implementation reads each value with the {@code readInt} method, reversing
+     * its bytes if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  NullPointerException  if {@code v} or {@code order} is
+     *               {@code null}.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readInts(int[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            int x = readInt();
+            v[off] = swap ? Integer.reverseBytes(x) : x;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code long} values into the array {@code v},
+     * starting at offset {@code off}.  Each value is read in exactly the
+     * manner of the {@code readLong} method, high byte first.  This method
+     * is suitable for reading values written by the {@code writeLongs}
+     * method of interface {@code DataOutput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #readLongs(long[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array into which the values are read.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readLongs(long[] v, int off, int len) throws IOException {
+        readLongs(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads {@code len} {@code long} values of eight bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.
+     * <p>
+     * The default implementation reads each value with the {@code readLong} method, reversing
+     * its bytes if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  NullPointerException  if {@code v} or {@code order} is
+     *               {@code null}.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readLongs(long[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            long x = readLong();
+            v[off] = swap ? Long.reverseBytes(x) : x;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code float} values into the array {@code v},
+     * starting at offset {@code off}.  Each value is read in exactly the
+     * manner of the {@code readFloat} method, high byte first.  This method
+     * is suitable for reading values written by the {@code writeFloats}
+     * method of interface {@code DataOutput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #readFloats(float[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array into which the values are read.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readFloats(float[] v, int off, int len) throws IOException {
+        readFloats(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads {@code len} {@code float} values of four bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.
+     * <p>
+     * The default implementation reads each value with the {@code readInt} method
+     * and converts it with {@code Float.intBitsToFloat}, reversing
+     * its bytes if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  NullPointerException  if {@code v} or {@code order} is
+     *               {@code null}.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readFloats(float[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            int bits = readInt();
+            v[off] = Float.intBitsToFloat(swap ? Integer.reverseBytes(bits) : bits);
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code double} values into the array {@code v},
+     * starting at offset {@code off}.  Each value is read in exactly the
+     * manner of the {@code readDouble} method, high byte first.  This method
+     * is suitable for reading values written by the {@code writeDoubles}
+     * method of interface {@code DataOutput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #readDoubles(double[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array into which the values are read.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to read.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readDoubles(double[] v, int off, int len) throws IOException {
+        readDoubles(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Reads {@code len} {@code double} values of eight bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.
+     * <p>
+     * The default implementation reads each value with the {@code readLong} method
+     * and converts it with {@code Double.longBitsToDouble}, reversing
+     * its bytes if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  NullPointerException  if {@code v} or {@code order} is
+     *               {@code null}.
+     * @exception  IndexOutOfBoundsException  if {@code off} or {@code len}
+     *               is negative, or {@code off+len} is greater than
+     *               {@code v.length}.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if an I/O error occurs.
+     * @since      1.8
+     */
+    default void readDoubles(double[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            long bits = readLong();
+            v[off] = Double.longBitsToDouble(swap ? Long.reverseBytes(bits) : bits);
+        }
+    }
+
+    /**
+     * Reads an unsigned LEB128 variable-length quantity of at most five
+     * bytes and returns it as an {@code int} value.  Each byte read
+     * contributes its low seven bits, low-order group first, and the
+     * value ends with the first byte whose high bit is clear.  This method
+     * is suitable for reading bytes written by the {@code writeVarInt}
+     * method of interface {@code DataOutput}.
+     *
+     * @return     the {@code int} value read.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if the encoded value does not fit in an
+     *               {@code int}, or if an I/O error occurs.
+     * @since      1.8
+     */
+    default int readVarInt() throws IOException {
+        int v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readUnsignedByte();
+            if (shift == 28 && b > 0x0F)
+                throw new IOException("Malformed variable-length int");
+            v |= (b & 0x7F) << shift;
+            if (b < 0x80)
+                return v;
+        }
+    }
+
+    /**
+     * Reads a zigzag-encoded variable-length quantity and returns it as
+     * an {@code int} value.  The unsigned value {@code u} is read in
+     * exactly the manner of the {@code readVarInt} method, and the value
+     * returned is:
+     * <pre>{@code
+     * (u >>> 1) ^ -(u & 1)
+     * }</pre>
+     * This method is suitable for reading bytes written by the
+     * {@code writeSignedVarInt} method of interface {@code DataOutput}.
+     *
+     * @return     the {@code int} value read.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if the encoded value does not fit in an
+     *               {@code int}, or if an I/O error occurs.
+     * @since      1.8
+     */
+    default int readSignedVarInt() throws IOException {
+        int u = readVarInt();
+        return (u >>> 1) ^ -(u & 1);
+    }
+
+    /**
+     * Reads an unsigned LEB128 variable-length quantity of at most ten
+     * bytes and returns it as a {@code long} value, in exactly the manner
+     * of the {@code readVarInt} method.  This method is suitable for
+     * reading bytes written by the {@code writeVarLong} method of interface
+     * {@code DataOutput}.
+     *
+     * @return     the {@code long} value read.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if the encoded value does not fit in a
+     *               {@code long}, or if an I/O error occurs.
+     * @since      1.8
+     */
+    default long readVarLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readUnsignedByte();
+            if (shift == 63 && b > 0x01)
+                throw new IOException("Malformed variable-length long");
+            v |= (long) (b & 0x7F) << shift;
+            if (b < 0x80)
+                return v;
+        }
+    }
+
+    /**
+     * Reads a zigzag-encoded variable-length quantity and returns it as
+     * a {@code long} value.  The unsigned value {@code u} is read in
+     * exactly the manner of the {@code readVarLong} method, and the value
+     * returned is:
+     * <pre>{@code
+     * (u >>> 1) ^ -(u & 1)
+     * }</pre>
+     * This method is suitable for reading bytes written by the
+     * {@code writeSignedVarLong} method of interface {@code DataOutput}.
+     *
+     * @return     the {@code long} value read.
+     * @exception  EOFException  if this stream reaches the end before reading
+     *               all the bytes.
+     * @exception  IOException   if the encoded value does not fit in a
+     *               {@code long}, or if an I/O error occurs.
+     * @since      1.8
+     */
+    default long readSignedVarLong() throws IOException {
+        long u = readVarLong();
+        return (u >>> 1) ^ -(u & 1);
+    }
 }
@@ -25,6 +25,8 @@
 
 package java.io;
 
+import java.nio.ByteOrder;
+
 /**
  * A data input stream lets an application read primitive Java data
  * types from an underlying input stream in a machine-independent
@@ -58,6 +60,22 @@ class DataInputStream extends FilterInputStream implements DataInput {
     private byte bytearr[] = new byte[80];
     private char chararr[] = new char[80];
 
+    /**
+     * Scratch buffer for the single-value reads.
+     */
+    private byte readBuffer[] = new byte[8];
+
+    /**
+     * Size in bytes of the chunks in which the bulk array methods read
+     * their values before converting them.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * chunkBuf is initialized on demand by the bulk array methods
+     */
+    private byte[] chunkBuf = null;
+
     /**
      * Reads some number of bytes from the contained input stream and
      * stores them into the buffer array <code>b</code>. The number of
@@ -309,11 +327,8 @@ class DataInputStream extends FilterInputStream implements DataInput {
      * @see        java.io.FilterInputStream#in
      */
     public final short readShort() throws IOException {
-        int ch1 = in.read();
-        int ch2 = in.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (short)((ch1 << 8) + (ch2 << 0));
+        readFully(readBuffer, 0, 2);
+        return (short)((readBuffer[0] << 8) + (readBuffer[1] & 255));
     }
 
     /**
@@ -334,11 +349,8 @@ class DataInputStream extends FilterInputStream implements DataInput {
      * @see        java.io.FilterInputStream#in
      */
     public final int readUnsignedShort() throws IOException {
-        int ch1 = in.read();
-        int ch2 = in.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (ch1 << 8) + (ch2 << 0);
+        readFully(readBuffer, 0, 2);
+        return ((readBuffer[0] & 255) << 8) + (readBuffer[1] & 255);
     }
 
     /**
@@ -359,11 +371,8 @@ class DataInputStream extends FilterInputStream implements DataInput {
      * @see        java.io.FilterInputStream#in
      */
     public final char readChar() throws IOException {
-        int ch1 = in.read();
-        int ch2 = in.read();
-        if ((ch1 | ch2) < 0)
-            throw new EOFException();
-        return (char)((ch1 << 8) + (ch2 << 0));
+        readFully(readBuffer, 0, 2);
+        return (char)(((readBuffer[0] & 255) << 8) + (readBuffer[1] & 255));
     }
 
     /**
@@ -384,17 +393,13 @@ class DataInputStream extends FilterInputStream implements DataInput {
      * @see        java.io.FilterInputStream#in
      */
     public final int readInt() throws IOException {
-        int ch1 = in.read();
-        int ch2 = in.read();
-        int ch3 = in.read();
-        int ch4 = in.read();
-        if ((ch1 | ch2 | ch3 | ch4) < 0)
-            throw new EOFException();
-        return ((ch1 << 24) + (ch2 << 16) + (ch3 << 8) + (ch4 << 0));
+        readFully(readBuffer, 0, 4);
+        return ((readBuffer[0] << 24) +
+                ((readBuffer[1] & 255) << 16) +
+                ((readBuffer[2] & 255) <<  8) +
+                ((readBuffer[3] & 255) <<  0));
     }
 
-    private byte readBuffer[] = new byte[8];
-
     /**
      * See the general contract of the <code>readLong</code>
      * method of <code>DataInput</code>.
@@ -468,6 +473,183 @@ class DataInputStream extends FilterInputStream implements DataInput {
         return Double.longBitsToDouble(readLong());
     }
 
+    /**
+     * Reads {@code len} {@code short} values of 2 bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.  The bytes are read from the contained input stream in
+     * chunks with <code>readFully</code> and then converted.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the bytes.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInput#readShorts(short[], int, int, ByteOrder)
+     * @since      1.8
+     */
+    public void readShorts(short[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 1);
+            readFully(b, 0, count << 1);
+            for (int i = 0; i < count; i++) {
+                short x = Bits.getShort(b, i << 1);
+                v[off + i] = swap ? Short.reverseBytes(x) : x;
+            }
+            off += count;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code int} values of 4 bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.  The bytes are read from the contained input stream in
+     * chunks with <code>readFully</code> and then converted.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the bytes.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInput#readInts(int[], int, int, ByteOrder)
+     * @since      1.8
+     */
+    public void readInts(int[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 2);
+            readFully(b, 0, count << 2);
+            for (int i = 0; i < count; i++) {
+                int x = Bits.getInt(b, i << 2);
+                v[off + i] = swap ? Integer.reverseBytes(x) : x;
+            }
+            off += count;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code long} values of 8 bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.  The bytes are read from the contained input stream in
+     * chunks with <code>readFully</code> and then converted.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the bytes.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInput#readLongs(long[], int, int, ByteOrder)
+     * @since      1.8
+     */
+    public void readLongs(long[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 3);
+            readFully(b, 0, count << 3);
+            for (int i = 0; i < count; i++) {
+                long x = Bits.getLong(b, i << 3);
+                v[off + i] = swap ? Long.reverseBytes(x) : x;
+            }
+            off += count;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code float} values of 4 bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.  The bytes are read from the contained input stream in
+     * chunks with <code>readFully</code> and then converted.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the bytes.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInput#readFloats(float[], int, int, ByteOrder)
+     * @since      1.8
+     */
+    public void readFloats(float[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 2);
+            readFully(b, 0, count << 2);
+            for (int i = 0; i < count; i++) {
+                int x = Bits.getInt(b, i << 2);
+                v[off + i] = Float.intBitsToFloat(swap ? Integer.reverseBytes(x) : x);
+            }
+            off += count;
+        }
+    }
+
+    /**
+     * Reads {@code len} {@code double} values of 8 bytes each, in the
+     * specified byte order, into the array {@code v} starting at offset
+     * {@code off}.  The bytes are read from the contained input stream in
+     * chunks with <code>readFully</code> and then converted.
+     *
+     * @param      v      the array into which the values are read.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to read.
+     * @param      order  the byte order of each value read.
+     * @exception  EOFException  if this input stream reaches the end before
+     *             reading all the bytes.
+     * @exception  IOException   the stream has been closed and the contained
+     *             input stream does not support reading after close, or
+     *             another I/O error occurs.
+     * @see        java.io.DataInput#readDoubles(double[], int, int, ByteOrder)
+     * @since      1.8
+     */
+    public void readDoubles(double[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 3);
+            readFully(b, 0, count << 3);
+            for (int i = 0; i < count; i++) {
+                long x = Bits.getLong(b, i << 3);
+                v[off + i] = Double.longBitsToDouble(swap ? Long.reverseBytes(x) : x);
+            }
+            off += count;
+        }
+    }
+
+    private byte[] chunkBuffer() {
+        if (chunkBuf == null) {
+            chunkBuf = new byte[CHUNK_SIZE];
+        }
+        return chunkBuf;
+    }
+
     private char lineBuffer[];
 
     /**
@@ -25,6 +25,9 @@
 
 package java.io;
 
+import java.nio.ByteOrder;
+import java.util.Objects;
+
 /**
  * The <code>DataOutput</code> interface provides
  * for converting data from any of the Java
@@ -351,4 +354,372 @@ interface DataOutput {
      * @throws     IOException  if an I/O error occurs.
      */
     void writeUTF(String s) throws IOException;
+
+    /**
+     * Writes {@code len} {@code short} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream.  Each value is
+     * written in exactly the manner of the {@code writeShort} method, high
+     * byte first.  The values written by this method may be read by the
+     * {@code readShorts} method of interface {@code DataInput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #writeShorts(short[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array of values to be written.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to write.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeShorts(short[] v, int off, int len) throws IOException {
+        writeShorts(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Writes {@code len} {@code short} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream as two bytes
+     * each in the specified byte order.
+     * <p>
+     * The default implementation writes each value with the {@code writeShort} method, reversing
+     * its bytes first if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @throws     NullPointerException  if {@code v} or {@code order} is
+     *             {@code null}.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeShorts(short[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            writeShort(swap ? Short.reverseBytes(v[off]) : v[off]);
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code int} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream.  Each value is
+     * written in exactly the manner of the {@code writeInt} method, high
+     * byte first.  The values written by this method may be read by the
+     * {@code readInts} method of interface {@code DataInput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #writeInts(int[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array of values to be written.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to write.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeInts(int[] v, int off, int len) throws IOException {
+        writeInts(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Writes {@code len} {@code int} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream as four bytes
+     * each in the specified byte order.
+     * <p>
+     * The default implementation writes each value with the {@code writeInt} method, reversing
+     * its bytes first if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @throws     NullPointerException  if {@code v} or {@code order} is
+     *             {@code null}.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeInts(int[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            writeInt(swap ? Integer.reverseBytes(v[off]) : v[off]);
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code long} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream.  Each value is
+     * written in exactly the manner of the {@code writeLong} method, high
+     * byte first.  The values written by this method may be read by the
+     * {@code readLongs} method of interface {@code DataInput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #writeLongs(long[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array of values to be written.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to write.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeLongs(long[] v, int off, int len) throws IOException {
+        writeLongs(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Writes {@code len} {@code long} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream as eight bytes
+     * each in the specified byte order.
+     * <p>
+     * The default implementation writes each value with the {@code writeLong} method, reversing
+     * its bytes first if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @throws     NullPointerException  if {@code v} or {@code order} is
+     *             {@code null}.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeLongs(long[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            writeLong(swap ? Long.reverseBytes(v[off]) : v[off]);
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code float} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream.  Each value is
+     * written in exactly the manner of the {@code writeFloat} method, high
+     * byte first.  The values written by this method may be read by the
+     * {@code readFloats} method of interface {@code DataInput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #writeFloats(float[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array of values to be written.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to write.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeFloats(float[] v, int off, int len) throws IOException {
+        writeFloats(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Writes {@code len} {@code float} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream as four bytes
+     * each in the specified byte order.
+     * <p>
+     * The default implementation converts each value with {@code Float.floatToIntBits} and
+     * writes it with the {@code writeInt} method, reversing
+     * its bytes first if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @throws     NullPointerException  if {@code v} or {@code order} is
+     *             {@code null}.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeFloats(float[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            int bits = Float.floatToIntBits(v[off]);
+            writeInt(swap ? Integer.reverseBytes(bits) : bits);
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code double} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream.  Each value is
+     * written in exactly the manner of the {@code writeDouble} method, high
+     * byte first.  The values written by this method may be read by the
+     * {@code readDoubles} method of interface {@code DataInput}.
+     * <p>
+     * The default implementation invokes
+     * {@link #writeDoubles(double[], int, int, ByteOrder)} with
+     * {@link ByteOrder#BIG_ENDIAN}.
+     *
+     * @param      v     the array of values to be written.
+     * @param      off   the start offset in {@code v}.
+     * @param      len   the number of values to write.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeDoubles(double[] v, int off, int len) throws IOException {
+        writeDoubles(v, off, len, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Writes {@code len} {@code double} values from the array {@code v},
+     * starting at offset {@code off}, to the output stream as eight bytes
+     * each in the specified byte order.
+     * <p>
+     * The default implementation converts each value with {@code Double.doubleToLongBits}
+     * and writes it with the {@code writeLong} method, reversing
+     * its bytes first if {@code order} is {@link ByteOrder#LITTLE_ENDIAN}.
+     * Buffered implementations should override it to convert the values
+     * in chunks.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @throws     NullPointerException  if {@code v} or {@code order} is
+     *             {@code null}.
+     * @throws     IndexOutOfBoundsException  if {@code off} or {@code len}
+     *             is negative, or {@code off+len} is greater than
+     *             {@code v.length}.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeDoubles(double[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = (Objects.requireNonNull(order) == ByteOrder.LITTLE_ENDIAN);
+        if ((off | len | (off + len) | (v.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        for (int end = off + len; off < end; off++) {
+            long bits = Double.doubleToLongBits(v[off]);
+            writeLong(swap ? Long.reverseBytes(bits) : bits);
+        }
+    }
+
+    /**
+     * Writes an {@code int} value to the output stream as an unsigned
+     * LEB128 variable-length quantity.  The value is written seven bits at
+     * a time, low-order group first; every byte except the last has its
+     * high bit set.  Between one and five bytes are written, fewer for
+     * small non-negative values.  The bytes written by this method may be
+     * read by the {@code readVarInt} method of interface {@code DataInput}.
+     * <p>
+     * The default implementation writes each byte with the
+     * {@code writeByte} method.
+     *
+     * @param      v   the {@code int} value to be written.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeVarInt(int v) throws IOException {
+        while ((v & ~0x7F) != 0) {
+            writeByte((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        writeByte(v);
+    }
+
+    /**
+     * Writes an {@code int} value to the output stream in zigzag encoding
+     * followed by the variable-length encoding of the {@code writeVarInt}
+     * method.  Zigzag encoding maps signed values to unsigned ones so that
+     * values of small magnitude, negative or not, take few bytes:
+     * <pre>{@code
+     * (v << 1) ^ (v >> 31)
+     * }</pre>
+     * The bytes written by this method may be read by the
+     * {@code readSignedVarInt} method of interface {@code DataInput}.
+     *
+     * @param      v   the {@code int} value to be written.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeSignedVarInt(int v) throws IOException {
+        writeVarInt((v << 1) ^ (v >> 31));
+    }
+
+    /**
+     * Writes a {@code long} value to the output stream as an unsigned
+     * LEB128 variable-length quantity, in exactly the manner of the
+     * {@code writeVarInt} method.  Between one and ten bytes are written.
+     * The bytes written by this method may be read by the
+     * {@code readVarLong} method of interface {@code DataInput}.
+     *
+     * @param      v   the {@code long} value to be written.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeVarLong(long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            writeByte(((int) v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        writeByte((int) v);
+    }
+
+    /**
+     * Writes a {@code long} value to the output stream in zigzag encoding
+     * followed by the variable-length encoding of the {@code writeVarLong}
+     * method:
+     * <pre>{@code
+     * (v << 1) ^ (v >> 63)
+     * }</pre>
+     * The bytes written by this method may be read by the
+     * {@code readSignedVarLong} method of interface {@code DataInput}.
+     *
+     * @param      v   the {@code long} value to be written.
+     * @throws     IOException  if an I/O error occurs.
+     * @since      1.8
+     */
+    default void writeSignedVarLong(long v) throws IOException {
+        writeVarLong((v << 1) ^ (v >> 63));
+    }
 }
@@ -25,6 +25,8 @@
 
 package java.io;
 
+import java.nio.ByteOrder;
+
 /**
  * A data output stream lets an application write primitive Java data
  * types to an output stream in a portable way. An application can
@@ -47,6 +49,23 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      */
     private byte[] bytearr = null;
 
+    /**
+     * Scratch buffer for the single-value writes and the varints; large
+     * enough for a ten-byte varint.
+     */
+    private byte writeBuffer[] = new byte[10];
+
+    /**
+     * Size in bytes of the chunks in which the bulk array methods
+     * convert their values before writing them.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    /**
+     * chunkBuf is initialized on demand by the bulk array methods
+     */
+    private byte[] chunkBuf = null;
+
     /**
      * Creates a new data output stream to write data to the specified
      * underlying output stream. The counter <code>written</code> is
@@ -164,8 +183,9 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      * @see        java.io.FilterOutputStream#out
      */
     public final void writeShort(int v) throws IOException {
-        out.write((v >>> 8) & 0xFF);
-        out.write((v >>> 0) & 0xFF);
+        writeBuffer[0] = (byte)(v >>> 8);
+        writeBuffer[1] = (byte)(v >>> 0);
+        out.write(writeBuffer, 0, 2);
         incCount(2);
     }
 
@@ -179,8 +199,9 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      * @see        java.io.FilterOutputStream#out
      */
     public final void writeChar(int v) throws IOException {
-        out.write((v >>> 8) & 0xFF);
-        out.write((v >>> 0) & 0xFF);
+        writeBuffer[0] = (byte)(v >>> 8);
+        writeBuffer[1] = (byte)(v >>> 0);
+        out.write(writeBuffer, 0, 2);
         incCount(2);
     }
 
@@ -194,15 +215,14 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
      * @see        java.io.FilterOutputStream#out
      */
     public final void writeInt(int v) throws IOException {
-        out.write((v >>> 24) & 0xFF);
-        out.write((v >>> 16) & 0xFF);
-        out.write((v >>>  8) & 0xFF);
-        out.write((v >>>  0) & 0xFF);
+        writeBuffer[0] = (byte)(v >>> 24);
+        writeBuffer[1] = (byte)(v >>> 16);
+        writeBuffer[2] = (byte)(v >>>  8);
+        writeBuffer[3] = (byte)(v >>>  0);
+        out.write(writeBuffer, 0, 4);
         incCount(4);
     }
 
-    private byte writeBuffer[] = new byte[8];
-
     /**
      * Writes a <code>long</code> to the underlying output stream as eight
      * bytes, high byte first. In no exception is thrown, the counter
@@ -259,6 +279,224 @@ class DataOutputStream extends FilterOutputStream implements DataOutput {
         writeLong(Double.doubleToLongBits(v));
     }
 
+    /**
+     * Writes {@code len} {@code short} values from the array {@code v},
+     * starting at offset {@code off}, to the underlying output stream as
+     * 2 bytes each in the specified byte order.  The values are converted
+     * into an internal buffer and written in chunks, rather than one
+     * {@code write} call per byte.  If no exception is thrown, the counter
+     * <code>written</code> is incremented by {@code 2 * len}.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.FilterOutputStream#out
+     * @since      1.8
+     */
+    public void writeShorts(short[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 1);
+            for (int i = 0; i < count; i++) {
+                short x = v[off + i];
+                Bits.putShort(b, i << 1, swap ? Short.reverseBytes(x) : x);
+            }
+            out.write(b, 0, count << 1);
+            incCount(count << 1);
+            off += count;
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code int} values from the array {@code v},
+     * starting at offset {@code off}, to the underlying output stream as
+     * 4 bytes each in the specified byte order.  The values are converted
+     * into an internal buffer and written in chunks, rather than one
+     * {@code write} call per byte.  If no exception is thrown, the counter
+     * <code>written</code> is incremented by {@code 4 * len}.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.FilterOutputStream#out
+     * @since      1.8
+     */
+    public void writeInts(int[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 2);
+            for (int i = 0; i < count; i++) {
+                int x = v[off + i];
+                Bits.putInt(b, i << 2, swap ? Integer.reverseBytes(x) : x);
+            }
+            out.write(b, 0, count << 2);
+            incCount(count << 2);
+            off += count;
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code long} values from the array {@code v},
+     * starting at offset {@code off}, to the underlying output stream as
+     * 8 bytes each in the specified byte order.  The values are converted
+     * into an internal buffer and written in chunks, rather than one
+     * {@code write} call per byte.  If no exception is thrown, the counter
+     * <code>written</code> is incremented by {@code 8 * len}.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.FilterOutputStream#out
+     * @since      1.8
+     */
+    public void writeLongs(long[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 3);
+            for (int i = 0; i < count; i++) {
+                long x = v[off + i];
+                Bits.putLong(b, i << 3, swap ? Long.reverseBytes(x) : x);
+            }
+            out.write(b, 0, count << 3);
+            incCount(count << 3);
+            off += count;
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code float} values from the array {@code v},
+     * starting at offset {@code off}, to the underlying output stream as
+     * 4 bytes each in the specified byte order.  The values are converted
+     * into an internal buffer and written in chunks, rather than one
+     * {@code write} call per byte.  If no exception is thrown, the counter
+     * <code>written</code> is incremented by {@code 4 * len}.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.FilterOutputStream#out
+     * @since      1.8
+     */
+    public void writeFloats(float[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 2);
+            for (int i = 0; i < count; i++) {
+                int x = Float.floatToIntBits(v[off + i]);
+                Bits.putInt(b, i << 2, swap ? Integer.reverseBytes(x) : x);
+            }
+            out.write(b, 0, count << 2);
+            incCount(count << 2);
+            off += count;
+        }
+    }
+
+    /**
+     * Writes {@code len} {@code double} values from the array {@code v},
+     * starting at offset {@code off}, to the underlying output stream as
+     * 8 bytes each in the specified byte order.  The values are converted
+     * into an internal buffer and written in chunks, rather than one
+     * {@code write} call per byte.  If no exception is thrown, the counter
+     * <code>written</code> is incremented by {@code 8 * len}.
+     *
+     * @param      v      the array of values to be written.
+     * @param      off    the start offset in {@code v}.
+     * @param      len    the number of values to write.
+     * @param      order  the byte order of each value written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.FilterOutputStream#out
+     * @since      1.8
+     */
+    public void writeDoubles(double[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        boolean swap = Bits.checkBulk(v.length, off, len, order);
+        byte[] b = chunkBuffer();
+        for (int end = off + len; off < end; ) {
+            int count = Math.min(end - off, CHUNK_SIZE >> 3);
+            for (int i = 0; i < count; i++) {
+                long x = Double.doubleToLongBits(v[off + i]);
+                Bits.putLong(b, i << 3, swap ? Long.reverseBytes(x) : x);
+            }
+            out.write(b, 0, count << 3);
+            incCount(count << 3);
+            off += count;
+        }
+    }
+
+    /**
+     * Writes an <code>int</code> to the underlying output stream as an
+     * unsigned LEB128 variable-length quantity of one to five bytes, in a
+     * single <code>write</code> call.  If no exception is thrown, the
+     * counter <code>written</code> is incremented by the number of bytes
+     * written.
+     *
+     * @param      v   an <code>int</code> to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.DataOutput#writeVarInt(int)
+     * @since      1.8
+     */
+    public void writeVarInt(int v) throws IOException {
+        int n = 0;
+        while ((v & ~0x7F) != 0) {
+            writeBuffer[n++] = (byte)((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        writeBuffer[n++] = (byte)v;
+        out.write(writeBuffer, 0, n);
+        incCount(n);
+    }
+
+    /**
+     * Writes a <code>long</code> to the underlying output stream as an
+     * unsigned LEB128 variable-length quantity of one to ten bytes, in a
+     * single <code>write</code> call.  If no exception is thrown, the
+     * counter <code>written</code> is incremented by the number of bytes
+     * written.
+     *
+     * @param      v   a <code>long</code> to be written.
+     * @exception  IOException  if an I/O error occurs.
+     * @see        java.io.DataOutput#writeVarLong(long)
+     * @since      1.8
+     */
+    public void writeVarLong(long v) throws IOException {
+        int n = 0;
+        while ((v & ~0x7FL) != 0) {
+            writeBuffer[n++] = (byte)(((int)v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        writeBuffer[n++] = (byte)v;
+        out.write(writeBuffer, 0, n);
+        incCount(n);
+    }
+
+    private byte[] chunkBuffer() {
+        if (chunkBuf == null) {
+            chunkBuf = new byte[CHUNK_SIZE];
+        }
+        return chunkBuf;
+    }
+
     /**
      * Writes out the string to the underlying output stream as a
      * sequence of bytes. Each character in the string is written out, in
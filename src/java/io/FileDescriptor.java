@@ -25,6 +25,7 @@
 
 package java.io;
 
+import java.lang.ref.Cleaner;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -51,6 +52,12 @@ public final class FileDescriptor {
     private List<Closeable> otherParents;
     private boolean closed;
 
+    /*
+     * Closes the native file descriptor if this FileDescriptor becomes
+     * phantom reachable without having been closed, or null.
+     */
+    private FileCleanup cleanup;
+
     /**
      * Constructs an (invalid) FileDescriptor
      * object.
@@ -184,6 +191,20 @@ public final class FileDescriptor {
         }
     }
 
+    /**
+     * Registers a cleanup that closes the native file descriptor once this
+     * FileDescriptor, and so all the streams that share it, have become
+     * phantom reachable.  Called by the streams that open the file
+     * descriptor themselves, after opening it, and by the streams created
+     * with a FileDescriptor other than in, out and err, whose finalizers
+     * used to close it.
+     */
+    synchronized void registerCleanup() {
+        if (cleanup == null && fd != -1 && !closed) {
+            cleanup = new FileCleanup(this, fd);
+        }
+    }
+
     /**
      * Cycle through all Closeables sharing this FD and call
      * close() on each one.
@@ -194,6 +215,12 @@ public final class FileDescriptor {
     synchronized void closeAll(Closeable releaser) throws IOException {
         if (!closed) {
             closed = true;
+            // The descriptor is closed here; the cleanup must not close
+            // its number again, which may have been reused by then
+            if (cleanup != null) {
+                cleanup.unregister();
+                cleanup = null;
+            }
             IOException ioe = null;
             try (Closeable c = releaser) {
                 if (otherParents != null) {
@@ -223,4 +250,42 @@ public final class FileDescriptor {
             }
         }
     }
+
+    /**
+     * The cleaning action of a FileDescriptor, which closes the native file
+     * descriptor.  It holds the number of the descriptor rather than the
+     * FileDescriptor, so that the FileDescriptor can become phantom
+     * reachable.
+     */
+    private static final class FileCleanup implements Runnable {
+        private static final Cleaner cleaner = Cleaner.create();
+
+        private final int fd;
+        private final Cleaner.Cleanable cleanable;
+        private volatile boolean unregistered;
+
+        FileCleanup(FileDescriptor owner, int fd) {
+            this.fd = fd;
+            this.cleanable = cleaner.register(owner, this);
+        }
+
+        /**
+         * Unregisters the cleanup without closing the native descriptor.
+         */
+        void unregister() {
+            unregistered = true;
+            cleanable.clean();
+        }
+
+        @Override
+        public void run() {
+            if (!unregistered) {
+                try {
+                    FileInputStream.closeDescriptor(new FileDescriptor(fd));
+                } catch (IOException e) {
+                    // nothing can be done about it at this point
+                }
+            }
+        }
+    }
 }
@@ -25,7 +25,10 @@
 
 package java.io;
 
+import java.lang.reflect.Method;
 import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import sun.nio.ch.FileChannelImpl;
 
 
@@ -62,6 +65,12 @@ class FileInputStream extends InputStream
     private final Object closeLock = new Object();
     private volatile boolean closed = false;
 
+    /*
+     * Invokes close() on finalization if this is an instance of a subclass
+     * that overrides close() and opened its file itself, null otherwise.
+     */
+    private final AltFinalizer altFinalizer;
+
     /**
      * Creates a <code>FileInputStream</code> by
      * opening a connection to an actual file,
@@ -136,6 +145,10 @@ class FileInputStream extends InputStream
         fd.attach(this);
         path = name;
         open(name);
+        altFinalizer = AltFinalizer.get(this);
+        if (altFinalizer == null) {
+            fd.registerCleanup();
+        }
     }
 
     /**
@@ -178,6 +191,38 @@ class FileInputStream extends InputStream
          * Register this stream with FileDescriptor tracker.
          */
         fd.attach(this);
+
+        /*
+         * The descriptor is closed once it is unreachable, unless it is
+         * standard input, as it was by the finalizer of this class.
+         * Pipes of child processes rely on this.
+         */
+        if (fdObj != FileDescriptor.in) {
+            altFinalizer = AltFinalizer.get(this);
+            if (altFinalizer == null) {
+                fd.registerCleanup();
+            }
+        } else {
+            altFinalizer = null;
+        }
+    }
+
+    /*
+     * Creates a stream that is only used to close the native file
+     * descriptor of fdObj, see closeDescriptor.
+     */
+    private FileInputStream(FileDescriptor fdObj, Void unused) {
+        fd = fdObj;
+        path = null;
+        altFinalizer = null;
+    }
+
+    /**
+     * Closes the native file descriptor of the given FileDescriptor, which
+     * is not attached to any stream.  Used by the cleanup of FileDescriptor.
+     */
+    static void closeDescriptor(FileDescriptor fdObj) throws IOException {
+        new FileInputStream(fdObj, null).close0();
     }
 
     /**
@@ -381,20 +426,60 @@ class FileInputStream extends InputStream
     }
 
     /**
-     * Ensures that the <code>close</code> method of this file input stream is
-     * called when there are no more references to it.
+     * Does nothing.  The file that this file input stream opened is closed
+     * by a cleaner when there are no more references to the stream and the
+     * streams that share its file descriptor.  If a subclass overrides
+     * <code>close</code>, that method is instead called when the stream
+     * is finalized.  The same applies to a stream created with a
+     * <code>FileDescriptor</code> other than <code>FileDescriptor.in</code>.
+     * This method remains for subclasses that invoke
+     * <code>super.finalize()</code>.
      *
      * @exception  IOException  if an I/O error occurs.
      * @see        java.io.FileInputStream#close()
      */
     protected void finalize() throws IOException {
-        if ((fd != null) &&  (fd != FileDescriptor.in)) {
-            /* if fd is shared, the references in FileDescriptor
-             * will ensure that finalizer is only called when
-             * safe to do so. All references using the fd have
-             * become unreachable. We can call close()
-             */
-            close();
+    }
+
+    /**
+     * Invokes the close method of a subclass that overrides it when the
+     * stream is finalized, as the finalize method of FileInputStream
+     * used to.
+     */
+    private static final class AltFinalizer {
+        private final FileInputStream fis;
+
+        private AltFinalizer(FileInputStream fis) {
+            this.fis = fis;
+        }
+
+        /*
+         * Returns a finalizer for the stream if its class overrides close,
+         * null otherwise.
+         */
+        static AltFinalizer get(FileInputStream fis) {
+            final Class<?> c = fis.getClass();
+            if (c == FileInputStream.class) {
+                return null;
+            }
+            boolean overrides = AccessController.doPrivileged(
+                new PrivilegedAction<Boolean>() {
+                    public Boolean run() {
+                        for (Class<?> k = c; k != FileInputStream.class; k = k.getSuperclass()) {
+                            for (Method m : k.getDeclaredMethods()) {
+                                if (m.getName().equals("close") && m.getParameterCount() == 0)
+                                    return true;
+                            }
+                        }
+                        return false;
+                    }
+                });
+            return overrides ? new AltFinalizer(fis) : null;
+        }
+
+        @Override
+        protected final void finalize() throws IOException {
+            fis.close();
         }
     }
 }
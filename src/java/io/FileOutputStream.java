@@ -25,7 +25,10 @@
 
 package java.io;
 
+import java.lang.reflect.Method;
 import java.nio.channels.FileChannel;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import sun.nio.ch.FileChannelImpl;
 
 
@@ -57,6 +60,12 @@ class FileOutputStream extends OutputStream
      */
     private final FileDescriptor fd;
 
+    /*
+     * Invokes close() on finalization if this is an instance of a subclass
+     * that overrides close() and opened its file itself, null otherwise.
+     */
+    private final AltFinalizer altFinalizer;
+
     /**
      * True if the file is opened for append.
      */
@@ -211,6 +220,10 @@ class FileOutputStream extends OutputStream
         this.path = name;
 
         open(name, append);
+        altFinalizer = AltFinalizer.get(this);
+        if (altFinalizer == null) {
+            fd.registerCleanup();
+        }
     }
 
     /**
@@ -249,6 +262,20 @@ class FileOutputStream extends OutputStream
         this.path = null;
 
         fd.attach(this);
+
+        /*
+         * The descriptor is closed once it is unreachable, unless it is
+         * standard output or error, as it was by the finalizer of this
+         * class.  Pipes of child processes rely on this.
+         */
+        if (fdObj != FileDescriptor.out && fdObj != FileDescriptor.err) {
+            this.altFinalizer = AltFinalizer.get(this);
+            if (altFinalizer == null) {
+                fd.registerCleanup();
+            }
+        } else {
+            this.altFinalizer = null;
+        }
     }
 
     /**
@@ -402,25 +429,60 @@ class FileOutputStream extends OutputStream
     }
 
     /**
-     * Cleans up the connection to the file, and ensures that the
-     * <code>close</code> method of this file output stream is
-     * called when there are no more references to this stream.
+     * Does nothing.  The file that this file output stream opened is closed
+     * by a cleaner when there are no more references to the stream and the
+     * streams that share its file descriptor.  If a subclass overrides
+     * <code>close</code>, that method is instead called when the stream
+     * is finalized.  The same applies to a stream created with a
+     * <code>FileDescriptor</code> other than <code>FileDescriptor.out</code>
+     * and <code>FileDescriptor.err</code>.  This method remains for
+     * subclasses that invoke <code>super.finalize()</code>.
      *
      * @exception  IOException  if an I/O error occurs.
      * @see        java.io.FileInputStream#close()
      */
     protected void finalize() throws IOException {
-        if (fd != null) {
-            if (fd == FileDescriptor.out || fd == FileDescriptor.err) {
-                flush();
-            } else {
-                /* if fd is shared, the references in FileDescriptor
-                 * will ensure that finalizer is only called when
-                 * safe to do so. All references using the fd have
-                 * become unreachable. We can call close()
-                 */
-                close();
+    }
+
+    /**
+     * Invokes the close method of a subclass that overrides it when the
+     * stream is finalized, as the finalize method of FileOutputStream
+     * used to.
+     */
+    private static final class AltFinalizer {
+        private final FileOutputStream fos;
+
+        private AltFinalizer(FileOutputStream fos) {
+            this.fos = fos;
+        }
+
+        /*
+         * Returns a finalizer for the stream if its class overrides close,
+         * null otherwise.
+         */
+        static AltFinalizer get(FileOutputStream fos) {
+            final Class<?> c = fos.getClass();
+            if (c == FileOutputStream.class) {
+                return null;
             }
+            boolean overrides = AccessController.doPrivileged(
+                new PrivilegedAction<Boolean>() {
+                    public Boolean run() {
+                        for (Class<?> k = c; k != FileOutputStream.class; k = k.getSuperclass()) {
+                            for (Method m : k.getDeclaredMethods()) {
+                                if (m.getName().equals("close") && m.getParameterCount() == 0)
+                                    return true;
+                            }
+                        }
+                        return false;
+                    }
+                });
+            return overrides ? new AltFinalizer(fos) : null;
+        }
+
+        @Override
+        protected final void finalize() throws IOException {
+            fos.close();
         }
     }
 
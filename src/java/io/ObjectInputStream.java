@@ -30,6 +30,7 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Array;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.nio.ByteOrder;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -1056,6 +1057,126 @@ public class ObjectInputStream
         return bin.readDouble();
     }
 
+    /**
+     * Reads {@code len} shorts in the specified byte order into the array
+     * {@code v}, starting at offset {@code off}.  The values are copied
+     * out of the block data buffer in bulk.
+     *
+     * @param   v the array into which the shorts are read
+     * @param   off the start offset in the array
+     * @param   len the number of shorts to read
+     * @param   order the byte order of each value read
+     * @throws  EOFException If end of file is reached.
+     * @throws  IOException If other I/O error has occurred.
+     * @since 1.8
+     */
+    public void readShorts(short[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectInput.super.readShorts(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bin.readShorts(v, off, len, order);
+    }
+
+    /**
+     * Reads {@code len} ints in the specified byte order into the array
+     * {@code v}, starting at offset {@code off}.  The values are copied
+     * out of the block data buffer in bulk.
+     *
+     * @param   v the array into which the ints are read
+     * @param   off the start offset in the array
+     * @param   len the number of ints to read
+     * @param   order the byte order of each value read
+     * @throws  EOFException If end of file is reached.
+     * @throws  IOException If other I/O error has occurred.
+     * @since 1.8
+     */
+    public void readInts(int[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectInput.super.readInts(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bin.readInts(v, off, len, order);
+    }
+
+    /**
+     * Reads {@code len} longs in the specified byte order into the array
+     * {@code v}, starting at offset {@code off}.  The values are copied
+     * out of the block data buffer in bulk.
+     *
+     * @param   v the array into which the longs are read
+     * @param   off the start offset in the array
+     * @param   len the number of longs to read
+     * @param   order the byte order of each value read
+     * @throws  EOFException If end of file is reached.
+     * @throws  IOException If other I/O error has occurred.
+     * @since 1.8
+     */
+    public void readLongs(long[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectInput.super.readLongs(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bin.readLongs(v, off, len, order);
+    }
+
+    /**
+     * Reads {@code len} floats in the specified byte order into the array
+     * {@code v}, starting at offset {@code off}.  The values are copied
+     * out of the block data buffer in bulk.
+     *
+     * @param   v the array into which the floats are read
+     * @param   off the start offset in the array
+     * @param   len the number of floats to read
+     * @param   order the byte order of each value read
+     * @throws  EOFException If end of file is reached.
+     * @throws  IOException If other I/O error has occurred.
+     * @since 1.8
+     */
+    public void readFloats(float[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectInput.super.readFloats(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bin.readFloats(v, off, len, order);
+    }
+
+    /**
+     * Reads {@code len} doubles in the specified byte order into the array
+     * {@code v}, starting at offset {@code off}.  The values are copied
+     * out of the block data buffer in bulk.
+     *
+     * @param   v the array into which the doubles are read
+     * @param   off the start offset in the array
+     * @param   len the number of doubles to read
+     * @param   order the byte order of each value read
+     * @throws  EOFException If end of file is reached.
+     * @throws  IOException If other I/O error has occurred.
+     * @since 1.8
+     */
+    public void readDoubles(double[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectInput.super.readDoubles(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bin.readDoubles(v, off, len, order);
+    }
+
     /**
      * Reads bytes, blocking until all bytes are read.
      *
@@ -3239,7 +3360,17 @@ public class ObjectInputStream
             }
         }
 
-        void readShorts(short[] v, int off, int len) throws IOException {
+        public void readShorts(short[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                readShorts(v, off, len);
+            } else {
+                DataInput.super.readShorts(v, off, len, order);
+            }
+        }
+
+        public void readShorts(short[] v, int off, int len) throws IOException {
             int stop, endoff = off + len;
             while (off < endoff) {
                 if (!blkmode) {
@@ -3261,7 +3392,17 @@ public class ObjectInputStream
             }
         }
 
-        void readInts(int[] v, int off, int len) throws IOException {
+        public void readInts(int[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                readInts(v, off, len);
+            } else {
+                DataInput.super.readInts(v, off, len, order);
+            }
+        }
+
+        public void readInts(int[] v, int off, int len) throws IOException {
             int stop, endoff = off + len;
             while (off < endoff) {
                 if (!blkmode) {
@@ -3283,7 +3424,17 @@ public class ObjectInputStream
             }
         }
 
-        void readFloats(float[] v, int off, int len) throws IOException {
+        public void readFloats(float[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                readFloats(v, off, len);
+            } else {
+                DataInput.super.readFloats(v, off, len, order);
+            }
+        }
+
+        public void readFloats(float[] v, int off, int len) throws IOException {
             int span, endoff = off + len;
             while (off < endoff) {
                 if (!blkmode) {
@@ -3303,7 +3454,17 @@ public class ObjectInputStream
             }
         }
 
-        void readLongs(long[] v, int off, int len) throws IOException {
+        public void readLongs(long[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                readLongs(v, off, len);
+            } else {
+                DataInput.super.readLongs(v, off, len, order);
+            }
+        }
+
+        public void readLongs(long[] v, int off, int len) throws IOException {
             int stop, endoff = off + len;
             while (off < endoff) {
                 if (!blkmode) {
@@ -3325,7 +3486,17 @@ public class ObjectInputStream
             }
         }
 
-        void readDoubles(double[] v, int off, int len) throws IOException {
+        public void readDoubles(double[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                readDoubles(v, off, len);
+            } else {
+                DataInput.super.readDoubles(v, off, len, order);
+            }
+        }
+
+        public void readDoubles(double[] v, int off, int len) throws IOException {
             int span, endoff = off + len;
             while (off < endoff) {
                 if (!blkmode) {
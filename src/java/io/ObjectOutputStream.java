@@ -27,6 +27,7 @@ package java.io;
 
 import java.io.ObjectStreamClass.WeakClassKey;
 import java.lang.ref.ReferenceQueue;
+import java.nio.ByteOrder;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
@@ -830,6 +831,126 @@ public class ObjectOutputStream
         bout.writeDouble(val);
     }
 
+    /**
+     * Writes {@code len} shorts from the array {@code v}, starting at
+     * offset {@code off}, in the specified byte order.  The values are
+     * copied into the block data buffer in bulk.
+     *
+     * @param   v the array of shorts to be written
+     * @param   off the start offset in the array
+     * @param   len the number of shorts to write
+     * @param   order the byte order of each value written
+     * @throws  IOException if I/O errors occur while writing to the underlying
+     *          stream
+     * @since 1.8
+     */
+    public void writeShorts(short[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectOutput.super.writeShorts(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bout.writeShorts(v, off, len, order);
+    }
+
+    /**
+     * Writes {@code len} ints from the array {@code v}, starting at
+     * offset {@code off}, in the specified byte order.  The values are
+     * copied into the block data buffer in bulk.
+     *
+     * @param   v the array of ints to be written
+     * @param   off the start offset in the array
+     * @param   len the number of ints to write
+     * @param   order the byte order of each value written
+     * @throws  IOException if I/O errors occur while writing to the underlying
+     *          stream
+     * @since 1.8
+     */
+    public void writeInts(int[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectOutput.super.writeInts(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bout.writeInts(v, off, len, order);
+    }
+
+    /**
+     * Writes {@code len} longs from the array {@code v}, starting at
+     * offset {@code off}, in the specified byte order.  The values are
+     * copied into the block data buffer in bulk.
+     *
+     * @param   v the array of longs to be written
+     * @param   off the start offset in the array
+     * @param   len the number of longs to write
+     * @param   order the byte order of each value written
+     * @throws  IOException if I/O errors occur while writing to the underlying
+     *          stream
+     * @since 1.8
+     */
+    public void writeLongs(long[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectOutput.super.writeLongs(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bout.writeLongs(v, off, len, order);
+    }
+
+    /**
+     * Writes {@code len} floats from the array {@code v}, starting at
+     * offset {@code off}, in the specified byte order.  The values are
+     * copied into the block data buffer in bulk.
+     *
+     * @param   v the array of floats to be written
+     * @param   off the start offset in the array
+     * @param   len the number of floats to write
+     * @param   order the byte order of each value written
+     * @throws  IOException if I/O errors occur while writing to the underlying
+     *          stream
+     * @since 1.8
+     */
+    public void writeFloats(float[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectOutput.super.writeFloats(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bout.writeFloats(v, off, len, order);
+    }
+
+    /**
+     * Writes {@code len} doubles from the array {@code v}, starting at
+     * offset {@code off}, in the specified byte order.  The values are
+     * copied into the block data buffer in bulk.
+     *
+     * @param   v the array of doubles to be written
+     * @param   off the start offset in the array
+     * @param   len the number of doubles to write
+     * @param   order the byte order of each value written
+     * @throws  IOException if I/O errors occur while writing to the underlying
+     *          stream
+     * @since 1.8
+     */
+    public void writeDoubles(double[] v, int off, int len, ByteOrder order)
+        throws IOException
+    {
+        if (enableOverride) {
+            ObjectOutput.super.writeDoubles(v, off, len, order);
+            return;
+        }
+        Bits.checkBulk(v.length, off, len, order);
+        bout.writeDoubles(v, off, len, order);
+    }
+
     /**
      * Writes a String as a sequence of bytes.
      *
@@ -2046,7 +2167,17 @@ public class ObjectOutputStream
             }
         }
 
-        void writeShorts(short[] v, int off, int len) throws IOException {
+        public void writeShorts(short[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                writeShorts(v, off, len);
+            } else {
+                DataOutput.super.writeShorts(v, off, len, order);
+            }
+        }
+
+        public void writeShorts(short[] v, int off, int len) throws IOException {
             int limit = MAX_BLOCK_SIZE - 2;
             int endoff = off + len;
             while (off < endoff) {
@@ -2063,7 +2194,17 @@ public class ObjectOutputStream
             }
         }
 
-        void writeInts(int[] v, int off, int len) throws IOException {
+        public void writeInts(int[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                writeInts(v, off, len);
+            } else {
+                DataOutput.super.writeInts(v, off, len, order);
+            }
+        }
+
+        public void writeInts(int[] v, int off, int len) throws IOException {
             int limit = MAX_BLOCK_SIZE - 4;
             int endoff = off + len;
             while (off < endoff) {
@@ -2080,7 +2221,17 @@ public class ObjectOutputStream
             }
         }
 
-        void writeFloats(float[] v, int off, int len) throws IOException {
+        public void writeFloats(float[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                writeFloats(v, off, len);
+            } else {
+                DataOutput.super.writeFloats(v, off, len, order);
+            }
+        }
+
+        public void writeFloats(float[] v, int off, int len) throws IOException {
             int limit = MAX_BLOCK_SIZE - 4;
             int endoff = off + len;
             while (off < endoff) {
@@ -2096,7 +2247,17 @@ public class ObjectOutputStream
             }
         }
 
-        void writeLongs(long[] v, int off, int len) throws IOException {
+        public void writeLongs(long[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                writeLongs(v, off, len);
+            } else {
+                DataOutput.super.writeLongs(v, off, len, order);
+            }
+        }
+
+        public void writeLongs(long[] v, int off, int len) throws IOException {
             int limit = MAX_BLOCK_SIZE - 8;
             int endoff = off + len;
             while (off < endoff) {
@@ -2113,7 +2274,17 @@ public class ObjectOutputStream
             }
         }
 
-        void writeDoubles(double[] v, int off, int len) throws IOException {
+        public void writeDoubles(double[] v, int off, int len, ByteOrder order)
+            throws IOException
+        {
+            if (order == ByteOrder.BIG_ENDIAN) {
+                writeDoubles(v, off, len);
+            } else {
+                DataOutput.super.writeDoubles(v, off, len, order);
+            }
+        }
+
+        public void writeDoubles(double[] v, int off, int len) throws IOException {
             int limit = MAX_BLOCK_SIZE - 8;
             int endoff = off + len;
             while (off < endoff) {
@@ -48,6 +48,7 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 import sun.misc.Unsafe;
 import sun.reflect.CallerSensitive;
 import sun.reflect.Reflection;
@@ -86,19 +87,26 @@ public class ObjectStreamClass implements Serializable {
 
     private static class Caches {
         /** cache mapping local classes -> descriptors */
-        static final ConcurrentMap<WeakClassKey,Reference<?>> localDescs =
-            new ConcurrentHashMap<>();
+        static final ClassValue<AtomicReference<Reference<?>>> localDescs =
+            new ClassValue<AtomicReference<Reference<?>>>() {
+                @Override
+                protected AtomicReference<Reference<?>> computeValue(Class<?> type) {
+                    return new AtomicReference<>();
+                }
+            };
+
+        /** cache mapping local classes -> field formats -> field reflectors */
+        static final ClassValue<ConcurrentMap<String,Reference<?>>> reflectors =
+            new ClassValue<ConcurrentMap<String,Reference<?>>>() {
+                @Override
+                protected ConcurrentMap<String,Reference<?>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
 
-        /** cache mapping field group/local desc pairs -> field reflectors */
-        static final ConcurrentMap<FieldReflectorKey,Reference<?>> reflectors =
+        /** field reflectors for field formats not bound to a local class */
+        static final ConcurrentMap<String,Reference<?>> nullClassReflectors =
             new ConcurrentHashMap<>();
-
-        /** queue for WeakReferences to local classes */
-        private static final ReferenceQueue<Class<?>> localDescsQueue =
-            new ReferenceQueue<>();
-        /** queue for WeakReferences to field reflectors keys */
-        private static final ReferenceQueue<Class<?>> reflectorsQueue =
-            new ReferenceQueue<>();
     }
 
     /** class associated with this descriptor (if any) */
@@ -322,9 +330,8 @@ public class ObjectStreamClass implements Serializable {
         if (!(all || Serializable.class.isAssignableFrom(cl))) {
             return null;
         }
-        processQueue(Caches.localDescsQueue, Caches.localDescs);
-        WeakClassKey key = new WeakClassKey(cl, Caches.localDescsQueue);
-        Reference<?> ref = Caches.localDescs.get(key);
+        AtomicReference<Reference<?>> slot = Caches.localDescs.get(cl);
+        Reference<?> ref = slot.get();
         Object entry = null;
         if (ref != null) {
             entry = ref.get();
@@ -333,15 +340,13 @@ public class ObjectStreamClass implements Serializable {
         if (entry == null) {
             EntryFuture newEntry = new EntryFuture();
             Reference<?> newRef = new SoftReference<>(newEntry);
-            do {
-                if (ref != null) {
-                    Caches.localDescs.remove(key, ref);
-                }
-                ref = Caches.localDescs.putIfAbsent(key, newRef);
-                if (ref != null) {
-                    entry = ref.get();
+            // replace a missing or cleared entry, unless another thread does
+            while (!slot.compareAndSet(ref, newRef)) {
+                ref = slot.get();
+                if (ref != null && (entry = ref.get()) != null) {
+                    break;
                 }
-            } while (ref != null && entry == null);
+            }
             if (entry == null) {
                 future = newEntry;
             }
@@ -371,7 +376,7 @@ public class ObjectStreamClass implements Serializable {
                 entry = th;
             }
             if (future.set(entry)) {
-                Caches.localDescs.put(key, new SoftReference<Object>(entry));
+                slot.set(new SoftReference<Object>(entry));
             } else {
                 // nested lookup call already set future
                 entry = future.get();
@@ -2158,10 +2163,10 @@ public class ObjectStreamClass implements Serializable {
         // class irrelevant if no fields
         Class<?> cl = (localDesc != null && fields.length > 0) ?
             localDesc.cl : null;
-        processQueue(Caches.reflectorsQueue, Caches.reflectors);
-        FieldReflectorKey key = new FieldReflectorKey(cl, fields,
-                                                      Caches.reflectorsQueue);
-        Reference<?> ref = Caches.reflectors.get(key);
+        ConcurrentMap<String,Reference<?>> reflectors = (cl != null) ?
+            Caches.reflectors.get(cl) : Caches.nullClassReflectors;
+        String key = fieldSignatures(fields);
+        Reference<?> ref = reflectors.get(key);
         Object entry = null;
         if (ref != null) {
             entry = ref.get();
@@ -2172,9 +2177,9 @@ public class ObjectStreamClass implements Serializable {
             Reference<?> newRef = new SoftReference<>(newEntry);
             do {
                 if (ref != null) {
-                    Caches.reflectors.remove(key, ref);
+                    reflectors.remove(key, ref);
                 }
-                ref = Caches.reflectors.putIfAbsent(key, newRef);
+                ref = reflectors.putIfAbsent(key, newRef);
                 if (ref != null) {
                     entry = ref.get();
                 }
@@ -2195,7 +2200,7 @@ public class ObjectStreamClass implements Serializable {
                 entry = th;
             }
             future.set(entry);
-            Caches.reflectors.put(key, new SoftReference<Object>(entry));
+            reflectors.put(key, new SoftReference<Object>(entry));
         }
 
         if (entry instanceof FieldReflector) {
@@ -2212,49 +2217,16 @@ public class ObjectStreamClass implements Serializable {
     }
 
     /**
-     * FieldReflector cache lookup key.  Keys are considered equal if they
-     * refer to the same class and equivalent field formats.
+     * Returns the FieldReflector cache lookup key of the given fields, which
+     * is equal for equivalent field formats.
      */
-    private static class FieldReflectorKey extends WeakReference<Class<?>> {
-
-        private final String sigs;
-        private final int hash;
-        private final boolean nullClass;
-
-        FieldReflectorKey(Class<?> cl, ObjectStreamField[] fields,
-                          ReferenceQueue<Class<?>> queue)
-        {
-            super(cl, queue);
-            nullClass = (cl == null);
-            StringBuilder sbuf = new StringBuilder();
-            for (int i = 0; i < fields.length; i++) {
-                ObjectStreamField f = fields[i];
-                sbuf.append(f.getName()).append(f.getSignature());
-            }
-            sigs = sbuf.toString();
-            hash = System.identityHashCode(cl) + sigs.hashCode();
-        }
-
-        public int hashCode() {
-            return hash;
-        }
-
-        public boolean equals(Object obj) {
-            if (obj == this) {
-                return true;
-            }
-
-            if (obj instanceof FieldReflectorKey) {
-                FieldReflectorKey other = (FieldReflectorKey) obj;
-                Class<?> referent;
-                return (nullClass ? other.nullClass
-                                  : ((referent = get()) != null) &&
-                                    (referent == other.get())) &&
-                    sigs.equals(other.sigs);
-            } else {
-                return false;
-            }
+    private static String fieldSignatures(ObjectStreamField[] fields) {
+        StringBuilder sbuf = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            ObjectStreamField f = fields[i];
+            sbuf.append(f.getName()).append(f.getSignature());
         }
+        return sbuf.toString();
     }
 
     /**
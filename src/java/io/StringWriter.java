@@ -25,6 +25,7 @@
 
 package java.io;
 
+import java.util.Objects;
 
 /**
  * A character stream that collects its output in a string buffer, which can
@@ -33,6 +34,11 @@ package java.io;
  * Closing a <tt>StringWriter</tt> has no effect. The methods in this class
  * can be called after the stream has been closed without generating an
  * <tt>IOException</tt>.
+ * <p>
+ * For very large output a <tt>StringWriter</tt> can instead be constructed
+ * to collect its output in a {@link SegmentedStringBuilder}, which does not
+ * copy the characters written so far as it grows, and can write them onwards
+ * without first creating a string.
  *
  * @author      Mark Reinhold
  * @since       JDK1.1
@@ -42,6 +48,9 @@ public class StringWriter extends Writer {
 
     private StringBuffer buf;
 
+    // The builder collecting the output instead of buf, or null
+    private final SegmentedStringBuilder segments;
+
     /**
      * Create a new string writer using the default initial string-buffer
      * size.
@@ -49,6 +58,7 @@ public class StringWriter extends Writer {
     public StringWriter() {
         buf = new StringBuffer();
         lock = buf;
+        segments = null;
     }
 
     /**
@@ -68,12 +78,33 @@ public class StringWriter extends Writer {
         }
         buf = new StringBuffer(initialSize);
         lock = buf;
+        segments = null;
+    }
+
+    /**
+     * Create a new string writer that collects its output in the specified
+     * segmented builder, after any characters already in it.
+     *
+     * @param builder
+     *        The builder to which output is appended
+     *
+     * @since 1.8
+     */
+    public StringWriter(SegmentedStringBuilder builder) {
+        segments = Objects.requireNonNull(builder);
+        lock = builder;
     }
 
     /**
      * Write a single character.
      */
     public void write(int c) {
+        if (segments != null) {
+            synchronized (lock) {
+                segments.append((char) c);
+            }
+            return;
+        }
         buf.append((char) c);
     }
 
@@ -91,6 +122,12 @@ public class StringWriter extends Writer {
         } else if (len == 0) {
             return;
         }
+        if (segments != null) {
+            synchronized (lock) {
+                segments.append(cbuf, off, len);
+            }
+            return;
+        }
         buf.append(cbuf, off, len);
     }
 
@@ -98,6 +135,12 @@ public class StringWriter extends Writer {
      * Write a string.
      */
     public void write(String str) {
+        if (segments != null) {
+            synchronized (lock) {
+                segments.append(str);
+            }
+            return;
+        }
         buf.append(str);
     }
 
@@ -109,6 +152,14 @@ public class StringWriter extends Writer {
      * @param  len  Number of characters to write
      */
     public void write(String str, int off, int len)  {
+        if (segments != null) {
+            // The builder would append "null"; keep the NPE of the buffer path
+            Objects.requireNonNull(str);
+            synchronized (lock) {
+                segments.append(str, off, off + len);
+            }
+            return;
+        }
         buf.append(str.substring(off, off + len));
     }
 
@@ -207,15 +258,27 @@ public class StringWriter extends Writer {
      * Return the buffer's current value as a string.
      */
     public String toString() {
+        if (segments != null) {
+            synchronized (lock) {
+                return segments.toString();
+            }
+        }
         return buf.toString();
     }
 
     /**
-     * Return the string buffer itself.
+     * Return the string buffer itself.  If this writer collects its output
+     * in a {@link SegmentedStringBuilder}, return a new string buffer holding
+     * a copy of the builder's current value instead.
      *
      * @return StringBuffer holding the current buffer value.
      */
     public StringBuffer getBuffer() {
+        if (segments != null) {
+            synchronized (lock) {
+                return new StringBuffer(segments);
+            }
+        }
         return buf;
     }
 
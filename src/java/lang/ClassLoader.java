@@ -27,6 +27,8 @@ package java.lang;
 import java.io.InputStream;
 import java.io.IOException;
 import java.io.File;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
@@ -40,10 +42,14 @@ import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.security.ProtectionDomain;
 import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 import java.util.Map;
@@ -51,6 +57,9 @@ import java.util.Vector;
 import java.util.Hashtable;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import sun.misc.CompoundEnumeration;
 import sun.misc.Resource;
 import sun.misc.URLClassPath;
@@ -233,11 +242,33 @@ public abstract class ClassLoader {
         }
     }
 
-    // Maps class name to the corresponding lock object when the current
-    // class loader is parallel capable.
+    // Maps class name to a weak reference to the corresponding lock object
+    // when the current class loader is parallel capable.  A lock that is no
+    // longer reachable is not held by any thread, so its entry is removed
+    // once the reference is enqueued, and a new lock is created if the name
+    // is loaded again.
     // Note: VM also uses this field to decide if the current class loader
-    // is parallel capable and the appropriate lock object for class loading.
-    private final ConcurrentHashMap<String, Object> parallelLockMap;
+    // is parallel capable.
+    private final ConcurrentHashMap<String, LockRef> parallelLockMap;
+
+    // Queue of the cleared references of parallelLockMap
+    private final ReferenceQueue<Object> lockQueue;
+
+    // Maximum number of cleared lock references removed per lock lookup
+    private static final int MAX_LOCKS_EXPUNGED = 64;
+
+    /**
+     * A weak reference to a class loading lock, which remembers the class
+     * name so that its map entry can be removed once it is cleared.
+     */
+    private static final class LockRef extends WeakReference<Object> {
+        final String className;
+
+        LockRef(String className, Object lock, ReferenceQueue<Object> queue) {
+            super(lock, queue);
+            this.className = className;
+        }
+    }
 
     // Hashtable that maps packages to certs
     private final Map <String, Certificate[]> package2certs;
@@ -280,6 +311,7 @@ public abstract class ClassLoader {
         this.parent = parent;
         if (ParallelLoaders.isRegistered(this.getClass())) {
             parallelLockMap = new ConcurrentHashMap<>();
+            lockQueue = new ReferenceQueue<>();
             package2certs = new ConcurrentHashMap<>();
             domains =
                 Collections.synchronizedSet(new HashSet<ProtectionDomain>());
@@ -287,6 +319,7 @@ public abstract class ClassLoader {
         } else {
             // no finer-grained lock; lock on the classloader instance
             parallelLockMap = null;
+            lockQueue = null;
             package2certs = new Hashtable<>();
             domains = new HashSet<>();
             assertionLock = this;
@@ -457,15 +490,42 @@ public abstract class ClassLoader {
      * @since  1.7
      */
     protected Object getClassLoadingLock(String className) {
-        Object lock = this;
-        if (parallelLockMap != null) {
-            Object newLock = new Object();
-            lock = parallelLockMap.putIfAbsent(className, newLock);
-            if (lock == null) {
-                lock = newLock;
+        if (parallelLockMap == null) {
+            return this;
+        }
+        expungeStaleLocks();
+        Object lock;
+        LockRef ref = parallelLockMap.get(className);
+        if (ref != null && (lock = ref.get()) != null) {
+            return lock;
+        }
+        Object newLock = new Object();
+        LockRef newRef = new LockRef(className, newLock, lockQueue);
+        while (true) {
+            ref = parallelLockMap.putIfAbsent(className, newRef);
+            if (ref == null) {
+                return newLock;
+            }
+            if ((lock = ref.get()) != null) {
+                return lock;
+            }
+            // the lock was collected; nobody can hold it any longer
+            if (parallelLockMap.replace(className, ref, newRef)) {
+                return newLock;
+            }
+        }
+    }
+
+    // Removes the entries of collected locks from parallelLockMap, a bounded
+    // number at a time so that no lookup pays for a large backlog.
+    private void expungeStaleLocks() {
+        for (int i = 0; i < MAX_LOCKS_EXPUNGED; i++) {
+            LockRef ref = (LockRef) lockQueue.poll();
+            if (ref == null) {
+                break;
             }
+            parallelLockMap.remove(ref.className, ref);
         }
-        return lock;
     }
 
     // This method is invoked by the virtual machine to load a class.
@@ -483,6 +543,144 @@ public abstract class ClassLoader {
         }
     }
 
+    /**
+     * Loads the classes with the specified <a href="#name">binary names</a>
+     * in parallel in the {@linkplain ForkJoinPool#commonPool() common pool}.
+     * This method is equivalent to invoking {@link
+     * #preloadClasses(Collection, ForkJoinPool) preloadClasses(names,
+     * ForkJoinPool.commonPool())}.
+     *
+     * @param  names
+     *         The binary names of the classes
+     *
+     * @return  A map from the name of each class that was found to the
+     *          resulting <tt>Class</tt> object, in the order of the names
+     *
+     * @throws  NullPointerException
+     *          If <tt>names</tt> is null or contains null
+     *
+     * @since  1.8
+     */
+    public final Map<String, Class<?>> preloadClasses(Collection<String> names) {
+        return preloadClasses(names, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads the classes with the specified <a href="#name">binary names</a>,
+     * for instance to warm up the classes of an application at startup.
+     * Each class is loaded by invoking {@link #loadClass(String)
+     * <tt>loadClass</tt>}, so it is found through delegation exactly as if
+     * it was loaded alone.
+     *
+     * <p> The names are grouped by package, and the groups are loaded in
+     * parallel by the given pool, each group being loaded by one task so
+     * that the classes of a package are read and defined together.  The
+     * classes are loaded in the calling thread instead if this class loader
+     * is not {@linkplain #registerAsParallelCapable() parallel capable}, as
+     * its class loading is then serialized anyway, or if a security manager
+     * is installed, as the tasks would not run with the permissions of the
+     * caller.
+     *
+     * <p> A class that cannot be found is left out of the result.  Any other
+     * error is thrown by this method, and the groups that were not yet
+     * loaded may then be skipped.
+     *
+     * @param  names
+     *         The binary names of the classes
+     *
+     * @param  pool
+     *         The pool in which the classes are loaded
+     *
+     * @return  A map from the name of each class that was found to the
+     *          resulting <tt>Class</tt> object, in the order of the names
+     *
+     * @throws  NullPointerException
+     *          If <tt>names</tt> or <tt>pool</tt> is null, or <tt>names</tt>
+     *          contains null
+     *
+     * @since  1.8
+     */
+    public final Map<String, Class<?>> preloadClasses(Collection<String> names,
+                                                      ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+        List<String> list = new ArrayList<>(names);
+        if (list.contains(null)) {
+            throw new NullPointerException();
+        }
+        Map<String, Class<?>> loaded = new ConcurrentHashMap<>();
+        if (parallelLockMap == null || System.getSecurityManager() != null
+                || list.size() <= 1) {
+            new PreloadBatch(this, list, loaded).compute();
+        } else {
+            // Group the names by package, splitting large packages so that
+            // they do not load alone
+            final List<PreloadBatch> batches = new ArrayList<>();
+            Map<String, List<String>> packages = new HashMap<>();
+            for (String name : list) {
+                int i = name.lastIndexOf('.');
+                String pname = (i == -1) ? "" : name.substring(0, i);
+                List<String> batch = packages.get(pname);
+                if (batch == null || batch.size() == MAX_PRELOAD_BATCH) {
+                    batch = new ArrayList<>();
+                    packages.put(pname, batch);
+                    batches.add(new PreloadBatch(this, batch, loaded));
+                }
+                batch.add(name);
+            }
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+                protected void compute() {
+                    ForkJoinTask.invokeAll(batches);
+                }
+            });
+        }
+
+        Map<String, Class<?>> result = new LinkedHashMap<>();
+        for (String name : list) {
+            Class<?> c = loaded.get(name);
+            if (c != null) {
+                result.put(name, c);
+            }
+        }
+        return result;
+    }
+
+    // Maximum number of classes of one package loaded by one preload task
+    private static final int MAX_PRELOAD_BATCH = 64;
+
+    /**
+     * Loads a batch of classes for preloadClasses.
+     */
+    private static final class PreloadBatch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ClassLoader loader;
+        private final List<String> names;
+        private final Map<String, Class<?>> loaded;
+
+        PreloadBatch(ClassLoader loader, List<String> names,
+                     Map<String, Class<?>> loaded) {
+            this.loader = loader;
+            this.names = names;
+            this.loaded = loaded;
+        }
+
+        protected void compute() {
+            for (String name : names) {
+                try {
+                    Class<?> c = loader.loadClass(name);
+                    if (c != null) {
+                        loaded.put(name, c);
+                    }
+                } catch (ClassNotFoundException e) {
+                    // left out of the result
+                }
+            }
+        }
+    }
+
     // Invoked by the VM after loading class with this loader.
     private void checkPackageAccess(Class<?> cls, ProtectionDomain pd) {
         final SecurityManager sm = System.getSecurityManager();
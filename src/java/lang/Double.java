@@ -25,7 +25,6 @@
 
 package java.lang;
 
-import sun.misc.FloatingDecimal;
 import sun.misc.FpUtils;
 import sun.misc.DoubleConsts;
 
@@ -201,7 +200,7 @@ public final class Double extends Number implements Comparable<Double> {
      * @return a string representation of the argument.
      */
     public static String toString(double d) {
-        return FloatingDecimal.toJavaFormatString(d);
+        return DoubleToDecimal.toString(d);
     }
 
     /**
@@ -535,7 +534,105 @@ public final class Double extends Number implements Comparable<Double> {
      * @since 1.2
      */
     public static double parseDouble(String s) throws NumberFormatException {
-        return FloatingDecimal.parseDouble(s);
+        return DecimalToDouble.parseDouble(s);
+    }
+
+    /**
+     * Parses the {@link CharSequence} argument as a {@code double},
+     * beginning at the specified {@code beginIndex} and extending to
+     * {@code endIndex - 1}.  The result is that of
+     * {@link #parseDouble(String)} applied to the subsequence.
+     *
+     * <p>The method does not take steps to guard against the
+     * {@code CharSequence} being mutated while parsing.  No intermediate
+     * {@code String} is created for plain decimal numbers, so a number
+     * may be parsed directly out of a larger buffer.
+     *
+     * @param  s   the {@code CharSequence} containing the {@code double}
+     *             representation to be parsed
+     * @param  beginIndex   the beginning index, inclusive.
+     * @param  endIndex     the ending index, exclusive.
+     * @return the {@code double} value represented by the subsequence.
+     * @throws NullPointerException  if {@code s} is null.
+     * @throws IndexOutOfBoundsException  if {@code beginIndex} is
+     *         negative, or if {@code beginIndex} is greater than
+     *         {@code endIndex} or if {@code endIndex} is greater than
+     *         {@code s.length()}.
+     * @throws NumberFormatException if the subsequence does not contain
+     *         a parsable {@code double}.
+     * @see    #parseDouble(String)
+     */
+    public static double parseDouble(CharSequence s, int beginIndex, int endIndex)
+            throws NumberFormatException {
+        if (s == null) {
+            throw new NullPointerException();
+        }
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return DecimalToDouble.parseDouble(s, beginIndex, endIndex);
+    }
+
+    /**
+     * Parses the ASCII bytes of the argument as a {@code double},
+     * beginning at the specified {@code beginIndex} and extending to
+     * {@code endIndex - 1}.  Each byte is interpreted as the character
+     * with the same value in the range {@code 0} to {@code 255}; the
+     * result is otherwise as for
+     * {@link #parseDouble(CharSequence, int, int)}.
+     *
+     * @param  ascii   the bytes containing the {@code double}
+     *                 representation to be parsed
+     * @param  beginIndex   the beginning index, inclusive.
+     * @param  endIndex     the ending index, exclusive.
+     * @return the {@code double} value represented by the bytes.
+     * @throws NullPointerException  if {@code ascii} is null.
+     * @throws IndexOutOfBoundsException  if {@code beginIndex} is
+     *         negative, or if {@code beginIndex} is greater than
+     *         {@code endIndex} or if {@code endIndex} is greater than
+     *         {@code ascii.length}.
+     * @throws NumberFormatException if the bytes do not contain a
+     *         parsable {@code double}.
+     */
+    public static double parseDouble(byte[] ascii, int beginIndex, int endIndex)
+            throws NumberFormatException {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > ascii.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return DecimalToDouble.parseDouble(ascii, beginIndex, endIndex);
+    }
+
+    /**
+     * Parses the ASCII bytes of the argument as a {@code double},
+     * beginning at the absolute index {@code beginIndex} and extending to
+     * {@code endIndex - 1}, in exactly the manner of
+     * {@link #parseDouble(byte[], int, int)}.  The position, limit and
+     * mark of the buffer are not changed.
+     *
+     * @param  ascii   the buffer containing the {@code double}
+     *                 representation to be parsed
+     * @param  beginIndex   the beginning index, inclusive.
+     * @param  endIndex     the ending index, exclusive.
+     * @return the {@code double} value represented by the bytes.
+     * @throws NullPointerException  if {@code ascii} is null.
+     * @throws IndexOutOfBoundsException  if {@code beginIndex} is
+     *         negative, or if {@code beginIndex} is greater than
+     *         {@code endIndex} or if {@code endIndex} is greater than
+     *         {@code ascii.limit()}.
+     * @throws NumberFormatException if the bytes do not contain a
+     *         parsable {@code double}.
+     */
+    public static double parseDouble(java.nio.ByteBuffer ascii, int beginIndex, int endIndex)
+            throws NumberFormatException {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > ascii.limit()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (ascii.hasArray()) {
+            int offset = ascii.arrayOffset();
+            return DecimalToDouble.parseDouble(ascii.array(), offset + beginIndex,
+                    offset + endIndex);
+        }
+        return DecimalToDouble.parseDouble(ascii, beginIndex, endIndex);
     }
 
     /**
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang;
+
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.MathUtils.flog10pow2;
+import static java.lang.MathUtils.flog10threeQuartersPow2;
+import static java.lang.MathUtils.flog2pow10;
+import static java.lang.MathUtils.g0;
+import static java.lang.MathUtils.g1;
+import static java.lang.MathUtils.multiplyHigh;
+import static java.lang.MathUtils.pow10;
+
+/**
+ * Converts a {@code double} to the shortest decimal that rounds back to it,
+ * as specified by {@link Double#toString(double)}.
+ *
+ * <p>The conversion follows the Schubfach algorithm: the rounding interval
+ * of the {@code double} is scaled by a 126 bit approximation of a power of
+ * ten taken from {@link MathUtils}, so that the decimal can be selected
+ * with a few 64 bit multiplications, without resorting to arbitrary
+ * precision arithmetic.  Among the decimals of shortest length in the
+ * rounding interval the one closest to the {@code double} is chosen, and
+ * among two such decimals the one with an even least significant digit.
+ *
+ * <p>The characters are produced into a small per-conversion buffer, and
+ * then either copied into a {@code String} or appended to an
+ * {@link AbstractStringBuilder} without an intermediate {@code String}.
+ */
+final class DoubleToDecimal {
+
+    /*
+     * Constants of the double format:
+     *     P        the precision, in bits
+     *     W        the width of the biased exponent, in bits
+     *     Q_MIN    the minimal exponent of the least significant bit
+     *     C_MIN    the minimal normal significand, 2^(P-1)
+     *     C_TINY   subnormal significands below this value have fewer than
+     *              two significant digits and are scaled by 10
+     *     H        the maximal number of significant digits of a result
+     */
+    private static final int P = 53;
+    private static final int W = 11;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << P - 1;
+    private static final int BQ_MASK = (1 << W) - 1;
+    private static final long T_MASK = (1L << P - 1) - 1;
+    private static final long C_TINY = 3;
+    private static final int H = 17;
+
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    /*
+     * Room for the sign, H digits, the decimal point, and the exponent
+     * "E-ddd", in the longest of the formats.
+     */
+    private static final int MAX_CHARS = H + 7;
+
+    private final char[] buf = new char[MAX_CHARS];
+
+    /*
+     * Index of the last character produced into buf.
+     */
+    private int index;
+
+    private DoubleToDecimal() {
+    }
+
+    /**
+     * Returns the string representation of {@code v}, as specified by
+     * {@link Double#toString(double)}.
+     */
+    static String toString(double v) {
+        DoubleToDecimal d = new DoubleToDecimal();
+        d.toDecimal(v);
+        return new String(d.buf, 0, d.index + 1);
+    }
+
+    /**
+     * Appends the string representation of {@code v}, as specified by
+     * {@link Double#toString(double)}, to {@code sb}.
+     */
+    static void appendTo(double v, AbstractStringBuilder sb) {
+        DoubleToDecimal d = new DoubleToDecimal();
+        d.toDecimal(v);
+        sb.append(d.buf, 0, d.index + 1);
+    }
+
+    private void toDecimal(double v) {
+        index = -1;
+        long bits = doubleToRawLongBits(v);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> P - 1) & BQ_MASK;
+        if (bq < BQ_MASK) {
+            if (bits < 0) {
+                append('-');
+            }
+            if (bq != 0) {
+                // normal value: v = c 2^q, with -Q_MIN + 1 - bq = -q
+                int mq = -Q_MIN + 1 - bq;
+                long c = C_MIN | t;
+                // fast path for integers below 2^P
+                if (0 < mq & mq < P) {
+                    long f = c >> mq;
+                    if (f << mq == c) {
+                        toChars(f, 0);
+                        return;
+                    }
+                }
+                toDecimal(-mq, c, 0);
+                return;
+            }
+            if (t != 0) {
+                // subnormal value
+                if (t < C_TINY) {
+                    toDecimal(Q_MIN, 10 * t, -1);
+                } else {
+                    toDecimal(Q_MIN, t, 0);
+                }
+                return;
+            }
+            appendAll("0.0");
+            return;
+        }
+        if (t != 0) {
+            appendAll("NaN");
+            return;
+        }
+        if (bits < 0) {
+            append('-');
+        }
+        appendAll("Infinity");
+    }
+
+    /*
+     * Produces the shortest decimal in the rounding interval of c 2^q,
+     * scaled by 10^dk, where c is even or odd and the interval is closed
+     * or open accordingly.
+     */
+    private void toDecimal(int q, long c, int dk) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        /*
+         * The rounding interval is symmetric around c 2^q except when c is
+         * the minimal normal significand, where the predecessor is closer.
+         */
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        // 10^(-k) 2^(q+2) approximated as g 2^-(125+h), 4 <= vb < 4 10^18
+        long g1 = g1(k);
+        long g0 = g0(k);
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            /*
+             * Try a decimal with one digit less: sp10 = 10 floor(s / 10)
+             * and tp10 = sp10 + 10.  If exactly one of them is in the
+             * rounding interval, it is the shortest decimal.
+             */
+            long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                toChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        /*
+         * Otherwise one of s and t = s + 1 is in the interval; when both
+         * are, pick the one closer to v, or the even one on a tie.
+         */
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            toChars(uin ? s : t, k + dk);
+            return;
+        }
+        long cmp = vb - (s + t << 1);
+        toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    /*
+     * Computes round-to-odd of g cp 2^-127, where g = g1 2^63 + g0.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /*
+     * Formats the decimal f 10^e.
+     */
+    private void toChars(long f, int e) {
+        // len is the number of digits of f: 10^(len-1) <= f < 10^len
+        int len = flog10pow2(Long.SIZE - numberOfLeadingZeros(f));
+        if (f >= pow10(len)) {
+            len += 1;
+        }
+
+        // normalize to H digits, so that f 10^(e-H) = 0.f 10^e
+        f *= pow10(H - len);
+        e += len;
+
+        /*
+         * Split the H = 17 digits of f into the most significant digit h,
+         * the next 8 digits m, and the least significant 8 digits l, so
+         * that the digits can be extracted with int arithmetic:
+         *     floor(f / 10^8) = floor(193_428_131_138_340_668 f / 2^84)
+         *     floor(hm / 10^8) = floor(1_441_151_881 hm / 2^57)
+         */
+        long hm = multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        int l = (int) (f - 100_000_000L * hm);
+        int h = (int) (hm * 1_441_151_881L >>> 57);
+        int m = (int) (hm - 100_000_000 * h);
+
+        // plain format for 10^-3 <= v < 10^7, scientific otherwise
+        if (0 < e && e <= 7) {
+            toChars1(h, m, l, e);
+        } else if (-3 < e && e <= 0) {
+            toChars2(h, m, l, e);
+        } else {
+            toChars3(h, m, l, e);
+        }
+    }
+
+    /*
+     * 0 < e <= 7: plain format without leading zeroes.
+     */
+    private void toChars1(int h, int m, int l, int e) {
+        appendDigit(h);
+        int y = y(m);
+        int t;
+        int i = 1;
+        for (; i < e; ++i) {
+            t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+        append('.');
+        for (; i <= 8; ++i) {
+            t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+        lowDigits(l);
+    }
+
+    /*
+     * -3 < e <= 0: plain format with leading zeroes.
+     */
+    private void toChars2(int h, int m, int l, int e) {
+        appendDigit(0);
+        append('.');
+        for (; e < 0; ++e) {
+            appendDigit(0);
+        }
+        appendDigit(h);
+        append8Digits(m);
+        lowDigits(l);
+    }
+
+    /*
+     * -3 >= e || e > 7: computerized scientific notation.
+     */
+    private void toChars3(int h, int m, int l, int e) {
+        appendDigit(h);
+        append('.');
+        append8Digits(m);
+        lowDigits(l);
+        exponent(e - 1);
+    }
+
+    private void lowDigits(int l) {
+        if (l != 0) {
+            append8Digits(l);
+        }
+        removeTrailingZeroes();
+    }
+
+    /*
+     * Appends the 8 digits of 0 <= m < 10^8, including leading zeroes.
+     */
+    private void append8Digits(int m) {
+        int y = y(m);
+        for (int i = 0; i < 8; ++i) {
+            int t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+    }
+
+    /*
+     * Removes trailing zeroes, but keeps one digit after the point.
+     */
+    private void removeTrailingZeroes() {
+        while (buf[index] == '0') {
+            --index;
+        }
+        if (buf[index] == '.') {
+            ++index;
+        }
+    }
+
+    /*
+     * Returns floor((a + 1) 2^28 / 10^8) - 1, for 0 <= a < 10^8: the
+     * fraction a / 10^8 as a 28 bit fixed point value, from which the
+     * digits are extracted left to right by repeated multiplication by 10.
+     */
+    private static int y(int a) {
+        return (int) (multiplyHigh(
+                (long) (a + 1) << 28,
+                193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private void exponent(int e) {
+        append('E');
+        if (e < 0) {
+            append('-');
+            e = -e;
+        }
+        if (e < 10) {
+            appendDigit(e);
+            return;
+        }
+        int d;
+        if (e >= 100) {
+            // floor(e / 100) for 0 <= e < 1000
+            d = e * 1_311 >>> 17;
+            appendDigit(d);
+            e -= 100 * d;
+        }
+        // floor(e / 10) for 0 <= e < 100
+        d = e * 103 >>> 10;
+        appendDigit(d);
+        appendDigit(e - 10 * d);
+    }
+
+    private void append(char c) {
+        buf[++index] = c;
+    }
+
+    private void appendDigit(int d) {
+        buf[++index] = (char) ('0' + d);
+    }
+
+    private void appendAll(String s) {
+        for (int i = 0; i < s.length(); ++i) {
+            buf[++index] = s.charAt(i);
+        }
+    }
+
+}
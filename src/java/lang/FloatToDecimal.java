@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang;
+
+import static java.lang.Float.floatToRawIntBits;
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.MathUtils.flog10pow2;
+import static java.lang.MathUtils.flog10threeQuartersPow2;
+import static java.lang.MathUtils.flog2pow10;
+import static java.lang.MathUtils.g1;
+import static java.lang.MathUtils.multiplyHigh;
+import static java.lang.MathUtils.pow10;
+
+/**
+ * Converts a {@code float} to the shortest decimal that rounds back to it,
+ * as specified by {@link Float#toString(float)}.
+ *
+ * <p>This is the {@code float} counterpart of {@link DoubleToDecimal}.
+ * The narrower precision allows the scaled rounding interval to be
+ * computed from the most significant 64 bits of the powers of ten in
+ * {@link MathUtils}, and the digits to be extracted with int arithmetic.
+ */
+final class FloatToDecimal {
+
+    /*
+     * Constants of the float format, see DoubleToDecimal.
+     */
+    private static final int P = 24;
+    private static final int W = 8;
+    private static final int Q_MIN = -149;
+    private static final int C_MIN = 1 << P - 1;
+    private static final int BQ_MASK = (1 << W) - 1;
+    private static final int T_MASK = (1 << P - 1) - 1;
+    private static final int C_TINY = 8;
+    private static final int H = 9;
+
+    private static final long MASK_32 = (1L << 32) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+
+    /*
+     * Room for the sign, H digits, the decimal point, and the exponent
+     * "E-dd", in the longest of the formats.
+     */
+    private static final int MAX_CHARS = H + 6;
+
+    private final char[] buf = new char[MAX_CHARS];
+
+    /*
+     * Index of the last character produced into buf.
+     */
+    private int index;
+
+    private FloatToDecimal() {
+    }
+
+    /**
+     * Returns the string representation of {@code v}, as specified by
+     * {@link Float#toString(float)}.
+     */
+    static String toString(float v) {
+        FloatToDecimal d = new FloatToDecimal();
+        d.toDecimal(v);
+        return new String(d.buf, 0, d.index + 1);
+    }
+
+    /**
+     * Appends the string representation of {@code v}, as specified by
+     * {@link Float#toString(float)}, to {@code sb}.
+     */
+    static void appendTo(float v, AbstractStringBuilder sb) {
+        FloatToDecimal d = new FloatToDecimal();
+        d.toDecimal(v);
+        sb.append(d.buf, 0, d.index + 1);
+    }
+
+    private void toDecimal(float v) {
+        index = -1;
+        int bits = floatToRawIntBits(v);
+        int t = bits & T_MASK;
+        int bq = (bits >>> P - 1) & BQ_MASK;
+        if (bq < BQ_MASK) {
+            if (bits < 0) {
+                append('-');
+            }
+            if (bq != 0) {
+                // normal value: v = c 2^q, with -Q_MIN + 1 - bq = -q
+                int mq = -Q_MIN + 1 - bq;
+                int c = C_MIN | t;
+                // fast path for integers below 2^P
+                if (0 < mq & mq < P) {
+                    int f = c >> mq;
+                    if (f << mq == c) {
+                        toChars(f, 0);
+                        return;
+                    }
+                }
+                toDecimal(-mq, c, 0);
+                return;
+            }
+            if (t != 0) {
+                // subnormal value
+                if (t < C_TINY) {
+                    toDecimal(Q_MIN, 10 * t, -1);
+                } else {
+                    toDecimal(Q_MIN, t, 0);
+                }
+                return;
+            }
+            appendAll("0.0");
+            return;
+        }
+        if (t != 0) {
+            appendAll("NaN");
+            return;
+        }
+        if (bits < 0) {
+            append('-');
+        }
+        appendAll("Infinity");
+    }
+
+    /*
+     * See DoubleToDecimal.toDecimal(int, long, int).
+     */
+    private void toDecimal(int q, int c, int dk) {
+        int out = c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+
+        // the 64 bit approximation of the power of ten, rounded up
+        long g = g1(k) + 1;
+        int vb = rop(g, cb << h);
+        int vbl = rop(g, cbl << h);
+        int vbr = rop(g, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            // sp10 = 10 floor(s / 10), tp10 = sp10 + 10
+            int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                toChars(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            toChars(uin ? s : t, k + dk);
+            return;
+        }
+        int cmp = vb - (s + t << 1);
+        toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk);
+    }
+
+    /*
+     * Computes round-to-odd of g cp 2^-95.
+     */
+    private static int rop(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /*
+     * Formats the decimal f 10^e.
+     */
+    private void toChars(int f, int e) {
+        // len is the number of digits of f: 10^(len-1) <= f < 10^len
+        int len = flog10pow2(Integer.SIZE - numberOfLeadingZeros(f));
+        if (f >= pow10(len)) {
+            len += 1;
+        }
+
+        // normalize to H digits, so that f 10^(e-H) = 0.f 10^e
+        f *= (int) pow10(H - len);
+        e += len;
+
+        /*
+         * Split the H = 9 digits of f into the most significant digit h
+         * and the least significant 8 digits l:
+         *     floor(f / 10^8) = floor(1_441_151_881 f / 2^57)
+         */
+        int h = (int) (f * 1_441_151_881L >>> 57);
+        int l = f - 100_000_000 * h;
+
+        // plain format for 10^-3 <= v < 10^7, scientific otherwise
+        if (0 < e && e <= 7) {
+            toChars1(h, l, e);
+        } else if (-3 < e && e <= 0) {
+            toChars2(h, l, e);
+        } else {
+            toChars3(h, l, e);
+        }
+    }
+
+    /*
+     * 0 < e <= 7: plain format without leading zeroes.
+     */
+    private void toChars1(int h, int l, int e) {
+        appendDigit(h);
+        int y = y(l);
+        int t;
+        int i = 1;
+        for (; i < e; ++i) {
+            t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+        append('.');
+        for (; i <= 8; ++i) {
+            t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+        removeTrailingZeroes();
+    }
+
+    /*
+     * -3 < e <= 0: plain format with leading zeroes.
+     */
+    private void toChars2(int h, int l, int e) {
+        appendDigit(0);
+        append('.');
+        for (; e < 0; ++e) {
+            appendDigit(0);
+        }
+        appendDigit(h);
+        append8Digits(l);
+        removeTrailingZeroes();
+    }
+
+    /*
+     * -3 >= e || e > 7: computerized scientific notation.
+     */
+    private void toChars3(int h, int l, int e) {
+        appendDigit(h);
+        append('.');
+        append8Digits(l);
+        removeTrailingZeroes();
+        exponent(e - 1);
+    }
+
+    /*
+     * Appends the 8 digits of 0 <= m < 10^8, including leading zeroes.
+     */
+    private void append8Digits(int m) {
+        int y = y(m);
+        for (int i = 0; i < 8; ++i) {
+            int t = 10 * y;
+            appendDigit(t >>> 28);
+            y = t & MASK_28;
+        }
+    }
+
+    /*
+     * Removes trailing zeroes, but keeps one digit after the point.
+     */
+    private void removeTrailingZeroes() {
+        while (buf[index] == '0') {
+            --index;
+        }
+        if (buf[index] == '.') {
+            ++index;
+        }
+    }
+
+    /*
+     * See DoubleToDecimal.y(int).
+     */
+    private static int y(int a) {
+        return (int) (multiplyHigh(
+                (long) (a + 1) << 28,
+                193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private void exponent(int e) {
+        append('E');
+        if (e < 0) {
+            append('-');
+            e = -e;
+        }
+        if (e < 10) {
+            appendDigit(e);
+            return;
+        }
+        // floor(e / 10) for 0 <= e < 100
+        int d = e * 103 >>> 10;
+        appendDigit(d);
+        appendDigit(e - 10 * d);
+    }
+
+    private void append(char c) {
+        buf[++index] = c;
+    }
+
+    private void appendDigit(int d) {
+        buf[++index] = (char) ('0' + d);
+    }
+
+    private void appendAll(String s) {
+        for (int i = 0; i < s.length(); ++i) {
+            buf[++index] = s.charAt(i);
+        }
+    }
+
+}
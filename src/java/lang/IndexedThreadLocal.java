@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+import java.lang.ref.Cleaner;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A thread-local variable whose values are found by a dense index rather
+ * than by hashing.  It behaves as a {@link ThreadLocal} and can be used
+ * wherever one is expected, but is intended for code that keeps many
+ * thread-local variables and reads them on hot paths.
+ *
+ * <p>Each {@code IndexedThreadLocal} is assigned a small index when it is
+ * created, and each thread holds the values of its indexed thread-locals
+ * in a plain array.  {@link #get} is a bounds check, a check that the
+ * slot belongs to this variable, and an array load, with no probing and
+ * no cleanup work.
+ *
+ * <p>The index of a variable that is no longer reachable is released by a
+ * background cleaner thread, and may then be reused by a new variable.  A
+ * thread drops the values it holds for released variables the next time
+ * it {@linkplain #set sets}, initializes or {@linkplain #remove removes}
+ * the value of an indexed thread-local, but not on a {@code get} that
+ * finds a value.  Unlike {@code ThreadLocal}, which also drops such values
+ * during lookups, a long-lived thread, such as a pooled one, that only
+ * reads indexed thread-locals keeps the values of collected variables,
+ * and anything they refer to, such as their class loaders, until it
+ * terminates.  As for {@code ThreadLocal}, all of the values of a thread
+ * are released when the thread terminates.
+ *
+ * <p>The per-thread arrays are as long as the highest index a thread has
+ * used, so this class is best suited to thread-local variables that are
+ * created a bounded number of times, such as in {@code static} fields.
+ *
+ * @param <T> the type of the thread-local value
+ * @see InheritableIndexedThreadLocal
+ * @since 1.8
+ */
+public class IndexedThreadLocal<T> extends ThreadLocal<T> {
+    /**
+     * The index of the values of this variable in the per-thread arrays.
+     */
+    private final int index;
+
+    /**
+     * The generation of the index when it was assigned to this variable.
+     * A slot holds a value of this variable only if it is tagged with
+     * this generation; a slot of a previous owner of the index has an
+     * older one.
+     */
+    private final int generation;
+
+    /*
+     * The registry of indexes, guarded by LOCK.  generations[i] is the
+     * current generation of index i, which is never 0, and owners[i]
+     * refers to its current variable, for inheritance.  Released indexes
+     * are kept in freeIndexes for reuse.
+     */
+    private static final Object LOCK = new Object();
+    private static int[] generations = new int[16];
+    private static WeakReference<?>[] owners = new WeakReference<?>[16];
+    private static int[] freeIndexes = new int[16];
+    private static int freeCount;
+    private static int nextIndex;
+
+    /**
+     * Incremented each time an index is released.  A thread whose slots
+     * were last expunged at an older epoch may hold stale values.
+     */
+    private static volatile int releaseEpoch;
+
+    private static final class CleanerHolder {
+        static final Cleaner CLEANER = Cleaner.create();
+    }
+
+    /**
+     * Creates an indexed thread-local variable.
+     * @see #withInitial(java.util.function.Supplier)
+     */
+    public IndexedThreadLocal() {
+        int i, g;
+        synchronized (LOCK) {
+            if (freeCount > 0) {
+                i = freeIndexes[--freeCount];
+            } else {
+                i = nextIndex++;
+                if (i == generations.length) {
+                    generations = Arrays.copyOf(generations, i << 1);
+                    owners = Arrays.copyOf(owners, i << 1);
+                }
+                generations[i] = 1;
+            }
+            g = generations[i];
+            owners[i] = new WeakReference<>(this);
+        }
+        index = i;
+        generation = g;
+        CleanerHolder.CLEANER.register(this, new Release(i, g));
+    }
+
+    /**
+     * Creates an indexed thread local variable. The initial value of the
+     * variable is determined by invoking the {@code get} method on the
+     * {@code Supplier}.
+     *
+     * @param <S> the type of the thread local's value
+     * @param supplier the supplier to be used to determine the initial value
+     * @return a new indexed thread local variable
+     * @throws NullPointerException if the specified supplier is null
+     */
+    public static <S> IndexedThreadLocal<S> withInitial(Supplier<? extends S> supplier) {
+        return new SuppliedIndexedThreadLocal<>(supplier);
+    }
+
+    /**
+     * Returns the value in the current thread's copy of this
+     * thread-local variable.  If the variable has no value for the
+     * current thread, it is first initialized to the value returned
+     * by an invocation of the {@link #initialValue} method.
+     *
+     * @return the current thread's value of this thread-local
+     */
+    @Override
+    public T get() {
+        Slots s = getSlots(Thread.currentThread());
+        if (s != null) {
+            int i = index;
+            int[] gens = s.generations;
+            if (i < gens.length && gens[i] == generation) {
+                @SuppressWarnings("unchecked")
+                T result = (T)s.values[i];
+                return result;
+            }
+        }
+        T value = initialValue();
+        store(value);
+        return value;
+    }
+
+    /**
+     * Sets the current thread's copy of this thread-local variable
+     * to the specified value.
+     *
+     * @param value the value to be stored in the current thread's copy of
+     *        this thread-local.
+     */
+    @Override
+    public void set(T value) {
+        store(value);
+    }
+
+    /**
+     * Removes the current thread's value for this thread-local
+     * variable.  If this thread-local variable is subsequently
+     * {@linkplain #get read} by the current thread, its value will be
+     * reinitialized by invoking its {@link #initialValue} method,
+     * unless its value is {@linkplain #set set} by the current thread
+     * in the interim.
+     */
+    @Override
+    public void remove() {
+        Slots s = getSlots(Thread.currentThread());
+        if (s != null) {
+            if (s.epoch != releaseEpoch)
+                s.expunge();
+            int i = index;
+            if (i < s.generations.length && s.generations[i] == generation) {
+                s.values[i] = null;
+                s.generations[i] = 0;
+            }
+        }
+    }
+
+    /*
+     * Stores a value; used by both set and get, in case the user has
+     * overridden set.
+     */
+    private void store(T value) {
+        Thread t = Thread.currentThread();
+        Slots s = getSlots(t);
+        if (s == null) {
+            s = new Slots(index + 1);
+            setSlots(t, s);
+        } else {
+            if (s.epoch != releaseEpoch)
+                s.expunge();
+            if (index >= s.generations.length)
+                s.grow(index + 1);
+        }
+        s.values[index] = value;
+        s.generations[index] = generation;
+    }
+
+    /**
+     * Get the slots associated with an IndexedThreadLocal. Overridden in
+     * InheritableIndexedThreadLocal.
+     *
+     * @param  t the current thread
+     * @return the slots, or null
+     */
+    Slots getSlots(Thread t) {
+        return t.indexedThreadLocals;
+    }
+
+    /**
+     * Set the slots associated with an IndexedThreadLocal. Overridden in
+     * InheritableIndexedThreadLocal.
+     *
+     * @param t the current thread
+     * @param s the new slots
+     */
+    void setSlots(Thread t, Slots s) {
+        t.indexedThreadLocals = s;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object inheritedValue(Object parentValue) {
+        return childValue((T) parentValue);
+    }
+
+    /**
+     * Factory method to create the slots of inherited indexed thread
+     * locals.  Designed to be called only from Thread constructor.
+     *
+     * @param  parent the slots associated with parent thread
+     * @return slots containing the parent's inheritable bindings
+     */
+    static Slots createInheritedSlots(Slots parent) {
+        int n = parent.generations.length;
+        IndexedThreadLocal<?>[] locals = new IndexedThreadLocal<?>[n];
+        synchronized (LOCK) {
+            for (int i = 0; i < n; i++) {
+                int g = parent.generations[i];
+                if (g != 0 && g == generations[i])
+                    locals[i] = (IndexedThreadLocal<?>) owners[i].get();
+            }
+        }
+        // childValue is user code; call it without holding the lock
+        Slots child = new Slots(n);
+        for (int i = 0; i < n; i++) {
+            IndexedThreadLocal<?> local = locals[i];
+            if (local != null && local.generation == parent.generations[i]) {
+                child.values[i] = local.inheritedValue(parent.values[i]);
+                child.generations[i] = parent.generations[i];
+            }
+        }
+        return child;
+    }
+
+    /**
+     * The values of the indexed thread-locals of a thread, and the
+     * generation of the variable each value belongs to, or 0 for an empty
+     * slot.  Accessed only by the owning thread, or by its creator before
+     * it starts.
+     */
+    static final class Slots {
+        Object[] values;
+        int[] generations;
+        int epoch;
+
+        Slots(int minCapacity) {
+            int capacity = Math.max(16, Integer.highestOneBit(minCapacity - 1) << 1);
+            values = new Object[capacity];
+            generations = new int[capacity];
+            epoch = releaseEpoch;
+        }
+
+        void grow(int minCapacity) {
+            int capacity = Integer.highestOneBit(minCapacity - 1) << 1;
+            values = Arrays.copyOf(values, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+        }
+
+        /**
+         * Drops the values of variables whose indexes were released.
+         */
+        void expunge() {
+            int e = releaseEpoch;
+            synchronized (LOCK) {
+                int n = Math.min(generations.length, nextIndex);
+                for (int i = 0; i < n; i++) {
+                    int g = generations[i];
+                    if (g != 0 && g != IndexedThreadLocal.generations[i]) {
+                        values[i] = null;
+                        generations[i] = 0;
+                    }
+                }
+            }
+            epoch = e;
+        }
+    }
+
+    /**
+     * Cleaning action that releases the index of an unreachable variable.
+     * It must not refer to the variable.
+     */
+    private static final class Release implements Runnable {
+        private final int index;
+        private final int generation;
+
+        Release(int index, int generation) {
+            this.index = index;
+            this.generation = generation;
+        }
+
+        @Override
+        public void run() {
+            synchronized (LOCK) {
+                if (generations[index] != generation)
+                    return;
+                int g = generation + 1;
+                generations[index] = (g == 0) ? 1 : g;
+                owners[index] = null;
+                if (freeCount == freeIndexes.length)
+                    freeIndexes = Arrays.copyOf(freeIndexes, freeCount << 1);
+                freeIndexes[freeCount++] = index;
+                releaseEpoch++;
+            }
+        }
+    }
+
+    /**
+     * An extension of IndexedThreadLocal that obtains its initial value
+     * from the specified {@code Supplier}.
+     */
+    static final class SuppliedIndexedThreadLocal<T> extends IndexedThreadLocal<T> {
+
+        private final Supplier<? extends T> supplier;
+
+        SuppliedIndexedThreadLocal(Supplier<? extends T> supplier) {
+            this.supplier = Objects.requireNonNull(supplier);
+        }
+
+        @Override
+        protected T initialValue() {
+            return supplier.get();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+/**
+ * This class extends <tt>IndexedThreadLocal</tt> to provide inheritance of
+ * values from parent thread to child thread, in the same way as
+ * {@link InheritableThreadLocal} does for <tt>ThreadLocal</tt>: when a child
+ * thread is created, the child receives initial values for all inheritable
+ * indexed thread-local variables for which the parent has values, as
+ * computed by the <tt>childValue</tt> method.
+ *
+ * @param <T> the type of the thread-local value
+ * @see IndexedThreadLocal
+ * @see InheritableThreadLocal
+ * @since 1.8
+ */
+public class InheritableIndexedThreadLocal<T> extends IndexedThreadLocal<T> {
+    /**
+     * Creates an inheritable indexed thread-local variable.
+     */
+    public InheritableIndexedThreadLocal() {
+    }
+
+    /**
+     * Computes the child's initial value for this inheritable thread-local
+     * variable as a function of the parent's value at the time the child
+     * thread is created.  This method is called from within the parent
+     * thread before the child is started.
+     * <p>
+     * This method merely returns its input argument, and should be overridden
+     * if a different behavior is desired.
+     *
+     * @param parentValue the parent thread's value
+     * @return the child thread's initial value
+     */
+    protected T childValue(T parentValue) {
+        return parentValue;
+    }
+
+    /**
+     * Get the slots associated with an IndexedThreadLocal.
+     *
+     * @param t the current thread
+     */
+    Slots getSlots(Thread t) {
+       return t.inheritableIndexedThreadLocals;
+    }
+
+    /**
+     * Set the slots associated with an IndexedThreadLocal.
+     *
+     * @param t the current thread
+     * @param s the new slots
+     */
+    void setSlots(Thread t, Slots s) {
+        t.inheritableIndexedThreadLocals = s;
+    }
+}
@@ -365,6 +365,14 @@ public final class Integer extends Number implements Comparable<Integer> {
         '0', '1', '2', '3', '4', '5', '6', '7', '8', '9',
         } ;
 
+    // The two digit decimal numbers 00 to 99, back to back, for appendDigits
+    final static String DigitPairs =
+        "0001020304050607080910111213141516171819" +
+        "2021222324252627282930313233343536373839" +
+        "4041424344454647484950515253545556575859" +
+        "6061626364656667686970717273747576777879" +
+        "8081828384858687888990919293949596979899";
+
         // I use the "invariant division by multiplication" trick to
         // accelerate Integer.toString.  In particular we want to
         // avoid division by 10.
@@ -403,6 +411,159 @@ public final class Integer extends Number implements Comparable<Integer> {
         return new String(buf, true);
     }
 
+    /**
+     * Writes the ASCII bytes of the signed decimal representation of the
+     * argument into the given array, starting at the given offset.  The
+     * characters written are those of {@link #toString(int)}; no
+     * {@code String} is created.
+     *
+     * @param   i        a {@code int} to be converted.
+     * @param   dst      the destination array.
+     * @param   offset   the index of the first byte to write.
+     * @return  the index following the last byte written.
+     * @throws  NullPointerException  if {@code dst} is null.
+     * @throws  IndexOutOfBoundsException  if {@code offset} is negative, or
+     *          if there is not enough room in {@code dst} for the
+     *          representation.
+     */
+    public static int toAsciiBytes(int i, byte[] dst, int offset) {
+        if (i == Integer.MIN_VALUE) {
+            String s = "-2147483648";
+            int size = s.length();
+            if (offset < 0 || offset > dst.length - size)
+                throw new IndexOutOfBoundsException("offset " + offset);
+            for (int j = 0; j < size; j++)
+                dst[offset + j] = (byte)s.charAt(j);
+            return offset + size;
+        }
+        int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        if (offset < 0 || offset > dst.length - size)
+            throw new IndexOutOfBoundsException("offset " + offset);
+        getBytes(i, offset + size, dst);
+        return offset + size;
+    }
+
+    /**
+     * Writes the ASCII bytes of the signed decimal representation of the
+     * argument into the given buffer at its current position, and then
+     * advances the position past them.  The bytes written are those of
+     * {@link #toAsciiBytes(int, byte[], int)}; no {@code String} is
+     * created.
+     *
+     * @param   i     an {@code int} to be converted.
+     * @param   dst   the destination buffer.
+     * @throws  NullPointerException  if {@code dst} is null.
+     * @throws  java.nio.BufferOverflowException  if there is not enough
+     *          room between the position and the limit of {@code dst}
+     *          for the representation.
+     * @throws  java.nio.ReadOnlyBufferException  if {@code dst} is
+     *          read-only.
+     */
+    public static void toAsciiBytes(int i, java.nio.ByteBuffer dst) {
+        int size = (i == Integer.MIN_VALUE) ? 11
+                 : (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        int pos = dst.position();
+        if (dst.limit() - pos < size)
+            throw new java.nio.BufferOverflowException();
+        if (dst.hasArray()) {
+            toAsciiBytes(i, dst.array(), dst.arrayOffset() + pos);
+        } else {
+            if (dst.isReadOnly())
+                throw new java.nio.ReadOnlyBufferException();
+            // Accumulate negatively so that MIN_VALUE needs no special case
+            int q = (i < 0) ? i : -i;
+            int index = pos + size;
+            do {
+                dst.put(--index, (byte)('0' - q % 10));
+                q /= 10;
+            } while (q != 0);
+            if (i < 0)
+                dst.put(--index, (byte)'-');
+        }
+        dst.position(pos + size);
+    }
+
+    /**
+     * Appends the signed decimal representation of the argument to the
+     * given {@code Appendable}.  The characters appended are those of
+     * {@link #toString(int)}; no {@code String} is created.
+     *
+     * @param   i   a {@code int} to be converted.
+     * @param   a   the {@code Appendable} to append to.
+     * @throws  NullPointerException  if {@code a} is null.
+     * @throws  java.io.IOException  if the {@code Appendable} throws one.
+     */
+    public static void appendTo(int i, Appendable a) throws java.io.IOException {
+        if (a instanceof AbstractStringBuilder) {
+            ((AbstractStringBuilder)a).append(i);
+            return;
+        }
+        if (i < 0)
+            a.append('-');
+        long n = Math.abs((long)i);
+        appendDigits(n, Long.stringSize(n), a);
+    }
+
+    /**
+     * Appends the {@code size} decimal digits of the non-negative
+     * {@code n}, most significant first.  The digits are appended two at
+     * a time as ranges of {@link #DigitPairs}, so that neither a
+     * {@code String} nor a temporary array is created and there is one
+     * call to the {@code Appendable} for each two digits.
+     */
+    static void appendDigits(long n, int size, Appendable a) throws java.io.IOException {
+        java.io.Writer w = (a instanceof java.io.Writer) ? (java.io.Writer)a : null;
+        // an odd number of digits starts with a single one
+        int len = 2 - (size & 1);
+        long p = 1;
+        for (int k = len; k < size; k++)
+            p *= 10;
+        while (true) {
+            int d = (int)(n / p);
+            n -= d * p;
+            int end = 2 * d + 2;
+            if (w != null)
+                w.write(DigitPairs, end - len, len);
+            else
+                a.append(DigitPairs, end - len, end);
+            if (p == 1)
+                break;
+            p /= 100;
+            len = 2;
+        }
+    }
+
+    /**
+     * Returns the character at the given index of a {@code CharSequence},
+     * or the byte at the given index of a {@code byte[]} or
+     * {@code ByteBuffer} as a character in the range {@code 0} to
+     * {@code 255}.  This lets the range parsing methods of Integer, Long
+     * and Double share one loop for all three kinds of input.
+     */
+    static char charAt(Object src, int index) {
+        if (src instanceof String)
+            return ((String)src).charAt(index);
+        if (src instanceof byte[])
+            return (char)(((byte[])src)[index] & 0xff);
+        if (src instanceof java.nio.ByteBuffer)
+            return (char)(((java.nio.ByteBuffer)src).get(index) & 0xff);
+        return ((CharSequence)src).charAt(index);
+    }
+
+    /**
+     * Returns the characters from {@code beginIndex} to
+     * {@code endIndex - 1} of a {@code CharSequence}, {@code byte[]} or
+     * {@code ByteBuffer}, as read by {@link #charAt(Object, int)}.
+     */
+    static String rangeToString(Object src, int beginIndex, int endIndex) {
+        if (src instanceof CharSequence)
+            return ((CharSequence)src).subSequence(beginIndex, endIndex).toString();
+        char[] ca = new char[endIndex - beginIndex];
+        for (int i = 0; i < ca.length; i++)
+            ca[i] = charAt(src, beginIndex + i);
+        return new String(ca);
+    }
+
     /**
      * Returns a string representation of the argument as an unsigned
      * decimal value.
@@ -464,6 +625,47 @@ public final class Integer extends Number implements Comparable<Integer> {
         }
     }
 
+    /**
+     * Places the ASCII bytes representing the integer i into the
+     * byte array buf, as {@link #getChars(int, int, char[])} does for
+     * characters.
+     *
+     * Will fail if i == Integer.MIN_VALUE
+     */
+    static void getBytes(int i, int index, byte[] buf) {
+        int q, r;
+        int charPos = index;
+        byte sign = 0;
+
+        if (i < 0) {
+            sign = '-';
+            i = -i;
+        }
+
+        // Generate two digits per iteration
+        while (i >= 65536) {
+            q = i / 100;
+        // really: r = i - (q * 100);
+            r = i - ((q << 6) + (q << 5) + (q << 2));
+            i = q;
+            buf [--charPos] = (byte)DigitOnes[r];
+            buf [--charPos] = (byte)DigitTens[r];
+        }
+
+        // Fall thru to fast mode for smaller numbers
+        // assert(i <= 65536, i);
+        for (;;) {
+            q = (i * 52429) >>> (16+3);
+            r = i - ((q << 3) + (q << 1));  // r = i-(q*10) ...
+            buf [--charPos] = (byte)digits [r];
+            i = q;
+            if (i == 0) break;
+        }
+        if (sign != 0) {
+            buf [--charPos] = sign;
+        }
+    }
+
     final static int [] sizeTable = { 9, 99, 999, 9999, 99999, 999999, 9999999,
                                       99999999, 999999999, Integer.MAX_VALUE };
 
@@ -615,6 +817,184 @@ public final class Integer extends Number implements Comparable<Integer> {
         return parseInt(s,10);
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a signed {@code int} in the
+     * specified {@code radix}, beginning at the specified {@code beginIndex}
+     * and extending to {@code endIndex - 1}.
+     *
+     * <p>The method does not take steps to guard against the
+     * {@code CharSequence} being mutated while parsing.  No intermediate
+     * {@code String} is created, so a number may be parsed directly out of
+     * a larger buffer.
+     *
+     * @param      s   the {@code CharSequence} containing the {@code int}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code s}.
+     * @return     the signed {@code int} represented by the subsequence in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code s} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code s.length()}.
+     * @throws     NumberFormatException  if the {@code CharSequence} does not
+     *             contain a parsable {@code int} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @see        #parseInt(String, int)
+     */
+    public static int parseInt(CharSequence s, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (s == null) {
+            throw new NullPointerException();
+        }
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return parseRange(s, beginIndex, endIndex, radix);
+    }
+
+    /**
+     * Parses the ASCII bytes of the argument as a signed {@code int} in the
+     * specified {@code radix}, beginning at the specified {@code beginIndex}
+     * and extending to {@code endIndex - 1}.  Each byte is interpreted as
+     * the character with the same value in the range {@code 0} to
+     * {@code 255}; the accepted syntax is otherwise as for
+     * {@link #parseInt(CharSequence, int, int, int)}.
+     *
+     * <p>This allows a number to be parsed directly out of an I/O buffer
+     * without first decoding it to a {@code String}.
+     *
+     * @param      ascii   the bytes containing the {@code int}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code ascii}.
+     * @return     the signed {@code int} represented by the bytes in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code ascii} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code ascii.length}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code int} in the specified {@code radix}, or
+     *             if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     */
+    public static int parseInt(byte[] ascii, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > ascii.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return parseRange(ascii, beginIndex, endIndex, radix);
+    }
+
+    /**
+     * Parses the ASCII bytes of the argument as a signed {@code int} in the
+     * specified {@code radix}, beginning at the absolute index
+     * {@code beginIndex} and extending to {@code endIndex - 1}, in exactly
+     * the manner of {@link #parseInt(byte[], int, int, int)}.  The
+     * position, limit and mark of the buffer are not changed.
+     *
+     * @param      ascii   the buffer containing the {@code int}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code ascii}.
+     * @return     the signed {@code int} represented by the bytes in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code ascii} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code ascii.limit()}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code int} in the specified {@code radix}, or
+     *             if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     */
+    public static int parseInt(java.nio.ByteBuffer ascii, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > ascii.limit()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (ascii.hasArray()) {
+            int offset = ascii.arrayOffset();
+            return parseRange(ascii.array(), offset + beginIndex,
+                    offset + endIndex, radix);
+        }
+        return parseRange(ascii, beginIndex, endIndex, radix);
+    }
+
+    /*
+     * The loop shared by the range parsing methods.  src is a
+     * CharSequence, byte[] or ByteBuffer, read through Integer.charAt,
+     * and the range has already been checked against its bounds.
+     */
+    private static int parseRange(Object src, int beginIndex, int endIndex, int radix) {
+        checkRadix(radix);
+
+        boolean negative = false;
+        int i = beginIndex;
+        int limit = -Integer.MAX_VALUE;
+
+        if (i < endIndex) {
+            char firstChar = charAt(src, i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Integer.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+            }
+            int multmin = limit / radix;
+            int result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Character.digit(charAt(src, i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forRange(src, beginIndex, endIndex, i);
+        }
+    }
+
+    // Radix check shared by the range parsing methods
+    private static void checkRadix(int radix) {
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+    }
+
     /**
      * Parses the string argument as an unsigned integer in the radix
      * specified by the second argument.  An unsigned integer maps the
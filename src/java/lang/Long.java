@@ -399,6 +399,104 @@ public final class Long extends Number implements Comparable<Long> {
         return new String(buf, true);
     }
 
+    /**
+     * Writes the ASCII bytes of the signed decimal representation of the
+     * argument into the given array, starting at the given offset.  The
+     * characters written are those of {@link #toString(long)}; no
+     * {@code String} is created.
+     *
+     * @param   i        a {@code long} to be converted.
+     * @param   dst      the destination array.
+     * @param   offset   the index of the first byte to write.
+     * @return  the index following the last byte written.
+     * @throws  NullPointerException  if {@code dst} is null.
+     * @throws  IndexOutOfBoundsException  if {@code offset} is negative, or
+     *          if there is not enough room in {@code dst} for the
+     *          representation.
+     */
+    public static int toAsciiBytes(long i, byte[] dst, int offset) {
+        if (i == Long.MIN_VALUE) {
+            String s = "-9223372036854775808";
+            int size = s.length();
+            if (offset < 0 || offset > dst.length - size)
+                throw new IndexOutOfBoundsException("offset " + offset);
+            for (int j = 0; j < size; j++)
+                dst[offset + j] = (byte)s.charAt(j);
+            return offset + size;
+        }
+        int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        if (offset < 0 || offset > dst.length - size)
+            throw new IndexOutOfBoundsException("offset " + offset);
+        getBytes(i, offset + size, dst);
+        return offset + size;
+    }
+
+    /**
+     * Writes the ASCII bytes of the signed decimal representation of the
+     * argument into the given buffer at its current position, and then
+     * advances the position past them.  The bytes written are those of
+     * {@link #toAsciiBytes(long, byte[], int)}; no {@code String} is
+     * created.
+     *
+     * @param   i     a {@code long} to be converted.
+     * @param   dst   the destination buffer.
+     * @throws  NullPointerException  if {@code dst} is null.
+     * @throws  java.nio.BufferOverflowException  if there is not enough
+     *          room between the position and the limit of {@code dst}
+     *          for the representation.
+     * @throws  java.nio.ReadOnlyBufferException  if {@code dst} is
+     *          read-only.
+     */
+    public static void toAsciiBytes(long i, java.nio.ByteBuffer dst) {
+        int size = (i == Long.MIN_VALUE) ? 20
+                 : (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        int pos = dst.position();
+        if (dst.limit() - pos < size)
+            throw new java.nio.BufferOverflowException();
+        if (dst.hasArray()) {
+            toAsciiBytes(i, dst.array(), dst.arrayOffset() + pos);
+        } else {
+            if (dst.isReadOnly())
+                throw new java.nio.ReadOnlyBufferException();
+            // Accumulate negatively so that MIN_VALUE needs no special case
+            long q = (i < 0) ? i : -i;
+            int index = pos + size;
+            do {
+                dst.put(--index, (byte)('0' - (int)(q % 10)));
+                q /= 10;
+            } while (q != 0);
+            if (i < 0)
+                dst.put(--index, (byte)'-');
+        }
+        dst.position(pos + size);
+    }
+
+    /**
+     * Appends the signed decimal representation of the argument to the
+     * given {@code Appendable}.  The characters appended are those of
+     * {@link #toString(long)}; no {@code String} is created.
+     *
+     * @param   i   a {@code long} to be converted.
+     * @param   a   the {@code Appendable} to append to.
+     * @throws  NullPointerException  if {@code a} is null.
+     * @throws  java.io.IOException  if the {@code Appendable} throws one.
+     */
+    public static void appendTo(long i, Appendable a) throws java.io.IOException {
+        if (a instanceof AbstractStringBuilder) {
+            ((AbstractStringBuilder)a).append(i);
+            return;
+        }
+        if (i == Long.MIN_VALUE) {
+            a.append("-9223372036854775808");
+            return;
+        }
+        if (i < 0) {
+            a.append('-');
+            i = -i;
+        }
+        Integer.appendDigits(i, stringSize(i), a);
+    }
+
     /**
      * Returns a string representation of the argument as an unsigned
      * decimal value.
@@ -473,6 +571,60 @@ public final class Long extends Number implements Comparable<Long> {
         }
     }
 
+    /**
+     * Places the ASCII bytes representing the long i into the
+     * byte array buf, as {@link #getChars(long, int, char[])} does for
+     * characters.
+     *
+     * Will fail if i == Long.MIN_VALUE
+     */
+    static void getBytes(long i, int index, byte[] buf) {
+        long q;
+        int r;
+        int charPos = index;
+        byte sign = 0;
+
+        if (i < 0) {
+            sign = '-';
+            i = -i;
+        }
+
+        // Get 2 digits/iteration using longs until quotient fits into an int
+        while (i > Integer.MAX_VALUE) {
+            q = i / 100;
+            // really: r = i - (q * 100);
+            r = (int)(i - ((q << 6) + (q << 5) + (q << 2)));
+            i = q;
+            buf[--charPos] = (byte)Integer.DigitOnes[r];
+            buf[--charPos] = (byte)Integer.DigitTens[r];
+        }
+
+        // Get 2 digits/iteration using ints
+        int q2;
+        int i2 = (int)i;
+        while (i2 >= 65536) {
+            q2 = i2 / 100;
+            // really: r = i2 - (q * 100);
+            r = i2 - ((q2 << 6) + (q2 << 5) + (q2 << 2));
+            i2 = q2;
+            buf[--charPos] = (byte)Integer.DigitOnes[r];
+            buf[--charPos] = (byte)Integer.DigitTens[r];
+        }
+
+        // Fall thru to fast mode for smaller numbers
+        // assert(i2 <= 65536, i2);
+        for (;;) {
+            q2 = (i2 * 52429) >>> (16+3);
+            r = i2 - ((q2 << 3) + (q2 << 1));  // r = i2-(q2*10) ...
+            buf[--charPos] = (byte)Integer.digits[r];
+            i2 = q2;
+            if (i2 == 0) break;
+        }
+        if (sign != 0) {
+            buf[--charPos] = sign;
+        }
+    }
+
     // Requires positive x
     static int stringSize(long x) {
         long p = 10;
@@ -631,6 +783,184 @@ public final class Long extends Number implements Comparable<Long> {
         return parseLong(s, 10);
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a signed {@code long} in the
+     * specified {@code radix}, beginning at the specified {@code beginIndex}
+     * and extending to {@code endIndex - 1}.
+     *
+     * <p>The method does not take steps to guard against the
+     * {@code CharSequence} being mutated while parsing.  No intermediate
+     * {@code String} is created, so a number may be parsed directly out of
+     * a larger buffer.
+     *
+     * @param      s   the {@code CharSequence} containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code s}.
+     * @return     the signed {@code long} represented by the subsequence in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code s} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code s.length()}.
+     * @throws     NumberFormatException  if the {@code CharSequence} does not
+     *             contain a parsable {@code long} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @see        #parseLong(String, int)
+     */
+    public static long parseLong(CharSequence s, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (s == null) {
+            throw new NullPointerException();
+        }
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        return parseRange(s, beginIndex, endIndex, radix);
+    }
+
+    /**
+     * Parses the ASCII bytes of the argument as a signed {@code long} in the
+     * specified {@code radix}, beginning at the specified {@code beginIndex}
+     * and extending to {@code endIndex - 1}.  Each byte is interpreted as
+     * the character with the same value in the range {@code 0} to
+     * {@code 255}; the accepted syntax is otherwise as for
+     * {@link #parseLong(CharSequence, int, int, int)}.
+     *
+     * <p>This allows a number to be parsed directly out of an I/O buffer
+     * without first decoding it to a {@code String}.
+     *
+     * @param      ascii   the bytes containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code ascii}.
+     * @return     the signed {@code long} represented by the bytes in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code ascii} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code ascii.length}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code long} in the specified {@code radix}, or
+     *             if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     */
+    public static long parseLong(byte[] ascii, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > ascii.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return parseRange(ascii, beginIndex, endIndex, radix);
+    }
+
+    /**
+     * Parses the ASCII bytes of the argument as a signed {@code long} in the
+     * specified {@code radix}, beginning at the absolute index
+     * {@code beginIndex} and extending to {@code endIndex - 1}, in exactly
+     * the manner of {@link #parseLong(byte[], int, int, int)}.  The
+     * position, limit and mark of the buffer are not changed.
+     *
+     * @param      ascii   the buffer containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code ascii}.
+     * @return     the signed {@code long} represented by the bytes in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code ascii} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code ascii.limit()}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code long} in the specified {@code radix}, or
+     *             if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     */
+    public static long parseLong(java.nio.ByteBuffer ascii, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > ascii.limit()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (ascii.hasArray()) {
+            int offset = ascii.arrayOffset();
+            return parseRange(ascii.array(), offset + beginIndex,
+                    offset + endIndex, radix);
+        }
+        return parseRange(ascii, beginIndex, endIndex, radix);
+    }
+
+    /*
+     * The loop shared by the range parsing methods.  src is a
+     * CharSequence, byte[] or ByteBuffer, read through Integer.charAt,
+     * and the range has already been checked against its bounds.
+     */
+    private static long parseRange(Object src, int beginIndex, int endIndex, int radix) {
+        checkRadix(radix);
+
+        boolean negative = false;
+        int i = beginIndex;
+        long limit = -Long.MAX_VALUE;
+
+        if (i < endIndex) {
+            char firstChar = Integer.charAt(src, i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+            }
+            long multmin = limit / radix;
+            long result = 0L;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Character.digit(Integer.charAt(src, i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forRange(src, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forRange(src, beginIndex, endIndex, i);
+        }
+    }
+
+    // Radix check shared by the range parsing methods
+    private static void checkRadix(int radix) {
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+    }
+
     /**
      * Parses the string argument as an unsigned {@code long} in the
      * radix specified by the second argument.  An unsigned integer
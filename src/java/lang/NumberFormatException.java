@@ -64,4 +64,21 @@ class NumberFormatException extends IllegalArgumentException {
     static NumberFormatException forInputString(String s) {
         return new NumberFormatException("For input string: \"" + s + "\"");
     }
+
+    /**
+     * Factory method for making a {@code NumberFormatException}
+     * given the specified range of input which caused the error.
+     *
+     * @param   src   the {@code CharSequence}, {@code byte[]} or
+     *                {@code ByteBuffer} causing the error
+     * @param   beginIndex   the beginning index, inclusive.
+     * @param   endIndex     the ending index, exclusive.
+     * @param   errorIndex   the index of the first error in src
+     */
+    static NumberFormatException forRange(Object src,
+            int beginIndex, int endIndex, int errorIndex) {
+        return new NumberFormatException("Error at index "
+            + (errorIndex - beginIndex) + " in: \""
+            + Integer.rangeToString(src, beginIndex, endIndex) + "\"");
+    }
 }
@@ -26,7 +26,11 @@
 package java.lang;
 
 import java.io.*;
+import java.nio.channels.Pipe;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * The {@link ProcessBuilder#start()} and
@@ -262,4 +266,119 @@ public abstract class Process {
             return true;
         }
     }
+
+    /**
+     * Returns the channel connected to the normal input of the
+     * subprocess, if the subprocess was started with {@linkplain
+     * ProcessBuilder#selectableChannels(boolean) selectable channels}.
+     * Bytes written to the channel are piped into the standard input of
+     * the process represented by this {@code Process} object.
+     *
+     * <p>The default implementation of this method throws {@code
+     * UnsupportedOperationException}.
+     *
+     * @return the channel connected to the normal input of the subprocess,
+     *         or {@code null} if the standard input of the subprocess has
+     *         been redirected
+     * @throws UnsupportedOperationException if the subprocess was not
+     *         started with selectable channels
+     * @since 1.8
+     */
+    public Pipe.SinkChannel getOutputChannel() {
+        throw new UnsupportedOperationException("selectable channels");
+    }
+
+    /**
+     * Returns the channel connected to the normal output of the
+     * subprocess, if the subprocess was started with {@linkplain
+     * ProcessBuilder#selectableChannels(boolean) selectable channels}.
+     * If the standard error of the subprocess has been {@linkplain
+     * ProcessBuilder#redirectErrorStream(boolean) redirected} to the
+     * standard output, the channel also receives the error output.
+     *
+     * <p>The default implementation of this method throws {@code
+     * UnsupportedOperationException}.
+     *
+     * @return the channel connected to the normal output of the subprocess,
+     *         or {@code null} if the standard output of the subprocess has
+     *         been redirected
+     * @throws UnsupportedOperationException if the subprocess was not
+     *         started with selectable channels
+     * @since 1.8
+     */
+    public Pipe.SourceChannel getInputChannel() {
+        throw new UnsupportedOperationException("selectable channels");
+    }
+
+    /**
+     * Returns the channel connected to the error output of the
+     * subprocess, if the subprocess was started with {@linkplain
+     * ProcessBuilder#selectableChannels(boolean) selectable channels}.
+     *
+     * <p>The default implementation of this method throws {@code
+     * UnsupportedOperationException}.
+     *
+     * @return the channel connected to the error output of the subprocess,
+     *         or {@code null} if the standard error of the subprocess has
+     *         been redirected
+     * @throws UnsupportedOperationException if the subprocess was not
+     *         started with selectable channels
+     * @since 1.8
+     */
+    public Pipe.SourceChannel getErrorChannel() {
+        throw new UnsupportedOperationException("selectable channels");
+    }
+
+    /**
+     * Returns a {@code CompletableFuture<Process>} for the termination of
+     * the subprocess.  The future is completed with this {@code Process}
+     * object when the subprocess exits, whatever its exit value; actions
+     * that depend on it can then examine the {@link #exitValue()}.
+     *
+     * <p>The default implementation of this method waits for the
+     * subprocess with {@link #waitFor()} in a task of the {@linkplain
+     * ForkJoinPool#commonPool() common pool}.  Concrete implementations of
+     * this class are strongly encouraged to override this method with a
+     * more efficient implementation; the processes returned by {@link
+     * ProcessBuilder#start} complete the future when their exit is
+     * detected, without a thread of their own.
+     *
+     * @return a new {@code CompletableFuture<Process>} for the termination
+     *         of the subprocess
+     * @since 1.8
+     */
+    public CompletableFuture<Process> onExit() {
+        return CompletableFuture.supplyAsync(new Supplier<Process>() {
+            public Process get() {
+                return waitForUninterruptibly();
+            }
+        });
+    }
+
+    // Waits for the subprocess in a pool thread, letting the pool make up
+    // for the blocked thread.
+    private Process waitForUninterruptibly() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    public boolean block() throws InterruptedException {
+                        waitFor();
+                        return true;
+                    }
+
+                    public boolean isReleasable() {
+                        return !isAlive();
+                    }
+                });
+                break;
+            } catch (InterruptedException x) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return this;
+    }
 }
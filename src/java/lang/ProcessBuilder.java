@@ -121,6 +121,13 @@ import java.util.Map;
  * always be a <a href="#redirect-output">null input stream</a>
  * </ul>
  *
+ * <li>a <i>selectableChannels</i> property.  Initially, this property
+ * is {@code false}.  If it is {@code true}, the pipes to the subprocess
+ * are also available as {@linkplain java.nio.channels.SelectableChannel
+ * selectable channels}, so that the input and output of many
+ * subprocesses can be served by a few threads with a {@link
+ * java.nio.channels.Selector Selector}.
+ *
  * </ul>
  *
  * <p>Modifying a process builder's attributes will affect processes
@@ -181,6 +188,7 @@ public final class ProcessBuilder
     private File directory;
     private Map<String,String> environment;
     private boolean redirectErrorStream;
+    private boolean selectableChannels;
     private Redirect[] redirects;
 
     /**
@@ -927,6 +935,46 @@ public final class ProcessBuilder
         return this;
     }
 
+    /**
+     * Tells whether this process builder starts subprocesses whose pipes
+     * are selectable channels.
+     *
+     * @return this process builder's {@code selectableChannels} property
+     * @see #selectableChannels(boolean)
+     * @since 1.8
+     */
+    public boolean selectableChannels() {
+        return selectableChannels;
+    }
+
+    /**
+     * Sets this process builder's {@code selectableChannels} property.
+     *
+     * <p>If this property is {@code true}, then the pipes to the standard
+     * input, output and error of subprocesses subsequently started by
+     * this object's {@link #start()} method can be obtained as channels
+     * with the {@link Process#getOutputChannel()},
+     * {@link Process#getInputChannel()} and
+     * {@link Process#getErrorChannel()} methods.  The channels may be
+     * configured non-blocking and registered with a {@link
+     * java.nio.channels.Selector Selector}.  The streams of the
+     * subprocess then read and write the same channels, and can only be
+     * used while the channels are in blocking mode.
+     *
+     * <p>Unlike the streams of other subprocesses, the channels are not
+     * closed when the subprocess exits; the caller must read any
+     * remaining output and close them.  The initial value is
+     * {@code false}.
+     *
+     * @param  selectableChannels the new property value
+     * @return this process builder
+     * @since 1.8
+     */
+    public ProcessBuilder selectableChannels(boolean selectableChannels) {
+        this.selectableChannels = selectableChannels;
+        return this;
+    }
+
     /**
      * Starts a new process using the attributes of this process builder.
      *
@@ -1030,7 +1078,8 @@ public final class ProcessBuilder
                                      environment,
                                      dir,
                                      redirects,
-                                     redirectErrorStream);
+                                     redirectErrorStream,
+                                     selectableChannels);
         } catch (IOException | IllegalArgumentException e) {
             String exceptionInfo = ": " + e.getMessage();
             Throwable cause = e;
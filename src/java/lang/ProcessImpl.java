@@ -61,7 +61,8 @@ final class ProcessImpl {
                          java.util.Map<String,String> environment,
                          String dir,
                          ProcessBuilder.Redirect[] redirects,
-                         boolean redirectErrorStream)
+                         boolean redirectErrorStream,
+                         boolean selectableChannels)
         throws IOException
     {
         assert cmdarray != null && cmdarray.length > 0;
@@ -133,7 +134,8 @@ final class ProcessImpl {
              envBlock, envc[0],
              toCString(dir),
                  std_fds,
-             redirectErrorStream);
+             redirectErrorStream,
+             selectableChannels);
         } finally {
             // In theory, close() can throw IOException
             // (although it is rather unlikely to happen here)
@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * An append-only sequence of characters held in fixed-size chunks, for
+ * building very large texts.
+ *
+ * <p>A {@link StringBuilder} keeps its characters in one array, which is
+ * replaced by an array of twice the size, and copied, whenever it fills
+ * up, and whose contents are copied again by {@code toString}.  For texts
+ * of hundreds of megabytes this means several copies of the whole text and
+ * allocations of very large arrays.  A {@code SegmentedStringBuilder}
+ * instead adds a new chunk when the last one fills up and never moves
+ * characters once appended.  The text can be written to a {@link Writer}
+ * or, encoded, to a {@link WritableByteChannel} chunk by chunk, without
+ * ever being flattened into a single array.
+ *
+ * <p>Since characters can only be appended, never changed or removed
+ * (except by {@link #clear()}), the sequences returned by
+ * {@link #subSequence(int, int)} are views of the chunks that share
+ * rather than copy the characters, and remain valid and unchanged
+ * regardless of subsequent appends.
+ *
+ * <p>Instances of {@code SegmentedStringBuilder} are not safe for use by
+ * multiple threads.  If such synchronization is required then it is
+ * recommended that the builder be wrapped in a {@link java.io.StringWriter}
+ * or {@link java.io.CharArrayWriter}, which can be constructed to write
+ * into a segmented builder.
+ *
+ * <p>Unless otherwise noted, passing a {@code null} argument to a
+ * constructor or method in this class will cause a
+ * {@link NullPointerException} to be thrown.
+ *
+ * @see     StringBuilder
+ * @since   1.8
+ */
+public final class SegmentedStringBuilder implements Appendable, CharSequence {
+
+    private static final int DEFAULT_CHUNK_SIZE = 8192;
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    /*
+     * Chunk k holds the characters at indexes [k << shift, (k + 1) << shift).
+     * Chunks are allocated as they are needed, and never reallocated: the
+     * array of chunks is grown by copying references only.
+     */
+    private final int shift;
+    private final int mask;
+    private char[][] chunks;
+    private int count;
+
+    /**
+     * Constructs an empty builder with a default chunk size of 8192
+     * characters.
+     */
+    public SegmentedStringBuilder() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs an empty builder with the given chunk size, rounded up to
+     * a power of two.
+     *
+     * @param  chunkSize the number of characters per chunk
+     * @throws IllegalArgumentException if {@code chunkSize} is not positive
+     */
+    public SegmentedStringBuilder(int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Illegal chunk size: " +
+                                               chunkSize);
+        int s = 0;
+        while ((1 << s) < chunkSize && (1 << s) < MAX_CHUNK_SIZE)
+            s++;
+        shift = s;
+        mask = (1 << s) - 1;
+        chunks = new char[4][];
+    }
+
+    /**
+     * Returns the number of characters in this builder.
+     *
+     * @return  the number of characters in this builder
+     */
+    @Override
+    public int length() {
+        return count;
+    }
+
+    /**
+     * Returns the character at the specified index, which is located in
+     * constant time.
+     *
+     * @param  index the index of the character
+     * @return the character at the specified index
+     * @throws IndexOutOfBoundsException if {@code index} is negative or not
+     *         less than {@code length()}
+     */
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= count)
+            throw new StringIndexOutOfBoundsException(index);
+        return chunks[index >>> shift][index & mask];
+    }
+
+    /**
+     * Returns a view of the characters from {@code start}, inclusive, to
+     * {@code end}, exclusive.  The characters are not copied.  Since they
+     * cannot change, the view is not affected by subsequent appends to,
+     * or clearing of, this builder.
+     *
+     * @param  start the start index, inclusive
+     * @param  end the end index, exclusive
+     * @return the specified subsequence
+     * @throws IndexOutOfBoundsException if {@code start} or {@code end} are
+     *         negative, if {@code end} is greater than {@code length()}, or
+     *         if {@code start} is greater than {@code end}
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkRange(start, end, count);
+        return new View(chunks, shift, start, end);
+    }
+
+    /**
+     * Copies characters from this builder into the destination array.
+     *
+     * @param  srcBegin copy from this index, inclusive
+     * @param  srcEnd copy up to this index, exclusive
+     * @param  dst the destination array
+     * @param  dstBegin the offset into {@code dst}
+     * @throws IndexOutOfBoundsException if the source range is not within
+     *         this builder, or the destination range is not within
+     *         {@code dst}
+     */
+    public void getChars(int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+        checkRange(srcBegin, srcEnd, count);
+        if (dstBegin < 0 || dstBegin > dst.length - (srcEnd - srcBegin))
+            throw new StringIndexOutOfBoundsException(dstBegin);
+        copyOut(chunks, shift, srcBegin, srcEnd, dst, dstBegin);
+    }
+
+    /**
+     * Appends the specified character.
+     *
+     * @param  c a character
+     * @return a reference to this builder
+     */
+    @Override
+    public SegmentedStringBuilder append(char c) {
+        int n = count;
+        ensureCapacity(n, 1);
+        chunks[n >>> shift][n & mask] = c;
+        count = n + 1;
+        return this;
+    }
+
+    /**
+     * Appends the specified string, or {@code "null"} if {@code str} is
+     * {@code null}.
+     *
+     * @param  str a string
+     * @return a reference to this builder
+     */
+    public SegmentedStringBuilder append(String str) {
+        if (str == null)
+            str = "null";
+        return append(str, 0, str.length());
+    }
+
+    /**
+     * Appends the specified character sequence, or {@code "null"} if
+     * {@code csq} is {@code null}.
+     *
+     * @param  csq a character sequence
+     * @return a reference to this builder
+     */
+    @Override
+    public SegmentedStringBuilder append(CharSequence csq) {
+        if (csq == null)
+            csq = "null";
+        return append(csq, 0, csq.length());
+    }
+
+    /**
+     * Appends a subsequence of the specified character sequence, or of
+     * {@code "null"} if {@code csq} is {@code null}.
+     *
+     * @param  csq a character sequence
+     * @param  start the start index, inclusive
+     * @param  end the end index, exclusive
+     * @return a reference to this builder
+     * @throws IndexOutOfBoundsException if {@code start} or {@code end} are
+     *         negative, if {@code end} is greater than {@code csq.length()},
+     *         or if {@code start} is greater than {@code end}
+     */
+    @Override
+    public SegmentedStringBuilder append(CharSequence csq, int start, int end) {
+        if (csq == null)
+            csq = "null";
+        checkRange(start, end, csq.length());
+        int len = end - start;
+        int n = count;
+        ensureCapacity(n, len);
+        while (start < end) {
+            char[] chunk = chunks[n >>> shift];
+            int off = n & mask;
+            int m = Math.min(end - start, chunk.length - off);
+            if (csq instanceof String) {
+                ((String) csq).getChars(start, start + m, chunk, off);
+            } else if (csq instanceof AbstractStringBuilder) {
+                ((AbstractStringBuilder) csq).getChars(start, start + m,
+                                                       chunk, off);
+            } else {
+                for (int i = 0; i < m; i++)
+                    chunk[off + i] = csq.charAt(start + i);
+            }
+            start += m;
+            n += m;
+        }
+        count = n;
+        return this;
+    }
+
+    /**
+     * Appends characters of the specified array.
+     *
+     * @param  str the characters to append
+     * @param  offset the index of the first character to append
+     * @param  len the number of characters to append
+     * @return a reference to this builder
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code len} are
+     *         negative, or {@code offset + len} is greater than
+     *         {@code str.length}
+     */
+    public SegmentedStringBuilder append(char[] str, int offset, int len) {
+        if (offset < 0 || len < 0 || offset > str.length - len)
+            throw new IndexOutOfBoundsException(
+                "offset " + offset + ", length " + len);
+        int n = count;
+        ensureCapacity(n, len);
+        int end = offset + len;
+        while (offset < end) {
+            char[] chunk = chunks[n >>> shift];
+            int off = n & mask;
+            int m = Math.min(end - offset, chunk.length - off);
+            System.arraycopy(str, offset, chunk, off, m);
+            offset += m;
+            n += m;
+        }
+        count = n;
+        return this;
+    }
+
+    /**
+     * Appends the string representation of the specified object.
+     *
+     * @param  obj an object
+     * @return a reference to this builder
+     * @see    String#valueOf(Object)
+     */
+    public SegmentedStringBuilder append(Object obj) {
+        return append(String.valueOf(obj));
+    }
+
+    /**
+     * Appends the decimal string representation of the specified
+     * {@code int}, without creating a string.
+     *
+     * @param  i an int
+     * @return a reference to this builder
+     * @see    Integer#toString(int)
+     */
+    public SegmentedStringBuilder append(int i) {
+        if (i == Integer.MIN_VALUE)
+            return append("-2147483648");
+        int size = (i < 0) ? Integer.stringSize(-i) + 1
+                           : Integer.stringSize(i);
+        char[] buf = new char[size];
+        Integer.getChars(i, size, buf);
+        return append(buf, 0, size);
+    }
+
+    /**
+     * Appends the decimal string representation of the specified
+     * {@code long}, without creating a string.
+     *
+     * @param  l a long
+     * @return a reference to this builder
+     * @see    Long#toString(long)
+     */
+    public SegmentedStringBuilder append(long l) {
+        if (l == Long.MIN_VALUE)
+            return append("-9223372036854775808");
+        int size = (l < 0) ? Long.stringSize(-l) + 1
+                           : Long.stringSize(l);
+        char[] buf = new char[size];
+        Long.getChars(l, size, buf);
+        return append(buf, 0, size);
+    }
+
+    /**
+     * Removes all characters from this builder.  Subsequences obtained
+     * before are not affected, since the chunks are released rather than
+     * reused.
+     */
+    public void clear() {
+        chunks = new char[4][];
+        count = 0;
+    }
+
+    /**
+     * Writes the characters of this builder to the specified writer, one
+     * chunk at a time.
+     *
+     * @param  out the writer
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(Writer out) throws IOException {
+        int n = count;
+        for (int k = 0; n > 0; k++) {
+            char[] chunk = chunks[k];
+            int m = Math.min(n, chunk.length);
+            out.write(chunk, 0, m);
+            n -= m;
+        }
+    }
+
+    /**
+     * Encodes the characters of this builder with the specified charset
+     * and writes the bytes to the specified channel, one chunk at a time.
+     * Malformed input and unmappable characters are replaced with the
+     * charset's default replacement, as by {@link String#getBytes(Charset)}.
+     *
+     * @param  out the channel
+     * @param  cs the charset
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(WritableByteChannel out, Charset cs)
+        throws IOException
+    {
+        CharsetEncoder ce = cs.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        int chunkSize = 1 << shift;
+        ByteBuffer bb = ByteBuffer.allocate(
+            (int) Math.min(Math.max(chunkSize * (double) ce.maxBytesPerChar(),
+                                    64), 1 << 16));
+        char[] carry = null;
+        int n = count;
+        for (int k = 0; n > 0; k++) {
+            char[] chunk = chunks[k];
+            int m = Math.min(n, chunk.length);
+            n -= m;
+            CharBuffer cb;
+            if (carry == null) {
+                cb = CharBuffer.wrap(chunk, 0, m);
+            } else {
+                // a surrogate pair was split across chunks: copy this chunk
+                // behind the trailing high surrogate of the previous one
+                carry = Arrays.copyOf(carry, m + 1);
+                System.arraycopy(chunk, 0, carry, 1, m);
+                cb = CharBuffer.wrap(carry);
+            }
+            encode(ce, cb, bb, n == 0, out);
+            if (cb.hasRemaining()) {
+                carry = new char[] { cb.get() };
+            } else {
+                carry = null;
+            }
+        }
+        for (;;) {
+            CoderResult cr = ce.flush(bb);
+            drain(bb, out);
+            if (cr.isUnderflow())
+                break;
+        }
+    }
+
+    private static void encode(CharsetEncoder ce, CharBuffer cb, ByteBuffer bb,
+                               boolean endOfInput, WritableByteChannel out)
+        throws IOException
+    {
+        for (;;) {
+            CoderResult cr = ce.encode(cb, bb, endOfInput);
+            if (cr.isUnderflow())
+                break;
+            if (cr.isOverflow()) {
+                drain(bb, out);
+                continue;
+            }
+            try {
+                cr.throwException();
+            } catch (CharacterCodingException x) {
+                // cannot happen with REPLACE actions
+                throw new Error(x);
+            }
+        }
+        drain(bb, out);
+    }
+
+    private static void drain(ByteBuffer bb, WritableByteChannel out)
+        throws IOException
+    {
+        bb.flip();
+        while (bb.hasRemaining())
+            out.write(bb);
+        bb.clear();
+    }
+
+    /**
+     * Returns a string holding the characters of this builder.  The
+     * characters are copied once, into the string.
+     *
+     * @return  a string representation of this sequence of characters
+     */
+    @Override
+    public String toString() {
+        return toString(chunks, shift, 0, count);
+    }
+
+    /*
+     * Makes room for len more characters after the first n, adding chunks
+     * as needed.
+     */
+    private void ensureCapacity(int n, int len) {
+        if (len > Integer.MAX_VALUE - n)
+            throw new OutOfMemoryError();
+        if (len == 0)
+            return;
+        int last = (n + len - 1) >>> shift;
+        char[][] cs = chunks;
+        if (last >= cs.length)
+            chunks = cs = Arrays.copyOf(cs, Math.max(cs.length << 1, last + 1));
+        for (int k = n >>> shift; k <= last; k++) {
+            if (cs[k] == null)
+                cs[k] = new char[1 << shift];
+        }
+    }
+
+    static void checkRange(int start, int end, int length) {
+        if (start < 0 || start > end || end > length)
+            throw new StringIndexOutOfBoundsException(
+                "start " + start + ", end " + end + ", length " + length);
+    }
+
+    static void copyOut(char[][] chunks, int shift, int begin, int end,
+                        char[] dst, int dstBegin) {
+        int mask = (1 << shift) - 1;
+        while (begin < end) {
+            char[] chunk = chunks[begin >>> shift];
+            int off = begin & mask;
+            int m = Math.min(end - begin, chunk.length - off);
+            System.arraycopy(chunk, off, dst, dstBegin, m);
+            begin += m;
+            dstBegin += m;
+        }
+    }
+
+    static String toString(char[][] chunks, int shift, int begin, int end) {
+        char[] value = new char[end - begin];
+        copyOut(chunks, shift, begin, end, value, 0);
+        // value is not shared, so the string can take it over
+        return new String(value, true);
+    }
+
+    /**
+     * A subsequence of a builder.  The chunks holding it are never
+     * modified, since the builder only writes beyond its length.
+     */
+    private static final class View implements CharSequence {
+        private final char[][] chunks;
+        private final int shift;
+        private final int begin;
+        private final int end;
+
+        View(char[][] chunks, int shift, int begin, int end) {
+            this.chunks = chunks;
+            this.shift = shift;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - begin;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - begin)
+                throw new StringIndexOutOfBoundsException(index);
+            int i = begin + index;
+            return chunks[i >>> shift][i & ((1 << shift) - 1)];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            checkRange(start, end, this.end - begin);
+            return new View(chunks, shift, begin + start, begin + end);
+        }
+
+        @Override
+        public String toString() {
+            return SegmentedStringBuilder.toString(chunks, shift, begin, end);
+        }
+    }
+}
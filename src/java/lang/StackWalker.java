@@ -0,0 +1,479 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A stack walker.
+ *
+ * <p>The {@link #walk walk} method opens a sequential stream of
+ * {@link StackFrame StackFrame}s for the current thread and then applies
+ * the given function to walk the stream.  The stream reports stack frame
+ * elements in order, from the top most frame that represents the execution
+ * point at which the stack was generated to the bottom most frame.  The
+ * frames are materialized lazily, as the stream is traversed, so a walk
+ * that finds what it is looking for near the top of the stack, and
+ * terminates early, for example with {@link Stream#findFirst()}, or limits
+ * the number of frames with {@link Stream#limit(long)}, does not pay for
+ * the rest of the stack.  The stream is closed when the {@code walk}
+ * method returns; an attempt to reuse it afterwards results in an
+ * {@code IllegalStateException}.
+ *
+ * <p>The {@linkplain Option <em>stack walking options</em>} of a
+ * {@code StackWalker} determine the frames to be returned and the methods
+ * it supports.  By default, frames of the reflection machinery are
+ * skipped, and {@link #getCallerClass()} is not available.
+ *
+ * <p>{@link #getCallerClass()} finds the class of the caller of the method
+ * calling it, without creating any frames or strings.
+ *
+ * <p>Frames of the {@code StackWalker} implementation are never reported.
+ * A {@code StackWalker} is thread-safe; multiple threads can share a
+ * single instance to traverse their own stacks.
+ *
+ * <p>Examples:
+ * <pre>{@code
+ * // the frames of the stack, up to ten
+ * List<StackFrame> frames = StackWalker.getInstance().walk(s ->
+ *     s.limit(10).collect(Collectors.toList()));
+ *
+ * // the first frame not in class Foo
+ * Optional<StackFrame> frame = StackWalker.getInstance().walk(s ->
+ *     s.filter(f -> !f.getClassName().equals(Foo.class.getName()))
+ *      .findFirst());
+ * }</pre>
+ *
+ * @implNote
+ * Frames are read one at a time from the backtrace of the stack the
+ * virtual machine records for a {@code Throwable}, so no
+ * {@code StackTraceElement} is created for frames that are not reached.
+ * The backtrace itself is recorded for the whole stack when the walk
+ * starts, as for any {@code Throwable}; only the creation of frames is
+ * bounded by the walk.  {@link #getCallerClass()} uses the classes of the
+ * execution stack as reported to
+ * {@link SecurityManager#getClassContext()} instead, which involves no
+ * strings at all.
+ *
+ * @since 1.8
+ */
+public final class StackWalker {
+
+    /**
+     * A {@code StackFrame} object represents a method invocation returned by
+     * {@link StackWalker}.
+     *
+     * @since 1.8
+     */
+    public interface StackFrame {
+        /**
+         * Gets the <a href="ClassLoader.html#name">binary name</a>
+         * of the declaring class of the method represented by this stack
+         * frame.
+         *
+         * @return the binary name of the declaring class of the method
+         *         represented by this stack frame
+         */
+        String getClassName();
+
+        /**
+         * Gets the name of the method represented by this stack frame.
+         *
+         * @return the name of the method represented by this stack frame
+         */
+        String getMethodName();
+
+        /**
+         * Returns the name of the source file containing the execution
+         * point represented by this stack frame, or {@code null} if it is
+         * unavailable.
+         *
+         * @return the name of the file containing the execution point, or
+         *         {@code null}
+         */
+        String getFileName();
+
+        /**
+         * Returns the line number of the source line containing the
+         * execution point represented by this stack frame, or a negative
+         * number if it is unavailable; -2 indicates a native method.
+         *
+         * @return the line number, or a negative number
+         */
+        int getLineNumber();
+
+        /**
+         * Returns {@code true} if the method containing the execution point
+         * represented by this stack frame is a native method.
+         *
+         * @return {@code true} if the method is a native method
+         */
+        boolean isNativeMethod();
+
+        /**
+         * Gets a {@code StackTraceElement} for this stack frame.
+         *
+         * @return {@code StackTraceElement} for this stack frame
+         */
+        StackTraceElement toStackTraceElement();
+    }
+
+    /**
+     * Stack walker option to configure the {@linkplain StackFrame stack
+     * frame} information obtained by a {@code StackWalker}.
+     *
+     * @since 1.8
+     */
+    public enum Option {
+        /**
+         * Enables {@link StackWalker#getCallerClass()}, which returns a
+         * {@code Class} object.
+         *
+         * <p>A {@code StackWalker} configured with this option requires
+         * the {@code RuntimePermission("getStackWalkerWithClassReference")}.
+         */
+        RETAIN_CLASS_REFERENCE,
+
+        /**
+         * Shows all reflection frames: the frames of
+         * {@link java.lang.reflect.Method#invoke},
+         * {@link java.lang.reflect.Constructor#newInstance} and of their
+         * implementation.  By default they are skipped.
+         */
+        SHOW_REFLECT_FRAMES
+    }
+
+    private static final StackWalker DEFAULT_WALKER =
+        new StackWalker(EnumSet.noneOf(Option.class));
+
+    private final Set<Option> options;
+    private final boolean retainClassRef;
+    private final boolean showReflectFrames;
+
+    private StackWalker(Set<Option> options) {
+        this.options = Collections.unmodifiableSet(options);
+        this.retainClassRef = options.contains(Option.RETAIN_CLASS_REFERENCE);
+        this.showReflectFrames = options.contains(Option.SHOW_REFLECT_FRAMES);
+    }
+
+    /**
+     * Returns a {@code StackWalker} instance that skips reflection frames
+     * and does not retain {@code Class} references.
+     *
+     * @return a {@code StackWalker} configured to skip reflection frames
+     */
+    public static StackWalker getInstance() {
+        return DEFAULT_WALKER;
+    }
+
+    /**
+     * Returns a {@code StackWalker} instance with the given option
+     * specifying the stack frame information it can access.
+     *
+     * @param option {@link Option stack walking option}
+     * @return a {@code StackWalker} configured with the given option
+     * @throws SecurityException if a security manager exists and its
+     *         {@code checkPermission} method denies access to the
+     *         {@code RETAIN_CLASS_REFERENCE} option
+     */
+    public static StackWalker getInstance(Option option) {
+        return getInstance(EnumSet.of(Objects.requireNonNull(option)));
+    }
+
+    /**
+     * Returns a {@code StackWalker} instance with the given options
+     * specifying the stack frame information it can access.  If the given
+     * {@code options} is empty, the instance skips reflection frames and
+     * does not retain {@code Class} references.
+     *
+     * @param options {@link Option stack walking options}
+     * @return a {@code StackWalker} configured with the given options
+     * @throws SecurityException if a security manager exists and its
+     *         {@code checkPermission} method denies access to the
+     *         {@code RETAIN_CLASS_REFERENCE} option
+     */
+    public static StackWalker getInstance(Set<Option> options) {
+        if (options.isEmpty())
+            return DEFAULT_WALKER;
+        EnumSet<Option> optionSet = EnumSet.copyOf(options);
+        if (optionSet.contains(Option.RETAIN_CLASS_REFERENCE)) {
+            SecurityManager sm = System.getSecurityManager();
+            if (sm != null) {
+                sm.checkPermission(
+                    new RuntimePermission("getStackWalkerWithClassReference"));
+            }
+        }
+        return new StackWalker(optionSet);
+    }
+
+    /**
+     * Returns the stack walking options of this walker.
+     *
+     * @return an unmodifiable set of the options of this walker
+     */
+    public Set<Option> getOptions() {
+        return options;
+    }
+
+    /**
+     * Applies the given function to the stream of {@code StackFrame}s for
+     * the current thread, traversing from the top frame of the stack, which
+     * is the method calling this {@code walk} method.
+     *
+     * <p>The {@code StackFrame} stream will be closed when this method
+     * returns.  When a closed {@code Stream<StackFrame>} object is reused,
+     * {@code IllegalStateException} will be thrown.
+     *
+     * @param function a function that takes a stream of
+     *        {@linkplain StackFrame stack frames} and returns a result.
+     * @param <T> The type of the result of applying the function to the
+     *        stream of {@linkplain StackFrame stack frame}.
+     * @return the result of applying the function to the stream of
+     *         {@linkplain StackFrame stack frame}.
+     */
+    public <T> T walk(Function<? super Stream<StackFrame>, ? extends T> function) {
+        Objects.requireNonNull(function);
+        FrameSpliterator frames = new FrameSpliterator(this);
+        try (Stream<StackFrame> s = StreamSupport.stream(frames, false)) {
+            return function.apply(s);
+        } finally {
+            frames.close();
+        }
+    }
+
+    /**
+     * Performs the given action on each element of {@code StackFrame}
+     * stream of the current thread, traversing from the top frame of the
+     * stack, which is the method calling this {@code forEach} method.
+     *
+     * @param action an action to be performed on each {@code StackFrame}
+     *        of the stack of the current thread
+     */
+    public void forEach(Consumer<? super StackFrame> action) {
+        Objects.requireNonNull(action);
+        FrameSpliterator frames = new FrameSpliterator(this);
+        try {
+            frames.forEachRemaining(action);
+        } finally {
+            frames.close();
+        }
+    }
+
+    /**
+     * Gets the {@code Class} object of the caller who invoked the method
+     * that invoked {@code getCallerClass}.
+     *
+     * <p>Reflection frames are skipped, whether or not this walker shows
+     * them, and so are frames of native methods.  No {@code StackFrame}s or
+     * strings are created.
+     *
+     * @return {@code Class} object of the caller's caller invoking this
+     *         method.
+     * @throws UnsupportedOperationException if this {@code StackWalker} is
+     *         not configured with {@code Option.RETAIN_CLASS_REFERENCE}.
+     * @throws IllegalStateException if this method is called from the
+     *         bottom most frame on the call stack.
+     */
+    public Class<?> getCallerClass() {
+        if (!retainClassRef)
+            throw new UnsupportedOperationException(
+                "This stack walker does not have RETAIN_CLASS_REFERENCE access");
+        Class<?>[] classes = ClassContext.get();
+        int i = ClassContext.skipWalkerFrames(classes, 0);
+        // classes[i] invoked getCallerClass, classes[i + 1] is its caller
+        if (i + 1 >= classes.length)
+            throw new IllegalStateException("no caller frame");
+        return classes[i + 1];
+    }
+
+    /*
+     * Returns true if the given frame belongs to the implementation of core
+     * reflection: Method.invoke, Constructor.newInstance and the accessors
+     * they delegate to, including generated ones.
+     */
+    static boolean isReflectionFrame(String className, String methodName) {
+        switch (className) {
+            case "java.lang.reflect.Method":
+                return methodName.equals("invoke");
+            case "java.lang.reflect.Constructor":
+                return methodName.equals("newInstance");
+            default:
+                return className.startsWith("sun.reflect.") &&
+                       (className.endsWith("AccessorImpl") ||
+                        className.startsWith("sun.reflect.Generated"));
+        }
+    }
+
+    /*
+     * Returns true if the given class name is that of StackWalker or of one
+     * of its nested classes.
+     */
+    static boolean isWalkerClassName(String className) {
+        return className.startsWith("java.lang.StackWalker");
+    }
+
+    /**
+     * Access to the classes of the execution stack, through the protected
+     * {@code SecurityManager.getClassContext()}.  The instance is never
+     * installed as a security manager.
+     */
+    private static final class ClassContext extends SecurityManager {
+        private static final ClassContext INSTANCE =
+            AccessController.doPrivileged(new PrivilegedAction<ClassContext>() {
+                public ClassContext run() {
+                    return new ClassContext();
+                }
+            });
+
+        /*
+         * Returns the classes of the methods on the stack, the top most
+         * first, without frames of native methods and of core reflection.
+         */
+        static Class<?>[] get() {
+            return INSTANCE.getClassContext();
+        }
+
+        /*
+         * Returns the index of the first class from the given index on
+         * that is not part of the walker: ClassContext, StackWalker and
+         * its nested classes.
+         */
+        static int skipWalkerFrames(Class<?>[] classes, int i) {
+            while (i < classes.length &&
+                   isWalkerClassName(classes[i].getName()))
+                i++;
+            return i;
+        }
+
+    }
+
+    /**
+     * A spliterator of the frames of the current stack.  The stack is
+     * captured on construction, but each StackTraceElement is only created
+     * when its frame is reached.
+     */
+    static final class FrameSpliterator
+        extends Spliterators.AbstractSpliterator<StackFrame> {
+
+        private final StackWalker walker;
+        // The captured stack, null when closed
+        private Throwable stack;
+        private final int depth;
+        private int index;
+
+        FrameSpliterator(StackWalker walker) {
+            super(Long.MAX_VALUE, ORDERED | IMMUTABLE | NONNULL);
+            this.walker = walker;
+            // fillInStackTrace records the stack from the frame of this
+            // constructor on: skip it and the frames of walk or forEach
+            Throwable t = new Throwable();
+            int n = t.getStackTraceDepth();
+            int i = 0;
+            while (i < n && isWalkerClassName(
+                       t.getStackTraceElement(i).getClassName()))
+                i++;
+            this.stack = t;
+            this.depth = n;
+            this.index = i;
+        }
+
+        void close() {
+            stack = null;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super StackFrame> action) {
+            Throwable t = stack;
+            if (t == null)
+                throw new IllegalStateException("stack walk has ended");
+            while (index < depth) {
+                StackTraceElement ste = t.getStackTraceElement(index++);
+                if (!walker.showReflectFrames &&
+                    isReflectionFrame(ste.getClassName(), ste.getMethodName()))
+                    continue;
+                action.accept(new Frame(ste));
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A frame of a walk.
+     */
+    static final class Frame implements StackFrame {
+        private final StackTraceElement ste;
+
+        Frame(StackTraceElement ste) {
+            this.ste = ste;
+        }
+
+        @Override
+        public String getClassName() {
+            return ste.getClassName();
+        }
+
+        @Override
+        public String getMethodName() {
+            return ste.getMethodName();
+        }
+
+        @Override
+        public String getFileName() {
+            return ste.getFileName();
+        }
+
+        @Override
+        public int getLineNumber() {
+            return ste.getLineNumber();
+        }
+
+        @Override
+        public boolean isNativeMethod() {
+            return ste.isNativeMethod();
+        }
+
+        @Override
+        public StackTraceElement toStackTraceElement() {
+            return ste;
+        }
+
+        @Override
+        public String toString() {
+            return ste.toString();
+        }
+    }
+}
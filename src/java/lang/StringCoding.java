@@ -117,6 +117,205 @@ class StringCoding {
         }
     }
 
+    // -- Fast paths for the standard single-byte and UTF-8 charsets --
+    //
+    // These avoid the CharsetDecoder/CharsetEncoder lookup and state
+    // machine, and size the result array exactly so that no trimming
+    // copy is needed.  They reproduce the REPLACE behavior of the
+    // corresponding JDK coders for malformed and unmappable input.
+
+    private static final int CODING_NONE = 0;
+    private static final int CODING_UTF_8 = 1;
+    private static final int CODING_ISO_8859_1 = 2;
+    private static final int CODING_US_ASCII = 3;
+
+    /**
+     * Returns the fast coding for the given charset, or CODING_NONE.
+     * Only the JDK's own implementations qualify, so the fast paths can
+     * never bypass a coder supplied by an application.
+     */
+    private static int fastCoding(Charset cs) {
+        String n = cs.name();
+        int coding = "UTF-8".equals(n) ? CODING_UTF_8
+                   : "ISO-8859-1".equals(n) ? CODING_ISO_8859_1
+                   : "US-ASCII".equals(n) ? CODING_US_ASCII
+                   : CODING_NONE;
+        if (coding != CODING_NONE && cs.getClass().getClassLoader0() != null)
+            coding = CODING_NONE;
+        return coding;
+    }
+
+    /**
+     * Returns the number of leading bytes in the given range that are
+     * non-negative, that is ASCII.  Eight bytes at a time are tested with
+     * a single sign check of their bitwise or.
+     */
+    private static int countPositives(byte[] ba, int off, int len) {
+        int i = off;
+        int limit = off + len;
+        for (int wlimit = limit - 7; i < wlimit; i += 8) {
+            if ((ba[i] | ba[i + 1] | ba[i + 2] | ba[i + 3] |
+                 ba[i + 4] | ba[i + 5] | ba[i + 6] | ba[i + 7]) < 0)
+                break;
+        }
+        while (i < limit && ba[i] >= 0)
+            i++;
+        return i - off;
+    }
+
+    /**
+     * Decodes the given range with a fast path, or returns null if the
+     * coding has no fast path for this input.
+     */
+    private static char[] decodeFast(int coding, byte[] ba, int off, int len) {
+        char[] ca;
+        switch (coding) {
+            case CODING_ISO_8859_1:
+                ca = new char[len];
+                for (int i = 0; i < len; i++)
+                    ca[i] = (char)(ba[off + i] & 0xff);
+                return ca;
+            case CODING_US_ASCII:
+                ca = new char[len];
+                for (int i = 0; i < len; i++) {
+                    byte b = ba[off + i];
+                    ca[i] = (b >= 0) ? (char)b : '\ufffd';
+                }
+                return ca;
+            case CODING_UTF_8:
+                // Only all-ASCII input is decoded here; anything else is
+                // left to the UTF-8 decoder, which has its own ASCII loop
+                if (countPositives(ba, off, len) != len)
+                    return null;
+                ca = new char[len];
+                for (int i = 0; i < len; i++)
+                    ca[i] = (char)ba[off + i];
+                return ca;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Encodes the given range with a fast path, or returns null if the
+     * coding has no fast path.
+     */
+    private static byte[] encodeFast(int coding, char[] ca, int off, int len) {
+        switch (coding) {
+            case CODING_UTF_8:
+                return encodeUTF8(ca, off, len);
+            case CODING_ISO_8859_1:
+                return encode8859(ca, off, len, 0xff);
+            case CODING_US_ASCII:
+                return encode8859(ca, off, len, 0x7f);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Encodes to a single-byte charset mapping U+0000..U+(max).  Each
+     * unmappable character, or surrogate pair, is replaced by a single
+     * '?'.
+     */
+    private static byte[] encode8859(char[] ca, int off, int len, int max) {
+        int limit = off + len;
+        int i = off;
+        while (i < limit && ca[i] <= max)
+            i++;
+        int blen = len;
+        if (i < limit) {
+            // Count the surrogate pairs that collapse to one byte
+            for (int j = i; j < limit; j++) {
+                if (Character.isHighSurrogate(ca[j]) && j + 1 < limit
+                        && Character.isLowSurrogate(ca[j + 1])) {
+                    blen--;
+                    j++;
+                }
+            }
+        }
+        byte[] ba = new byte[blen];
+        int dp = 0;
+        for (int sp = off; sp < limit; ) {
+            char c = ca[sp++];
+            if (c <= max) {
+                ba[dp++] = (byte)c;
+            } else {
+                if (Character.isHighSurrogate(c) && sp < limit
+                        && Character.isLowSurrogate(ca[sp]))
+                    sp++;
+                ba[dp++] = (byte)'?';
+            }
+        }
+        return ba;
+    }
+
+    /**
+     * Encodes to UTF-8.  A malformed surrogate is replaced by a single
+     * '?', as by the UTF-8 encoder.
+     */
+    private static byte[] encodeUTF8(char[] ca, int off, int len) {
+        int limit = off + len;
+        int i = off;
+        while (i < limit && ca[i] < 0x80)
+            i++;
+        if (i == limit) {
+            byte[] ba = new byte[len];
+            for (int j = 0; j < len; j++)
+                ba[j] = (byte)ca[off + j];
+            return ba;
+        }
+        // First pass computes the exact encoded length
+        int blen = i - off;
+        for (int j = i; j < limit; j++) {
+            char c = ca[j];
+            if (c < 0x80) {
+                blen++;
+            } else if (c < 0x800) {
+                blen += 2;
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && j + 1 < limit
+                        && Character.isLowSurrogate(ca[j + 1])) {
+                    blen += 4;
+                    j++;
+                } else {
+                    blen++;
+                }
+            } else {
+                blen += 3;
+            }
+        }
+        byte[] ba = new byte[blen];
+        int dp = 0;
+        for (int sp = off; sp < limit; ) {
+            char c = ca[sp++];
+            if (c < 0x80) {
+                ba[dp++] = (byte)c;
+            } else if (c < 0x800) {
+                ba[dp++] = (byte)(0xc0 | (c >> 6));
+                ba[dp++] = (byte)(0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                char d;
+                if (Character.isHighSurrogate(c) && sp < limit
+                        && Character.isLowSurrogate(d = ca[sp])) {
+                    sp++;
+                    int uc = Character.toCodePoint(c, d);
+                    ba[dp++] = (byte)(0xf0 | (uc >> 18));
+                    ba[dp++] = (byte)(0x80 | ((uc >> 12) & 0x3f));
+                    ba[dp++] = (byte)(0x80 | ((uc >> 6) & 0x3f));
+                    ba[dp++] = (byte)(0x80 | (uc & 0x3f));
+                } else {
+                    ba[dp++] = (byte)'?';
+                }
+            } else {
+                ba[dp++] = (byte)(0xe0 | (c >> 12));
+                ba[dp++] = (byte)(0x80 | ((c >> 6) & 0x3f));
+                ba[dp++] = (byte)(0x80 | (c & 0x3f));
+            }
+        }
+        return ba;
+    }
+
 
     // -- Decoding --
     private static class StringDecoder {
@@ -124,6 +323,7 @@ class StringCoding {
         private final Charset cs;
         private final CharsetDecoder cd;
         private final boolean isTrusted;
+        private final int coding;
 
         private StringDecoder(Charset cs, String rcn) {
             this.requestedCharsetName = rcn;
@@ -132,6 +332,7 @@ class StringCoding {
                 .onMalformedInput(CodingErrorAction.REPLACE)
                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
             this.isTrusted = (cs.getClass().getClassLoader0() == null);
+            this.coding = fastCoding(cs);
         }
 
         String charsetName() {
@@ -145,6 +346,11 @@ class StringCoding {
         }
 
         char[] decode(byte[] ba, int off, int len) {
+            if (coding != CODING_NONE) {
+                char[] ca = decodeFast(coding, ba, off, len);
+                if (ca != null)
+                    return ca;
+            }
             int en = scale(len, cd.maxCharsPerByte());
             char[] ca = new char[en];
             if (len == 0)
@@ -210,6 +416,12 @@ class StringCoding {
         // check (... && (isTrusted || SM == null || getClassLoader0())) in trim
         // but it then can be argued that the SM is null when the opertaion
         // is started...
+        int coding = fastCoding(cs);
+        if (coding != CODING_NONE) {
+            char[] ca = decodeFast(coding, ba, off, len);
+            if (ca != null)
+                return ca;
+        }
         CharsetDecoder cd = cs.newDecoder();
         int en = scale(len, cd.maxCharsPerByte());
         char[] ca = new char[en];
@@ -275,6 +487,7 @@ class StringCoding {
         private CharsetEncoder ce;
         private final String requestedCharsetName;
         private final boolean isTrusted;
+        private final int coding;
 
         private StringEncoder(Charset cs, String rcn) {
             this.requestedCharsetName = rcn;
@@ -283,6 +496,7 @@ class StringCoding {
                 .onMalformedInput(CodingErrorAction.REPLACE)
                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
             this.isTrusted = (cs.getClass().getClassLoader0() == null);
+            this.coding = fastCoding(cs);
         }
 
         String charsetName() {
@@ -296,6 +510,8 @@ class StringCoding {
         }
 
         byte[] encode(char[] ca, int off, int len) {
+            if (coding != CODING_NONE)
+                return encodeFast(coding, ca, off, len);
             int en = scale(len, ce.maxBytesPerChar());
             byte[] ba = new byte[en];
             if (len == 0)
@@ -345,6 +561,9 @@ class StringCoding {
     }
 
     static byte[] encode(Charset cs, char[] ca, int off, int len) {
+        int coding = fastCoding(cs);
+        if (coding != CODING_NONE)
+            return encodeFast(coding, ca, off, len);
         CharsetEncoder ce = cs.newEncoder();
         int en = scale(len, ce.maxBytesPerChar());
         byte[] ba = new byte[en];
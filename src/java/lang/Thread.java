@@ -188,6 +188,18 @@ class Thread implements Runnable {
      */
     ThreadLocal.ThreadLocalMap inheritableThreadLocals = null;
 
+    /*
+     * IndexedThreadLocal values pertaining to this thread. These slots are
+     * maintained by the IndexedThreadLocal class.
+     */
+    IndexedThreadLocal.Slots indexedThreadLocals = null;
+
+    /*
+     * InheritableIndexedThreadLocal values pertaining to this thread. These
+     * slots are maintained by the InheritableIndexedThreadLocal class.
+     */
+    IndexedThreadLocal.Slots inheritableIndexedThreadLocals = null;
+
     /*
      * The requested stack size for this thread, or 0 if the creator did
      * not specify a stack size.  It is up to the VM to do whatever it
@@ -419,6 +431,9 @@ class Thread implements Runnable {
         if (inheritThreadLocals && parent.inheritableThreadLocals != null)
             this.inheritableThreadLocals =
                 ThreadLocal.createInheritedMap(parent.inheritableThreadLocals);
+        if (inheritThreadLocals && parent.inheritableIndexedThreadLocals != null)
+            this.inheritableIndexedThreadLocals =
+                IndexedThreadLocal.createInheritedSlots(parent.inheritableIndexedThreadLocals);
         /* Stash the specified stack size in case the VM cares */
         this.stackSize = stackSize;
 
@@ -764,6 +779,8 @@ class Thread implements Runnable {
         /* Speed the release of some of these resources */
         threadLocals = null;
         inheritableThreadLocals = null;
+        indexedThreadLocals = null;
+        inheritableIndexedThreadLocals = null;
         inheritedAccessControlContext = null;
         blocker = null;
         uncaughtExceptionHandler = null;
@@ -34,12 +34,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.spi.SelectorProvider;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.security.AccessController;
@@ -71,6 +78,16 @@ final class UNIXProcess extends Process {
     // only used on Solaris
     private /* final */ DeferredCloseInputStream stdout_inner_stream;
 
+    // only used if started with selectable channels
+    private final boolean channels;
+    private /* final */ Pipe.SinkChannel   stdinChannel;
+    private /* final */ Pipe.SourceChannel stdoutChannel;
+    private /* final */ Pipe.SourceChannel stderrChannel;
+
+    // completed when the process has exited
+    private final CompletableFuture<Process> exitFuture =
+        new CompletableFuture<>();
+
     private static enum LaunchMechanism {
         // order IS important!
         FORK,
@@ -241,9 +258,11 @@ final class UNIXProcess extends Process {
                 final byte[] envBlock, final int envc,
                 final byte[] dir,
                 final int[] fds,
-                final boolean redirectErrorStream)
+                final boolean redirectErrorStream,
+                final boolean selectableChannels)
             throws IOException {
 
+        channels = selectableChannels;
         pid = forkAndExec(launchMechanism.ordinal() + 1,
                           helperpath,
                           prog,
@@ -269,7 +288,25 @@ final class UNIXProcess extends Process {
         return fileDescriptor;
     }
 
+    /**
+     * Records the exit of the process and wakes up its waiters.  The
+     * future is completed in the common pool, so that the actions that
+     * depend on it do not run in the small stack of the reaper thread.
+     */
+    private void exited(int exitcode) {
+        synchronized (this) {
+            this.exitcode = exitcode;
+            this.hasExited = true;
+            this.notifyAll();
+        }
+        ForkJoinPool.commonPool().execute(() -> exitFuture.complete(this));
+    }
+
     void initStreams(int[] fds) throws IOException {
+        if (channels) {
+            initChannels(fds);
+            return;
+        }
         switch (platform) {
             case LINUX:
             case BSD:
@@ -288,11 +325,7 @@ final class UNIXProcess extends Process {
                 processReaperExecutor.execute(() -> {
                     int exitcode = waitForProcessExit(pid);
 
-                    synchronized (this) {
-                        this.exitcode = exitcode;
-                        this.hasExited = true;
-                        this.notifyAll();
-                    }
+                    exited(exitcode);
 
                     if (stdout instanceof ProcessPipeInputStream)
                         ((ProcessPipeInputStream) stdout).processExited();
@@ -333,11 +366,7 @@ final class UNIXProcess extends Process {
                 processReaperExecutor.execute(() -> {
                     int exitcode = waitForProcessExit(pid);
 
-                    synchronized (this) {
-                        this.exitcode = exitcode;
-                        this.hasExited = true;
-                        this.notifyAll();
-                    }
+                    exited(exitcode);
                 });
                 break;
 
@@ -357,11 +386,7 @@ final class UNIXProcess extends Process {
                 processReaperExecutor.execute(() -> {
                     int exitcode = waitForProcessExit(pid);
 
-                    synchronized (this) {
-                        this.exitcode = exitcode;
-                        this.hasExited = true;
-                        this.notifyAll();
-                    }
+                    exited(exitcode);
 
                     if (stdout instanceof DeferredCloseProcessPipeInputStream)
                         ((DeferredCloseProcessPipeInputStream) stdout).processExited();
@@ -378,6 +403,83 @@ final class UNIXProcess extends Process {
         }
     }
 
+    /*
+     * Sets up the pipes of a process started with selectable channels.
+     * The streams are views of the channels, which are left open when the
+     * process exits as the caller may still have output to read from them.
+     */
+    void initChannels(int[] fds) throws IOException {
+        if (fds[0] == -1) {
+            stdin = ProcessBuilder.NullOutputStream.INSTANCE;
+        } else {
+            stdinChannel = PipeChannels.sink(fds[0]);
+            stdin = Channels.newOutputStream(stdinChannel);
+        }
+        if (fds[1] == -1) {
+            stdout = ProcessBuilder.NullInputStream.INSTANCE;
+        } else {
+            stdoutChannel = PipeChannels.source(fds[1]);
+            stdout = Channels.newInputStream(stdoutChannel);
+        }
+        if (fds[2] == -1) {
+            stderr = ProcessBuilder.NullInputStream.INSTANCE;
+        } else {
+            stderrChannel = PipeChannels.source(fds[2]);
+            stderr = Channels.newInputStream(stderrChannel);
+        }
+
+        processReaperExecutor.execute(() -> exited(waitForProcessExit(pid)));
+    }
+
+    /**
+     * Creates pipe channels over the file descriptors of the pipes to a
+     * process, with the implementation classes used by Pipe.open.
+     */
+    private static final class PipeChannels {
+        private static final Constructor<?> SOURCE =
+            constructor("sun.nio.ch.SourceChannelImpl");
+        private static final Constructor<?> SINK =
+            constructor("sun.nio.ch.SinkChannelImpl");
+
+        private static Constructor<?> constructor(String className) {
+            return doPrivileged((PrivilegedAction<Constructor<?>>) () -> {
+                try {
+                    Constructor<?> c = Class.forName(className)
+                        .getDeclaredConstructor(SelectorProvider.class,
+                                                FileDescriptor.class);
+                    c.setAccessible(true);
+                    return c;
+                } catch (ReflectiveOperationException e) {
+                    throw new InternalError(e);
+                }
+            });
+        }
+
+        static Pipe.SourceChannel source(int fd) throws IOException {
+            return (Pipe.SourceChannel) newChannel(SOURCE, fd);
+        }
+
+        static Pipe.SinkChannel sink(int fd) throws IOException {
+            return (Pipe.SinkChannel) newChannel(SINK, fd);
+        }
+
+        private static Object newChannel(Constructor<?> c, int fd)
+            throws IOException
+        {
+            try {
+                return c.newInstance(SelectorProvider.provider(),
+                                     newFileDescriptor(fd));
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                    throw (IOException) cause;
+                throw new InternalError(cause);
+            } catch (ReflectiveOperationException e) {
+                throw new InternalError(e);
+            }
+        }
+    }
+
     public OutputStream getOutputStream() {
         return stdin;
     }
@@ -390,6 +492,41 @@ final class UNIXProcess extends Process {
         return stderr;
     }
 
+    @Override
+    public Pipe.SinkChannel getOutputChannel() {
+        checkChannels();
+        return stdinChannel;
+    }
+
+    @Override
+    public Pipe.SourceChannel getInputChannel() {
+        checkChannels();
+        return stdoutChannel;
+    }
+
+    @Override
+    public Pipe.SourceChannel getErrorChannel() {
+        checkChannels();
+        return stderrChannel;
+    }
+
+    private void checkChannels() {
+        if (!channels)
+            throw new UnsupportedOperationException(
+                "process not started with selectable channels");
+    }
+
+    @Override
+    public CompletableFuture<Process> onExit() {
+        synchronized (this) {
+            // exitFuture may not be completed yet
+            if (hasExited)
+                return CompletableFuture.completedFuture(this);
+        }
+        // a dependent future, so that callers cannot complete exitFuture
+        return exitFuture.thenApply(p -> p);
+    }
+
     public synchronized int waitFor() throws InterruptedException {
         while (!hasExited) {
             wait();
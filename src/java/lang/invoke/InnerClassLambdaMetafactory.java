@@ -263,6 +263,17 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
             interfaces = itfs.toArray(new String[itfs.size()]);
         }
 
+        // Define the archived class instead, if a class archive has one
+        ProxyClassesArchive archive = ProxyClassesArchive.getInstance();
+        String archiveKey = null;
+        if (archive != null) {
+            archiveKey = archiveKey(accidentallySerializable);
+            byte[] archivedBytes = archive.lookup(archiveKey);
+            if (archivedBytes != null) {
+                return UNSAFE.defineAnonymousClass(targetClass, archivedBytes, null);
+            }
+        }
+
         cw.visit(CLASSFILE_VERSION, ACC_SUPER + ACC_FINAL + ACC_SYNTHETIC,
                  lambdaClassName, null,
                  JAVA_LANG_OBJECT, interfaces);
@@ -323,9 +334,42 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
             new PropertyPermission("user.dir", "read"));
         }
 
+        if (archive != null) {
+            archive.record(archiveKey, classBytes);
+        }
+
         return UNSAFE.defineAnonymousClass(targetClass, classBytes, null);
     }
 
+    /**
+     * Returns the key of the spun class in a class archive.  The key
+     * describes every input of the class generator, so that the archived
+     * bytes can stand in for the class spun for an equal key.  The only
+     * other input is the counter in the class name, which does not matter
+     * for a VM anonymous class.
+     */
+    private String archiveKey(boolean accidentallySerializable) {
+        StringBuilder key = new StringBuilder(targetClass.getName());
+        key.append('|').append(invokedType.toMethodDescriptorString());
+        key.append('|').append(samBase.getName()).append('.').append(samMethodName)
+           .append(samMethodType.toMethodDescriptorString());
+        key.append('|').append(implKind).append(' ').append(implMethodClassName)
+           .append(implDefiningClass.isInterface() ? "(interface)." : ".")
+           .append(implMethodName).append(implMethodDesc);
+        key.append('|').append(instantiatedMethodType.toMethodDescriptorString());
+        if (isSerializable)
+            key.append("|serializable");
+        if (accidentallySerializable)
+            key.append("|accidentallySerializable");
+        for (Class<?> markerInterface : markerInterfaces)
+            key.append("|+").append(markerInterface.getName());
+        if (additionalBridges != null) {
+            for (MethodType mt : additionalBridges)
+                key.append("|bridge").append(mt.toMethodDescriptorString());
+        }
+        return key.toString();
+    }
+
     /**
      * Generate the factory method for the class
      */
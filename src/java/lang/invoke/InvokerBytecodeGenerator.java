@@ -88,6 +88,9 @@ class InvokerBytecodeGenerator {
     private static final MemberName.Factory MEMBERNAME_FACTORY = MemberName.getFactory();
     private static final Class<?> HOST_CLASS = LambdaForm.class;
 
+    /** Archive of spun classes to look up and record, or null. */
+    private static final ProxyClassesArchive ARCHIVE = ProxyClassesArchive.getInstance();
+
     /** Main constructor; other constructors delegate to this one. */
     private InvokerBytecodeGenerator(LambdaForm lambdaForm, int localsMapSize,
                                      String className, String invokerName, MethodType invokerType) {
@@ -270,13 +273,92 @@ class InvokerBytecodeGenerator {
     }
 
     /**
-     * Extract the MemberName of a newly-defined method.
+     * Extract the MemberName of a newly-defined method, recording its class
+     * in the class archive under the given key, if not null.
      */
-    private MemberName loadMethod(byte[] classFile) {
+    private MemberName loadMethod(byte[] classFile, String archiveKey) {
+        // A class with constant pool patches depends on live objects, and
+        // cannot be archived.
+        if (archiveKey != null && cpPatches.isEmpty())
+            ARCHIVE.record(archiveKey, classFile);
         Class<?> invokerClass = loadAndInitializeInvokerClass(classFile, cpPatches(classFile));
         return resolveInvokerMember(invokerClass, invokerName, invokerType);
     }
 
+    /**
+     * Extract the MemberName of the method of the archived class with the
+     * given key, or return null if the key is null or not in the archive.
+     */
+    private MemberName loadArchivedMethod(String archiveKey) {
+        if (archiveKey == null)
+            return null;
+        byte[] classFile = ARCHIVE.lookup(archiveKey);
+        if (classFile == null)
+            return null;
+        Class<?> invokerClass = loadAndInitializeInvokerClass(classFile, null);
+        return resolveInvokerMember(invokerClass, invokerName, invokerType);
+    }
+
+    /**
+     * Returns the key of the class to be generated in the class archive,
+     * made of the invoker and the given description of the generator
+     * input, or null if there is no archive or the description is null.
+     */
+    private String archiveKey(String detail) {
+        if (ARCHIVE == null || detail == null)
+            return null;
+        return className + "." + invokerName + invokerType.toMethodDescriptorString() +
+               "\n" + detail;
+    }
+
+    /**
+     * Describes a lambda form for the key of its class in the class
+     * archive.  Returns null if the class cannot be archived, because its
+     * code depends on a customized receiver, or on a function or constant
+     * that may differ between two VMs of the same runtime version.
+     */
+    private static String describeForArchive(LambdaForm form) {
+        if (form.customized != null)
+            return null;
+        StringBuilder buf = new StringBuilder();
+        buf.append(form.arity).append('/').append(form.result);
+        if (form.forceInline)
+            buf.append("/forceInline");
+        for (Name name : form.names) {
+            buf.append('\n').append(name.typeChar());
+            if (name.function == null)
+                continue;
+            MemberName member = name.function.member();
+            if (member == null || member.getDeclaringClass().getClassLoader() != null)
+                return null;
+            buf.append('=').append(member.getReferenceKind())
+               .append(' ').append(member.getDeclaringClass().getName())
+               .append('.').append(member.getName())
+               .append(member.getMethodOrFieldType().toMethodDescriptorString())
+               .append('/').append(member.getModifiers())
+               .append('/').append(name.function.intrinsicName());
+            for (Object arg : name.arguments) {
+                buf.append(' ');
+                if (arg instanceof Name) {
+                    buf.append('t').append(((Name) arg).index());
+                } else if (arg == null) {
+                    buf.append("null");
+                } else if (arg instanceof String || arg instanceof Number ||
+                           arg instanceof Character || arg instanceof Boolean ||
+                           (arg instanceof Class && ((Class<?>) arg).getClassLoader() == null)) {
+                    // length-prefixed, so that no constant reads as a separator
+                    String value = (arg instanceof Class) ? ((Class<?>) arg).getName()
+                                                          : arg.toString();
+                    buf.append(arg.getClass().getName()).append(':')
+                       .append(value.length()).append(':').append(value);
+                } else {
+                    return null;
+                }
+            }
+        }
+        return buf.toString();
+    }
+
     /**
      * Define a given class as anonymous class in the runtime system.
      */
@@ -615,7 +697,11 @@ class InvokerBytecodeGenerator {
      */
     static MemberName generateCustomizedCode(LambdaForm form, MethodType invokerType) {
         InvokerBytecodeGenerator g = new InvokerBytecodeGenerator("MH", form, invokerType);
-        return g.loadMethod(g.generateCustomizedCodeBytes());
+        String archiveKey = (ARCHIVE == null) ? null : g.archiveKey(describeForArchive(form));
+        MemberName archived = g.loadArchivedMethod(archiveKey);
+        if (archived != null)
+            return archived;
+        return g.loadMethod(g.generateCustomizedCodeBytes(), archiveKey);
     }
 
     /** Generates code to check that actual receiver and LambdaForm matches */
@@ -1310,7 +1396,11 @@ class InvokerBytecodeGenerator {
         MethodType type = signatureType(sig);  // sig includes leading argument
         type = type.changeParameterType(0, MethodHandle.class);
         InvokerBytecodeGenerator g = new InvokerBytecodeGenerator("LFI", name, type);
-        return g.loadMethod(g.generateLambdaFormInterpreterEntryPointBytes());
+        String archiveKey = g.archiveKey(sig);
+        MemberName archived = g.loadArchivedMethod(archiveKey);
+        if (archived != null)
+            return archived;
+        return g.loadMethod(g.generateLambdaFormInterpreterEntryPointBytes(), archiveKey);
     }
 
     private byte[] generateLambdaFormInterpreterEntryPointBytes() {
@@ -1368,7 +1458,11 @@ class InvokerBytecodeGenerator {
         MethodType invokerType = NamedFunction.INVOKER_METHOD_TYPE;
         String invokerName = "invoke_" + shortenSignature(basicTypeSignature(typeForm.erasedType()));
         InvokerBytecodeGenerator g = new InvokerBytecodeGenerator("NFI", invokerName, invokerType);
-        return g.loadMethod(g.generateNamedFunctionInvokerImpl(typeForm));
+        String archiveKey = g.archiveKey(typeForm.erasedType().toMethodDescriptorString());
+        MemberName archived = g.loadArchivedMethod(archiveKey);
+        if (archived != null)
+            return archived;
+        return g.loadMethod(g.generateNamedFunctionInvokerImpl(typeForm), archiveKey);
     }
 
     private byte[] generateNamedFunctionInvokerImpl(MethodTypeForm typeForm) {
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import sun.security.action.GetPropertyAction;
+import sun.util.logging.PlatformLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PropertyPermission;
+
+/**
+ * Archive of the classes spun by InvokerBytecodeGenerator for lambda forms
+ * and by InnerClassLambdaMetafactory for lambda expressions, so that a
+ * later run can define the archived class bytes instead of generating them
+ * again.
+ *
+ * <p>A training run records every class it spins, under a key that
+ * describes all the inputs of the generator, and writes the archive to the
+ * file named by the {@code jdk.internal.lambda.archiveClassesAtExit}
+ * property when the VM exits.  A run with the
+ * {@code jdk.internal.lambda.archivedClasses} property reads the archive of
+ * that file on first use, and looks classes up by the same keys.  A class
+ * whose key is not in the archive is generated as usual.  Both properties
+ * may be given, to extend an archive.
+ *
+ * <p>An archive is only used by the runtime version that wrote it, as the
+ * class bytes depend on the generators of that version.
+ *
+ * @implNote
+ * <p> Like ProxyClassesDumper, this class is used while lambda forms and
+ * lambda classes are spun, and must not itself use lambdas or method
+ * references.
+ */
+final class ProxyClassesArchive {
+    private static final int MAGIC = 0x4C464341;  // "LFCA"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String ARCHIVE_KEY = "jdk.internal.lambda.archivedClasses";
+    private static final String RECORD_KEY = "jdk.internal.lambda.archiveClassesAtExit";
+
+    private static final ProxyClassesArchive INSTANCE;
+
+    static {
+        String archive = getProperty(ARCHIVE_KEY);
+        String record = getProperty(RECORD_KEY);
+        INSTANCE = (archive == null && record == null)
+                   ? null : new ProxyClassesArchive(archive, record);
+    }
+
+    private static String getProperty(String key) {
+        return AccessController.doPrivileged(
+                new GetPropertyAction(key), null,
+                new PropertyPermission(key, "read"));
+    }
+
+    /**
+     * Returns the archive of this VM, or null if no archive is used or
+     * recorded.
+     */
+    static ProxyClassesArchive getInstance() {
+        return INSTANCE;
+    }
+
+    private final String archivePath;
+    private final String recordPath;
+
+    // classes read from the archive, read on first lookup
+    private Map<String, byte[]> archived;
+    // classes recorded in this run, in the order they were spun
+    private final Map<String, byte[]> recorded;
+
+    private ProxyClassesArchive(String archivePath, String recordPath) {
+        this.archivePath = archivePath;
+        this.recordPath = recordPath;
+        if (recordPath != null) {
+            recorded = Collections.synchronizedMap(new LinkedHashMap<String, byte[]>());
+            registerWriter();
+        } else {
+            recorded = null;
+        }
+    }
+
+    /**
+     * Returns the archived bytes of the class with the given key, or null
+     * if there are none.
+     */
+    byte[] lookup(String key) {
+        byte[] classBytes = archived().get(key);
+        if (classBytes != null && recorded != null) {
+            recorded.put(key, classBytes);
+        }
+        return classBytes;
+    }
+
+    /**
+     * Records the bytes of a spun class with the given key, if this run
+     * records an archive.
+     */
+    void record(String key, byte[] classBytes) {
+        if (recorded != null) {
+            recorded.put(key, classBytes);
+        }
+    }
+
+    private synchronized Map<String, byte[]> archived() {
+        if (archived == null) {
+            archived = (archivePath == null)
+                       ? Collections.<String, byte[]>emptyMap()
+                       : AccessController.doPrivileged(
+                               new PrivilegedAction<Map<String, byte[]>>() {
+                                   @Override
+                                   public Map<String, byte[]> run() {
+                                       return read(archivePath);
+                                   }
+                               }, null,
+                               new FilePermission("<<ALL FILES>>", "read"));
+        }
+        return archived;
+    }
+
+    private static String runtimeVersion() {
+        return String.valueOf(getProperty("java.runtime.version"));
+    }
+
+    private static Map<String, byte[]> read(String path) {
+        Map<String, byte[]> classes = new HashMap<>();
+        // no length read from the archive can exceed the size of the file
+        long limit = new File(path).length();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                warning("File " + path + " is not a class archive - archive ignored");
+                return classes;
+            }
+            String version = in.readUTF();
+            if (!version.equals(runtimeVersion())) {
+                warning("Class archive " + path + " was written by runtime version " +
+                        version + " - archive ignored");
+                return classes;
+            }
+            for (int n = in.readInt(); n > 0; n--) {
+                String key = readString(in, limit);
+                byte[] classBytes = new byte[readLength(in, limit)];
+                in.readFully(classBytes);
+                classes.put(key, classBytes);
+            }
+        } catch (FileNotFoundException ex) {
+            warning("Class archive " + path + " does not exist - archive ignored");
+        } catch (IOException | RuntimeException ex) {
+            // a corrupt archive is ignored rather than failing every lookup
+            warning("Exception reading class archive " + path + " - archive ignored");
+            classes.clear();
+        }
+        return classes;
+    }
+
+    private void registerWriter() {
+        final Thread writer = new Thread("Lambda Class Archive Writer") {
+            @Override
+            public void run() {
+                write(recordPath);
+            }
+        };
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            @Override
+            public Void run() {
+                Runtime.getRuntime().addShutdownHook(writer);
+                return null;
+            }
+        });
+    }
+
+    private void write(String path) {
+        File file = new File(path);
+        Map<String, byte[]> classes;
+        synchronized (recorded) {
+            classes = new LinkedHashMap<>(recorded);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(runtimeVersion());
+            out.writeInt(classes.size());
+            for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+                writeString(out, e.getKey());
+                out.writeInt(e.getValue().length);
+                out.write(e.getValue());
+            }
+        } catch (IOException ex) {
+            warning("Exception writing class archive " + path);
+            // simply don't care if this operation failed
+        }
+    }
+
+    // keys may exceed the length limit of writeUTF
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeInt(s.length());
+        out.writeChars(s);
+    }
+
+    private static String readString(DataInputStream in, long limit) throws IOException {
+        char[] chars = new char[readLength(in, limit / 2)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = in.readChar();
+        }
+        return new String(chars);
+    }
+
+    private static int readLength(DataInputStream in, long limit) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > limit) {
+            throw new IOException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private static void warning(String msg) {
+        PlatformLogger.getLogger(ProxyClassesArchive.class.getName()).warning(msg);
+    }
+}
@@ -0,0 +1,690 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import sun.misc.JavaLangAccess;
+import sun.misc.SharedSecrets;
+
+import static java.lang.invoke.MethodHandleStatics.*;
+import static java.lang.invoke.MethodHandles.Lookup.IMPL_LOOKUP;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * <p>Methods to facilitate the creation of String concatenation methods, that
+ * can be used to efficiently concatenate a known number of arguments of known
+ * types, possibly after type adaptation and partial evaluation of arguments.
+ * These methods are typically used as <em>bootstrap methods</em> for
+ * {@code invokedynamic} call sites, to support the <em>string
+ * concatenation</em> feature of the Java Programming Language.  They can
+ * also be called directly, through {@link #makeConcatHandle
+ * makeConcatHandle}, to obtain a method handle for a hand-written
+ * concatenation helper.
+ *
+ * <p>A concatenation formats each argument exactly as
+ * {@link StringBuilder#append(Object) StringBuilder.append} and its
+ * primitive overloads do.  It first computes the exact length of the
+ * result, then writes the parts into a single character array of that
+ * length, and hands the array to the result string without copying it
+ * again.  Arguments of type {@code boolean}, {@code char}, {@code int} and
+ * {@code long} are sized and written in place, without an intermediate
+ * string; other arguments are converted to strings once, before sizing.
+ * Unlike a {@code StringBuilder} chain, no intermediate buffer is
+ * allocated, grown or copied.
+ *
+ * <p>The method handle for a concatenation depends only on its
+ * <em>shape</em>: the lengths of the constant parts of the recipe, and the
+ * erased types of the arguments, where reference types erase to
+ * {@code Object} and {@code byte} and {@code short} erase to {@code int}.
+ * The handle for a shape takes the constant parts as leading parameters.
+ * It is built once and shared by every call site of that shape, each of
+ * which binds its own constants and adapts the shared handle to its own
+ * type.
+ *
+ * @since 1.8
+ */
+public final class StringConcatFactory {
+
+    /**
+     * Tag used to demarcate an ordinary argument.
+     */
+    private static final char TAG_ARG = '\u0001';
+
+    /**
+     * Tag used to demarcate a constant.
+     */
+    private static final char TAG_CONST = '\u0002';
+
+    /**
+     * Maximum number of argument slots in a concatenation.  This leaves
+     * room below the method handle limit for the adaptations of the
+     * concatenation handle.
+     */
+    private static final int MAX_INDY_CONCAT_ARG_SLOTS = 200;
+
+    /**
+     * Maximum number of shared shapes.  Handles for further shapes are
+     * built for each call, as hand-written helpers may create any number
+     * of distinct shapes.
+     */
+    private static final int MAX_CACHED_SHAPES = 4096;
+
+    /**
+     * Handles of concatenation shapes.  A shape is a list of the lengths of
+     * the constant parts and the erased argument types of the recipe, in
+     * recipe order.
+     */
+    private static final ConcurrentMap<List<Object>, MethodHandle> SHAPES =
+        new ConcurrentHashMap<>();
+
+    private static final JavaLangAccess JLA = SharedSecrets.getJavaLangAccess();
+
+    private StringConcatFactory() {
+        // no instantiation
+    }
+
+    /**
+     * Facilitates the creation of optimized String concatenation methods,
+     * that can be used to efficiently concatenate a known number of
+     * arguments of known types.  Every argument is converted to a string
+     * and the strings are concatenated in argument order.
+     *
+     * @param lookup      Represents a lookup context with the accessibility
+     *                    privileges of the caller.  When used with
+     *                    {@code invokedynamic}, this is stacked
+     *                    automatically by the VM.
+     * @param name        The name of the method to implement.  This name is
+     *                    arbitrary, and has no meaning for this linkage
+     *                    method.  When used with {@code invokedynamic}, this
+     *                    is provided by the {@code NameAndType} of the
+     *                    {@code InvokeDynamic} structure and is stacked
+     *                    automatically by the VM.
+     * @param concatType  The expected signature of the {@code CallSite}.  The
+     *                    parameter types represent the types of the
+     *                    concatenation arguments; the return type must be
+     *                    assignable from {@code String}.  When used with
+     *                    {@code invokedynamic}, this is provided by the
+     *                    {@code NameAndType} of the {@code InvokeDynamic}
+     *                    structure and is stacked automatically by the VM.
+     * @return a CallSite whose target can be used to perform String
+     *         concatenation, with dynamic concatenation arguments described
+     *         by the given {@code concatType}
+     * @throws StringConcatException if the lookup does not have private
+     *         access, the return type is not assignable from
+     *         {@code String}, or the arguments take more than 200 slots
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public static CallSite makeConcat(MethodHandles.Lookup lookup,
+                                      String name,
+                                      MethodType concatType)
+        throws StringConcatException
+    {
+        Objects.requireNonNull(concatType, "Concat type is null");
+        char[] recipe = new char[concatType.parameterCount()];
+        Arrays.fill(recipe, TAG_ARG);
+        return makeConcatWithConstants(lookup, name, concatType, new String(recipe));
+    }
+
+    /**
+     * Facilitates the creation of optimized String concatenation methods,
+     * that can be used to efficiently concatenate a known number of
+     * arguments of known types, possibly after partial evaluation of some
+     * of them.  The parts of the result are described by a recipe, in
+     * which:
+     *
+     * <ul>
+     * <li>each "\1" (Unicode point 0001) is replaced by the next
+     *     concatenation argument, converted to a string;
+     * <li>each "\2" (Unicode point 0002) is replaced by the next constant,
+     *     converted to a string;
+     * <li>any other character is copied to the result.
+     * </ul>
+     *
+     * @param lookup      Represents a lookup context with the accessibility
+     *                    privileges of the caller.  When used with
+     *                    {@code invokedynamic}, this is stacked
+     *                    automatically by the VM.
+     * @param name        The name of the method to implement.  This name is
+     *                    arbitrary, and has no meaning for this linkage
+     *                    method.  When used with {@code invokedynamic}, this
+     *                    is provided by the {@code NameAndType} of the
+     *                    {@code InvokeDynamic} structure and is stacked
+     *                    automatically by the VM.
+     * @param concatType  The expected signature of the {@code CallSite}.  The
+     *                    parameter types represent the types of the
+     *                    concatenation arguments; the return type must be
+     *                    assignable from {@code String}.  When used with
+     *                    {@code invokedynamic}, this is provided by the
+     *                    {@code NameAndType} of the {@code InvokeDynamic}
+     *                    structure and is stacked automatically by the VM.
+     * @param recipe      Concatenation recipe, described above.
+     * @param constants   The constants, in the order of the "\2" tags of
+     *                    the recipe.
+     * @return a CallSite whose target can be used to perform String
+     *         concatenation, with dynamic concatenation arguments described
+     *         by the given {@code concatType}
+     * @throws StringConcatException if the lookup does not have private
+     *         access, the return type is not assignable from
+     *         {@code String}, the arguments take more than 200 slots, or
+     *         the tags of the recipe do not match the number of arguments
+     *         and constants
+     * @throws NullPointerException if any of the arguments or constants is
+     *         null
+     */
+    public static CallSite makeConcatWithConstants(MethodHandles.Lookup lookup,
+                                                   String name,
+                                                   MethodType concatType,
+                                                   String recipe,
+                                                   Object... constants)
+        throws StringConcatException
+    {
+        Objects.requireNonNull(lookup, "Lookup is null");
+        Objects.requireNonNull(name, "Name is null");
+        if ((lookup.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0) {
+            throw new StringConcatException("Invalid caller: " +
+                                            lookup.lookupClass().getName());
+        }
+        return new ConstantCallSite(makeConcatHandle(concatType, recipe, constants));
+    }
+
+    /**
+     * Returns a method handle that concatenates its arguments as described
+     * by the given recipe and constants, in the same way as the target of
+     * a call site linked by {@link #makeConcatWithConstants
+     * makeConcatWithConstants}.  The handle may be kept and invoked by a
+     * hand-written concatenation helper.
+     *
+     * @param concatType  The type of the handle.  The parameter types
+     *                    represent the types of the concatenation arguments;
+     *                    the return type must be assignable from
+     *                    {@code String}.
+     * @param recipe      Concatenation recipe, described in
+     *                    {@link #makeConcatWithConstants
+     *                    makeConcatWithConstants}.
+     * @param constants   The constants, in the order of the "\2" tags of
+     *                    the recipe.
+     * @return a method handle of the given type that performs the
+     *         concatenation
+     * @throws StringConcatException if the return type is not assignable
+     *         from {@code String}, the arguments take more than 200 slots,
+     *         or the tags of the recipe do not match the number of
+     *         arguments and constants
+     * @throws NullPointerException if any of the arguments or constants is
+     *         null
+     */
+    public static MethodHandle makeConcatHandle(MethodType concatType,
+                                                String recipe,
+                                                Object... constants)
+        throws StringConcatException
+    {
+        Objects.requireNonNull(concatType, "Concat type is null");
+        Objects.requireNonNull(recipe, "Recipe is null");
+        Objects.requireNonNull(constants, "Constants are null");
+        for (Object o : constants) {
+            Objects.requireNonNull(o, "Cannot accept null constants");
+        }
+
+        if (!concatType.returnType().isAssignableFrom(String.class)) {
+            throw new StringConcatException(
+                "The return type should be compatible with String, but it is " +
+                concatType.returnType());
+        }
+        if (concatType.parameterSlotCount() > MAX_INDY_CONCAT_ARG_SLOTS) {
+            throw new StringConcatException(
+                "Too many concat argument slots: " + concatType.parameterSlotCount() +
+                ", can only accept " + MAX_INDY_CONCAT_ARG_SLOTS);
+        }
+
+        List<Object> parts = parseRecipe(concatType, recipe, constants);
+        List<String> texts = new ArrayList<>();
+        List<Object> shape = new ArrayList<>(parts.size());
+        for (Object part : parts) {
+            if (part instanceof String) {
+                texts.add((String) part);
+                shape.add(((String) part).length());
+            } else {
+                shape.add(part);
+            }
+        }
+        if (parts.size() < 2 ||
+            texts.size() + concatType.parameterSlotCount() > MAX_INDY_CONCAT_ARG_SLOTS) {
+            // Trivial shapes, and shapes whose constants would take too
+            // many slots as parameters, are built with the constants bound
+            return generate(parts).asType(concatType);
+        }
+
+        MethodHandle mh = SHAPES.get(shape);
+        if (mh == null) {
+            mh = generate(shape);
+            if (SHAPES.size() < MAX_CACHED_SHAPES) {
+                MethodHandle prev = SHAPES.putIfAbsent(shape, mh);
+                if (prev != null)
+                    mh = prev;
+            }
+        }
+        return MethodHandles.insertArguments(mh, 0, texts.toArray())
+                            .asType(concatType);
+    }
+
+    /*
+     * Returns the parts of a recipe: its constant strings, with adjacent
+     * constants and literal characters merged, and the erased types of its
+     * arguments, in recipe order.
+     */
+    private static List<Object> parseRecipe(MethodType concatType,
+                                            String recipe,
+                                            Object[] constants)
+        throws StringConcatException
+    {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder acc = new StringBuilder();
+        int argC = 0;
+        int constC = 0;
+        for (int i = 0; i < recipe.length(); i++) {
+            char c = recipe.charAt(i);
+            if (c == TAG_CONST) {
+                if (constC == constants.length) {
+                    throw new StringConcatException(
+                        "Mismatched number of concat constants: recipe wants at least " +
+                        (constC + 1) + " constants, but only " + constants.length +
+                        " are passed");
+                }
+                acc.append(constants[constC++]);
+            } else if (c == TAG_ARG) {
+                if (argC == concatType.parameterCount()) {
+                    throw new StringConcatException(
+                        "Mismatched number of concat arguments: recipe wants at least " +
+                        (argC + 1) + " arguments, but only " +
+                        concatType.parameterCount() + " are passed");
+                }
+                if (acc.length() > 0) {
+                    parts.add(acc.toString());
+                    acc.setLength(0);
+                }
+                parts.add(erase(concatType.parameterType(argC++)));
+            } else {
+                acc.append(c);
+            }
+        }
+        if (acc.length() > 0) {
+            parts.add(acc.toString());
+        }
+        if (argC != concatType.parameterCount()) {
+            throw new StringConcatException(
+                "Mismatched number of concat arguments: recipe wants " + argC +
+                " arguments, but signature provides " + concatType.parameterCount());
+        }
+        if (constC != constants.length) {
+            throw new StringConcatException(
+                "Mismatched number of concat constants: recipe wants " + constC +
+                " constants, but only " + constants.length + " are passed");
+        }
+        return parts;
+    }
+
+    private static Class<?> erase(Class<?> type) {
+        if (!type.isPrimitive())
+            return Object.class;
+        if (type == byte.class || type == short.class)
+            return int.class;
+        return type;
+    }
+
+    /*
+     * Builds the handle of a list of parts, in which a string is a constant
+     * bound into the handle, an integer is the length of a constant passed
+     * as a parameter, and a class is the erased type of an argument.  The
+     * parameters of the handle are the constants passed as parameters,
+     * followed by the arguments, each in part order.
+     *
+     * The handle first sums the lengths of the constants and the sizes of
+     * the arguments into the exact length of the result, then allocates
+     * the character array of the result and prepends the parts to it from
+     * the last to the first.  Reference arguments, and float and double
+     * arguments, are converted to strings once, before sizing; arguments
+     * of the other types are sized and written in place.
+     */
+    private static MethodHandle generate(List<Object> parts) {
+        int n = parts.size();
+        if (n == 0)
+            return MethodHandles.constant(String.class, "");
+        if (n == 1) {
+            Object part = parts.get(0);
+            if (part instanceof String)
+                return MethodHandles.constant(String.class, part);
+            return Handles.stringifier((Class<?>) part);
+        }
+
+        // The parameter of each part, or -1 for a bound constant
+        int[] params = new int[n];
+        List<Class<?>> ptypes = new ArrayList<>(n);
+        long constLength = 0;
+        for (int i = 0; i < n; i++) {
+            Object part = parts.get(i);
+            if (part instanceof String) {
+                params[i] = -1;
+                constLength += ((String) part).length();
+            } else if (part instanceof Integer) {
+                params[i] = ptypes.size();
+                constLength += (Integer) part;
+                ptypes.add(String.class);
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            Object part = parts.get(i);
+            if (part instanceof Class) {
+                params[i] = ptypes.size();
+                ptypes.add(Handles.writtenType((Class<?>) part));
+            }
+        }
+
+        // (int index, char[] buf, P...) -> String, prepending the parts
+        // from the last to the first, then wrapping buf
+        MethodHandle mh = MethodHandles.dropArguments(
+            MethodHandles.dropArguments(Handles.NEW_STRING, 0, int.class),
+            2, ptypes);
+        MethodType prependType = methodType(int.class, int.class, char[].class)
+                                 .appendParameterTypes(ptypes);
+        for (int i = 0; i < n; i++) {
+            Object part = parts.get(i);
+            MethodHandle prepender;
+            if (params[i] < 0) {
+                prepender = MethodHandles.dropArguments(
+                    MethodHandles.insertArguments(
+                        Handles.prepender(String.class), 2, part),
+                    2, ptypes);
+            } else {
+                prepender = MethodHandles.permuteArguments(
+                    Handles.prepender(ptypes.get(params[i])), prependType,
+                    0, 1, 2 + params[i]);
+            }
+            mh = MethodHandles.foldArguments(
+                MethodHandles.dropArguments(mh, 1, int.class), prepender);
+        }
+        // (char[] buf, P...) -> String, starting at the end of buf
+        mh = MethodHandles.foldArguments(mh, Handles.ARRAY_LENGTH);
+
+        // (P...) -> char[], allocating buf of the summed length
+        MethodHandle length = MethodHandles.dropArguments(
+            MethodHandles.identity(long.class), 1, ptypes);
+        MethodType mixType = methodType(long.class, long.class)
+                             .appendParameterTypes(ptypes);
+        for (int i = 0; i < n; i++) {
+            if (params[i] < 0 || parts.get(i) instanceof Integer)
+                continue;
+            MethodHandle mixer = MethodHandles.permuteArguments(
+                Handles.mixer(ptypes.get(params[i])), mixType,
+                0, 1 + params[i]);
+            length = MethodHandles.foldArguments(
+                MethodHandles.dropArguments(length, 1, long.class), mixer);
+        }
+        length = MethodHandles.insertArguments(length, 0, constLength);
+        mh = MethodHandles.foldArguments(
+            mh, MethodHandles.filterReturnValue(length, Handles.NEW_ARRAY));
+
+        for (int i = 0; i < n; i++) {
+            Object part = parts.get(i);
+            if (part instanceof Class && ptypes.get(params[i]) == String.class) {
+                mh = MethodHandles.filterArguments(
+                    mh, params[i], Handles.stringifier((Class<?>) part));
+            }
+        }
+        return mh;
+    }
+
+    /**
+     * Method handles of the conversions, mixers and prependers.
+     */
+    private static final class Handles {
+        private Handles() {
+        }
+
+        private static final MethodHandle OBJECT_STRINGIFIER;
+        private static final MethodHandle[] PRIMITIVE_STRINGIFIERS;
+        private static final Class<?>[] PRIMITIVE_TYPES = {
+            boolean.class, char.class, int.class, long.class, float.class, double.class
+        };
+        private static final Class<?>[] WRITTEN_TYPES = {
+            String.class, boolean.class, char.class, int.class, long.class
+        };
+        private static final MethodHandle[] MIXERS;
+        private static final MethodHandle[] PREPENDERS;
+        static final MethodHandle NEW_ARRAY;
+        static final MethodHandle NEW_STRING;
+        static final MethodHandle ARRAY_LENGTH;
+
+        static {
+            try {
+                OBJECT_STRINGIFIER = IMPL_LOOKUP.findStatic(
+                    StringConcatFactory.class, "stringOf",
+                    methodType(String.class, Object.class));
+                PRIMITIVE_STRINGIFIERS = new MethodHandle[PRIMITIVE_TYPES.length];
+                for (int i = 0; i < PRIMITIVE_TYPES.length; i++) {
+                    PRIMITIVE_STRINGIFIERS[i] = IMPL_LOOKUP.findStatic(
+                        String.class, "valueOf",
+                        methodType(String.class, PRIMITIVE_TYPES[i]));
+                }
+                MIXERS = new MethodHandle[WRITTEN_TYPES.length];
+                PREPENDERS = new MethodHandle[WRITTEN_TYPES.length];
+                for (int i = 0; i < WRITTEN_TYPES.length; i++) {
+                    MIXERS[i] = IMPL_LOOKUP.findStatic(
+                        StringConcatFactory.class, "mix",
+                        methodType(long.class, long.class, WRITTEN_TYPES[i]));
+                    PREPENDERS[i] = IMPL_LOOKUP.findStatic(
+                        StringConcatFactory.class, "prepend",
+                        methodType(int.class, int.class, char[].class,
+                                   WRITTEN_TYPES[i]));
+                }
+                NEW_ARRAY = IMPL_LOOKUP.findStatic(
+                    StringConcatFactory.class, "newBuffer",
+                    methodType(char[].class, long.class));
+                NEW_STRING = IMPL_LOOKUP.findStatic(
+                    StringConcatFactory.class, "newString",
+                    methodType(String.class, char[].class));
+                ARRAY_LENGTH = IMPL_LOOKUP.findStatic(
+                    StringConcatFactory.class, "length",
+                    methodType(int.class, char[].class));
+            } catch (ReflectiveOperationException ex) {
+                throw newInternalError(ex);
+            }
+        }
+
+        /*
+         * Returns a handle converting an argument of the given erased type
+         * to a string.
+         */
+        static MethodHandle stringifier(Class<?> type) {
+            if (type == Object.class)
+                return OBJECT_STRINGIFIER;
+            for (int i = 0; i < PRIMITIVE_TYPES.length; i++) {
+                if (PRIMITIVE_TYPES[i] == type)
+                    return PRIMITIVE_STRINGIFIERS[i];
+            }
+            throw newInternalError("Unexpected argument type: " + type);
+        }
+
+        /*
+         * Returns the type in which an argument of the given erased type is
+         * sized and written: the type itself if its characters are written
+         * directly, else String.
+         */
+        static Class<?> writtenType(Class<?> type) {
+            return (type == Object.class || type == float.class ||
+                    type == double.class) ? String.class : type;
+        }
+
+        /*
+         * Returns a handle adding the length of a value of the given
+         * written type to a length.
+         */
+        static MethodHandle mixer(Class<?> type) {
+            return MIXERS[indexOf(type)];
+        }
+
+        /*
+         * Returns a handle writing a value of the given written type into
+         * a buffer, ending at an index, and returning the index of its
+         * first character.
+         */
+        static MethodHandle prepender(Class<?> type) {
+            return PREPENDERS[indexOf(type)];
+        }
+
+        private static int indexOf(Class<?> type) {
+            for (int i = 0; i < WRITTEN_TYPES.length; i++) {
+                if (WRITTEN_TYPES[i] == type)
+                    return i;
+            }
+            throw newInternalError("Unexpected written type: " + type);
+        }
+    }
+
+    /*
+     * Converts a reference argument as StringBuilder.append does, including
+     * for a toString method that returns null.
+     */
+    private static String stringOf(Object value) {
+        String s;
+        return (value == null || (s = value.toString()) == null) ? "null" : s;
+    }
+
+    private static char[] newBuffer(long length) {
+        if (length > Integer.MAX_VALUE)
+            throw new OutOfMemoryError("Overflow: String length out of range");
+        return new char[(int) length];
+    }
+
+    private static String newString(char[] buf) {
+        return JLA.newStringUnsafe(buf);
+    }
+
+    private static int length(char[] buf) {
+        return buf.length;
+    }
+
+    // Mixers: the length so far plus the length of the value
+
+    private static long mix(long length, String value) {
+        return length + value.length();
+    }
+
+    private static long mix(long length, boolean value) {
+        return length + (value ? 4 : 5);
+    }
+
+    private static long mix(long length, char value) {
+        return length + 1;
+    }
+
+    private static long mix(long length, int value) {
+        return length + stringSize(value);
+    }
+
+    private static long mix(long length, long value) {
+        return length + stringSize(value);
+    }
+
+    // Prependers: write the value ending at index, and return its start
+
+    private static int prepend(int index, char[] buf, String value) {
+        index -= value.length();
+        value.getChars(0, value.length(), buf, index);
+        return index;
+    }
+
+    private static int prepend(int index, char[] buf, boolean value) {
+        if (value) {
+            buf[--index] = 'e';
+            buf[--index] = 'u';
+            buf[--index] = 'r';
+            buf[--index] = 't';
+        } else {
+            buf[--index] = 'e';
+            buf[--index] = 's';
+            buf[--index] = 'l';
+            buf[--index] = 'a';
+            buf[--index] = 'f';
+        }
+        return index;
+    }
+
+    private static int prepend(int index, char[] buf, char value) {
+        buf[--index] = value;
+        return index;
+    }
+
+    private static int prepend(int index, char[] buf, int value) {
+        // Accumulate negatively so that MIN_VALUE needs no special case
+        int q = (value < 0) ? value : -value;
+        do {
+            buf[--index] = (char) ('0' - q % 10);
+            q /= 10;
+        } while (q != 0);
+        if (value < 0)
+            buf[--index] = '-';
+        return index;
+    }
+
+    private static int prepend(int index, char[] buf, long value) {
+        long q = (value < 0) ? value : -value;
+        do {
+            buf[--index] = (char) ('0' - (int) (q % 10));
+            q /= 10;
+        } while (q != 0);
+        if (value < 0)
+            buf[--index] = '-';
+        return index;
+    }
+
+    /*
+     * Returns the number of characters of the decimal representation of
+     * the value, including its sign.
+     */
+    private static int stringSize(int value) {
+        int q = (value < 0) ? value : -value;
+        int size = (value < 0) ? 2 : 1;
+        while (q <= -10) {
+            q /= 10;
+            size++;
+        }
+        return size;
+    }
+
+    private static int stringSize(long value) {
+        long q = (value < 0) ? value : -value;
+        int size = (value < 0) ? 2 : 1;
+        while (q <= -10) {
+            q /= 10;
+            size++;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,2198 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang.invoke;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import sun.misc.Unsafe;
+import sun.reflect.CallerSensitive;
+import sun.reflect.Reflection;
+import sun.reflect.misc.ReflectUtil;
+
+/**
+ * A variable handle is a typed reference to a variable: an instance field
+ * of a class, an element of an array, or an element of a view of a
+ * {@code ByteBuffer} as an array of {@code int} or {@code long}.  Access to
+ * the variable is supported under several access modes:
+ *
+ * <ul>
+ * <li>plain ({@code get}, {@code set}), with the memory semantics of
+ *     reading and writing a non-volatile variable;
+ * <li>opaque ({@code getOpaque}, {@code setOpaque}), which is atomic and
+ *     coherent for the variable, but imposes no ordering on accesses to
+ *     other variables;
+ * <li>acquire/release ({@code getAcquire}, {@code setRelease}), where
+ *     no subsequent access is reordered before an acquiring read, and no
+ *     prior access is reordered after a releasing write;
+ * <li>volatile ({@code getVolatile}, {@code setVolatile}), with the
+ *     memory semantics of reading and writing a {@code volatile}
+ *     variable;
+ * <li>atomic updates ({@code compareAndSet}, {@code weakCompareAndSet},
+ *     {@code getAndSet}, and for numeric variables {@code getAndAdd}),
+ *     with the memory semantics of reading and writing a {@code volatile}
+ *     variable.
+ * </ul>
+ *
+ * <p>Every check that does not depend on the accessed object is done once,
+ * when the handle is created: the existence, type and accessibility of a
+ * field, and its offset.  An access method then only checks the receiver,
+ * array index or buffer index and accesses the variable directly, so that
+ * when the handle is held in a {@code static final} field, a compiled
+ * access reduces to the checks the compiler cannot prove redundant and a
+ * single memory access or atomic instruction.
+ *
+ * <p>Each kind of variable has its own subclass, whose access methods
+ * take the coordinates of the variable, that is the receiver, the array
+ * and index, or the buffer and index, followed by the values of the
+ * access.  Handles for fields are created by the caller-sensitive factory
+ * methods {@link #intField intField}, {@link #longField longField} and
+ * {@link #referenceField referenceField}, which check the accessibility of
+ * the field from the caller as {@link
+ * java.util.concurrent.atomic.AtomicIntegerFieldUpdater#newUpdater
+ * AtomicIntegerFieldUpdater.newUpdater} does.  Overloads of these methods
+ * taking an explicit accessing class let system classes, such as the field
+ * updaters, create handles on behalf of their own callers.  Handles for
+ * array elements and buffer views do not depend on the caller.
+ *
+ * <p>Variable handles are immutable and safe for use by multiple
+ * concurrent threads.
+ *
+ * @since 1.8
+ */
+public abstract class VarHandle {
+
+    static final Unsafe U = Unsafe.getUnsafe();
+
+    private final Class<?> varType;
+    private final List<Class<?>> coordinateTypes;
+
+    VarHandle(Class<?> varType, Class<?>... coordinateTypes) {
+        this.varType = varType;
+        this.coordinateTypes = Collections.unmodifiableList(Arrays.asList(coordinateTypes));
+    }
+
+    /**
+     * Returns the type of the variables referenced by this handle.
+     *
+     * @return the variable type
+     */
+    public final Class<?> varType() {
+        return varType;
+    }
+
+    /**
+     * Returns the types of the coordinates of the variables referenced by
+     * this handle, that is of the leading arguments of its access methods.
+     *
+     * @return an unmodifiable list of the coordinate types
+     */
+    public final List<Class<?>> coordinateTypes() {
+        return coordinateTypes;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[varType=" + varType.getName() +
+               ", coord=" + coordinateTypes + "]";
+    }
+
+    // Fences
+
+    /**
+     * Ensures that loads and stores before the fence will not be reordered
+     * with loads and stores after the fence.
+     */
+    public static void fullFence() {
+        U.fullFence();
+    }
+
+    /**
+     * Ensures that loads before the fence will not be reordered with loads
+     * and stores after the fence.
+     */
+    public static void acquireFence() {
+        U.loadFence();
+    }
+
+    /**
+     * Ensures that loads and stores before the fence will not be reordered
+     * with stores after the fence.
+     */
+    public static void releaseFence() {
+        U.storeFence();
+    }
+
+    // Factories
+
+    /**
+     * Returns a handle for the {@code int} instance field of the given
+     * name declared by the given class.
+     *
+     * @param tclass the class of the objects holding the field
+     * @param fieldName the name of the field
+     * @param <T> the type of the objects holding the field
+     * @return the handle
+     * @throws NoSuchFieldException if the field does not exist
+     * @throws IllegalAccessException if the caller cannot access the field
+     * @throws IllegalArgumentException if the field is not an instance
+     *         field of type {@code int}, or is final
+     * @throws SecurityException if a security manager denies package access
+     *         to the class
+     * @throws NullPointerException if an argument is null
+     */
+    @CallerSensitive
+    public static <T> IntField<T> intField(Class<T> tclass, String fieldName)
+        throws NoSuchFieldException, IllegalAccessException
+    {
+        FieldInfo f = FieldInfo.lookup(tclass, fieldName, int.class,
+                                       Reflection.getCallerClass());
+        return new IntField<>(tclass, f.receiverType, f.offset);
+    }
+
+    /**
+     * Returns a handle for the {@code long} instance field of the given
+     * name declared by the given class.
+     *
+     * @param tclass the class of the objects holding the field
+     * @param fieldName the name of the field
+     * @param <T> the type of the objects holding the field
+     * @return the handle
+     * @throws NoSuchFieldException if the field does not exist
+     * @throws IllegalAccessException if the caller cannot access the field
+     * @throws IllegalArgumentException if the field is not an instance
+     *         field of type {@code long}, or is final
+     * @throws SecurityException if a security manager denies package access
+     *         to the class
+     * @throws NullPointerException if an argument is null
+     */
+    @CallerSensitive
+    public static <T> LongField<T> longField(Class<T> tclass, String fieldName)
+        throws NoSuchFieldException, IllegalAccessException
+    {
+        FieldInfo f = FieldInfo.lookup(tclass, fieldName, long.class,
+                                       Reflection.getCallerClass());
+        return new LongField<>(tclass, f.receiverType, f.offset);
+    }
+
+    /**
+     * Returns a handle for the reference instance field of the given name
+     * and type declared by the given class.
+     *
+     * @param tclass the class of the objects holding the field
+     * @param fieldName the name of the field
+     * @param vclass the declared type of the field
+     * @param <T> the type of the objects holding the field
+     * @param <V> the type of the field
+     * @return the handle
+     * @throws NoSuchFieldException if the field does not exist
+     * @throws IllegalAccessException if the caller cannot access the field
+     * @throws IllegalArgumentException if the field is not an instance
+     *         field of exactly the given type, or is final
+     * @throws SecurityException if a security manager denies package access
+     *         to the class
+     * @throws NullPointerException if an argument is null
+     */
+    @CallerSensitive
+    public static <T,V> ReferenceField<T,V> referenceField(Class<T> tclass,
+                                                            String fieldName,
+                                                            Class<V> vclass)
+        throws NoSuchFieldException, IllegalAccessException
+    {
+        if (vclass.isPrimitive())
+            throw new IllegalArgumentException("Must be reference type");
+        FieldInfo f = FieldInfo.lookup(tclass, fieldName, vclass,
+                                       Reflection.getCallerClass());
+        return new ReferenceField<>(tclass, f.receiverType, f.offset, vclass);
+    }
+
+    /**
+     * Returns a handle for the {@code int} instance field of the given
+     * name declared by the given class, checking access to the field from
+     * the given class instead of the caller.
+     *
+     * @param tclass the class of the objects holding the field
+     * @param fieldName the name of the field
+     * @param caller the class accessing the field
+     * @param <T> the type of the objects holding the field
+     * @return the handle
+     * @throws NoSuchFieldException if the field does not exist
+     * @throws IllegalAccessException if {@code caller} cannot access the
+     *         field
+     * @throws IllegalArgumentException if the field is not an instance
+     *         field of type {@code int}, or is final
+     * @throws SecurityException if {@code caller} is not the caller and
+     *         the caller is not a system class, or if a security manager
+     *         denies package access to the class
+     * @throws NullPointerException if an argument is null
+     */
+    @CallerSensitive
+    public static <T> IntField<T> intField(Class<T> tclass, String fieldName,
+                                           Class<?> caller)
+        throws NoSuchFieldException, IllegalAccessException
+    {
+        FieldInfo f = FieldInfo.lookup(tclass, fieldName, int.class,
+                                       accessingClass(caller, Reflection.getCallerClass()));
+        return new IntField<>(tclass, f.receiverType, f.offset);
+    }
+
+    /**
+     * Returns a handle for the {@code long} instance field of the given
+     * name declared by the given class, checking access to the field from
+     * the given class instead of the caller.
+     *
+     * @param tclass the class of the objects holding the field
+     * @param fieldName the name of the field
+     * @param caller the class accessing the field
+     * @param <T> the type of the objects holding the field
+     * @return the handle
+     * @throws NoSuchFieldException if the field does not exist
+     * @throws IllegalAccessException if {@code caller} cannot access the
+     *         field
+     * @throws IllegalArgumentException if the field is not an instance
+     *         field of type {@code long}, or is final
+     * @throws SecurityException if {@code caller} is not the caller and
+     *         the caller is not a system class, or if a security manager
+     *         denies package access to the class
+     * @throws NullPointerException if an argument is null
+     */
+    @CallerSensitive
+    public static <T> LongField<T> longField(Class<T> tclass, String fieldName,
+                                             Class<?> caller)
+        throws NoSuchFieldException, IllegalAccessException
+    {
+        FieldInfo f = FieldInfo.lookup(tclass, fieldName, long.class,
+                                       accessingClass(caller, Reflection.getCallerClass()));
+        return new LongField<>(tclass, f.receiverType, f.offset);
+    }
+
+    /**
+     * Returns a handle for the reference instance field of the given name
+     * and type declared by the given class, checking access to the field
+     * from the given class instead of the caller.
+     *
+     * @param tclass the class of the objects holding the field
+     * @param fieldName the name of the field
+     * @param vclass the declared type of the field
+     * @param caller the class accessing the field
+     * @param <T> the type of the objects holding the field
+     * @param <V> the type of the field
+     * @return the handle
+     * @throws NoSuchFieldException if the field does not exist
+     * @throws IllegalAccessException if {@code caller} cannot access the
+     *         field
+     * @throws IllegalArgumentException if the field is not an instance
+     *         field of exactly the given type, or is final
+     * @throws SecurityException if {@code caller} is not the caller and
+     *         the caller is not a system class, or if a security manager
+     *         denies package access to the class
+     * @throws NullPointerException if an argument is null
+     */
+    @CallerSensitive
+    public static <T,V> ReferenceField<T,V> referenceField(Class<T> tclass,
+                                                            String fieldName,
+                                                            Class<V> vclass,
+                                                            Class<?> caller)
+        throws NoSuchFieldException, IllegalAccessException
+    {
+        if (vclass.isPrimitive())
+            throw new IllegalArgumentException("Must be reference type");
+        FieldInfo f = FieldInfo.lookup(tclass, fieldName, vclass,
+                                       accessingClass(caller, Reflection.getCallerClass()));
+        return new ReferenceField<>(tclass, f.receiverType, f.offset, vclass);
+    }
+
+    /*
+     * Returns the class whose access to a field is checked when the given
+     * caller names an explicit accessing class.  Only system classes may
+     * act on behalf of another class.
+     */
+    private static Class<?> accessingClass(Class<?> caller, Class<?> actualCaller) {
+        Objects.requireNonNull(caller);
+        if (caller != actualCaller && actualCaller.getClassLoader() != null)
+            throw new SecurityException(actualCaller.getName() +
+                                        " cannot access fields on behalf of " +
+                                        caller.getName());
+        return caller;
+    }
+
+    /**
+     * Returns the handle for the elements of {@code int} arrays.
+     *
+     * @return the handle
+     */
+    public static IntArray intArrayElement() {
+        return IntArray.INSTANCE;
+    }
+
+    /**
+     * Returns the handle for the elements of {@code long} arrays.
+     *
+     * @return the handle
+     */
+    public static LongArray longArrayElement() {
+        return LongArray.INSTANCE;
+    }
+
+    /**
+     * Returns a handle for the elements of arrays of the given reference
+     * array type.  The handle accesses arrays of that type and of its
+     * subtypes; storing into an array of a subtype checks the value
+     * against the actual component type of the array.
+     *
+     * @param arrayClass the type of the arrays
+     * @param <E> the component type of the arrays
+     * @return the handle
+     * @throws IllegalArgumentException if {@code arrayClass} is not an
+     *         array type with a reference component type
+     * @throws NullPointerException if {@code arrayClass} is null
+     */
+    public static <E> ReferenceArray<E> referenceArrayElement(Class<E[]> arrayClass) {
+        Class<?> componentType = arrayClass.getComponentType();
+        if (componentType == null || componentType.isPrimitive())
+            throw new IllegalArgumentException("not a reference array type: " + arrayClass);
+        return new ReferenceArray<>(arrayClass);
+    }
+
+    /**
+     * Returns a handle that views the bytes of a {@code ByteBuffer} as
+     * {@code int} elements in the given byte order, regardless of the byte
+     * order of the buffer.  The index of an element is the index of its
+     * first byte in the buffer.  Plain access is supported at any index;
+     * the other access modes require the address of the element to be
+     * aligned to 4 bytes.
+     *
+     * @param order the byte order of the elements
+     * @return the handle
+     * @throws NullPointerException if {@code order} is null
+     */
+    public static IntBufferView intByteBufferView(ByteOrder order) {
+        return (Objects.requireNonNull(order) == ByteOrder.BIG_ENDIAN)
+               ? IntBufferView.BIG_ENDIAN : IntBufferView.LITTLE_ENDIAN;
+    }
+
+    /**
+     * Returns a handle that views the bytes of a {@code ByteBuffer} as
+     * {@code long} elements in the given byte order, regardless of the
+     * byte order of the buffer.  The index of an element is the index of
+     * its first byte in the buffer.  Plain access is supported at any
+     * index; the other access modes require the address of the element to
+     * be aligned to 8 bytes.
+     *
+     * @param order the byte order of the elements
+     * @return the handle
+     * @throws NullPointerException if {@code order} is null
+     */
+    public static LongBufferView longByteBufferView(ByteOrder order) {
+        return (Objects.requireNonNull(order) == ByteOrder.BIG_ENDIAN)
+               ? LongBufferView.BIG_ENDIAN : LongBufferView.LITTLE_ENDIAN;
+    }
+
+    /**
+     * The offset and receiver type of a field, resolved and checked for
+     * access by the caller once, when a field handle is created.
+     */
+    private static final class FieldInfo {
+        final Class<?> receiverType;
+        final long offset;
+
+        private FieldInfo(Class<?> receiverType, long offset) {
+            this.receiverType = receiverType;
+            this.offset = offset;
+        }
+
+        static FieldInfo lookup(final Class<?> tclass, final String fieldName,
+                                Class<?> type, Class<?> caller)
+            throws NoSuchFieldException, IllegalAccessException
+        {
+            Objects.requireNonNull(fieldName);
+            final Field field;
+            try {
+                field = AccessController.doPrivileged(
+                    new PrivilegedExceptionAction<Field>() {
+                        public Field run() throws NoSuchFieldException {
+                            return tclass.getDeclaredField(fieldName);
+                        }
+                    });
+            } catch (PrivilegedActionException pae) {
+                throw (NoSuchFieldException) pae.getException();
+            }
+            int modifiers = field.getModifiers();
+            ReflectUtil.ensureMemberAccess(caller, tclass, null, modifiers);
+            ClassLoader cl = tclass.getClassLoader();
+            ClassLoader ccl = caller.getClassLoader();
+            if ((ccl != null) && (ccl != cl) &&
+                ((cl == null) || !isAncestor(cl, ccl))) {
+                ReflectUtil.checkPackageAccess(tclass);
+            }
+            if (field.getType() != type)
+                throw new IllegalArgumentException("Must be " + type.getName() + " type");
+            if (Modifier.isStatic(modifiers))
+                throw new IllegalArgumentException("Must be instance field");
+            if (Modifier.isFinal(modifiers))
+                throw new IllegalArgumentException("Must not be final");
+
+            // As for the field updaters, a protected field of a class in
+            // another package is only accessed through receivers of the
+            // caller's class or its subclasses
+            Class<?> receiverType = (Modifier.isProtected(modifiers) &&
+                                     tclass.isAssignableFrom(caller) &&
+                                     !isSamePackage(tclass, caller))
+                                    ? caller : tclass;
+            return new FieldInfo(receiverType, U.objectFieldOffset(field));
+        }
+
+        private static boolean isAncestor(ClassLoader first, ClassLoader second) {
+            ClassLoader acl = first;
+            do {
+                acl = acl.getParent();
+                if (second == acl) {
+                    return true;
+                }
+            } while (acl != null);
+            return false;
+        }
+
+        private static boolean isSamePackage(Class<?> class1, Class<?> class2) {
+            return class1.getClassLoader() == class2.getClassLoader()
+                   && Objects.equals(packageName(class1), packageName(class2));
+        }
+
+        private static String packageName(Class<?> cls) {
+            String cn = cls.getName();
+            int dot = cn.lastIndexOf('.');
+            return (dot != -1) ? cn.substring(0, dot) : "";
+        }
+    }
+
+    /*
+     * Returns the exception for an inaccessible or mismatched receiver,
+     * the one the field updaters have always thrown, so that they need no
+     * check of their own: a RuntimeException wrapping an
+     * IllegalAccessException for a protected field accessed through an
+     * instance of the declaring class that is not one of the accessing
+     * class, and otherwise, including for null, a ClassCastException.
+     */
+    static RuntimeException receiverException(Object obj, Class<?> declaringClass,
+                                              Class<?> receiverType) {
+        if (receiverType != declaringClass && declaringClass.isInstance(obj))
+            return new RuntimeException(
+                new IllegalAccessException(
+                    "Class " + receiverType.getName() +
+                    " can not access a protected member of class " +
+                    declaringClass.getName() + " using an instance of " +
+                    obj.getClass().getName()));
+        if (obj == null)
+            return new ClassCastException();
+        return new ClassCastException(obj.getClass().getName() +
+                                      " cannot be cast to " + receiverType.getName());
+    }
+
+    /**
+     * A handle for an instance field of type {@code int}.  The
+     * receiver of each access method must be a non-null instance of the
+     * class that declares the field.
+     *
+     * @param <T> the type of the objects holding the field
+     * @since 1.8
+     */
+    public static final class IntField<T> extends VarHandle {
+        private final Class<T> declaringClass;
+        private final Class<?> receiverType;
+        private final long offset;
+
+        IntField(Class<T> declaringClass, Class<?> receiverType, long offset) {
+            super(int.class, declaringClass);
+            this.declaringClass = declaringClass;
+            this.receiverType = receiverType;
+            this.offset = offset;
+        }
+
+        private Object check(T obj) {
+            if (!receiverType.isInstance(obj))
+                throw receiverException(obj, declaringClass, receiverType);
+            return obj;
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public int get(T obj) {
+            return U.getInt(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void set(T obj, int value) {
+            U.putInt(check(obj), offset, value);
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public int getVolatile(T obj) {
+            return U.getIntVolatile(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setVolatile(T obj, int value) {
+            U.putIntVolatile(check(obj), offset, value);
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public int getOpaque(T obj) {
+            return U.getIntVolatile(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setOpaque(T obj, int value) {
+            U.putOrderedInt(check(obj), offset, value);
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public int getAcquire(T obj) {
+            int v = U.getInt(check(obj), offset);
+            U.loadFence();
+            return v;
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setRelease(T obj, int value) {
+            U.putOrderedInt(check(obj), offset, value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param obj the object holding the field
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(T obj, int expected, int value) {
+            return U.compareAndSwapInt(check(obj), offset, expected, value);
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param obj the object holding the field
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(T obj, int expected, int value) {
+            return U.compareAndSwapInt(check(obj), offset, expected, value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         * @return the previous value
+         */
+        public int getAndSet(T obj, int value) {
+            return U.getAndSetInt(check(obj), offset, value);
+        }
+
+        /**
+         * Atomically adds the given value to the value of the variable,
+         * with the memory semantics of {@code setVolatile}, and returns
+         * its previous value.
+         *
+         * @param obj the object holding the field
+         * @param delta the value to add
+         * @return the previous value
+         */
+        public int getAndAdd(T obj, int delta) {
+            return U.getAndAddInt(check(obj), offset, delta);
+        }
+    }
+
+    /**
+     * A handle for an instance field of type {@code long}.  The
+     * receiver of each access method must be a non-null instance of the
+     * class that declares the field.
+     *
+     * @param <T> the type of the objects holding the field
+     * @since 1.8
+     */
+    public static final class LongField<T> extends VarHandle {
+        private final Class<T> declaringClass;
+        private final Class<?> receiverType;
+        private final long offset;
+
+        LongField(Class<T> declaringClass, Class<?> receiverType, long offset) {
+            super(long.class, declaringClass);
+            this.declaringClass = declaringClass;
+            this.receiverType = receiverType;
+            this.offset = offset;
+        }
+
+        private Object check(T obj) {
+            if (!receiverType.isInstance(obj))
+                throw receiverException(obj, declaringClass, receiverType);
+            return obj;
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public long get(T obj) {
+            return U.getLong(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void set(T obj, long value) {
+            U.putLong(check(obj), offset, value);
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public long getVolatile(T obj) {
+            return U.getLongVolatile(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setVolatile(T obj, long value) {
+            U.putLongVolatile(check(obj), offset, value);
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public long getOpaque(T obj) {
+            return U.getLongVolatile(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setOpaque(T obj, long value) {
+            U.putOrderedLong(check(obj), offset, value);
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public long getAcquire(T obj) {
+            long v = U.getLong(check(obj), offset);
+            U.loadFence();
+            return v;
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setRelease(T obj, long value) {
+            U.putOrderedLong(check(obj), offset, value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param obj the object holding the field
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(T obj, long expected, long value) {
+            return U.compareAndSwapLong(check(obj), offset, expected, value);
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param obj the object holding the field
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(T obj, long expected, long value) {
+            return U.compareAndSwapLong(check(obj), offset, expected, value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         * @return the previous value
+         */
+        public long getAndSet(T obj, long value) {
+            return U.getAndSetLong(check(obj), offset, value);
+        }
+
+        /**
+         * Atomically adds the given value to the value of the variable,
+         * with the memory semantics of {@code setVolatile}, and returns
+         * its previous value.
+         *
+         * @param obj the object holding the field
+         * @param delta the value to add
+         * @return the previous value
+         */
+        public long getAndAdd(T obj, long delta) {
+            return U.getAndAddLong(check(obj), offset, delta);
+        }
+    }
+
+    /**
+     * A handle for an instance field of a reference type.  The
+     * receiver of each access method must be a non-null instance of the
+     * class that declares the field and the value an instance of its type.
+     *
+     * @param <T> the type of the objects holding the field
+     * @param <V> the type of the field
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    public static final class ReferenceField<T,V> extends VarHandle {
+        private final Class<T> declaringClass;
+        private final Class<?> receiverType;
+        private final long offset;
+        private final Class<V> valueType;
+
+        ReferenceField(Class<T> declaringClass, Class<?> receiverType, long offset, Class<V> valueType) {
+            super(valueType, declaringClass);
+            this.declaringClass = declaringClass;
+            this.receiverType = receiverType;
+            this.offset = offset;
+            this.valueType = valueType;
+        }
+
+        private Object check(T obj) {
+            if (!receiverType.isInstance(obj))
+                throw receiverException(obj, declaringClass, receiverType);
+            return obj;
+        }
+
+        private V checkValue(V value) {
+            return valueType.cast(value);
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public V get(T obj) {
+            return (V) U.getObject(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void set(T obj, V value) {
+            U.putObject(check(obj), offset, checkValue(value));
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public V getVolatile(T obj) {
+            return (V) U.getObjectVolatile(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setVolatile(T obj, V value) {
+            U.putObjectVolatile(check(obj), offset, checkValue(value));
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public V getOpaque(T obj) {
+            return (V) U.getObjectVolatile(check(obj), offset);
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setOpaque(T obj, V value) {
+            U.putOrderedObject(check(obj), offset, checkValue(value));
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param obj the object holding the field
+         * @return the value
+         */
+        public V getAcquire(T obj) {
+            V v = (V) U.getObject(check(obj), offset);
+            U.loadFence();
+            return v;
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         */
+        public void setRelease(T obj, V value) {
+            U.putOrderedObject(check(obj), offset, checkValue(value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param obj the object holding the field
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(T obj, V expected, V value) {
+            return U.compareAndSwapObject(check(obj), offset, expected, checkValue(value));
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param obj the object holding the field
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(T obj, V expected, V value) {
+            return U.compareAndSwapObject(check(obj), offset, expected, checkValue(value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param obj the object holding the field
+         * @param value the new value
+         * @return the previous value
+         */
+        public V getAndSet(T obj, V value) {
+            return (V) U.getAndSetObject(check(obj), offset, checkValue(value));
+        }
+    }
+
+    /**
+     * A handle for the elements of {@code int} arrays.  The array of each
+     * access method must not be null, and the index must be within its
+     * bounds.
+     *
+     * @since 1.8
+     */
+    public static final class IntArray extends VarHandle {
+        static final IntArray INSTANCE = new IntArray();
+
+        private static final long BASE = U.arrayBaseOffset(int[].class);
+        private static final int SHIFT = shift(U.arrayIndexScale(int[].class));
+
+        private IntArray() {
+            super(int.class, int[].class, int.class);
+        }
+
+        private static long offset(int[] array, int index) {
+            if (index < 0 || index >= array.length)
+                throw new ArrayIndexOutOfBoundsException(index);
+            return ((long) index << SHIFT) + BASE;
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public int get(int[] array, int index) {
+            return U.getInt(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void set(int[] array, int index, int value) {
+            U.putInt(array, offset(array, index), value);
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public int getVolatile(int[] array, int index) {
+            return U.getIntVolatile(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setVolatile(int[] array, int index, int value) {
+            U.putIntVolatile(array, offset(array, index), value);
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public int getOpaque(int[] array, int index) {
+            return U.getIntVolatile(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setOpaque(int[] array, int index, int value) {
+            U.putOrderedInt(array, offset(array, index), value);
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public int getAcquire(int[] array, int index) {
+            int v = U.getInt(array, offset(array, index));
+            U.loadFence();
+            return v;
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setRelease(int[] array, int index, int value) {
+            U.putOrderedInt(array, offset(array, index), value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(int[] array, int index, int expected, int value) {
+            return U.compareAndSwapInt(array, offset(array, index), expected, value);
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(int[] array, int index, int expected, int value) {
+            return U.compareAndSwapInt(array, offset(array, index), expected, value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         * @return the previous value
+         */
+        public int getAndSet(int[] array, int index, int value) {
+            return U.getAndSetInt(array, offset(array, index), value);
+        }
+
+        /**
+         * Atomically adds the given value to the value of the variable,
+         * with the memory semantics of {@code setVolatile}, and returns
+         * its previous value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param delta the value to add
+         * @return the previous value
+         */
+        public int getAndAdd(int[] array, int index, int delta) {
+            return U.getAndAddInt(array, offset(array, index), delta);
+        }
+    }
+
+    /**
+     * A handle for the elements of {@code long} arrays.  The array of each
+     * access method must not be null, and the index must be within its
+     * bounds.
+     *
+     * @since 1.8
+     */
+    public static final class LongArray extends VarHandle {
+        static final LongArray INSTANCE = new LongArray();
+
+        private static final long BASE = U.arrayBaseOffset(long[].class);
+        private static final int SHIFT = shift(U.arrayIndexScale(long[].class));
+
+        private LongArray() {
+            super(long.class, long[].class, int.class);
+        }
+
+        private static long offset(long[] array, int index) {
+            if (index < 0 || index >= array.length)
+                throw new ArrayIndexOutOfBoundsException(index);
+            return ((long) index << SHIFT) + BASE;
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public long get(long[] array, int index) {
+            return U.getLong(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void set(long[] array, int index, long value) {
+            U.putLong(array, offset(array, index), value);
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public long getVolatile(long[] array, int index) {
+            return U.getLongVolatile(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setVolatile(long[] array, int index, long value) {
+            U.putLongVolatile(array, offset(array, index), value);
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public long getOpaque(long[] array, int index) {
+            return U.getLongVolatile(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setOpaque(long[] array, int index, long value) {
+            U.putOrderedLong(array, offset(array, index), value);
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public long getAcquire(long[] array, int index) {
+            long v = U.getLong(array, offset(array, index));
+            U.loadFence();
+            return v;
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setRelease(long[] array, int index, long value) {
+            U.putOrderedLong(array, offset(array, index), value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(long[] array, int index, long expected, long value) {
+            return U.compareAndSwapLong(array, offset(array, index), expected, value);
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(long[] array, int index, long expected, long value) {
+            return U.compareAndSwapLong(array, offset(array, index), expected, value);
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         * @return the previous value
+         */
+        public long getAndSet(long[] array, int index, long value) {
+            return U.getAndSetLong(array, offset(array, index), value);
+        }
+
+        /**
+         * Atomically adds the given value to the value of the variable,
+         * with the memory semantics of {@code setVolatile}, and returns
+         * its previous value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param delta the value to add
+         * @return the previous value
+         */
+        public long getAndAdd(long[] array, int index, long delta) {
+            return U.getAndAddLong(array, offset(array, index), delta);
+        }
+    }
+
+    /**
+     * A handle for the elements of arrays of a reference type.  The array
+     * of each access method must not be null, and the index must be
+     * within its bounds.  Values stored are checked against the component
+     * type of the array.
+     *
+     * @param <E> the component type of the arrays
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    public static final class ReferenceArray<E> extends VarHandle {
+        private static final long BASE = U.arrayBaseOffset(Object[].class);
+        private static final int SHIFT = shift(U.arrayIndexScale(Object[].class));
+
+        private final Class<?> arrayClass;
+        private final Class<?> componentType;
+
+        ReferenceArray(Class<E[]> arrayClass) {
+            super(arrayClass.getComponentType(), arrayClass, int.class);
+            this.arrayClass = arrayClass;
+            this.componentType = arrayClass.getComponentType();
+        }
+
+        private long offset(E[] array, int index) {
+            Object[] a = (Object[]) arrayClass.cast(array);
+            if (index < 0 || index >= a.length)
+                throw new ArrayIndexOutOfBoundsException(index);
+            return ((long) index << SHIFT) + BASE;
+        }
+
+        /*
+         * Checks a value stored into the array, against the component type
+         * of the handle or, for an array of a subtype, of the array.
+         */
+        private E checkValue(E[] array, E value) {
+            if (value != null) {
+                Class<?> c = array.getClass();
+                Class<?> ct = (c == arrayClass) ? componentType : c.getComponentType();
+                if (!ct.isInstance(value))
+                    throw new ArrayStoreException(value.getClass().getName());
+            }
+            return value;
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public E get(E[] array, int index) {
+            return (E) U.getObject(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void set(E[] array, int index, E value) {
+            U.putObject(array, offset(array, index), checkValue(array, value));
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public E getVolatile(E[] array, int index) {
+            return (E) U.getObjectVolatile(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setVolatile(E[] array, int index, E value) {
+            U.putObjectVolatile(array, offset(array, index), checkValue(array, value));
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public E getOpaque(E[] array, int index) {
+            return (E) U.getObjectVolatile(array, offset(array, index));
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setOpaque(E[] array, int index, E value) {
+            U.putOrderedObject(array, offset(array, index), checkValue(array, value));
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @return the value
+         */
+        public E getAcquire(E[] array, int index) {
+            E v = (E) U.getObject(array, offset(array, index));
+            U.loadFence();
+            return v;
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         */
+        public void setRelease(E[] array, int index, E value) {
+            U.putOrderedObject(array, offset(array, index), checkValue(array, value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(E[] array, int index, E expected, E value) {
+            return U.compareAndSwapObject(array, offset(array, index), expected, checkValue(array, value));
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(E[] array, int index, E expected, E value) {
+            return U.compareAndSwapObject(array, offset(array, index), expected, checkValue(array, value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param array the array
+         * @param index the index of the element
+         * @param value the new value
+         * @return the previous value
+         */
+        public E getAndSet(E[] array, int index, E value) {
+            return (E) U.getAndSetObject(array, offset(array, index), checkValue(array, value));
+        }
+    }
+
+    /*
+     * Returns the shift of an array index scale, which must be a power of two.
+     */
+    private static int shift(int scale) {
+        if ((scale & (scale - 1)) != 0)
+            throw new Error("data type scale not a power of two");
+        return 31 - Integer.numberOfLeadingZeros(scale);
+    }
+
+    /**
+     * Access to the memory of byte buffers, shared by the buffer views.
+     */
+    static final class BufferAccess {
+        private BufferAccess() {
+        }
+
+        static final long ADDRESS;
+        static final long HB;
+        static final long OFFSET;
+        static final long BYTE_BASE = U.arrayBaseOffset(byte[].class);
+        static final boolean NATIVE_BIG_ENDIAN =
+            ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+        static {
+            try {
+                ADDRESS = U.objectFieldOffset(
+                    java.nio.Buffer.class.getDeclaredField("address"));
+                HB = U.objectFieldOffset(ByteBuffer.class.getDeclaredField("hb"));
+                OFFSET = U.objectFieldOffset(ByteBuffer.class.getDeclaredField("offset"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+
+        /*
+         * Returns the array of a heap buffer, or null for a direct buffer.
+         */
+        static Object base(ByteBuffer bb) {
+            return U.getObject(bb, HB);
+        }
+
+        /*
+         * Returns the address of the element of the given size at the given
+         * index, relative to the base of the buffer.
+         */
+        static long address(ByteBuffer bb, Object base, int index, int size) {
+            if (index < 0 || index > bb.limit() - size)
+                throw new IndexOutOfBoundsException();
+            return (base != null)
+                   ? BYTE_BASE + U.getInt(bb, OFFSET) + index
+                   : U.getLong(bb, ADDRESS) + index;
+        }
+
+        static long alignedAddress(ByteBuffer bb, Object base, int index, int size) {
+            long address = address(bb, base, index, size);
+            if ((address & (size - 1)) != 0)
+                throw new IllegalStateException("Misaligned access at address: " + address);
+            return address;
+        }
+
+        static void checkWritable(ByteBuffer bb) {
+            if (bb.isReadOnly())
+                throw new ReadOnlyBufferException();
+        }
+    }
+
+    /**
+     * A handle that views the bytes of a {@code ByteBuffer} as
+     * {@code int} elements of a given byte order.  The buffer of each
+     * access method must not be null, and the element must lie within the
+     * limit of the buffer.  The access modes other than plain require the
+     * element to be aligned to 4 bytes, and throw an {@code
+     * IllegalStateException} otherwise.  The write modes throw a {@code
+     * ReadOnlyBufferException} for a read-only buffer.
+     *
+     * @since 1.8
+     */
+    public static final class IntBufferView extends VarHandle {
+        static final IntBufferView BIG_ENDIAN = new IntBufferView(true);
+        static final IntBufferView LITTLE_ENDIAN = new IntBufferView(false);
+
+        private final boolean bigEndian;
+        // whether values are byte-swapped between memory and the handle
+        private final boolean swap;
+
+        private IntBufferView(boolean bigEndian) {
+            super(int.class, ByteBuffer.class, int.class);
+            this.bigEndian = bigEndian;
+            this.swap = bigEndian != BufferAccess.NATIVE_BIG_ENDIAN;
+        }
+
+        /**
+         * Returns the byte order of the elements.
+         *
+         * @return the byte order
+         */
+        public ByteOrder order() {
+            return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        }
+
+        private int convert(int v) {
+            return swap ? Integer.reverseBytes(v) : v;
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public int get(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.address(bb, base, index, 4);
+            int v = ((address & 3) == 0) ? U.getInt(base, address)
+                                        : getIntBytewise(base, address);
+            return convert(v);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void set(ByteBuffer bb, int index, int value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.address(bb, base, index, 4);
+            if ((address & 3) == 0) {
+                U.putInt(base, address, convert(value));
+            } else {
+                putIntBytewise(base, address, convert(value));
+            }
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public int getVolatile(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            return convert(U.getIntVolatile(base, address));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void setVolatile(ByteBuffer bb, int index, int value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            U.putIntVolatile(base, address, convert(value));
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public int getOpaque(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            return convert(U.getIntVolatile(base, address));
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void setOpaque(ByteBuffer bb, int index, int value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            U.putOrderedInt(base, address, convert(value));
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public int getAcquire(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            int v = U.getInt(base, address);
+            U.loadFence();
+            return convert(v);
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void setRelease(ByteBuffer bb, int index, int value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            U.putOrderedInt(base, address, convert(value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(ByteBuffer bb, int index, int expected, int value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            return U.compareAndSwapInt(base, address, convert(expected), convert(value));
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(ByteBuffer bb, int index, int expected, int value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            return U.compareAndSwapInt(base, address, convert(expected), convert(value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         * @return the previous value
+         */
+        public int getAndSet(ByteBuffer bb, int index, int value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            return convert(U.getAndSetInt(base, address, convert(value)));
+        }
+
+        /**
+         * Atomically adds the given value to the value of the variable,
+         * with the memory semantics of {@code setVolatile}, and returns
+         * its previous value.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param delta the value to add
+         * @return the previous value
+         */
+        public int getAndAdd(ByteBuffer bb, int index, int delta) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 4);
+            if (!swap)
+                return U.getAndAddInt(base, address, delta);
+            int raw, v;
+            do {
+                raw = U.getIntVolatile(base, address);
+                v = Integer.reverseBytes(raw);
+            } while (!U.compareAndSwapInt(base, address, raw, Integer.reverseBytes(v + delta)));
+            return v;
+        }
+
+        /*
+         * Reads a misaligned element byte by byte, in native byte order.
+         */
+        private static int getIntBytewise(Object base, long address) {
+            int v = 0;
+            for (int i = 0; i < 4; i++) {
+                int shift = BufferAccess.NATIVE_BIG_ENDIAN ? 8 * (3 - i) : 8 * i;
+                v |= (U.getByte(base, address + i) & 0xff) << shift;
+            }
+            return v;
+        }
+
+        /*
+         * Writes a misaligned element byte by byte, in native byte order.
+         */
+        private static void putIntBytewise(Object base, long address, int v) {
+            for (int i = 0; i < 4; i++) {
+                int shift = BufferAccess.NATIVE_BIG_ENDIAN ? 8 * (3 - i) : 8 * i;
+                U.putByte(base, address + i, (byte) (v >>> shift));
+            }
+        }
+    }
+
+    /**
+     * A handle that views the bytes of a {@code ByteBuffer} as
+     * {@code long} elements of a given byte order.  The buffer of each
+     * access method must not be null, and the element must lie within the
+     * limit of the buffer.  The access modes other than plain require the
+     * element to be aligned to 8 bytes, and throw an {@code
+     * IllegalStateException} otherwise.  The write modes throw a {@code
+     * ReadOnlyBufferException} for a read-only buffer.
+     *
+     * @since 1.8
+     */
+    public static final class LongBufferView extends VarHandle {
+        static final LongBufferView BIG_ENDIAN = new LongBufferView(true);
+        static final LongBufferView LITTLE_ENDIAN = new LongBufferView(false);
+
+        private final boolean bigEndian;
+        // whether values are byte-swapped between memory and the handle
+        private final boolean swap;
+
+        private LongBufferView(boolean bigEndian) {
+            super(long.class, ByteBuffer.class, int.class);
+            this.bigEndian = bigEndian;
+            this.swap = bigEndian != BufferAccess.NATIVE_BIG_ENDIAN;
+        }
+
+        /**
+         * Returns the byte order of the elements.
+         *
+         * @return the byte order
+         */
+        public ByteOrder order() {
+            return bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        }
+
+        private long convert(long v) {
+            return swap ? Long.reverseBytes(v) : v;
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a non-volatile variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public long get(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.address(bb, base, index, 8);
+            long v = ((address & 7) == 0) ? U.getLong(base, address)
+                                        : getLongBytewise(base, address);
+            return convert(v);
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a non-volatile variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void set(ByteBuffer bb, int index, long value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.address(bb, base, index, 8);
+            if ((address & 7) == 0) {
+                U.putLong(base, address, convert(value));
+            } else {
+                putLongBytewise(base, address, convert(value));
+            }
+        }
+
+        /**
+         * Returns the value of the variable, with the memory semantics of
+         * reading a {@code volatile} variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public long getVolatile(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            return convert(U.getLongVolatile(base, address));
+        }
+
+        /**
+         * Sets the value of the variable, with the memory semantics of
+         * writing a {@code volatile} variable.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void setVolatile(ByteBuffer bb, int index, long value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            U.putLongVolatile(base, address, convert(value));
+        }
+
+        /**
+         * Returns the value of the variable, accessed in program order but
+         * with no assurance of ordering with respect to other threads.
+         * Implemented as a volatile read, which is at least as strong.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public long getOpaque(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            return convert(U.getLongVolatile(base, address));
+        }
+
+        /**
+         * Sets the value of the variable, in program order but with no
+         * assurance of ordering with respect to other threads.  Implemented
+         * as a releasing write, which is at least as strong.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void setOpaque(ByteBuffer bb, int index, long value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            U.putOrderedLong(base, address, convert(value));
+        }
+
+        /**
+         * Returns the value of the variable, ensuring that subsequent loads
+         * and stores are not reordered before this access.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @return the value
+         */
+        public long getAcquire(ByteBuffer bb, int index) {
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            long v = U.getLong(base, address);
+            U.loadFence();
+            return convert(v);
+        }
+
+        /**
+         * Sets the value of the variable, ensuring that prior loads and
+         * stores are not reordered after this access.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         */
+        public void setRelease(ByteBuffer bb, int index, long value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            U.putOrderedLong(base, address, convert(value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value,
+         * with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean compareAndSet(ByteBuffer bb, int index, long expected, long value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            return U.compareAndSwapLong(base, address, convert(expected), convert(value));
+        }
+
+        /**
+         * Possibly atomically sets the value of the variable to the new
+         * value, with the memory semantics of {@code setVolatile}, if its current
+         * value, read with the memory semantics of {@code getVolatile}, is
+         * {@code ==} to the expected value.  This operation may fail spuriously.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param expected the expected value
+         * @param value the new value
+         * @return {@code true} if successful
+         */
+        public boolean weakCompareAndSet(ByteBuffer bb, int index, long expected, long value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            return U.compareAndSwapLong(base, address, convert(expected), convert(value));
+        }
+
+        /**
+         * Atomically sets the value of the variable to the new value, with
+         * the memory semantics of {@code setVolatile}, and returns its
+         * previous value.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param value the new value
+         * @return the previous value
+         */
+        public long getAndSet(ByteBuffer bb, int index, long value) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            return convert(U.getAndSetLong(base, address, convert(value)));
+        }
+
+        /**
+         * Atomically adds the given value to the value of the variable,
+         * with the memory semantics of {@code setVolatile}, and returns
+         * its previous value.
+         *
+         * @param bb the buffer
+         * @param index the index of the first byte of the element
+         * @param delta the value to add
+         * @return the previous value
+         */
+        public long getAndAdd(ByteBuffer bb, int index, long delta) {
+            BufferAccess.checkWritable(bb);
+            Object base = BufferAccess.base(bb);
+            long address = BufferAccess.alignedAddress(bb, base, index, 8);
+            if (!swap)
+                return U.getAndAddLong(base, address, delta);
+            long raw, v;
+            do {
+                raw = U.getLongVolatile(base, address);
+                v = Long.reverseBytes(raw);
+            } while (!U.compareAndSwapLong(base, address, raw, Long.reverseBytes(v + delta)));
+            return v;
+        }
+
+        /*
+         * Reads a misaligned element byte by byte, in native byte order.
+         */
+        private static long getLongBytewise(Object base, long address) {
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                int shift = BufferAccess.NATIVE_BIG_ENDIAN ? 8 * (7 - i) : 8 * i;
+                v |= (long) (U.getByte(base, address + i) & 0xff) << shift;
+            }
+            return v;
+        }
+
+        /*
+         * Writes a misaligned element byte by byte, in native byte order.
+         */
+        private static void putLongBytewise(Object base, long address, long v) {
+            for (int i = 0; i < 8; i++) {
+                int shift = BufferAccess.NATIVE_BIG_ENDIAN ? 8 * (7 - i) : 8 * i;
+                U.putByte(base, address + i, (byte) (v >>> shift));
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang.ref;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code Cleaner} manages a set of object references and corresponding
+ * cleaning actions.
+ *
+ * <p> Cleaning actions are {@link #register(Object, Runnable) registered}
+ * to run after the cleaner is notified that the object has become phantom
+ * reachable.  The cleaner uses a {@link PhantomReference} per registered
+ * object and a {@link ReferenceQueue} to be notified when the reachability
+ * changes.  Unlike finalization, registering an object does not make the
+ * object itself survive an additional garbage collection cycle, and the
+ * actions do not all compete for the single finalizer thread.
+ *
+ * <p> Each cleaner operates independently, managing the pending cleaning
+ * actions and, unless created {@linkplain #createUnthreaded() without a
+ * thread}, handling threading and termination when the cleaner is no longer
+ * in use.  Registering an object reference and corresponding cleaning action
+ * returns a {@link Cleanable Cleanable}.  The most efficient use is to
+ * explicitly invoke the {@link Cleanable#clean clean} method when the object
+ * is closed or no longer needed.  The cleaning action is a {@link Runnable}
+ * to be invoked at most once when the object has become phantom reachable
+ * unless it has already been explicitly cleaned.
+ *
+ * <p> The execution of the cleaning action is performed by a thread
+ * associated with the cleaner, or by the callers of {@link #cleanPending}.
+ * All exceptions thrown by the cleaning action are ignored.  The cleaner and
+ * other cleaning actions are not affected by exceptions in a cleaning
+ * action.  The thread runs until all registered cleaning actions have
+ * completed and the cleaner itself is reclaimed by the garbage collector.
+ *
+ * <p> The cleaning action must not refer to the object being registered.
+ * If so, the object will not become phantom reachable and the cleaning
+ * action will not be invoked automatically.  In particular, a lambda
+ * expression or an instance of an inner class created in an instance
+ * method of the object refers to the object; a static nested class should
+ * be used instead.
+ *
+ * @since 1.8
+ */
+public final class Cleaner {
+
+    /**
+     * The state of the cleaner, which the thread of the cleaner refers to
+     * instead of the cleaner itself, so that the cleaner can be reclaimed.
+     */
+    private final CleanerImpl impl;
+
+    private Cleaner(CleanerImpl impl) {
+        this.impl = impl;
+    }
+
+    /**
+     * Returns a new {@code Cleaner}.
+     *
+     * <p> The cleaner creates a {@link Thread#setDaemon(boolean) daemon
+     * thread} to process the phantom reachable objects and to invoke
+     * cleaning actions.  The {@linkplain Thread#getContextClassLoader
+     * context class loader} of the thread is set to {@code null}.  The
+     * thread terminates when the cleaner is phantom reachable and all of
+     * the cleaning actions are complete.
+     *
+     * @return a new {@code Cleaner}
+     * @throws SecurityException if the current thread is not allowed to
+     *         create or start the thread.
+     */
+    public static Cleaner create() {
+        return create(DefaultThreadFactory.INSTANCE);
+    }
+
+    /**
+     * Returns a new {@code Cleaner} using a {@code Thread} from the
+     * {@code ThreadFactory}.
+     *
+     * <p> A thread from the thread factory's {@link ThreadFactory#newThread
+     * newThread} method is set to be a {@link Thread#setDaemon(boolean)
+     * daemon thread} and started to process phantom reachable objects and
+     * invoke cleaning actions.  On each call the thread factory must
+     * provide a Thread that is suitable for performing the cleaning
+     * actions.
+     *
+     * @param threadFactory a {@code ThreadFactory} to return a new
+     *        {@code Thread} to process cleaning actions
+     * @return a new {@code Cleaner}
+     * @throws IllegalThreadStateException if the thread from the thread
+     *         factory was {@link Thread.State#NEW not a new thread}.
+     * @throws SecurityException if the current thread is not allowed to
+     *         create or start the thread.
+     */
+    public static Cleaner create(ThreadFactory threadFactory) {
+        Objects.requireNonNull(threadFactory, "threadFactory");
+        Cleaner cleaner = new Cleaner(new CleanerImpl());
+        cleaner.impl.start(cleaner, threadFactory);
+        return cleaner;
+    }
+
+    /**
+     * Returns a new {@code Cleaner} that has no thread of its own.  The
+     * cleaning actions of its phantom reachable objects are only invoked
+     * by {@link #cleanPending}, which the application is expected to call
+     * periodically, for instance from one of its own event loops, or
+     * explicitly through {@link Cleanable#clean}.
+     *
+     * @return a new {@code Cleaner} without a thread
+     */
+    public static Cleaner createUnthreaded() {
+        Cleaner cleaner = new Cleaner(new CleanerImpl());
+        cleaner.impl.start(cleaner, null);
+        return cleaner;
+    }
+
+    /**
+     * Registers an object and a cleaning action to run when the object
+     * becomes phantom reachable.  Refer to the class description above
+     * for cautions about the behavior of cleaning actions.
+     *
+     * @param obj   the object to monitor
+     * @param action a {@code Runnable} to invoke when the object becomes
+     *        phantom reachable
+     * @return a {@code Cleanable} instance
+     */
+    public Cleanable register(Object obj, Runnable action) {
+        Objects.requireNonNull(obj, "obj");
+        Objects.requireNonNull(action, "action");
+        return new PhantomCleanable(obj, impl, action);
+    }
+
+    /**
+     * Invokes, in the calling thread, the cleaning actions of the
+     * registered objects that have become phantom reachable and have not
+     * yet been cleaned, without waiting for more of them.  For a cleaner
+     * {@linkplain #createUnthreaded() without a thread} this is how
+     * cleaning actions are invoked; for other cleaners it helps their
+     * thread.
+     *
+     * @return the number of cleaning actions invoked
+     */
+    public int cleanPending() {
+        return impl.cleanPending();
+    }
+
+    /**
+     * {@code Cleanable} represents an object and a cleaning action
+     * registered in a {@code Cleaner}.
+     *
+     * @since 1.8
+     */
+    public interface Cleanable {
+        /**
+         * Unregisters the cleanable and invokes the cleaning action.  The
+         * cleanable's cleaning action is invoked at most once regardless
+         * of the number of calls to {@code clean}.
+         */
+        void clean();
+    }
+
+    /**
+     * The queue, the list of registered cleanables and the cleaning loop of
+     * a cleaner.  The list keeps the cleanables strongly reachable until
+     * they are cleaned; it is a doubly-linked list with a sentinel head, so
+     * that a cleanable unlinks itself in constant time.
+     */
+    static final class CleanerImpl implements Runnable {
+
+        final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+        final PhantomCleanable list = new PhantomCleanable();
+
+        /**
+         * Registers the cleanable of the cleaner itself, which keeps the
+         * loop running until the cleaner is phantom reachable, and starts
+         * the thread of the cleaner, if any.
+         */
+        void start(Cleaner cleaner, ThreadFactory threadFactory) {
+            // The action of the cleaner's own cleanable does nothing, its
+            // removal from the list lets the loop terminate once empty
+            new PhantomCleanable(cleaner, this, NOOP);
+            if (threadFactory != null) {
+                Thread thread = threadFactory.newThread(this);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+
+        /**
+         * Processes the queue until the cleaner and all its registered
+         * objects have been cleaned.
+         */
+        @Override
+        public void run() {
+            while (!list.isListEmpty()) {
+                try {
+                    // Wake up periodically so that a terminated loop is
+                    // noticed even if nothing more is enqueued
+                    PhantomCleanable ref = (PhantomCleanable) queue.remove(60 * 1000L);
+                    if (ref != null)
+                        ref.clean();
+                } catch (Throwable e) {
+                    // ignore exceptions from the cleanup action
+                    // (including interruption of cleanup thread)
+                }
+            }
+        }
+
+        int cleanPending() {
+            int count = 0;
+            PhantomCleanable ref;
+            while ((ref = (PhantomCleanable) queue.poll()) != null) {
+                try {
+                    if (ref.cleanIfRegistered())
+                        count++;
+                } catch (Throwable e) {
+                    // the action was invoked; ignore its exception
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static final Runnable NOOP = new Runnable() {
+        public void run() {
+        }
+    };
+
+    /**
+     * A phantom reference to a registered object and its cleaning action,
+     * linked in the list of the cleaner until it is cleaned.
+     */
+    static final class PhantomCleanable extends PhantomReference<Object>
+        implements Cleanable
+    {
+        private final CleanerImpl cleaner;
+        private Runnable action;
+
+        // Links of the list, guarded by the list head; a cleanable that is
+        // not in the list links to itself
+        private PhantomCleanable prev = this, next = this;
+
+        PhantomCleanable(Object referent, CleanerImpl cleaner, Runnable action) {
+            super(referent, cleaner.queue);
+            this.cleaner = cleaner;
+            this.action = action;
+            insert();
+        }
+
+        /**
+         * Creates the head of a list.
+         */
+        PhantomCleanable() {
+            super(null, null);
+            this.cleaner = null;
+        }
+
+        private void insert() {
+            PhantomCleanable head = cleaner.list;
+            synchronized (head) {
+                prev = head;
+                next = head.next;
+                next.prev = this;
+                head.next = this;
+            }
+        }
+
+        /**
+         * Removes this cleanable from the list.
+         *
+         * @return true if it was removed, false if it had already been
+         */
+        boolean remove() {
+            PhantomCleanable head = cleaner.list;
+            synchronized (head) {
+                if (next != this) {
+                    next.prev = prev;
+                    prev.next = next;
+                    prev = this;
+                    next = this;
+                    return true;
+                }
+                return false;
+            }
+        }
+
+        boolean isListEmpty() {
+            synchronized (this) {
+                return next == this;
+            }
+        }
+
+        @Override
+        public void clean() {
+            cleanIfRegistered();
+        }
+
+        /**
+         * Unregisters this cleanable and invokes its action, unless it has
+         * already been cleaned.
+         *
+         * @return true if the action was invoked
+         */
+        boolean cleanIfRegistered() {
+            if (remove()) {
+                super.clear();
+                Runnable a = action;
+                action = null;
+                a.run();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Unsupported, a cleanable is only cleared by {@link #clean}.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("clear");
+        }
+
+        /**
+         * Unsupported, a cleanable is only enqueued by the collector.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        @Override
+        public boolean enqueue() {
+            throw new UnsupportedOperationException("enqueue");
+        }
+
+        /**
+         * Unsupported, a cleanable is only enqueued by the collector.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        @Override
+        public boolean isEnqueued() {
+            throw new UnsupportedOperationException("isEnqueued");
+        }
+    }
+
+    /**
+     * The thread factory of {@link Cleaner#create()}, which creates daemon
+     * threads in the system thread group without a context class loader.
+     */
+    private static final class DefaultThreadFactory implements ThreadFactory {
+        static final DefaultThreadFactory INSTANCE = new DefaultThreadFactory();
+
+        private static final AtomicInteger nextId = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            return AccessController.doPrivileged(new PrivilegedAction<Thread>() {
+                public Thread run() {
+                    ThreadGroup tg = Thread.currentThread().getThreadGroup();
+                    for (ThreadGroup tgn = tg;
+                         tgn != null;
+                         tg = tgn, tgn = tg.getParent());
+                    Thread t = new Thread(tg, r, "Cleaner-" + nextId.getAndIncrement());
+                    t.setContextClassLoader(null);
+                    t.setPriority(Thread.MAX_PRIORITY - 2);
+                    return t;
+                }
+            });
+        }
+    }
+}
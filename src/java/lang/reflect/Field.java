@@ -1084,8 +1084,11 @@ class Field extends AccessibleObject implements Member {
             else
                 fieldAccessor = tmp;
         } else {
-            // Otherwise fabricate one and propagate it up to the root
-            tmp = reflectionFactory.newFieldAccessor(this, overrideFinalCheck);
+            // Otherwise fabricate one and propagate it up to the root,
+            // preferring one based on method handles for non-final fields
+            tmp = MethodHandleAccessorFactory.newFieldAccessor(this);
+            if (tmp == null)
+                tmp = reflectionFactory.newFieldAccessor(this, overrideFinalCheck);
             setFieldAccessor(tmp, overrideFinalCheck);
         }
 
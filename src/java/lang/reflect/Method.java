@@ -560,8 +560,11 @@ public final class Method extends Executable {
         if (tmp != null) {
             methodAccessor = tmp;
         } else {
-            // Otherwise fabricate one and propagate it up to the root
-            tmp = reflectionFactory.newMethodAccessor(this);
+            // Otherwise fabricate one and propagate it up to the root,
+            // preferring one based on a method handle
+            tmp = MethodHandleAccessorFactory.newMethodAccessor(this);
+            if (tmp == null)
+                tmp = reflectionFactory.newMethodAccessor(this);
             setMethodAccessor(tmp);
         }
 
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import sun.misc.VM;
+import sun.reflect.CallerSensitive;
+import sun.reflect.ConstructorAccessor;
+import sun.reflect.FieldAccessor;
+import sun.reflect.MethodAccessor;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * Creates the accessors of core reflection from direct method handles.
+ *
+ * <p>The accessors of {@code sun.reflect.ReflectionFactory} start out
+ * calling into the VM, and after a number of invocations generate a class
+ * of bytecodes per member, while its field accessors box every value.  The
+ * accessors created here invoke a direct method handle of the member,
+ * adapted once to the shape of the accessor interface, from the first
+ * invocation on, so that no classes are generated per member.  The handle
+ * is held in an instance field of the accessor, which the compiler does
+ * not treat as a constant, so an invocation goes through the handle
+ * rather than being inlined into the caller of the accessor.  Field
+ * accessors use a getter and a setter handle of the exact field type, so
+ * that the typed {@code getInt}, {@code setInt}, etc. do not box.
+ *
+ * <p>Each factory method returns {@code null} if the member must be left to
+ * {@code ReflectionFactory}: until {@code java.lang.invoke} can be used,
+ * for the classes that implement method handles and reflection
+ * themselves, for caller-sensitive methods, whose caller would be the
+ * accessor, for constructors of abstract classes, and for final fields.
+ * An accessor created by {@code ReflectionFactory} stays in use for its
+ * member.  The method handle accessors can be disabled altogether by
+ * setting the system property {@code sun.reflect.useMethodHandleAccessors}
+ * to {@code false}.
+ */
+final class MethodHandleAccessorFactory {
+
+    private MethodHandleAccessorFactory() {
+    }
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    /**
+     * Returns a method handle based accessor of the given method, or
+     * {@code null} if {@code ReflectionFactory} should create it.
+     */
+    static MethodAccessor newMethodAccessor(Method method) {
+        if (!useMethodHandles(method.getDeclaringClass()) ||
+            isCallerSensitive(method))
+            return null;
+        try {
+            MethodHandle target = Holder.IMPL_LOOKUP.unreflect(method);
+            int paramCount = method.getParameterCount();
+            boolean isStatic = Modifier.isStatic(method.getModifiers());
+            // (Object receiver, Object[] args)Object for all methods
+            target = target.asType(target.type().erase().changeReturnType(Object.class));
+            if (isStatic)
+                target = MethodHandles.dropArguments(target, 0, Object.class);
+            target = target.asSpreader(Object[].class, paramCount);
+            return new MethodHandleMethodAccessor(method, target, isStatic);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a method handle based accessor of the given constructor, or
+     * {@code null} if {@code ReflectionFactory} should create it.
+     */
+    static ConstructorAccessor newConstructorAccessor(Constructor<?> ctor) {
+        Class<?> declaringClass = ctor.getDeclaringClass();
+        if (!useMethodHandles(declaringClass) ||
+            Modifier.isAbstract(declaringClass.getModifiers()) ||
+            declaringClass == Class.class)
+            return null;
+        try {
+            MethodHandle target = Holder.IMPL_LOOKUP.unreflectConstructor(ctor);
+            // (Object[] args)Object
+            target = target.asType(target.type().erase())
+                           .asSpreader(Object[].class, ctor.getParameterCount());
+            return new MethodHandleConstructorAccessor(ctor, target);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a method handle based accessor of the given field, or
+     * {@code null} if {@code ReflectionFactory} should create it.
+     */
+    static FieldAccessor newFieldAccessor(Field field) {
+        if (!useMethodHandles(field.getDeclaringClass()) ||
+            Modifier.isFinal(field.getModifiers()))
+            return null;
+        try {
+            MethodHandle getter = Holder.IMPL_LOOKUP.unreflectGetter(field);
+            MethodHandle setter = Holder.IMPL_LOOKUP.unreflectSetter(field);
+            Class<?> type = field.getType();
+            Class<?> erased = type.isPrimitive() ? type : Object.class;
+            if (Modifier.isStatic(field.getModifiers())) {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+            }
+            // (Object)T and (Object, T)void
+            getter = getter.asType(MethodType.methodType(erased, Object.class));
+            setter = setter.asType(MethodType.methodType(void.class,
+                                                         Object.class, erased));
+            return MethodHandleFieldAccessor.newInstance(field, getter, setter);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Returns true if method handle accessors can be used for the members
+     * of the given class.
+     */
+    private static boolean useMethodHandles(Class<?> c) {
+        String name = c.getName();
+        // classes defined by Unsafe.defineAnonymousClass, like lambda
+        // proxies, and the implementation of method handles and reflection,
+        // including the lookup of IMPL_LOOKUP by Holder
+        if (name.indexOf('/') >= 0 ||
+            name.startsWith("java.lang.invoke.") ||
+            name.startsWith("sun.invoke.") ||
+            name.startsWith("sun.reflect.") ||
+            name.startsWith("jdk.internal.org.objectweb.asm."))
+            return false;
+        return invokeReady() && Holder.ENABLED;
+    }
+
+    // Set once java.lang.invoke can be initialized
+    private static volatile boolean invokeReady;
+
+    /*
+     * Returns true if java.lang.invoke can be initialized, that is once
+     * the launcher has created the application class loader.  The method
+     * handle implementation resolves types through the system class
+     * loader, and fails to initialize, for the rest of the run, if it is
+     * first used before that, as when the launcher reflectively creates
+     * the URL stream handlers of the extension class loader.  Neither
+     * VM.isBooted nor any earlier point of the boot sequence implies that
+     * the launcher is done.
+     */
+    private static boolean invokeReady() {
+        if (invokeReady)
+            return true;
+        // The launcher is null while its class is being initialized by
+        // this thread; another thread waits for the initialization
+        if (!VM.isBooted() || sun.misc.Launcher.getLauncher() == null)
+            return false;
+        invokeReady = true;
+        return true;
+    }
+
+    private static boolean isCallerSensitive(Method method) {
+        ClassLoader loader = method.getDeclaringClass().getClassLoader();
+        return VM.isSystemDomainLoader(loader) &&
+               method.isAnnotationPresent(CallerSensitive.class);
+    }
+
+    /**
+     * Checks the arguments of a method or constructor against its
+     * parameter types, and applies the unwrapping and widening conversions
+     * of reflection to the arguments of primitive parameters.  Returns the
+     * arguments, or a copy with converted values if a primitive argument
+     * must be widened.
+     *
+     * @throws IllegalArgumentException if the number of arguments differs,
+     *         or an argument cannot be converted to its parameter type
+     */
+    static Object[] checkArguments(Class<?>[] ptypes, Object[] args) {
+        int argc = (args == null) ? 0 : args.length;
+        if (argc != ptypes.length)
+            throw new IllegalArgumentException("wrong number of arguments");
+        if (argc == 0)
+            return EMPTY_ARGS;
+        Object[] result = args;
+        for (int i = 0; i < argc; i++) {
+            Class<?> p = ptypes[i];
+            Object a = args[i];
+            if (!p.isPrimitive()) {
+                if (a != null && !p.isInstance(a))
+                    throw new IllegalArgumentException("argument type mismatch");
+            } else {
+                Object w = widen(a, p);
+                if (w != a) {
+                    if (result == args)
+                        result = args.clone();
+                    result[i] = w;
+                }
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Returns the wrapper of primitive type p holding the value of the
+     * wrapper a, widened if necessary.
+     */
+    private static Object widen(Object a, Class<?> p) {
+        if (a != null) {
+            if (p == boolean.class) {
+                if (a instanceof Boolean)
+                    return a;
+            } else if (a instanceof Character) {
+                char c = (Character) a;
+                if (p == char.class)
+                    return a;
+                if (p == int.class)
+                    return (int) c;
+                if (p == long.class)
+                    return (long) c;
+                if (p == float.class)
+                    return (float) c;
+                if (p == double.class)
+                    return (double) c;
+            } else if (a instanceof Number) {
+                int from = rank(a.getClass());
+                int to = rank(p);
+                if (from > 0 && from == to)
+                    return a;
+                if (from > 0 && from < to) {
+                    Number n = (Number) a;
+                    switch (to) {
+                        case SHORT:  return n.shortValue();
+                        case INT:    return n.intValue();
+                        case LONG:   return n.longValue();
+                        case FLOAT:  return n.floatValue();
+                        case DOUBLE: return n.doubleValue();
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("argument type mismatch");
+    }
+
+    /*
+     * The order of the numeric primitive types under widening, except char.
+     */
+    private static final int BYTE = 1, SHORT = 2, INT = 3, LONG = 4,
+                              FLOAT = 5, DOUBLE = 6;
+
+    private static int rank(Class<?> c) {
+        if (c == Integer.class || c == int.class)
+            return INT;
+        if (c == Long.class || c == long.class)
+            return LONG;
+        if (c == Double.class || c == double.class)
+            return DOUBLE;
+        if (c == Float.class || c == float.class)
+            return FLOAT;
+        if (c == Short.class || c == short.class)
+            return SHORT;
+        if (c == Byte.class || c == byte.class)
+            return BYTE;
+        return 0;
+    }
+
+    /**
+     * Rethrows an exception thrown by a getter or setter handle, after the
+     * arguments have been checked: an error, or unexpectedly a runtime
+     * exception.
+     */
+    static RuntimeException rethrow(Throwable t) {
+        if (t instanceof Error)
+            throw (Error) t;
+        if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        throw new InternalError(t);
+    }
+
+    /**
+     * The trusted lookup of java.lang.invoke, and the configuration, read
+     * once the accessors are first used.
+     */
+    private static final class Holder {
+        static final boolean ENABLED = !"false".equals(
+            AccessController.doPrivileged(
+                new GetPropertyAction("sun.reflect.useMethodHandleAccessors")));
+
+        static final MethodHandles.Lookup IMPL_LOOKUP =
+            AccessController.doPrivileged(
+                new PrivilegedAction<MethodHandles.Lookup>() {
+                    public MethodHandles.Lookup run() {
+                        try {
+                            Field f = MethodHandles.Lookup.class
+                                .getDeclaredField("IMPL_LOOKUP");
+                            f.setAccessible(true);
+                            return (MethodHandles.Lookup) f.get(null);
+                        } catch (ReflectiveOperationException e) {
+                            throw new InternalError(e);
+                        }
+                    }
+                });
+    }
+}
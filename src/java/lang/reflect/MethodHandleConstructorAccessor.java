@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang.reflect;
+
+import java.lang.invoke.MethodHandle;
+import sun.misc.Unsafe;
+import sun.reflect.ConstructorAccessor;
+
+/**
+ * A constructor accessor that invokes a direct method handle of the
+ * constructor, spread to take an array of arguments.
+ *
+ * @see MethodHandleAccessorFactory
+ */
+final class MethodHandleConstructorAccessor implements ConstructorAccessor {
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+
+    private final Class<?> declaringClass;
+    private final Class<?>[] parameterTypes;
+    // (Object[])Object
+    private final MethodHandle target;
+    // Set once the declaring class is initialized
+    private volatile boolean initialized;
+
+    MethodHandleConstructorAccessor(Constructor<?> ctor, MethodHandle target) {
+        this.declaringClass = ctor.getDeclaringClass();
+        this.parameterTypes = ctor.getParameterTypes();
+        this.target = target;
+    }
+
+    @Override
+    public Object newInstance(Object[] args)
+        throws InstantiationException, IllegalArgumentException,
+               InvocationTargetException
+    {
+        if (!initialized) {
+            // an ExceptionInInitializerError is not wrapped, as for the
+            // other accessors
+            UNSAFE.ensureClassInitialized(declaringClass);
+            initialized = true;
+        }
+        args = MethodHandleAccessorFactory.checkArguments(parameterTypes, args);
+        try {
+            return target.invokeExact(args);
+        } catch (Throwable t) {
+            // the arguments have been checked, so t was thrown by the
+            // constructor itself
+            throw new InvocationTargetException(t);
+        }
+    }
+}
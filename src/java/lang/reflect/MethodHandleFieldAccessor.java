@@ -0,0 +1,1311 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang.reflect;
+
+import java.lang.invoke.MethodHandle;
+import sun.reflect.FieldAccessor;
+
+/**
+ * A field accessor that reads and writes a non-final field through direct
+ * getter and setter method handles.  There is one subclass per primitive
+ * field type, whose handles take and return values of that type, so that
+ * the typed methods, like {@code getInt} and {@code setInt}, only apply
+ * the widening conversions of reflection and never box.  References are
+ * accessed by the subclass for reference types.
+ *
+ * @see MethodHandleAccessorFactory
+ */
+abstract class MethodHandleFieldAccessor implements FieldAccessor {
+
+    final Field field;
+    final boolean isStatic;
+    // (Object)T, with T the field type, or Object for reference types
+    final MethodHandle getter;
+    // (Object, T)void
+    final MethodHandle setter;
+
+    MethodHandleFieldAccessor(Field field, MethodHandle getter,
+                              MethodHandle setter) {
+        this.field = field;
+        this.isStatic = Modifier.isStatic(field.getModifiers());
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    static FieldAccessor newInstance(Field field, MethodHandle getter,
+                                     MethodHandle setter) {
+        Class<?> type = field.getType();
+        if (!type.isPrimitive())
+            return new ReferenceAccessor(field, getter, setter);
+        if (type == boolean.class)
+            return new BooleanAccessor(field, getter, setter);
+        if (type == byte.class)
+            return new ByteAccessor(field, getter, setter);
+        if (type == char.class)
+            return new CharAccessor(field, getter, setter);
+        if (type == short.class)
+            return new ShortAccessor(field, getter, setter);
+        if (type == int.class)
+            return new IntAccessor(field, getter, setter);
+        if (type == long.class)
+            return new LongAccessor(field, getter, setter);
+        if (type == float.class)
+            return new FloatAccessor(field, getter, setter);
+        if (type == double.class)
+            return new DoubleAccessor(field, getter, setter);
+        throw new InternalError(type.getName());
+    }
+
+    /*
+     * Checks the receiver of an instance field.  A null receiver is
+     * reported with a NullPointerException.
+     */
+    final void ensureObj(Object obj) {
+        if (!isStatic && !field.getDeclaringClass().isInstance(obj)) {
+            if (obj == null)
+                throw new NullPointerException();
+            throwSetIllegalArgumentException(obj);
+        }
+    }
+
+    private String getQualifiedFieldName() {
+        return field.getDeclaringClass().getName() + "." + field.getName();
+    }
+
+    final IllegalArgumentException newGetIllegalArgumentException(String type) {
+        return new IllegalArgumentException(
+            "Attempt to get " + field.getType().getName() + " field \"" +
+            getQualifiedFieldName() +
+            "\" with illegal data type conversion to " + type);
+    }
+
+    final void throwSetIllegalArgumentException(String attemptedType,
+                                                String attemptedValue) {
+        String err = "Can not set";
+        if (isStatic)
+            err += " static";
+        err += " " + field.getType().getName() + " field " +
+            getQualifiedFieldName() + " to ";
+        if (attemptedValue.length() > 0) {
+            err += "(" + attemptedType + ")" + attemptedValue;
+        } else if (attemptedType.length() > 0) {
+            err += attemptedType;
+        } else {
+            err += "null value";
+        }
+        throw new IllegalArgumentException(err);
+    }
+
+    final void throwSetIllegalArgumentException(Object o) {
+        throwSetIllegalArgumentException(o != null ? o.getClass().getName() : "", "");
+    }
+
+    final void throwSetIllegalArgumentException(boolean v) {
+        throwSetIllegalArgumentException("boolean", Boolean.toString(v));
+    }
+
+    final void throwSetIllegalArgumentException(byte v) {
+        throwSetIllegalArgumentException("byte", Byte.toString(v));
+    }
+
+    final void throwSetIllegalArgumentException(char v) {
+        throwSetIllegalArgumentException("char", Character.toString(v));
+    }
+
+    final void throwSetIllegalArgumentException(short v) {
+        throwSetIllegalArgumentException("short", Short.toString(v));
+    }
+
+    final void throwSetIllegalArgumentException(int v) {
+        throwSetIllegalArgumentException("int", Integer.toString(v));
+    }
+
+    final void throwSetIllegalArgumentException(long v) {
+        throwSetIllegalArgumentException("long", Long.toString(v));
+    }
+
+    final void throwSetIllegalArgumentException(float v) {
+        throwSetIllegalArgumentException("float", Float.toString(v));
+    }
+
+    final void throwSetIllegalArgumentException(double v) {
+        throwSetIllegalArgumentException("double", Double.toString(v));
+    }
+
+    /**
+     * Accessor of a field of a reference type.
+     */
+    static final class ReferenceAccessor extends MethodHandleFieldAccessor {
+        ReferenceAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        @Override
+        public Object get(Object obj) {
+            ensureObj(obj);
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            throw newGetIllegalArgumentException("short");
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            throw newGetIllegalArgumentException("int");
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            throw newGetIllegalArgumentException("long");
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            throw newGetIllegalArgumentException("float");
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            throw newGetIllegalArgumentException("double");
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            ensureObj(obj);
+            if (value != null && !field.getType().isInstance(value))
+                throwSetIllegalArgumentException(value);
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code boolean}.
+     */
+    static final class BooleanAccessor extends MethodHandleFieldAccessor {
+        BooleanAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private boolean read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (boolean) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, boolean v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            throw newGetIllegalArgumentException("short");
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            throw newGetIllegalArgumentException("int");
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            throw newGetIllegalArgumentException("long");
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            throw newGetIllegalArgumentException("float");
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            throw newGetIllegalArgumentException("double");
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Boolean) {
+                write(obj, (Boolean) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code byte}.
+     */
+    static final class ByteAccessor extends MethodHandleFieldAccessor {
+        ByteAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private byte read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (byte) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, byte v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Byte) {
+                write(obj, (Byte) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code char}.
+     */
+    static final class CharAccessor extends MethodHandleFieldAccessor {
+        CharAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private char read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (char) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, char v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            throw newGetIllegalArgumentException("short");
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Character) {
+                write(obj, (Character) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code short}.
+     */
+    static final class ShortAccessor extends MethodHandleFieldAccessor {
+        ShortAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private short read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (short) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, short v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Byte) {
+                write(obj, (Byte) value);
+                return;
+            }
+            if (value instanceof Short) {
+                write(obj, (Short) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code int}.
+     */
+    static final class IntAccessor extends MethodHandleFieldAccessor {
+        IntAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private int read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (int) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, int v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            throw newGetIllegalArgumentException("short");
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Byte) {
+                write(obj, (Byte) value);
+                return;
+            }
+            if (value instanceof Character) {
+                write(obj, (Character) value);
+                return;
+            }
+            if (value instanceof Short) {
+                write(obj, (Short) value);
+                return;
+            }
+            if (value instanceof Integer) {
+                write(obj, (Integer) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code long}.
+     */
+    static final class LongAccessor extends MethodHandleFieldAccessor {
+        LongAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private long read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (long) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, long v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            throw newGetIllegalArgumentException("short");
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            throw newGetIllegalArgumentException("int");
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Byte) {
+                write(obj, (Byte) value);
+                return;
+            }
+            if (value instanceof Character) {
+                write(obj, (Character) value);
+                return;
+            }
+            if (value instanceof Short) {
+                write(obj, (Short) value);
+                return;
+            }
+            if (value instanceof Integer) {
+                write(obj, (Integer) value);
+                return;
+            }
+            if (value instanceof Long) {
+                write(obj, (Long) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code float}.
+     */
+    static final class FloatAccessor extends MethodHandleFieldAccessor {
+        FloatAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private float read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (float) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, float v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            throw newGetIllegalArgumentException("short");
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            throw newGetIllegalArgumentException("int");
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            throw newGetIllegalArgumentException("long");
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Byte) {
+                write(obj, (Byte) value);
+                return;
+            }
+            if (value instanceof Character) {
+                write(obj, (Character) value);
+                return;
+            }
+            if (value instanceof Short) {
+                write(obj, (Short) value);
+                return;
+            }
+            if (value instanceof Integer) {
+                write(obj, (Integer) value);
+                return;
+            }
+            if (value instanceof Long) {
+                write(obj, (Long) value);
+                return;
+            }
+            if (value instanceof Float) {
+                write(obj, (Float) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            throwSetIllegalArgumentException(v);
+        }
+    }
+
+    /**
+     * Accessor of a field of type {@code double}.
+     */
+    static final class DoubleAccessor extends MethodHandleFieldAccessor {
+        DoubleAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        private double read(Object obj) {
+            ensureObj(obj);
+            try {
+                return (double) getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        private void write(Object obj, double v) {
+            ensureObj(obj);
+            try {
+                setter.invokeExact(obj, v);
+            } catch (Throwable t) {
+                throw MethodHandleAccessorFactory.rethrow(t);
+            }
+        }
+
+        @Override
+        public Object get(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public boolean getBoolean(Object obj) {
+            throw newGetIllegalArgumentException("boolean");
+        }
+
+        @Override
+        public byte getByte(Object obj) {
+            throw newGetIllegalArgumentException("byte");
+        }
+
+        @Override
+        public char getChar(Object obj) {
+            throw newGetIllegalArgumentException("char");
+        }
+
+        @Override
+        public short getShort(Object obj) {
+            throw newGetIllegalArgumentException("short");
+        }
+
+        @Override
+        public int getInt(Object obj) {
+            throw newGetIllegalArgumentException("int");
+        }
+
+        @Override
+        public long getLong(Object obj) {
+            throw newGetIllegalArgumentException("long");
+        }
+
+        @Override
+        public float getFloat(Object obj) {
+            throw newGetIllegalArgumentException("float");
+        }
+
+        @Override
+        public double getDouble(Object obj) {
+            return read(obj);
+        }
+
+        @Override
+        public void set(Object obj, Object value) {
+            if (value instanceof Byte) {
+                write(obj, (Byte) value);
+                return;
+            }
+            if (value instanceof Character) {
+                write(obj, (Character) value);
+                return;
+            }
+            if (value instanceof Short) {
+                write(obj, (Short) value);
+                return;
+            }
+            if (value instanceof Integer) {
+                write(obj, (Integer) value);
+                return;
+            }
+            if (value instanceof Long) {
+                write(obj, (Long) value);
+                return;
+            }
+            if (value instanceof Float) {
+                write(obj, (Float) value);
+                return;
+            }
+            if (value instanceof Double) {
+                write(obj, (Double) value);
+                return;
+            }
+            throwSetIllegalArgumentException(value);
+        }
+
+        @Override
+        public void setBoolean(Object obj, boolean v) {
+            throwSetIllegalArgumentException(v);
+        }
+
+        @Override
+        public void setByte(Object obj, byte v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setChar(Object obj, char v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setShort(Object obj, short v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setInt(Object obj, int v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setLong(Object obj, long v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setFloat(Object obj, float v) {
+            write(obj, v);
+        }
+
+        @Override
+        public void setDouble(Object obj, double v) {
+            write(obj, v);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang.reflect;
+
+import java.lang.invoke.MethodHandle;
+import sun.misc.Unsafe;
+import sun.reflect.MethodAccessor;
+
+/**
+ * A method accessor that invokes a direct method handle of the method,
+ * spread to take the receiver and an array of arguments.
+ *
+ * @see MethodHandleAccessorFactory
+ */
+final class MethodHandleMethodAccessor implements MethodAccessor {
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+
+    private final Class<?> declaringClass;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+    // (Object, Object[])Object
+    private final MethodHandle target;
+    // Set once the declaring class of a static method is initialized
+    private volatile boolean initialized;
+
+    MethodHandleMethodAccessor(Method method, MethodHandle target,
+                               boolean isStatic) {
+        this.declaringClass = method.getDeclaringClass();
+        this.parameterTypes = method.getParameterTypes();
+        this.isStatic = isStatic;
+        this.target = target;
+        this.initialized = !isStatic;
+    }
+
+    @Override
+    public Object invoke(Object obj, Object[] args)
+        throws IllegalArgumentException, InvocationTargetException
+    {
+        if (!isStatic) {
+            if (!declaringClass.isInstance(obj)) {
+                if (obj == null)
+                    throw new NullPointerException();
+                throw new IllegalArgumentException(
+                    "object is not an instance of declaring class");
+            }
+        } else if (!initialized) {
+            // an ExceptionInInitializerError is not wrapped, as for the
+            // other accessors
+            UNSAFE.ensureClassInitialized(declaringClass);
+            initialized = true;
+        }
+        args = MethodHandleAccessorFactory.checkArguments(parameterTypes, args);
+        try {
+            return target.invokeExact(obj, args);
+        } catch (Throwable t) {
+            // the receiver and the arguments have been checked, so t was
+            // thrown by the method itself
+            throw new InvocationTargetException(t);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.lang.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.Label;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import jdk.internal.org.objectweb.asm.Type;
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the classes of method handle proxies, and links their
+ * instances to their target method handles.
+ *
+ * <p>A method handle proxy class extends {@code Proxy} and has one final
+ * {@code MethodHandle} field per proxy method.  Each proxy method loads its
+ * field and invokes it with {@code invokeExact}, passing the proxy and the
+ * arguments as they are: the target of a method {@code R m(P1, ..., Pn)}
+ * has exactly the type {@code (Object, P1, ..., Pn)R}, so that no argument
+ * array is allocated and no primitive is boxed.  As for the classes of
+ * {@code ProxyGenerator}, runtime exceptions, errors and the checked
+ * exceptions declared by the method are rethrown, and any other exception
+ * is wrapped in an {@code UndeclaredThrowableException}.
+ *
+ * <p>The proxy methods are the {@code hashCode}, {@code equals} and
+ * {@code toString} methods of {@code Object}, followed by the other
+ * distinct (by name and descriptor) methods of the interfaces, sorted by
+ * name and descriptor so that the order of the target fields does not
+ * depend on the order in which {@code Class.getMethods} returns them.
+ *
+ * <p>The invocation handler of a method handle proxy is a {@link Handler}
+ * that invokes the same targets with boxed arguments, for code that calls
+ * the handler of a proxy directly.
+ */
+final class MethodHandleProxyGenerator {
+
+    private MethodHandleProxyGenerator() {
+    }
+
+    private static final String PROXY = "java/lang/reflect/Proxy";
+    private static final String METHOD_HANDLE = "java/lang/invoke/MethodHandle";
+    private static final String METHOD_HANDLE_DESC = "Ljava/lang/invoke/MethodHandle;";
+    private static final String UNDECLARED = "java/lang/reflect/UndeclaredThrowableException";
+    private static final String CONSTRUCTOR_DESC =
+        "(Ljava/lang/reflect/InvocationHandler;[Ljava/lang/invoke/MethodHandle;)V";
+
+    /** parameter types of a method handle proxy class constructor */
+    static final Class<?>[] constructorParams =
+        { InvocationHandler.class, MethodHandle[].class };
+
+    /** the number of methods of Object that are proxied */
+    private static final int OBJECT_METHOD_COUNT = 3;
+
+    /**
+     * A method of a proxy class, with the exception types declared by all
+     * the interface methods that it implements.
+     */
+    private static final class ProxyMethod {
+        final Method method;
+        final String descriptor;
+        final List<Class<?>[]> exceptionTypes = new ArrayList<>(1);
+
+        ProxyMethod(Method method, String descriptor) {
+            this.method = method;
+            this.descriptor = descriptor;
+        }
+    }
+
+    /**
+     * Returns the methods of a proxy class for the given interfaces, in the
+     * order of their target fields.
+     */
+    private static ProxyMethod[] proxyMethods(Class<?>[] interfaces) {
+        Map<String, ProxyMethod> methods = new LinkedHashMap<>();
+        try {
+            addMethod(methods, Object.class.getMethod("hashCode"));
+            addMethod(methods, Object.class.getMethod("equals", Object.class));
+            addMethod(methods, Object.class.getMethod("toString"));
+        } catch (NoSuchMethodException e) {
+            throw new InternalError(e.toString(), e);
+        }
+        List<ProxyMethod> others = new ArrayList<>();
+        for (Class<?> intf : interfaces) {
+            for (Method m : intf.getMethods()) {
+                if (!Modifier.isStatic(m.getModifiers())) {
+                    ProxyMethod pm = addMethod(methods, m);
+                    if (pm != null)
+                        others.add(pm);
+                }
+            }
+        }
+        others.sort(Comparator.comparing((ProxyMethod pm) -> pm.method.getName())
+                              .thenComparing(pm -> pm.descriptor));
+        ProxyMethod[] result = new ProxyMethod[OBJECT_METHOD_COUNT + others.size()];
+        int i = 0;
+        for (ProxyMethod pm : methods.values()) {
+            if (i == OBJECT_METHOD_COUNT)
+                break;
+            result[i++] = pm;
+        }
+        for (ProxyMethod pm : others)
+            result[i++] = pm;
+        return result;
+    }
+
+    /*
+     * Records the exception types of the given method in the proxy method of
+     * its name and descriptor, and returns the proxy method if it is new.
+     */
+    private static ProxyMethod addMethod(Map<String, ProxyMethod> methods, Method m) {
+        String descriptor = Type.getMethodDescriptor(m);
+        String key = m.getName() + descriptor;
+        ProxyMethod pm = methods.get(key);
+        ProxyMethod added = null;
+        if (pm == null) {
+            pm = added = new ProxyMethod(m, descriptor);
+            methods.put(key, pm);
+        }
+        // Object's own methods declare no exceptions, so nothing but
+        // unchecked exceptions may escape them whatever the interfaces say
+        if (pm.method.getDeclaringClass() != Object.class || pm == added)
+            pm.exceptionTypes.add(m.getExceptionTypes());
+        return added;
+    }
+
+    /*
+     * Returns the exception types that a proxy method rethrows: Error,
+     * RuntimeException and the checked exceptions that are declared by all
+     * the methods that it implements, without subclasses of one another.
+     */
+    private static List<Class<?>> catchTypes(ProxyMethod pm) {
+        List<Class<?>> catches = new ArrayList<>();
+        addCatchType(catches, Error.class);
+        addCatchType(catches, RuntimeException.class);
+        for (Class<?>[] types : pm.exceptionTypes) {
+            for (Class<?> ex : types) {
+                if (isDeclaredByAll(ex, pm.exceptionTypes))
+                    addCatchType(catches, ex);
+            }
+        }
+        return catches;
+    }
+
+    private static boolean isDeclaredByAll(Class<?> ex, List<Class<?>[]> typeLists) {
+        outer:
+        for (Class<?>[] types : typeLists) {
+            for (Class<?> declared : types) {
+                if (declared.isAssignableFrom(ex))
+                    continue outer;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static void addCatchType(List<Class<?>> catches, Class<?> ex) {
+        for (Class<?> c : catches) {
+            if (c.isAssignableFrom(ex))
+                return;
+        }
+        catches.removeIf(ex::isAssignableFrom);
+        catches.add(ex);
+    }
+
+    /**
+     * Generates the class file of a method handle proxy class.
+     */
+    static byte[] generateProxyClass(String name, Class<?>[] interfaces,
+                                     int accessFlags) {
+        ProxyMethod[] methods = proxyMethods(interfaces);
+        String className = name.replace('.', '/');
+        String[] interfaceNames = new String[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++)
+            interfaceNames[i] = Type.getInternalName(interfaces[i]);
+
+        // Every exception handler has its own label, so frames are never
+        // merged and ClassWriter never has to load a class to compute them
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS |
+                                         ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, accessFlags | ACC_SUPER, className, null, PROXY,
+                 interfaceNames);
+        for (int i = 0; i < methods.length; i++) {
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, targetName(i),
+                          METHOD_HANDLE_DESC, null, null).visitEnd();
+        }
+        generateConstructor(cw, className, methods.length);
+        for (int i = 0; i < methods.length; i++)
+            generateMethod(cw, className, i, methods[i]);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static String targetName(int i) {
+        return "m" + i;
+    }
+
+    private static void generateConstructor(ClassWriter cw, String className,
+                                            int count) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>",
+                                          CONSTRUCTOR_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKESPECIAL, PROXY, "<init>",
+                           "(Ljava/lang/reflect/InvocationHandler;)V", false);
+        for (int i = 0; i < count; i++) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(AALOAD);
+            mv.visitFieldInsn(PUTFIELD, className, targetName(i),
+                              METHOD_HANDLE_DESC);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void generateMethod(ClassWriter cw, String className,
+                                       int index, ProxyMethod pm) {
+        Method m = pm.method;
+        Class<?>[] exceptionTypes = m.getExceptionTypes();
+        String[] exceptions = new String[exceptionTypes.length];
+        for (int i = 0; i < exceptionTypes.length; i++)
+            exceptions[i] = Type.getInternalName(exceptionTypes[i]);
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_FINAL, m.getName(),
+                                          pm.descriptor, null, exceptions);
+        mv.visitCode();
+
+        Label start = new Label();
+        Label end = new Label();
+        List<Class<?>> catches = catchTypes(pm);
+        Label[] rethrow = new Label[catches.size()];
+        for (int i = 0; i < rethrow.length; i++) {
+            rethrow[i] = new Label();
+            mv.visitTryCatchBlock(start, end, rethrow[i],
+                                  Type.getInternalName(catches.get(i)));
+        }
+        Label wrap = new Label();
+        mv.visitTryCatchBlock(start, end, wrap, "java/lang/Throwable");
+
+        // return (R) m<index>.invokeExact((Object) this, p1, ..., pn);
+        mv.visitLabel(start);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, targetName(index),
+                          METHOD_HANDLE_DESC);
+        mv.visitVarInsn(ALOAD, 0);
+        int slot = 1;
+        for (Type t : Type.getArgumentTypes(pm.descriptor)) {
+            mv.visitVarInsn(t.getOpcode(ILOAD), slot);
+            slot += t.getSize();
+        }
+        mv.visitMethodInsn(INVOKEVIRTUAL, METHOD_HANDLE, "invokeExact",
+                           "(Ljava/lang/Object;" + pm.descriptor.substring(1),
+                           false);
+        mv.visitLabel(end);
+        mv.visitInsn(Type.getReturnType(pm.descriptor).getOpcode(IRETURN));
+
+        for (Label l : rethrow) {
+            mv.visitLabel(l);
+            mv.visitInsn(ATHROW);
+        }
+
+        mv.visitLabel(wrap);
+        mv.visitVarInsn(ASTORE, slot);
+        mv.visitTypeInsn(NEW, UNDECLARED);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ALOAD, slot);
+        mv.visitMethodInsn(INVOKESPECIAL, UNDECLARED, "<init>",
+                           "(Ljava/lang/Throwable;)V", false);
+        mv.visitInsn(ATHROW);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * The methods, target types and constructor of a method handle proxy
+     * class, computed once per class.
+     */
+    private static final class ProxyShape {
+        final Method[] methods;
+        final MethodType[] targetTypes;
+        final Constructor<?> constructor;
+
+        ProxyShape(Class<?> proxyClass) {
+            ProxyMethod[] pms = proxyMethods(proxyClass.getInterfaces());
+            methods = new Method[pms.length];
+            targetTypes = new MethodType[pms.length];
+            for (int i = 0; i < pms.length; i++) {
+                Method m = pms[i].method;
+                methods[i] = m;
+                targetTypes[i] = MethodType.methodType(m.getReturnType(),
+                                                       m.getParameterTypes())
+                                           .insertParameterTypes(0, Object.class);
+            }
+            try {
+                constructor = proxyClass.getConstructor(constructorParams);
+            } catch (NoSuchMethodException e) {
+                throw new InternalError(e.toString(), e);
+            }
+            if (!Modifier.isPublic(proxyClass.getModifiers())) {
+                AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                    public Void run() {
+                        constructor.setAccessible(true);
+                        return null;
+                    }
+                });
+            }
+        }
+    }
+
+    private static final ClassValue<ProxyShape> shapes = new ClassValue<ProxyShape>() {
+        @Override
+        protected ProxyShape computeValue(Class<?> proxyClass) {
+            return new ProxyShape(proxyClass);
+        }
+    };
+
+    /**
+     * Computes the shape of the given method handle proxy class ahead of its
+     * first instantiation.
+     */
+    static void prepare(Class<?> proxyClass) {
+        shapes.get(proxyClass);
+    }
+
+    /**
+     * Returns the constructor of the given method handle proxy class.
+     */
+    static Constructor<?> constructor(Class<?> proxyClass) {
+        return shapes.get(proxyClass).constructor;
+    }
+
+    /**
+     * Returns the targets of the methods of the given method handle proxy
+     * class, obtained from the linker and adapted to their exact types.
+     *
+     * @throws NullPointerException if the linker returns {@code null} for a
+     *         method that is not one of {@code Object}
+     * @throws IllegalArgumentException if a target cannot be adapted
+     */
+    static MethodHandle[] linkTargets(Class<?> proxyClass,
+                                      Function<? super Method, ? extends MethodHandle> linker) {
+        ProxyShape shape = shapes.get(proxyClass);
+        MethodHandle[] targets = new MethodHandle[shape.methods.length];
+        for (int i = 0; i < targets.length; i++) {
+            Method m = shape.methods[i];
+            MethodHandle target = linker.apply(m);
+            if (target == null) {
+                if (i >= OBJECT_METHOD_COUNT)
+                    throw new NullPointerException("no target for " + m);
+                target = objectMethodTarget(i);
+            }
+            MethodType type = shape.targetTypes[i];
+            // a target that does not take the proxy ignores it
+            if (target.type().parameterCount() == type.parameterCount() - 1)
+                target = MethodHandles.dropArguments(target, 0, Object.class);
+            try {
+                targets[i] = target.asType(type);
+            } catch (WrongMethodTypeException e) {
+                throw new IllegalArgumentException(
+                    "target " + target + " cannot be adapted to " + m, e);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Returns the identity based target of the i-th method of Object.
+     */
+    private static MethodHandle objectMethodTarget(int i) {
+        switch (i) {
+            case 0: return ObjectMethods.HASH_CODE;
+            case 1: return ObjectMethods.EQUALS;
+            default: return ObjectMethods.TO_STRING;
+        }
+    }
+
+    private static final class ObjectMethods {
+        static final MethodHandle HASH_CODE;
+        static final MethodHandle EQUALS;
+        static final MethodHandle TO_STRING;
+        static {
+            // MethodHandles.lookup() rejects the classes of java.*, so the
+            // private helpers are made accessible and unreflected instead
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            try {
+                HASH_CODE = lookup.findStatic(System.class, "identityHashCode",
+                    MethodType.methodType(int.class, Object.class));
+                EQUALS = lookup.unreflect(accessibleMethod("identityEquals",
+                    Object.class, Object.class));
+                TO_STRING = lookup.unreflect(accessibleMethod("identityToString",
+                    Object.class));
+            } catch (ReflectiveOperationException e) {
+                throw new InternalError(e.toString(), e);
+            }
+        }
+
+        private static Method accessibleMethod(String name, Class<?>... ptypes)
+            throws NoSuchMethodException
+        {
+            final Method m = MethodHandleProxyGenerator.class
+                .getDeclaredMethod(name, ptypes);
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    m.setAccessible(true);
+                    return null;
+                }
+            });
+            return m;
+        }
+    }
+
+    private static boolean identityEquals(Object proxy, Object obj) {
+        return proxy == obj;
+    }
+
+    private static String identityToString(Object proxy) {
+        return proxy.getClass().getName() + "@" +
+               Integer.toHexString(System.identityHashCode(proxy));
+    }
+
+    /**
+     * The invocation handler of a method handle proxy, which invokes the
+     * targets of the proxy with the arguments unboxed.  It is only used
+     * when the handler of a proxy is called directly, never by the proxy
+     * itself.  It is not serializable, as its targets are not.
+     */
+    static final class Handler implements InvocationHandler {
+        private final Method[] methods;
+        private final MethodHandle[] targets;
+
+        Handler(Class<?> proxyClass, MethodHandle[] targets) {
+            this.methods = shapes.get(proxyClass).methods;
+            this.targets = targets;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+            throws Throwable
+        {
+            // The method may be declared by any of the interfaces that
+            // declare a method of the same signature, so match by signature
+            for (int i = 0; i < methods.length; i++) {
+                Method m = methods[i];
+                if (m.getName().equals(method.getName()) &&
+                    m.getReturnType() == method.getReturnType() &&
+                    Arrays.equals(m.getParameterTypes(), method.getParameterTypes())) {
+                    int argc = (args == null) ? 0 : args.length;
+                    Object[] arguments = new Object[argc + 1];
+                    arguments[0] = proxy;
+                    if (argc > 0)
+                        System.arraycopy(args, 0, arguments, 1, argc);
+                    return targets[i].invokeWithArguments(arguments);
+                }
+            }
+            throw new IllegalArgumentException(method + " is not a proxy method");
+        }
+    }
+}
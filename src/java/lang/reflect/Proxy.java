@@ -25,15 +25,18 @@
 
 package java.lang.reflect;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.ref.WeakReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import sun.misc.ProxyGenerator;
 import sun.misc.VM;
 import sun.reflect.CallerSensitive;
@@ -237,7 +240,14 @@ public class Proxy implements java.io.Serializable {
      * a cache of proxy classes
      */
     private static final WeakCache<ClassLoader, Class<?>[], Class<?>>
-        proxyClassCache = new WeakCache<>(new KeyFactory(), new ProxyClassFactory());
+        proxyClassCache = new WeakCache<>(new KeyFactory(), new ProxyClassFactory(false));
+
+    /**
+     * a cache of method handle proxy classes
+     */
+    private static final WeakCache<ClassLoader, Class<?>[], Class<?>>
+        methodHandleProxyClassCache = new WeakCache<>(new KeyFactory(),
+                                                      new ProxyClassFactory(true));
 
     /**
      * the invocation handler for this proxy instance.
@@ -419,6 +429,18 @@ public class Proxy implements java.io.Serializable {
         return proxyClassCache.get(loader, interfaces);
     }
 
+    /**
+     * Generate a method handle proxy class.  Must call the checkProxyAccess
+     * method to perform permission checks before calling this.
+     */
+    private static Class<?> getMethodHandleProxyClass0(ClassLoader loader,
+                                                       Class<?>... interfaces) {
+        if (interfaces.length > 65535) {
+            throw new IllegalArgumentException("interface limit exceeded");
+        }
+        return methodHandleProxyClassCache.get(loader, interfaces);
+    }
+
     /*
      * a key used for proxy class with 0 implemented interfaces
      */
@@ -552,7 +574,8 @@ public class Proxy implements java.io.Serializable {
 
     /**
      * A factory function that generates, defines and returns the proxy class given
-     * the ClassLoader and array of interfaces.
+     * the ClassLoader and array of interfaces.  It generates either proxy classes
+     * that dispatch to an invocation handler, or method handle proxy classes.
      */
     private static final class ProxyClassFactory
         implements BiFunction<ClassLoader, Class<?>[], Class<?>>
@@ -560,9 +583,19 @@ public class Proxy implements java.io.Serializable {
         // prefix for all proxy class names
         private static final String proxyClassNamePrefix = "$Proxy";
 
+        // prefix for all method handle proxy class names
+        private static final String methodHandleProxyClassNamePrefix = "$MHProxy";
+
         // next number to use for generation of unique proxy class names
         private static final AtomicLong nextUniqueNumber = new AtomicLong();
 
+        // whether the proxy classes dispatch to method handles
+        private final boolean methodHandles;
+
+        ProxyClassFactory(boolean methodHandles) {
+            this.methodHandles = methodHandles;
+        }
+
         @Override
         public Class<?> apply(ClassLoader loader, Class<?>[] interfaces) {
 
@@ -631,13 +664,17 @@ public class Proxy implements java.io.Serializable {
              * Choose a name for the proxy class to generate.
              */
             long num = nextUniqueNumber.getAndIncrement();
-            String proxyName = proxyPkg + proxyClassNamePrefix + num;
+            String proxyName = proxyPkg + (methodHandles ? methodHandleProxyClassNamePrefix
+                                                         : proxyClassNamePrefix) + num;
 
             /*
              * Generate the specified proxy class.
              */
-            byte[] proxyClassFile = ProxyGenerator.generateProxyClass(
-                proxyName, interfaces, accessFlags);
+            byte[] proxyClassFile = methodHandles
+                ? MethodHandleProxyGenerator.generateProxyClass(
+                      proxyName, interfaces, accessFlags)
+                : ProxyGenerator.generateProxyClass(
+                      proxyName, interfaces, accessFlags);
             try {
                 return defineClass0(loader, proxyName,
                                     proxyClassFile, 0, proxyClassFile.length);
@@ -751,6 +788,147 @@ public class Proxy implements java.io.Serializable {
         }
     }
 
+    /**
+     * Returns an instance of a method handle proxy class for the specified
+     * interfaces, whose methods invoke the method handles returned by the
+     * specified linker.
+     *
+     * <p>Unlike a proxy instance created by {@code newProxyInstance}, whose
+     * methods box their arguments into an array and pass it together with
+     * the {@code Method} object to {@link InvocationHandler#invoke
+     * InvocationHandler.invoke}, each method of a method handle proxy
+     * instance invokes its own target method handle directly, with the
+     * proxy instance and its arguments as they are: no array is allocated
+     * and no primitive value is boxed.
+     *
+     * <p>The linker is called once for each method of the proxy class, that
+     * is for the {@code hashCode}, {@code equals} and {@code toString}
+     * methods of {@code java.lang.Object}, and for one of the methods of
+     * the interfaces for each distinct method name and descriptor.  For a
+     * method with parameter types {@code P1, ..., Pn} and return type
+     * {@code R}, it must return a method handle that can be adapted with
+     * {@link MethodHandle#asType asType} to the type
+     * {@code (Object, P1, ..., Pn)R}, where the leading argument is the
+     * proxy instance, or to the type {@code (P1, ..., Pn)R}, in which case
+     * the proxy instance is not passed.  If the linker returns {@code null}
+     * for a method of {@code Object}, the method is implemented as in
+     * {@code Object}, by the identity of the proxy instance.
+     *
+     * <p>As with {@code newProxyInstance}, a checked exception thrown by a
+     * target that is not assignable to any of the exception types declared
+     * by the interface method is wrapped in an {@link
+     * UndeclaredThrowableException}.  Method handle proxy classes are cached
+     * separately from the proxy classes of {@code getProxyClass}; {@link
+     * #isProxyClass isProxyClass} returns {@code true} for them, and the
+     * invocation handler returned by {@link #getInvocationHandler
+     * getInvocationHandler} for a method handle proxy instance invokes the
+     * same targets as the proxy instance, with the arguments unboxed.
+     *
+     * <p>Unlike the instances of {@code newProxyInstance} with a
+     * serializable invocation handler, method handle proxy instances cannot
+     * be serialized: method handles are not serializable, and an attempt to
+     * serialize a method handle proxy instance throws {@link
+     * java.io.NotSerializableException}.
+     *
+     * @param   loader the class loader to define the proxy class
+     * @param   interfaces the list of interfaces for the proxy class
+     *          to implement
+     * @param   linker the function that returns the target method handle
+     *          of each method of the proxy class
+     * @return  a method handle proxy instance of a proxy class that is
+     *          defined by the specified class loader and that implements
+     *          the specified interfaces
+     * @throws  IllegalArgumentException if any of the restrictions on the
+     *          parameters that may be passed to {@code getProxyClass}
+     *          are violated, or if a method handle returned by the linker
+     *          cannot be adapted to the type of its method
+     * @throws  SecurityException for the same reasons as
+     *          {@link #newProxyInstance newProxyInstance}
+     * @throws  NullPointerException if the {@code interfaces} array
+     *          argument or any of its elements are {@code null}, if the
+     *          linker is {@code null}, or if the linker returns
+     *          {@code null} for a method of an interface
+     * @since   1.8
+     */
+    @CallerSensitive
+    public static Object newMethodHandleProxyInstance(ClassLoader loader,
+                                                      Class<?>[] interfaces,
+                                                      Function<? super Method, ? extends MethodHandle> linker)
+        throws IllegalArgumentException
+    {
+        Objects.requireNonNull(linker);
+
+        final Class<?>[] intfs = interfaces.clone();
+        final SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            checkProxyAccess(Reflection.getCallerClass(), loader, intfs);
+        }
+
+        /*
+         * Look up or generate the designated proxy class.
+         */
+        Class<?> cl = getMethodHandleProxyClass0(loader, intfs);
+
+        /*
+         * Link the targets and invoke the constructor with them.
+         */
+        try {
+            if (sm != null) {
+                checkNewProxyPermission(Reflection.getCallerClass(), cl);
+            }
+
+            MethodHandle[] targets = MethodHandleProxyGenerator.linkTargets(cl, linker);
+            InvocationHandler h = new MethodHandleProxyGenerator.Handler(cl, targets);
+            return MethodHandleProxyGenerator.constructor(cl).newInstance(h, targets);
+        } catch (IllegalAccessException|InstantiationException e) {
+            throw new InternalError(e.toString(), e);
+        } catch (InvocationTargetException e) {
+            Throwable t = e.getCause();
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else {
+                throw new InternalError(t.toString(), t);
+            }
+        }
+    }
+
+    /**
+     * Generates ahead of use the method handle proxy classes for the
+     * specified sets of interfaces, as {@code newMethodHandleProxyInstance}
+     * would for each of them, so that a later call to
+     * {@code newMethodHandleProxyInstance} for one of the sets finds its
+     * class in the cache and only links the targets of the new instance.
+     * Applications that know the interfaces of their proxies, such as RPC
+     * stubs, can call this during startup, possibly from a background
+     * thread, to keep the generation of proxy classes off the first calls.
+     *
+     * @param   loader the class loader to define the proxy classes
+     * @param   interfaceSets the lists of interfaces, one per proxy class
+     * @throws  IllegalArgumentException if any of the restrictions on the
+     *          parameters that may be passed to {@code getProxyClass}
+     *          are violated for one of the sets
+     * @throws  SecurityException for the same reasons as
+     *          {@link #getProxyClass getProxyClass}
+     * @throws  NullPointerException if {@code interfaceSets}, any of the
+     *          arrays in it or any of their elements are {@code null}
+     * @since   1.8
+     */
+    @CallerSensitive
+    public static void preGenerateMethodHandleProxyClasses(ClassLoader loader,
+                                                           Collection<Class<?>[]> interfaceSets)
+        throws IllegalArgumentException
+    {
+        SecurityManager sm = System.getSecurityManager();
+        Class<?> caller = (sm != null) ? Reflection.getCallerClass() : null;
+        for (Class<?>[] interfaces : interfaceSets) {
+            final Class<?>[] intfs = interfaces.clone();
+            if (sm != null) {
+                checkProxyAccess(caller, loader, intfs);
+            }
+            MethodHandleProxyGenerator.prepare(getMethodHandleProxyClass0(loader, intfs));
+        }
+    }
+
     private static void checkNewProxyPermission(Class<?> caller, Class<?> proxyClass) {
         SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
@@ -776,7 +954,8 @@ public class Proxy implements java.io.Serializable {
     /**
      * Returns true if and only if the specified class was dynamically
      * generated to be a proxy class using the {@code getProxyClass}
-     * method or the {@code newProxyInstance} method.
+     * method, the {@code newProxyInstance} method or the
+     * {@code newMethodHandleProxyInstance} method.
      *
      * <p>The reliability of this method is important for the ability
      * to use it to make security decisions, so its implementation should
@@ -788,7 +967,9 @@ public class Proxy implements java.io.Serializable {
      * @throws  NullPointerException if {@code cl} is {@code null}
      */
     public static boolean isProxyClass(Class<?> cl) {
-        return Proxy.class.isAssignableFrom(cl) && proxyClassCache.containsValue(cl);
+        return Proxy.class.isAssignableFrom(cl) &&
+               (proxyClassCache.containsValue(cl) ||
+                methodHandleProxyClassCache.containsValue(cl));
     }
 
     /**
@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.net;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.AccessControlContext;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import sun.misc.Resource;
+import sun.misc.URLClassPath;
+import sun.net.www.ParseUtil;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * An index of the packages of the JAR files on the search path of a
+ * URLClassLoader, used to search only the JAR files that can contain a
+ * resource instead of probing every one of them in turn.
+ *
+ * <p>The index maps the directory of each entry of each local JAR file to
+ * the positions of the JAR files that contain entries in that directory.
+ * A lookup of a resource searches, in search path order, the JAR files
+ * listed for its directory, and the elements of the search path that
+ * cannot be indexed: directories, remote URLs, and JAR files whose
+ * manifest has a {@code Class-Path} attribute or that have a
+ * {@code META-INF/INDEX.LIST}.  Each element is searched by its own
+ * URLClassPath, so a resource is found exactly as the full search path
+ * would find it.  When every element is indexed, the names that are not
+ * found are also remembered.
+ *
+ * <p>The index is only used if the {@code java.net.URLClassLoader.jarIndexCache}
+ * system property names a directory, and only for class loaders that use
+ * the default stream handlers, or the stream handler factory of the
+ * launcher, which only supplies the handlers of the JDK.  It thus applies
+ * to the application and extension class loaders, that is to the class
+ * path, but not to class loaders created with any other
+ * {@code URLStreamHandlerFactory}, whose handlers could resolve the JAR
+ * files differently from the index.  The index of a search path is kept
+ * in a file in that directory, built on first use, and validated on later
+ * runs against the last-modified time and size of each JAR file; only the
+ * JAR files that changed are scanned again.
+ */
+final class JarResourceIndex {
+    private static final String CACHE_DIR = AccessController.doPrivileged(
+        new GetPropertyAction("java.net.URLClassLoader.jarIndexCache"));
+
+    private static final int MAGIC = 0x4A524958;  // "JRIX"
+    private static final int VERSION = 1;
+
+    /** Maximum number of names remembered as not found. */
+    private static final int MAX_MISSES = 8192;
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final URL[] urls;
+    private final URLStreamHandlerFactory factory;
+    private final AccessControlContext acc;
+
+    // Set up on first use by ensureBuilt; packages is null if the index is
+    // unusable
+    private boolean built;
+    private Map<String, int[]> packages;
+    private int[] unindexed;
+
+    // Search path of each element, created on first use
+    private final URLClassPath[] loaders;
+
+    private final Set<String> misses =
+        Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private volatile boolean disabled;
+
+    private JarResourceIndex(URL[] urls, URLStreamHandlerFactory factory,
+                             AccessControlContext acc) {
+        this.urls = urls;
+        this.factory = factory;
+        this.acc = acc;
+        this.loaders = new URLClassPath[urls.length];
+    }
+
+    /**
+     * Returns the index for the given search path, or null if no index
+     * cache directory is configured.
+     */
+    static JarResourceIndex forURLs(URL[] urls, AccessControlContext acc) {
+        return forURLs(urls, null, acc);
+    }
+
+    /**
+     * Returns the index for the given search path whose URLs are resolved
+     * by the given stream handler factory, or null if no index cache
+     * directory is configured or the factory is not the launcher's.
+     */
+    static JarResourceIndex forURLs(URL[] urls, URLStreamHandlerFactory factory,
+                                    AccessControlContext acc) {
+        if (CACHE_DIR == null || urls.length == 0)
+            return null;
+        if (factory != null && !isLauncherFactory(factory))
+            return null;
+        urls = urls.clone();
+        for (URL url : urls) {
+            if (url == null)
+                return null;
+        }
+        return new JarResourceIndex(urls, factory, acc);
+    }
+
+    /*
+     * Returns true for the factory that sun.misc.Launcher passes to the
+     * application and extension class loaders.  It creates the stream
+     * handlers of the JDK for every protocol, as the default lookup does.
+     */
+    private static boolean isLauncherFactory(URLStreamHandlerFactory factory) {
+        Class<?> c = factory.getClass();
+        return c.getClassLoader() == null &&
+               c.getName().equals("sun.misc.Launcher$Factory");
+    }
+
+    /**
+     * Stops using the index, for instance because the search path has
+     * changed.  The index can still be closed.
+     */
+    void disable() {
+        disabled = true;
+    }
+
+    /**
+     * Returns whether the index can be used, building it if needed.
+     */
+    boolean isUsable() {
+        return !disabled && ensureBuilt();
+    }
+
+    private synchronized boolean ensureBuilt() {
+        if (!built) {
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    build();
+                    return null;
+                }
+            }, acc);
+            built = true;
+        }
+        return packages != null;
+    }
+
+    /**
+     * Finds a resource, as {@code URLClassPath.getResource(name, false)}.
+     */
+    Resource getResource(String name) {
+        if (misses.contains(name))
+            return null;
+        int[] jars = jarsFor(name);
+        int i = 0, j = 0;
+        while (true) {
+            int pos = next(jars, i, j);
+            if (pos < 0)
+                break;
+            if (i < jars.length && jars[i] == pos) i++;
+            if (j < unindexed.length && unindexed[j] == pos) j++;
+            Resource res = loader(pos).getResource(name, false);
+            if (res != null)
+                return res;
+        }
+        addMiss(name);
+        return null;
+    }
+
+    /**
+     * Finds a resource, as {@code URLClassPath.findResource(name, true)}.
+     */
+    URL findResource(String name) {
+        if (misses.contains(name))
+            return null;
+        int[] jars = jarsFor(name);
+        int i = 0, j = 0;
+        while (true) {
+            int pos = next(jars, i, j);
+            if (pos < 0)
+                break;
+            if (i < jars.length && jars[i] == pos) i++;
+            if (j < unindexed.length && unindexed[j] == pos) j++;
+            URL url = loader(pos).findResource(name, true);
+            if (url != null)
+                return url;
+        }
+        addMiss(name);
+        return null;
+    }
+
+    /**
+     * Finds all the resources of the given name, as
+     * {@code URLClassPath.findResources(name, true)}.  The search path is
+     * searched lazily, as the enumeration is traversed.
+     */
+    Enumeration<URL> findResources(final String name) {
+        boolean missed = misses.contains(name);
+        final int[] jars = missed ? NO_POSITIONS : jarsFor(name);
+        final int[] unindexed = missed ? NO_POSITIONS : this.unindexed;
+        return new Enumeration<URL>() {
+            private int i, j;
+            private Enumeration<URL> current;
+
+            public boolean hasMoreElements() {
+                while (current == null || !current.hasMoreElements()) {
+                    int pos = next(jars, unindexed, i, j);
+                    if (pos < 0)
+                        return false;
+                    if (i < jars.length && jars[i] == pos) i++;
+                    if (j < unindexed.length && unindexed[j] == pos) j++;
+                    current = loader(pos).findResources(name, true);
+                }
+                return true;
+            }
+
+            public URL nextElement() {
+                if (!hasMoreElements())
+                    throw new NoSuchElementException();
+                return current.nextElement();
+            }
+        };
+    }
+
+    /**
+     * Closes the search paths of the elements.
+     */
+    synchronized List<IOException> close() {
+        disabled = true;
+        List<IOException> errors = new ArrayList<>();
+        for (int i = 0; i < loaders.length; i++) {
+            if (loaders[i] != null)
+                errors.addAll(loaders[i].closeLoaders());
+        }
+        return errors;
+    }
+
+    private int[] jarsFor(String name) {
+        int[] jars = packages.get(name.substring(0, name.lastIndexOf('/') + 1));
+        return (jars != null) ? jars : NO_POSITIONS;
+    }
+
+    private int next(int[] jars, int i, int j) {
+        return next(jars, unindexed, i, j);
+    }
+
+    /*
+     * Returns the lower of the next positions of two ascending lists, or
+     * -1 if both are exhausted.
+     */
+    private static int next(int[] a, int[] b, int i, int j) {
+        if (i < a.length)
+            return (j < b.length) ? Math.min(a[i], b[j]) : a[i];
+        return (j < b.length) ? b[j] : -1;
+    }
+
+    private void addMiss(String name) {
+        // An unindexed element may gain the resource later
+        if (unindexed.length == 0 && misses.size() < MAX_MISSES)
+            misses.add(name);
+    }
+
+    private synchronized URLClassPath loader(int pos) {
+        URLClassPath loader = loaders[pos];
+        if (loader == null) {
+            loader = new URLClassPath(new URL[] { urls[pos] }, factory, acc);
+            loaders[pos] = loader;
+        }
+        return loader;
+    }
+
+    /**
+     * Builds the index, from the cache file where possible, and updates
+     * the cache file if any JAR file had to be scanned.
+     */
+    private void build() {
+        File dir = new File(CACHE_DIR);
+        if (!dir.isDirectory())
+            return;
+        StringBuilder sb = new StringBuilder();
+        for (URL url : urls)
+            sb.append(url).append('\n');
+        File cacheFile = new File(dir, "jarindex-" +
+                                  Integer.toHexString(sb.toString().hashCode()) + ".idx");
+
+        Map<String, JarInfo> cached = read(cacheFile);
+        JarInfo[] infos = new JarInfo[urls.length];
+        boolean changed = false;
+        Map<String, List<Integer>> map = new HashMap<>();
+        List<Integer> unindexedList = new ArrayList<>();
+        for (int pos = 0; pos < urls.length; pos++) {
+            File file = localJar(urls[pos]);
+            if (file == null) {
+                unindexedList.add(pos);
+                continue;
+            }
+            String path = file.getPath();
+            JarInfo info = cached.get(path);
+            if (info == null || info.lastModified != file.lastModified()
+                    || info.length != file.length()) {
+                info = JarInfo.scan(file);
+                if (info == null) {
+                    unindexedList.add(pos);
+                    continue;
+                }
+                changed = true;
+            }
+            infos[pos] = info;
+            if (!info.indexable) {
+                unindexedList.add(pos);
+                continue;
+            }
+            for (String pkg : info.packages) {
+                List<Integer> jars = map.get(pkg);
+                if (jars == null) {
+                    jars = new ArrayList<>(1);
+                    map.put(pkg, jars);
+                }
+                jars.add(pos);
+            }
+        }
+        if (changed)
+            write(cacheFile, dir, infos);
+
+        Map<String, int[]> index = new HashMap<>(map.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<Integer>> e : map.entrySet())
+            index.put(e.getKey(), toArray(e.getValue()));
+        unindexed = toArray(unindexedList);
+        packages = index;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] a = new int[list.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = list.get(i);
+        return a;
+    }
+
+    /*
+     * Returns the file of a search path element that is a local JAR file,
+     * or null for any other element.  A JAR file that does not exist is
+     * indexed as empty, as the search path skips it.
+     */
+    private static File localJar(URL url) {
+        if (!"file".equals(url.getProtocol()) || url.getFile().endsWith("/"))
+            return null;
+        String host = url.getHost();
+        if (host != null && !host.isEmpty() && !"localhost".equalsIgnoreCase(host))
+            return null;
+        File file = new File(ParseUtil.decode(url.getFile()));
+        return file.isDirectory() ? null : file;
+    }
+
+    /**
+     * The directories of the entries of one JAR file.
+     */
+    private static final class JarInfo {
+        final String path;
+        final long lastModified;
+        final long length;
+        // false if the JAR file may bring other JAR files into the search
+        final boolean indexable;
+        final String[] packages;
+
+        JarInfo(String path, long lastModified, long length,
+                boolean indexable, String[] packages) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.indexable = indexable;
+            this.packages = packages;
+        }
+
+        /*
+         * Scans a JAR file, or returns null if it cannot be read.
+         */
+        static JarInfo scan(File file) {
+            long lastModified = file.lastModified();
+            long length = file.length();
+            if (!file.exists())
+                return new JarInfo(file.getPath(), lastModified, length, true, new String[0]);
+            try (JarFile jar = new JarFile(file, false)) {
+                boolean indexable = jar.getEntry("META-INF/INDEX.LIST") == null;
+                Manifest man = jar.getManifest();
+                if (man != null &&
+                    man.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) != null)
+                    indexable = false;
+                Set<String> dirs = new TreeSet<>();
+                Enumeration<? extends ZipEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    dirs.add(name.substring(0, name.lastIndexOf('/') + 1));
+                    // ZipFile.getEntry finds "a/b/" when asked for "a/b"
+                    if (name.endsWith("/")) {
+                        String parent = name.substring(0, name.length() - 1);
+                        dirs.add(parent.substring(0, parent.lastIndexOf('/') + 1));
+                    }
+                }
+                return new JarInfo(file.getPath(), lastModified, length, indexable,
+                                   dirs.toArray(new String[dirs.size()]));
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    private static Map<String, JarInfo> read(File cacheFile) {
+        Map<String, JarInfo> infos = new HashMap<>();
+        if (!cacheFile.isFile())
+            return infos;
+        try (DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                return infos;
+            for (int n = in.readInt(); n > 0; n--) {
+                String path = in.readUTF();
+                long lastModified = in.readLong();
+                long length = in.readLong();
+                boolean indexable = in.readBoolean();
+                String[] pkgs = new String[in.readInt()];
+                for (int i = 0; i < pkgs.length; i++)
+                    pkgs[i] = in.readUTF();
+                infos.put(path, new JarInfo(path, lastModified, length, indexable, pkgs));
+            }
+        } catch (IOException | RuntimeException e) {
+            // an unreadable cache is rebuilt
+            infos.clear();
+        }
+        return infos;
+    }
+
+    /*
+     * Writes the cache file, through a temporary file so that a concurrent
+     * reader never sees a partial index.
+     */
+    private static void write(File cacheFile, File dir, JarInfo[] infos) {
+        List<JarInfo> list = new ArrayList<>(infos.length);
+        for (JarInfo info : infos) {
+            if (info != null)
+                list.add(info);
+        }
+        File tmp = null;
+        try {
+            tmp = File.createTempFile("jarindex", ".tmp", dir);
+            try (DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(list.size());
+                for (JarInfo info : list) {
+                    out.writeUTF(info.path);
+                    out.writeLong(info.lastModified);
+                    out.writeLong(info.length);
+                    out.writeBoolean(info.indexable);
+                    out.writeInt(info.packages.length);
+                    for (String pkg : info.packages)
+                        out.writeUTF(pkg);
+                }
+            }
+            if (!cacheFile.delete() && cacheFile.exists() || !tmp.renameTo(cacheFile))
+                tmp.delete();
+        } catch (IOException | RuntimeException e) {
+            // the index is still used; it is only not saved
+            if (tmp != null)
+                tmp.delete();
+        }
+    }
+}
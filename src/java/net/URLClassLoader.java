@@ -77,6 +77,9 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
     /* The context to be used when loading classes and resources */
     private final AccessControlContext acc;
 
+    /* The package index of the search path, or null if there is none */
+    private final JarResourceIndex jarIndex;
+
     /**
      * Constructs a new URLClassLoader for the given URLs. The URLs will be
      * searched in the order specified for classes and resources after first
@@ -105,6 +108,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        jarIndex = JarResourceIndex.forURLs(urls, acc);
     }
 
     URLClassLoader(URL[] urls, ClassLoader parent,
@@ -117,6 +121,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        jarIndex = JarResourceIndex.forURLs(urls, acc);
     }
 
     /**
@@ -149,6 +154,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        jarIndex = JarResourceIndex.forURLs(urls, acc);
     }
 
     URLClassLoader(URL[] urls, AccessControlContext acc) {
@@ -160,6 +166,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        jarIndex = JarResourceIndex.forURLs(urls, acc);
     }
 
     /**
@@ -193,6 +200,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         acc = AccessController.getContext();
         ucp = new URLClassPath(urls, factory, acc);
+        jarIndex = JarResourceIndex.forURLs(urls, factory, acc);
     }
 
     /* A map (used as a set) to keep track of closeable local resources
@@ -289,6 +297,9 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
             security.checkPermission(new RuntimePermission("closeClassLoader"));
         }
         List<IOException> errors = ucp.closeLoaders();
+        if (jarIndex != null) {
+            errors.addAll(jarIndex.close());
+        }
 
         // now close any remaining streams.
 
@@ -329,9 +340,20 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
      * @param url the URL to be added to the search path of URLs
      */
     protected void addURL(URL url) {
+        if (jarIndex != null) {
+            jarIndex.disable();
+        }
         ucp.addURL(url);
     }
 
+    /*
+     * Returns whether classes and resources are looked up through the
+     * package index rather than by searching every element of ucp.
+     */
+    private boolean useIndex() {
+        return jarIndex != null && jarIndex.isUsable();
+    }
+
     /**
      * Returns the search path of URLs for loading classes and resources.
      * This includes the original list of URLs specified to the constructor,
@@ -362,7 +384,9 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
                 new PrivilegedExceptionAction<Class<?>>() {
                     public Class<?> run() throws ClassNotFoundException {
                         String path = name.replace('.', '/').concat(".class");
-                        Resource res = ucp.getResource(path, false);
+                        Resource res = useIndex()
+                            ? jarIndex.getResource(path)
+                            : ucp.getResource(path, false);
                         if (res != null) {
                             try {
                                 return defineClass(name, res);
@@ -566,7 +590,9 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         URL url = AccessController.doPrivileged(
             new PrivilegedAction<URL>() {
                 public URL run() {
-                    return ucp.findResource(name, true);
+                    return useIndex()
+                        ? jarIndex.findResource(name)
+                        : ucp.findResource(name, true);
                 }
             }, acc);
 
@@ -585,7 +611,9 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
     public Enumeration<URL> findResources(final String name)
         throws IOException
     {
-        final Enumeration<URL> e = ucp.findResources(name, true);
+        final Enumeration<URL> e = useIndex()
+            ? jarIndex.findResources(name)
+            : ucp.findResources(name, true);
 
         return new Enumeration<URL>() {
             private URL url = null;
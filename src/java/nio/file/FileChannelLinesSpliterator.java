@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.nio.file;
+
+import sun.nio.ch.DirectBuffer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A file-based lines spliterator, leveraging mapped byte buffers and the
+ * associated file channel, covering lines of a file for character encodings
+ * where line feed characters can be easily identified from character encoded
+ * bytes.
+ *
+ * <p>
+ * Splitting maps a window of the file around the mid-point of the covered
+ * range of bytes, and uses it to find the closest line feed characters(s) to
+ * the left or right of the mid-point.  If a line feed is found then the
+ * spliterator is split with returned spliterator containing the identified
+ * line feed characters(s) at the end of it's covered range of bytes.  The
+ * window is unmapped again before the split returns, so only a bounded
+ * region of the file is ever mapped and files of any size can be split.
+ *
+ * <p>
+ * Traversing will create a buffered reader, derived from the file channel, for
+ * the range of bytes of the file.  The lines are then read from that buffered
+ * reader.  Once traversing commences no further splitting can be performed.
+ */
+final class FileChannelLinesSpliterator implements Spliterator<String> {
+
+    static final Set<String> SUPPORTED_CHARSET_NAMES;
+    static {
+        SUPPORTED_CHARSET_NAMES = new HashSet<>();
+        SUPPORTED_CHARSET_NAMES.add(StandardCharsets.UTF_8.name());
+        SUPPORTED_CHARSET_NAMES.add(StandardCharsets.ISO_8859_1.name());
+        SUPPORTED_CHARSET_NAMES.add(StandardCharsets.US_ASCII.name());
+    }
+
+    // The maximum number of bytes scanned either side of the mid-point for
+    // a line separator when splitting.  A range with no line separator this
+    // close to its mid-point is not split.
+    static final int SPLIT_WINDOW = 64 * 1024;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private long index;
+    private final long fence;
+
+    // Non-null when traversing
+    private BufferedReader reader;
+
+    FileChannelLinesSpliterator(FileChannel fc, Charset cs, long index, long fence) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        String line = readLine();
+        if (line != null) {
+            action.accept(line);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        String line;
+        while ((line = readLine()) != null) {
+            action.accept(line);
+        }
+    }
+
+    private BufferedReader getBufferedReader() {
+        /**
+         * A readable byte channel that reads bytes from an underlying
+         * file channel over a specified range.
+         */
+        ReadableByteChannel rrbc = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                long bytesToRead = fence - index;
+                if (bytesToRead == 0)
+                    return -1;
+
+                int bytesRead;
+                if (bytesToRead < dst.remaining()) {
+                    // The number of bytes to read is less than remaining
+                    // bytes in the buffer
+                    // Snapshot the limit, reduce it, read, then restore
+                    int oldLimit = dst.limit();
+                    dst.limit(dst.position() + (int) bytesToRead);
+                    bytesRead = fc.read(dst, index);
+                    dst.limit(oldLimit);
+                } else {
+                    bytesRead = fc.read(dst, index);
+                }
+                if (bytesRead == -1) {
+                    index = fence;
+                    return bytesRead;
+                }
+
+                index += bytesRead;
+                return bytesRead;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return fc.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                fc.close();
+            }
+        };
+        return new BufferedReader(Channels.newReader(rrbc, cs.newDecoder(), -1));
+    }
+
+    private String readLine() {
+        if (reader == null) {
+            reader = getBufferedReader();
+        }
+
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer map(long position, long size) {
+        try {
+            return fc.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void unmap(MappedByteBuffer b) {
+        sun.misc.Cleaner cl = ((DirectBuffer) b).cleaner();
+        if (cl != null)
+            cl.clean();
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        // Cannot split after partial traverse
+        if (reader != null)
+            return null;
+
+        final long hi = fence, lo = index;
+        long mid = (lo + hi) >>> 1;
+        if (mid <= lo)
+            return null;
+
+        // Map only the window that is scanned, plus one byte so that a
+        // "\r\n" straddling its right edge is recognized
+        long wlo = Math.max(lo, mid - SPLIT_WINDOW);
+        long whi = Math.min(hi, mid + SPLIT_WINDOW);
+        MappedByteBuffer b = map(wlo, Math.min(hi, whi + 1) - wlo);
+        int split;
+        try {
+            // The byte at lo itself is not scanned, as in the unwindowed case
+            split = findSplit(b, (int) (mid - wlo), wlo == lo ? 0 : -1,
+                              (int) (whi - wlo));
+        } finally {
+            unmap(b);
+        }
+        if (split < 0)
+            return null;
+        mid = wlo + split;
+
+        // The left spliterator will have the line-separator at the end
+        if (mid > lo && mid < hi) {
+            return new FileChannelLinesSpliterator(fc, cs, lo, index = mid);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the position in {@code b} just after the line separator
+     * closest to {@code mid}, scanning no further than {@code lo} (exclusive)
+     * to the left and {@code hi} (exclusive) to the right, or -1 if there
+     * is none.  A "\r\n" separator may end at {@code b.limit()}.
+     */
+    private static int findSplit(ByteBuffer b, int mid, int lo, int hi) {
+        // Check if line separator hits the mid point
+        int c =  b.get(mid);
+        if (c == '\n') {
+            mid++;
+        } else if (c == '\r') {
+            // Check if a line separator of "\r\n"
+            if (++mid < b.limit() && b.get(mid) == '\n') {
+                mid++;
+            }
+        } else {
+            // Scan to the left and right of the mid point, giving up at the
+            // edges of the window
+            int midL = mid - 1;
+            int midR = mid + 1;
+            mid = -1;
+            while (midL > lo || midR < hi) {
+                // Sample to the left
+                if (midL > lo) {
+                    c = b.get(midL--);
+                    if (c == '\n' || c == '\r') {
+                        // If c is "\r" then no need to check for "\r\n"
+                        // since the subsequent value was previously checked
+                        mid = midL + 2;
+                        break;
+                    }
+                }
+
+                // Sample to the right
+                if (midR < hi) {
+                    c = b.get(midR++);
+                    if (c == '\n' || c == '\r') {
+                        mid = midR;
+                        // Check if line-separator is "\r\n"
+                        if (c == '\r' && mid < b.limit() && b.get(mid) == '\n') {
+                            mid++;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        return mid;
+    }
+
+    @Override
+    public long estimateSize() {
+        // Use the number of bytes as an estimate.
+        // We could divide by a constant that is the average number of
+        // characters per-line, but that constant will be factored out.
+        return fence - index;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return -1;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
@@ -38,6 +38,9 @@ import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -216,11 +219,14 @@ public final class ServiceLoader<S> implements Iterable<S>
      * providers from scratch, just as is done by a newly-created loader.
      *
      * <p> This method is intended for use in situations in which new providers
-     * can be installed into a running Java virtual machine.
+     * can be installed into a running Java virtual machine.  It also discards
+     * the provider-configuration files of this loader's service that were
+     * cached for the class loader, so that they are read again.
      */
     public void reload() {
         providers.clear();
-        lookupIterator = new LazyIterator(service, loader);
+        clearCachedConfigs();
+        lookupIterator = new LazyIterator();
     }
 
     private ServiceLoader(Class<S> svc, ClassLoader cl) {
@@ -275,7 +281,7 @@ public final class ServiceLoader<S> implements Iterable<S>
                 if (!Character.isJavaIdentifierPart(cp) && (cp != '.'))
                     fail(service, u, lc, "Illegal provider-class name: " + ln);
             }
-            if (!providers.containsKey(ln) && !names.contains(ln))
+            if (!names.contains(ln))
                 names.add(ln);
         }
         return lc + 1;
@@ -291,8 +297,7 @@ public final class ServiceLoader<S> implements Iterable<S>
     //         The URL naming the configuration file to be parsed
     //
     // @return A (possibly empty) iterator that will yield the provider-class
-    //         names in the given configuration file that are not yet members
-    //         of the returned set
+    //         names in the given configuration file, each name once
     //
     // @throws ServiceConfigurationError
     //         If an I/O error occurs while reading from the given URL, or
@@ -301,6 +306,12 @@ public final class ServiceLoader<S> implements Iterable<S>
     private Iterator<String> parse(Class<?> service, URL u)
         throws ServiceConfigurationError
     {
+        String key = cacheKey(u);
+        if (key != null) {
+            List<String> names = cachedConfig(key);
+            if (names != null)
+                return names.iterator();
+        }
         InputStream in = null;
         BufferedReader r = null;
         ArrayList<String> names = new ArrayList<>();
@@ -319,27 +330,104 @@ public final class ServiceLoader<S> implements Iterable<S>
                 fail(service, "Error closing configuration file", y);
             }
         }
+        if (key != null)
+            cacheConfig(key, names);
         return names.iterator();
     }
 
-    // Private inner class implementing fully-lazy provider lookup
+    // Parsed provider-configuration files, per class loader.  Only the files
+    // in local JAR files are cached, as their content does not change while
+    // the class loader has the JAR file open; the files of a class loader
+    // are dropped when the class loader is collected, or by reload.
+    // @GuardedBy("itself")
+    private static final WeakHashMap<ClassLoader, Map<String, List<String>>> configCache
+        = new WeakHashMap<>();
+
+    // Returns the key under which the given configuration file is cached,
+    // or null if it is not cached.
+    private String cacheKey(URL u) {
+        if (loader == null || !"jar".equals(u.getProtocol())
+                || !u.getFile().startsWith("file:"))
+            return null;
+        return u.toExternalForm();
+    }
+
+    private List<String> cachedConfig(String key) {
+        synchronized (configCache) {
+            Map<String, List<String>> configs = configCache.get(loader);
+            return (configs == null) ? null : configs.get(key);
+        }
+    }
+
+    private void cacheConfig(String key, List<String> names) {
+        synchronized (configCache) {
+            Map<String, List<String>> configs = configCache.get(loader);
+            if (configs == null) {
+                configs = new HashMap<>();
+                configCache.put(loader, configs);
+            }
+            configs.put(key, Collections.unmodifiableList(names));
+        }
+    }
+
+    // Forget the cached configuration files of this loader's service.
+    private void clearCachedConfigs() {
+        if (loader == null)
+            return;
+        String suffix = PREFIX + service.getName();
+        synchronized (configCache) {
+            Map<String, List<String>> configs = configCache.get(loader);
+            if (configs != null) {
+                Iterator<String> keys = configs.keySet().iterator();
+                while (keys.hasNext()) {
+                    if (keys.next().endsWith(suffix))
+                        keys.remove();
+                }
+            }
+        }
+    }
+
+    // Load and check the named provider class.
     //
-    private class LazyIterator
-        implements Iterator<S>
+    private Class<? extends S> loadProviderClass(String cn) {
+        Class<?> c = null;
+        try {
+            c = Class.forName(cn, false, loader);
+        } catch (ClassNotFoundException x) {
+            fail(service,
+                 "Provider " + cn + " not found");
+        }
+        if (!service.isAssignableFrom(c)) {
+            fail(service,
+                 "Provider " + cn  + " not a subtype");
+        }
+        return c.asSubclass(service);
+    }
+
+    private S newProvider(Class<? extends S> c) {
+        try {
+            return service.cast(c.newInstance());
+        } catch (Throwable x) {
+            fail(service,
+                 "Provider " + c.getName() + " could not be instantiated",
+                 x);
+        }
+        throw new Error();          // This cannot happen
+    }
+
+    // Private inner class yielding the provider-class names named by the
+    // configuration files of this loader's service, each name once
+    //
+    private class ProviderNames
+        implements Iterator<String>
     {
 
-        Class<S> service;
-        ClassLoader loader;
         Enumeration<URL> configs = null;
         Iterator<String> pending = null;
+        Set<String> seen = new HashSet<>();
         String nextName = null;
 
-        private LazyIterator(Class<S> service, ClassLoader loader) {
-            this.service = service;
-            this.loader = loader;
-        }
-
-        private boolean hasNextService() {
+        public boolean hasNext() {
             if (nextName != null) {
                 return true;
             }
@@ -354,13 +442,47 @@ public final class ServiceLoader<S> implements Iterable<S>
                     fail(service, "Error locating configuration files", x);
                 }
             }
-            while ((pending == null) || !pending.hasNext()) {
-                if (!configs.hasMoreElements()) {
-                    return false;
+            while (nextName == null) {
+                while ((pending == null) || !pending.hasNext()) {
+                    if (!configs.hasMoreElements()) {
+                        return false;
+                    }
+                    pending = parse(service, configs.nextElement());
                 }
-                pending = parse(service, configs.nextElement());
+                String cn = pending.next();
+                if (seen.add(cn))
+                    nextName = cn;
+            }
+            return true;
+        }
+
+        public String next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            String cn = nextName;
+            nextName = null;
+            return cn;
+        }
+
+    }
+
+    // Private inner class implementing fully-lazy provider lookup
+    //
+    private class LazyIterator
+        implements Iterator<S>
+    {
+
+        ProviderNames names = new ProviderNames();
+        String nextName = null;
+
+        private boolean hasNextService() {
+            while (nextName == null) {
+                if (!names.hasNext())
+                    return false;
+                String cn = names.next();
+                if (!providers.containsKey(cn))
+                    nextName = cn;
             }
-            nextName = pending.next();
             return true;
         }
 
@@ -369,27 +491,9 @@ public final class ServiceLoader<S> implements Iterable<S>
                 throw new NoSuchElementException();
             String cn = nextName;
             nextName = null;
-            Class<?> c = null;
-            try {
-                c = Class.forName(cn, false, loader);
-            } catch (ClassNotFoundException x) {
-                fail(service,
-                     "Provider " + cn + " not found");
-            }
-            if (!service.isAssignableFrom(c)) {
-                fail(service,
-                     "Provider " + cn  + " not a subtype");
-            }
-            try {
-                S p = service.cast(c.newInstance());
-                providers.put(cn, p);
-                return p;
-            } catch (Throwable x) {
-                fail(service,
-                     "Provider " + cn + " could not be instantiated",
-                     x);
-            }
-            throw new Error();          // This cannot happen
+            S p = newProvider(loadProviderClass(cn));
+            providers.put(cn, p);
+            return p;
         }
 
         public boolean hasNext() {
@@ -420,6 +524,78 @@ public final class ServiceLoader<S> implements Iterable<S>
 
     }
 
+    // Private inner class yielding the providers of this loader's service
+    // without instantiating them
+    //
+    private class ProviderIterator
+        implements Iterator<Provider<S>>
+    {
+
+        ProviderNames names = new ProviderNames();
+
+        private Provider<S> nextProvider() {
+            String cn = names.next();
+            return new ProviderImpl(loadProviderClass(cn));
+        }
+
+        public boolean hasNext() {
+            if (acc == null) {
+                return names.hasNext();
+            } else {
+                PrivilegedAction<Boolean> action = new PrivilegedAction<Boolean>() {
+                    public Boolean run() { return names.hasNext(); }
+                };
+                return AccessController.doPrivileged(action, acc);
+            }
+        }
+
+        public Provider<S> next() {
+            if (acc == null) {
+                return nextProvider();
+            } else {
+                PrivilegedAction<Provider<S>> action = new PrivilegedAction<Provider<S>>() {
+                    public Provider<S> run() { return nextProvider(); }
+                };
+                return AccessController.doPrivileged(action, acc);
+            }
+        }
+
+    }
+
+    // Private inner class implementing a provider that is instantiated on
+    // first use
+    //
+    private class ProviderImpl
+        implements Provider<S>
+    {
+
+        final Class<? extends S> type;
+        S instance;
+
+        ProviderImpl(Class<? extends S> type) {
+            this.type = type;
+        }
+
+        public Class<? extends S> type() {
+            return type;
+        }
+
+        public synchronized S get() {
+            if (instance == null) {
+                if (acc == null) {
+                    instance = newProvider(type);
+                } else {
+                    PrivilegedAction<S> action = new PrivilegedAction<S>() {
+                        public S run() { return newProvider(type); }
+                    };
+                    instance = AccessController.doPrivileged(action, acc);
+                }
+            }
+            return instance;
+        }
+
+    }
+
     /**
      * Lazily loads the available providers of this loader's service.
      *
@@ -491,6 +667,67 @@ public final class ServiceLoader<S> implements Iterable<S>
         };
     }
 
+    /**
+     * Represents a service provider located by a service loader.  Its type
+     * can be examined, for instance for annotations, before the provider is
+     * instantiated by {@link #get() get}.
+     *
+     * @param  <S> The service type
+     *
+     * @since 1.8
+     */
+    public static interface Provider<S> extends Supplier<S> {
+
+        /**
+         * Returns the provider type.
+         *
+         * @return The provider type
+         */
+        Class<? extends S> type();
+
+        /**
+         * Returns an instance of the provider.  The provider is instantiated
+         * on the first invocation of this method, and the same instance is
+         * returned by later invocations.
+         *
+         * @return An instance of the provider
+         *
+         * @throws ServiceConfigurationError
+         *         If the provider cannot be instantiated, or if the result of
+         *         instantiating it is not assignable to the service type
+         */
+        @Override
+        S get();
+
+    }
+
+    /**
+     * Returns a stream that lazily loads the available providers of this
+     * loader's service, without instantiating them.  The elements of the
+     * stream are {@link Provider Provider} objects whose {@code type} method
+     * returns the provider class; a provider is only instantiated if its
+     * {@code get} method is invoked.  This allows providers to be selected
+     * by their class, or by the annotations on it, without paying for the
+     * construction of the others.
+     *
+     * <p> The stream locates the providers in the same order as the {@link
+     * #iterator() iterator} does, but does not use or populate the provider
+     * cache of this loader.  Its operations throw {@link
+     * ServiceConfigurationError} in the same cases as the iterator does,
+     * except that a provider class that cannot be instantiated is only
+     * reported by the {@code get} method of its {@code Provider}.
+     *
+     * @return  A stream that lazily loads the providers of this loader's
+     *          service
+     *
+     * @since 1.8
+     */
+    public Stream<Provider<S>> stream() {
+        Spliterator<Provider<S>> s = Spliterators.spliteratorUnknownSize(
+            new ProviderIterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(s, false);
+    }
+
     /**
      * Creates a new service loader for the given service type and class
      * loader.
@@ -478,6 +478,71 @@ public final class Spliterators {
         return new IteratorSpliterator<>(Objects.requireNonNull(iterator), characteristics);
     }
 
+    /**
+     * Creates a {@code Spliterator} using a given {@code Iterator}
+     * as the source of elements, with a given initially reported size,
+     * whose split sizes adapt to the cost of processing each element.
+     *
+     * <p>The spliterator behaves as one returned from
+     * {@link #spliterator(Iterator, long, int)}, except that rather than
+     * splitting off batches of arithmetically increasing size, the size of
+     * each batch is chosen such that processing the batch is expected to
+     * take roughly the same amount of time.  The expected cost of processing
+     * an element is initially taken from {@code elementCostNanos} and is
+     * subsequently refined by measuring the time taken to traverse batches
+     * that have been split off.
+     *
+     * @param <T> Type of elements
+     * @param iterator The iterator for the source
+     * @param size The number of elements in the source, to be reported as
+     *        initial {@code estimateSize}
+     * @param characteristics Characteristics of this spliterator's source or
+     *        elements.  The characteristics {@code SIZED} and {@code SUBSIZED}
+     *        are additionally reported unless {@code CONCURRENT} is supplied.
+     * @param elementCostNanos A hint of the number of nanoseconds taken to
+     *        process each element, or {@code 0} if unknown
+     * @return A spliterator from an iterator
+     * @throws NullPointerException if the given iterator is {@code null}
+     * @throws IllegalArgumentException if {@code elementCostNanos} is negative
+     */
+    public static <T> Spliterator<T> spliterator(Iterator<? extends T> iterator,
+                                                 long size,
+                                                 int characteristics,
+                                                 long elementCostNanos) {
+        return new IteratorSpliterator<>(Objects.requireNonNull(iterator), size,
+                                         characteristics,
+                                         new BatchCost(elementCostNanos));
+    }
+
+    /**
+     * Creates a {@code Spliterator} using a given {@code Iterator}
+     * as the source of elements, with no initial size estimate, whose split
+     * sizes adapt to the cost of processing each element.
+     *
+     * <p>The spliterator behaves as one returned from
+     * {@link #spliteratorUnknownSize(Iterator, int)}, except that split
+     * sizes are chosen as described for
+     * {@link #spliterator(Iterator, long, int, long)}.
+     *
+     * @param <T> Type of elements
+     * @param iterator The iterator for the source
+     * @param characteristics Characteristics of this spliterator's source
+     *        or elements ({@code SIZED} and {@code SUBSIZED}, if supplied, are
+     *        ignored and are not reported.)
+     * @param elementCostNanos A hint of the number of nanoseconds taken to
+     *        process each element, or {@code 0} if unknown
+     * @return A spliterator from an iterator
+     * @throws NullPointerException if the given iterator is {@code null}
+     * @throws IllegalArgumentException if {@code elementCostNanos} is negative
+     */
+    public static <T> Spliterator<T> spliteratorUnknownSize(Iterator<? extends T> iterator,
+                                                            int characteristics,
+                                                            long elementCostNanos) {
+        return new IteratorSpliterator<>(Objects.requireNonNull(iterator),
+                                         characteristics,
+                                         new BatchCost(elementCostNanos));
+    }
+
     /**
      * Creates a {@code Spliterator.OfInt} using a given
      * {@code IntStream.IntIterator} as the source of elements, and with a given
@@ -1257,6 +1322,7 @@ public final class Spliterators {
         static final int BATCH_UNIT = 1 << 10;  // batch array size increment
         static final int MAX_BATCH = 1 << 25;  // max batch array size;
         private final int characteristics;
+        private final BatchCost cost; // null if batches grow arithmetically
         private long est;             // size estimate
         private int batch;            // batch size for splits
 
@@ -1275,6 +1341,38 @@ public final class Spliterators {
             this.characteristics = ((additionalCharacteristics & Spliterator.SIZED) != 0)
                                    ? additionalCharacteristics | Spliterator.SUBSIZED
                                    : additionalCharacteristics;
+            this.cost = null;
+        }
+
+        /**
+         * Creates a spliterator reporting the given estimated size and
+         * additionalCharacteristics, whose split sizes adapt to the cost of
+         * processing each element.
+         *
+         * <p>Rather than splitting off batches of arithmetically increasing
+         * size, the size of each batch is chosen such that processing the
+         * batch is expected to take roughly the same amount of time.  The
+         * expected cost of processing an element is initially taken from
+         * {@code elementCostNanos} and is subsequently refined by measuring
+         * the time taken to traverse batches that have been split off.
+         *
+         * @param est the estimated size of this spliterator if known, otherwise
+         *        {@code Long.MAX_VALUE}.
+         * @param additionalCharacteristics properties of this spliterator's
+         *        source or elements.  If {@code SIZED} is reported then this
+         *        spliterator will additionally report {@code SUBSIZED}.
+         * @param elementCostNanos a hint of the number of nanoseconds taken to
+         *        process each element, or {@code 0} if unknown
+         * @throws IllegalArgumentException if {@code elementCostNanos} is
+         *         negative
+         */
+        protected AbstractSpliterator(long est, int additionalCharacteristics,
+                                      long elementCostNanos) {
+            this.est = est;
+            this.characteristics = ((additionalCharacteristics & Spliterator.SIZED) != 0)
+                                   ? additionalCharacteristics | Spliterator.SUBSIZED
+                                   : additionalCharacteristics;
+            this.cost = new BatchCost(elementCostNanos);
         }
 
         static final class HoldingConsumer<T> implements Consumer<T> {
@@ -1304,12 +1402,15 @@ public final class Spliterators {
              * operations, across combinations of #elements vs #cores,
              * whether or not either are known.  We generate
              * O(sqrt(#elements)) splits, allowing O(sqrt(#cores))
-             * potential speedup.
+             * potential speedup.  If created with a cost hint, batch
+             * sizes are instead derived from the measured per-element
+             * cost (see BatchCost).
              */
             HoldingConsumer<T> holder = new HoldingConsumer<>();
             long s = est;
             if (s > 1 && tryAdvance(holder)) {
-                int n = batch + BATCH_UNIT;
+                BatchCost c = cost;
+                int n = (c == null) ? batch + BATCH_UNIT : c.nextBatch(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1320,7 +1421,10 @@ public final class Spliterators {
                 batch = j;
                 if (est != Long.MAX_VALUE)
                     est -= j;
-                return new ArraySpliterator<>(a, 0, j, characteristics());
+                return (c == null)
+                       ? new ArraySpliterator<>(a, 0, j, characteristics())
+                       : new CostSamplingSpliterator<>(
+                               new ArraySpliterator<>(a, 0, j, characteristics()), c);
             }
             return null;
         }
@@ -1683,6 +1787,109 @@ public final class Spliterators {
 
     // Iterator-based Spliterators
 
+    /**
+     * The per-element cost of a pipeline consuming batches split off from
+     * an iterator-based or abstract spliterator, used to size subsequent
+     * batches so that each is expected to take roughly
+     * {@link #TARGET_BATCH_NANOS} to process.
+     *
+     * <p>Until a batch has been measured the cost hint given on
+     * construction is used; if no hint was given batches grow
+     * arithmetically, as for spliterators created without a cost.  Samples
+     * are folded into an exponentially weighted moving average.  Updates
+     * are racy, since samples are reported from concurrently executing
+     * tasks, but a lost update only delays adaptation.
+     */
+    static final class BatchCost {
+        static final long TARGET_BATCH_NANOS = 1L << 20; // about 1ms
+        static final int BATCH_UNIT = IteratorSpliterator.BATCH_UNIT;
+        static final int MAX_BATCH = IteratorSpliterator.MAX_BATCH;
+
+        // Smoothed nanoseconds per element, or 0 if not yet known
+        private volatile long elementNanos;
+
+        BatchCost(long elementCostNanos) {
+            if (elementCostNanos < 0)
+                throw new IllegalArgumentException(
+                        "Negative element cost: " + elementCostNanos);
+            this.elementNanos = elementCostNanos;
+        }
+
+        /**
+         * Returns the size of the next batch given the size of the
+         * previous one.
+         */
+        int nextBatch(int batch) {
+            long c = elementNanos;
+            if (c == 0L)
+                return batch + BATCH_UNIT;
+            long n = TARGET_BATCH_NANOS / c;
+            return (n < 1L) ? 1 : (n > MAX_BATCH) ? MAX_BATCH : (int) n;
+        }
+
+        /**
+         * Records that {@code count} elements were processed in
+         * {@code nanos} nanoseconds.
+         */
+        void record(long count, long nanos) {
+            if (count <= 0L || nanos < 0L)
+                return;
+            long sample = Math.max(1L, nanos / count);
+            long c = elementNanos;
+            elementNanos = (c == 0L) ? sample : (3L * c + sample) >>> 2;
+        }
+    }
+
+    /**
+     * A spliterator wrapping a batch split off from an adaptive
+     * spliterator, that reports the time taken to traverse the batch, and
+     * hence to push its elements through the consuming pipeline, to the
+     * batch cost.  Only bulk traversal is measured; further splits of the
+     * batch are not.
+     */
+    static final class CostSamplingSpliterator<T> implements Spliterator<T> {
+        private final Spliterator<T> batch;
+        private final BatchCost cost;
+
+        CostSamplingSpliterator(Spliterator<T> batch, BatchCost cost) {
+            this.batch = batch;
+            this.cost = cost;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return batch.trySplit();
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            long n = batch.estimateSize();
+            long start = System.nanoTime();
+            batch.forEachRemaining(action);
+            cost.record(n, System.nanoTime() - start);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return batch.tryAdvance(action);
+        }
+
+        @Override
+        public long estimateSize() {
+            return batch.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return batch.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return batch.getComparator();
+        }
+    }
+
     /**
      * A Spliterator using a given Iterator for element
      * operations. The spliterator implements {@code trySplit} to
@@ -1694,6 +1901,7 @@ public final class Spliterators {
         private final Collection<? extends T> collection; // null OK
         private Iterator<? extends T> it;
         private final int characteristics;
+        private final BatchCost cost; // null if batches grow arithmetically
         private long est;             // size estimate
         private int batch;            // batch size for splits
 
@@ -1713,6 +1921,7 @@ public final class Spliterators {
             this.characteristics = (characteristics & Spliterator.CONCURRENT) == 0
                                    ? characteristics | Spliterator.SIZED | Spliterator.SUBSIZED
                                    : characteristics;
+            this.cost = null;
         }
 
         /**
@@ -1726,12 +1935,31 @@ public final class Spliterators {
          * source or elements.
          */
         public IteratorSpliterator(Iterator<? extends T> iterator, long size, int characteristics) {
+            this(iterator, size, characteristics, null);
+        }
+
+        /**
+         * Creates a spliterator using the given iterator
+         * for traversal, and reporting the given initial size
+         * and characteristics, whose batch sizes are derived from
+         * the given cost.
+         *
+         * @param iterator the iterator for the source
+         * @param size the number of elements in the source
+         * @param characteristics properties of this spliterator's
+         * source or elements.
+         * @param cost the per-element cost used to size batches, or
+         * {@code null} for arithmetically increasing batch sizes
+         */
+        IteratorSpliterator(Iterator<? extends T> iterator, long size, int characteristics,
+                            BatchCost cost) {
             this.collection = null;
             this.it = iterator;
             this.est = size;
             this.characteristics = (characteristics & Spliterator.CONCURRENT) == 0
                                    ? characteristics | Spliterator.SIZED | Spliterator.SUBSIZED
                                    : characteristics;
+            this.cost = cost;
         }
 
         /**
@@ -1744,10 +1972,28 @@ public final class Spliterators {
          * source or elements.
          */
         public IteratorSpliterator(Iterator<? extends T> iterator, int characteristics) {
+            this(iterator, characteristics, null);
+        }
+
+        /**
+         * Creates a spliterator using the given iterator
+         * for traversal, and reporting the given initial size
+         * and characteristics, whose batch sizes are derived from
+         * the given cost.
+         *
+         * @param iterator the iterator for the source
+         * @param characteristics properties of this spliterator's
+         * source or elements.
+         * @param cost the per-element cost used to size batches, or
+         * {@code null} for arithmetically increasing batch sizes
+         */
+        IteratorSpliterator(Iterator<? extends T> iterator, int characteristics,
+                            BatchCost cost) {
             this.collection = null;
             this.it = iterator;
             this.est = Long.MAX_VALUE;
             this.characteristics = characteristics & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+            this.cost = cost;
         }
 
         @Override
@@ -1763,7 +2009,9 @@ public final class Spliterators {
              * operations, across combinations of #elements vs #cores,
              * whether or not either are known.  We generate
              * O(sqrt(#elements)) splits, allowing O(sqrt(#cores))
-             * potential speedup.
+             * potential speedup.  If created with a cost, batch sizes
+             * are instead derived from the measured per-element cost
+             * (see BatchCost).
              */
             Iterator<? extends T> i;
             long s;
@@ -1774,7 +2022,8 @@ public final class Spliterators {
             else
                 s = est;
             if (s > 1 && i.hasNext()) {
-                int n = batch + BATCH_UNIT;
+                BatchCost c = cost;
+                int n = (c == null) ? batch + BATCH_UNIT : c.nextBatch(batch);
                 if (n > s)
                     n = (int) s;
                 if (n > MAX_BATCH)
@@ -1785,7 +2034,10 @@ public final class Spliterators {
                 batch = j;
                 if (est != Long.MAX_VALUE)
                     est -= j;
-                return new ArraySpliterator<>(a, 0, j, characteristics);
+                return (c == null)
+                       ? new ArraySpliterator<>(a, 0, j, characteristics)
+                       : new CostSamplingSpliterator<>(
+                               new ArraySpliterator<>(a, 0, j, characteristics), c);
             }
             return null;
         }
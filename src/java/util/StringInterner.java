@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe pool of canonical strings, retained weakly.
+ *
+ * <p>The {@code intern} methods return, for equal character sequences, one
+ * and the same {@code String} instance for as long as that instance is
+ * strongly reachable from elsewhere.  Unlike {@link String#intern()} the
+ * pool is an ordinary heap object: it can be sized and discarded by the
+ * application, strings that are no longer in use are cleared by the
+ * garbage collector and expunged from the pool, and its effectiveness can
+ * be observed through {@link #hitCount()}, {@link #missCount()} and
+ * {@link #expungedCount()}.
+ *
+ * <p>Strings may be interned directly from ranges of {@code char} or
+ * ISO-8859-1 encoded {@code byte} arrays, as found in the buffers of
+ * parsers.  A new {@code String} is only created if no equal string is in
+ * the pool, so repeated keys and values cost no allocation.
+ *
+ * <p>The pool is divided into segments, selected by hash code, each with
+ * its own lock and table.  Lookups of strings already in the pool do not
+ * lock at all; only insertions, resizing and the removal of cleared
+ * entries lock a single segment.  The number of segments is fixed on
+ * construction, from the expected number of concurrently interning
+ * threads.
+ *
+ * <p>Null strings are not permitted.  A pool should not be used to hold
+ * strings that are compared by identity by code outside of the
+ * application's control, since the pool does not participate in
+ * {@code String.intern()}.
+ *
+ * @since 1.8
+ */
+public final class StringInterner {
+
+    /*
+     * Each segment is a hash table of weak references to its strings,
+     * chained in buckets.  Readers traverse the volatile table and the
+     * volatile next links without locking; writers insert at the head of
+     * a bucket and publish the table again by a volatile write, or
+     * replace the table with a larger copy.  A reader that races with a
+     * writer may miss a newly inserted string, but then retries under the
+     * segment lock before inserting it, so there is never more than one
+     * string for a sequence of characters in the pool.
+     *
+     * The hash of an entry is the String.hashCode of its referent, so that
+     * char and byte ranges can be looked up without creating a String.
+     */
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 30;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Creates a new, empty pool suitable for use by 16 concurrently
+     * interning threads.
+     */
+    public StringInterner() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Creates a new, empty pool for the given number of concurrently
+     * interning threads.
+     *
+     * @param concurrencyLevel the estimated number of concurrently
+     *        interning threads
+     * @throws IllegalArgumentException if {@code concurrencyLevel} is not
+     *         positive
+     */
+    public StringInterner(int concurrencyLevel) {
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("Illegal concurrency level: " +
+                                               concurrencyLevel);
+        int n = 1;
+        int shift = 32;
+        while (n < concurrencyLevel && n < MAX_SEGMENTS) {
+            n <<= 1;
+            shift--;
+        }
+        segments = new Segment[n];
+        for (int i = 0; i < n; i++)
+            segments[i] = new Segment();
+        // use the high bits of the Fibonacci hash to select the segment
+        segmentShift = shift;
+    }
+
+    /**
+     * Returns the canonical string equal to {@code s}, which is {@code s}
+     * itself if no equal string is in the pool.
+     *
+     * @param s the string
+     * @return a string equal to {@code s}, the same instance for all equal
+     *         strings as long as it is reachable
+     * @throws NullPointerException if {@code s} is null
+     */
+    public String intern(String s) {
+        int h = s.hashCode();
+        Segment seg = segmentFor(h);
+        String r = seg.find(h, s, 0, s.length(), null, null);
+        if (r != null) {
+            hits.increment();
+            return r;
+        }
+        return seg.insert(h, s, 0, s.length(), null, null, s);
+    }
+
+    /**
+     * Returns the canonical string equal to the given range of characters.
+     *
+     * @param chars the characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return the canonical string equal to the range of characters
+     * @throws NullPointerException if {@code chars} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length}
+     *         are negative, or {@code offset + length} is greater than
+     *         {@code chars.length}
+     */
+    public String intern(char[] chars, int offset, int length) {
+        checkRange(chars.length, offset, length);
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; i++)
+            h = 31 * h + chars[i];
+        Segment seg = segmentFor(h);
+        String r = seg.find(h, null, offset, length, chars, null);
+        if (r != null) {
+            hits.increment();
+            return r;
+        }
+        return seg.insert(h, null, offset, length, chars, null, null);
+    }
+
+    /**
+     * Returns the canonical string equal to the given range of bytes,
+     * decoded as ISO-8859-1, that is, with each byte taken as the
+     * character of the same unsigned value.  Since US-ASCII is a subset
+     * of ISO-8859-1 this method applies to US-ASCII encoded bytes too.
+     *
+     * @param bytes the ISO-8859-1 encoded characters
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the canonical string equal to the decoded range of bytes
+     * @throws NullPointerException if {@code bytes} is null
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code length}
+     *         are negative, or {@code offset + length} is greater than
+     *         {@code bytes.length}
+     */
+    public String intern(byte[] bytes, int offset, int length) {
+        checkRange(bytes.length, offset, length);
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; i++)
+            h = 31 * h + (bytes[i] & 0xff);
+        Segment seg = segmentFor(h);
+        String r = seg.find(h, null, offset, length, null, bytes);
+        if (r != null) {
+            hits.increment();
+            return r;
+        }
+        return seg.insert(h, null, offset, length, null, bytes, null);
+    }
+
+    /**
+     * Returns the number of strings in the pool.  The count includes
+     * strings that have been cleared by the garbage collector but not yet
+     * expunged, so it is an upper bound.
+     *
+     * @return the number of strings in the pool
+     */
+    public int size() {
+        long n = 0;
+        for (Segment seg : segments)
+            n += seg.count;
+        return (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of calls to an {@code intern} method that found
+     * an equal string in the pool.
+     *
+     * @return the number of hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of calls to an {@code intern} method that added
+     * a string to the pool.
+     *
+     * @return the number of misses
+     */
+    public long missCount() {
+        long n = 0;
+        for (Segment seg : segments) {
+            seg.lock();
+            try {
+                n += seg.misses;
+            } finally {
+                seg.unlock();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the number of strings that were removed from the pool after
+     * they had been cleared by the garbage collector.
+     *
+     * @return the number of expunged strings
+     */
+    public long expungedCount() {
+        long n = 0;
+        for (Segment seg : segments) {
+            seg.lock();
+            try {
+                n += seg.expunged;
+            } finally {
+                seg.unlock();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Removes all strings from the pool.  Statistics are not reset.
+     */
+    public void clear() {
+        for (Segment seg : segments)
+            seg.clear();
+    }
+
+    /**
+     * Returns a string identifying this pool and its statistics.
+     *
+     * @return a string representation of this pool
+     */
+    public String toString() {
+        return super.toString() + "[size=" + size() +
+            ", hits=" + hitCount() + ", misses=" + missCount() +
+            ", expunged=" + expungedCount() + "]";
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length)
+            throw new IndexOutOfBoundsException(
+                "offset " + offset + ", length " + length +
+                ", array length " + arrayLength);
+    }
+
+    /*
+     * Spreads the bits of a String hash code for the bucket index within a
+     * segment, see HashMap.hash(Object).
+     */
+    private static int spread(int h) {
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+
+    /*
+     * Selects the segment from the high bits of a Fibonacci hash.  String
+     * hash codes of short keys differ mostly in the low bits, which spread
+     * only mixes downwards, so the multiply carries them up into the bits
+     * that pick the segment.
+     */
+    private Segment segmentFor(int h) {
+        int sh = h * 0x9E3779B9;
+        return segments[segmentShift == 32 ? 0 : sh >>> segmentShift];
+    }
+
+    /**
+     * A weak reference to a pooled string, chained in a bucket.
+     */
+    static final class Entry extends WeakReference<String> {
+        final int hash;
+        volatile Entry next;
+
+        Entry(String s, int hash, Entry next, ReferenceQueue<String> queue) {
+            super(s, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * A segment of the pool: a hash table guarded by its lock for updates.
+     */
+    static final class Segment extends ReentrantLock {
+        private static final long serialVersionUID = 2249069246763182397L;
+
+        private final transient ReferenceQueue<String> queue =
+            new ReferenceQueue<>();
+        transient volatile Entry[] table =
+            new Entry[INITIAL_SEGMENT_CAPACITY];
+        // The number of entries, written under the lock
+        transient volatile int count;
+        // Statistics, guarded by the lock
+        transient long misses;
+        transient long expunged;
+
+        /*
+         * Returns the pooled string equal to the given string, or range of
+         * chars or bytes, or null if there is none or it was cleared.
+         */
+        String find(int h, String s, int offset, int length,
+                    char[] chars, byte[] bytes) {
+            Entry[] tab = table;
+            Entry e = tab[spread(h) & (tab.length - 1)];
+            for (; e != null; e = e.next) {
+                if (e.hash == h) {
+                    String r = e.get();
+                    if (r != null && matches(r, s, offset, length, chars, bytes))
+                        return r;
+                }
+            }
+            return null;
+        }
+
+        /*
+         * Looks up the string again under the lock, and inserts it if it
+         * is still absent.  A new string is created from the chars or
+         * bytes only if s is null.
+         */
+        String insert(int h, String s, int offset, int length,
+                      char[] chars, byte[] bytes, String value) {
+            lock();
+            try {
+                expungeStaleEntries();
+                Entry[] tab = table;
+                int i = spread(h) & (tab.length - 1);
+                for (Entry e = tab[i]; e != null; e = e.next) {
+                    if (e.hash == h) {
+                        String r = e.get();
+                        if (r != null &&
+                            matches(r, s, offset, length, chars, bytes))
+                            return r;
+                    }
+                }
+                if (value == null) {
+                    value = (chars != null)
+                        ? new String(chars, offset, length)
+                        : new String(bytes, offset, length,
+                                     StandardCharsets.ISO_8859_1);
+                }
+                int c = count + 1;
+                if (c > (tab.length >> 1) + (tab.length >> 2) &&
+                    tab.length < MAX_SEGMENT_CAPACITY) {
+                    tab = resize(tab);
+                    i = spread(h) & (tab.length - 1);
+                }
+                tab[i] = new Entry(value, h, tab[i], queue);
+                misses++;
+                count = c;
+                table = tab;        // publish the new head of the bucket
+                return value;
+            } finally {
+                unlock();
+            }
+        }
+
+        /*
+         * Returns a table of twice the size holding copies of the live
+         * entries, and drops the cleared ones.  Called under the lock.
+         */
+        private Entry[] resize(Entry[] oldTable) {
+            Entry[] newTable = new Entry[oldTable.length << 1];
+            int mask = newTable.length - 1;
+            int n = 0;
+            for (Entry e : oldTable) {
+                for (; e != null; e = e.next) {
+                    String s = e.get();
+                    if (s == null) {
+                        expunged++;
+                        continue;
+                    }
+                    int i = spread(e.hash) & mask;
+                    newTable[i] = new Entry(s, e.hash, newTable[i], queue);
+                    n++;
+                }
+            }
+            count = n;
+            return newTable;
+        }
+
+        /*
+         * Unlinks the entries whose strings were cleared.  Called under
+         * the lock.  Entries that were dropped by a resize, or by clear,
+         * are no longer in the table and are simply skipped.
+         */
+        private void expungeStaleEntries() {
+            Object x;
+            while ((x = queue.poll()) != null) {
+                Entry stale = (Entry) x;
+                Entry[] tab = table;
+                int i = spread(stale.hash) & (tab.length - 1);
+                Entry prev = null;
+                for (Entry e = tab[i]; e != null; prev = e, e = e.next) {
+                    if (e == stale) {
+                        if (prev == null)
+                            tab[i] = e.next;
+                        else
+                            prev.next = e.next;
+                        expunged++;
+                        count = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                table = new Entry[INITIAL_SEGMENT_CAPACITY];
+                count = 0;
+                // the queued references refer to entries of the old table
+                while (queue.poll() != null)
+                    ;
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    /*
+     * Returns true if the string r is equal to the string s, if s is not
+     * null, or else to the given range of chars or ISO-8859-1 bytes.
+     */
+    static boolean matches(String r, String s, int offset, int length,
+                           char[] chars, byte[] bytes) {
+        if (r.length() != length)
+            return false;
+        if (s != null)
+            return r.equals(s);
+        if (chars != null) {
+            for (int i = 0; i < length; i++) {
+                if (r.charAt(i) != chars[offset + i])
+                    return false;
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                if (r.charAt(i) != (char) (bytes[offset + i] & 0xff))
+                    return false;
+            }
+        }
+        return true;
+    }
+}
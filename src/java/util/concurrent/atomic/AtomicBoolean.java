@@ -34,7 +34,7 @@
  */
 
 package java.util.concurrent.atomic;
-import sun.misc.Unsafe;
+import java.lang.invoke.VarHandle;
 
 /**
  * 多线程安全-boolean
@@ -50,14 +50,12 @@ import sun.misc.Unsafe;
  */
 public class AtomicBoolean implements java.io.Serializable {
     private static final long serialVersionUID = 4654671469794556979L;
-    // setup to use Unsafe.compareAndSwapInt for updates
-    private static final Unsafe unsafe = Unsafe.getUnsafe();
-    private static final long valueOffset;
+    // setup to use a VarHandle for updates
+    private static final VarHandle.IntField<AtomicBoolean> VALUE;
 
     static {
         try {
-            valueOffset = unsafe.objectFieldOffset
-                (AtomicBoolean.class.getDeclaredField("value"));
+            VALUE = VarHandle.intField(AtomicBoolean.class, "value");
         } catch (Exception ex) { throw new Error(ex); }
     }
 
@@ -103,7 +101,7 @@ public class AtomicBoolean implements java.io.Serializable {
     public final boolean compareAndSet(boolean expect, boolean update) {
         int e = expect ? 1 : 0;
         int u = update ? 1 : 0;
-        return unsafe.compareAndSwapInt(this, valueOffset, e, u);
+        return VALUE.compareAndSet(this, e, u);
     }
 
     /**
@@ -121,7 +119,7 @@ public class AtomicBoolean implements java.io.Serializable {
     public boolean weakCompareAndSet(boolean expect, boolean update) {
         int e = expect ? 1 : 0;
         int u = update ? 1 : 0;
-        return unsafe.compareAndSwapInt(this, valueOffset, e, u);
+        return VALUE.weakCompareAndSet(this, e, u);
     }
 
     /**
@@ -141,7 +139,7 @@ public class AtomicBoolean implements java.io.Serializable {
      */
     public final void lazySet(boolean newValue) {
         int v = newValue ? 1 : 0;
-        unsafe.putOrderedInt(this, valueOffset, v);
+        VALUE.setRelease(this, v);
     }
 
     /**
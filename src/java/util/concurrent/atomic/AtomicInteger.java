@@ -36,7 +36,7 @@
 package java.util.concurrent.atomic;
 import java.util.function.IntUnaryOperator;
 import java.util.function.IntBinaryOperator;
-import sun.misc.Unsafe;
+import java.lang.invoke.VarHandle;
 
 /**
  * An {@code int} value that may be updated atomically.  See the
@@ -54,14 +54,12 @@ import sun.misc.Unsafe;
 public class AtomicInteger extends Number implements java.io.Serializable {
     private static final long serialVersionUID = 6214790243416807050L;
 
-    // setup to use Unsafe.compareAndSwapInt for updates
-    private static final Unsafe unsafe = Unsafe.getUnsafe();
-    private static final long valueOffset;
+    // setup to use a VarHandle for updates
+    private static final VarHandle.IntField<AtomicInteger> VALUE;
 
     static {
         try {
-            valueOffset = unsafe.objectFieldOffset
-                (AtomicInteger.class.getDeclaredField("value"));
+            VALUE = VarHandle.intField(AtomicInteger.class, "value");
         } catch (Exception ex) { throw new Error(ex); }
     }
 
@@ -108,7 +106,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * 最终会设置成newValue，使用lazySet设置值后，可能导致其他线程在之后的一小段时间内还是可以读到旧的值。
      */
     public final void lazySet(int newValue) {
-        unsafe.putOrderedInt(this, valueOffset, newValue);
+        VALUE.setRelease(this, newValue);
     }
 
     /**
@@ -118,7 +116,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * @return the previous value
      */
     public final int getAndSet(int newValue) {
-        return unsafe.getAndSetInt(this, valueOffset, newValue);
+        return VALUE.getAndSet(this, newValue);
     }
 
     /**
@@ -132,7 +130,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      *  如果输入的数值等于预期值，则以原子方式将该值设置为输入的值。
      */
     public final boolean compareAndSet(int expect, int update) {
-        return unsafe.compareAndSwapInt(this, valueOffset, expect, update);
+        return VALUE.compareAndSet(this, expect, update);
     }
 
     /**
@@ -148,7 +146,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * @return {@code true} if successful
      */
     public final boolean weakCompareAndSet(int expect, int update) {
-        return unsafe.compareAndSwapInt(this, valueOffset, expect, update);
+        return VALUE.weakCompareAndSet(this, expect, update);
     }
 
     /**
@@ -158,7 +156,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * 以原子方式将当前值加1，注意，这里返回的是自增前的值。
      */
     public final int getAndIncrement() {
-        return unsafe.getAndAddInt(this, valueOffset, 1);
+        return VALUE.getAndAdd(this, 1);
     }
 
     /**
@@ -167,7 +165,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * @return the previous value
      */
     public final int getAndDecrement() {
-        return unsafe.getAndAddInt(this, valueOffset, -1);
+        return VALUE.getAndAdd(this, -1);
     }
 
     /**
@@ -177,7 +175,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * @return the previous value 返回之前的值
      */
     public final int getAndAdd(int delta) {
-        return unsafe.getAndAddInt(this, valueOffset, delta);
+        return VALUE.getAndAdd(this, delta);
     }
 
     /**
@@ -186,7 +184,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * @return the updated value
      */
     public final int incrementAndGet() {
-        return unsafe.getAndAddInt(this, valueOffset, 1) + 1;
+        return VALUE.getAndAdd(this, 1) + 1;
     }
 
     /**
@@ -195,7 +193,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      * @return the updated value
      */
     public final int decrementAndGet() {
-        return unsafe.getAndAddInt(this, valueOffset, -1) - 1;
+        return VALUE.getAndAdd(this, -1) - 1;
     }
 
     /**
@@ -208,7 +206,7 @@ public class AtomicInteger extends Number implements java.io.Serializable {
      *
      */
     public final int addAndGet(int delta) {
-        return unsafe.getAndAddInt(this, valueOffset, delta) + delta;
+        return VALUE.getAndAdd(this, delta) + delta;
     }
 
     /**
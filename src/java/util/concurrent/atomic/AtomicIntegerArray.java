@@ -36,7 +36,7 @@
 package java.util.concurrent.atomic;
 import java.util.function.IntUnaryOperator;
 import java.util.function.IntBinaryOperator;
-import sun.misc.Unsafe;
+import java.lang.invoke.VarHandle;
 
 /**
  * An {@code int} array in which elements may be updated atomically.
@@ -50,29 +50,9 @@ import sun.misc.Unsafe;
 public class AtomicIntegerArray implements java.io.Serializable {
     private static final long serialVersionUID = 2862133569453604235L;
 
-    private static final Unsafe unsafe = Unsafe.getUnsafe();
-    private static final int base = unsafe.arrayBaseOffset(int[].class);
-    private static final int shift;
+    private static final VarHandle.IntArray AA = VarHandle.intArrayElement();
     private final int[] array;
 
-    static {
-        int scale = unsafe.arrayIndexScale(int[].class);
-        if ((scale & (scale - 1)) != 0)
-            throw new Error("data type scale not a power of two");
-        shift = 31 - Integer.numberOfLeadingZeros(scale);
-    }
-
-    private long checkedByteOffset(int i) {
-        if (i < 0 || i >= array.length)
-            throw new IndexOutOfBoundsException("index " + i);
-
-        return byteOffset(i);
-    }
-
-    private static long byteOffset(int i) {
-        return ((long) i << shift) + base;
-    }
-
     /**
      * Creates a new AtomicIntegerArray of the given length, with all
      * elements initially zero.
@@ -115,11 +95,7 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * @return the current value
      */
     public final int get(int i) {
-        return getRaw(checkedByteOffset(i));
-    }
-
-    private int getRaw(long offset) {
-        return unsafe.getIntVolatile(array, offset);
+        return AA.getVolatile(array, i);
     }
 
     /**
@@ -129,7 +105,7 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * @param newValue the new value
      */
     public final void set(int i, int newValue) {
-        unsafe.putIntVolatile(array, checkedByteOffset(i), newValue);
+        AA.setVolatile(array, i, newValue);
     }
 
     /**
@@ -140,7 +116,7 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * @since 1.6
      */
     public final void lazySet(int i, int newValue) {
-        unsafe.putOrderedInt(array, checkedByteOffset(i), newValue);
+        AA.setRelease(array, i, newValue);
     }
 
     /**
@@ -153,7 +129,7 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * 以原子方式将输入值与数组中索引i的元素相加。
      */
     public final int getAndSet(int i, int newValue) {
-        return unsafe.getAndSetInt(array, checkedByteOffset(i), newValue);
+        return AA.getAndSet(array, i, newValue);
     }
 
     /**
@@ -168,11 +144,7 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * 如果当前值等于预期值，则以原子方式将数组位置i的元素设置成update值。
      */
     public final boolean compareAndSet(int i, int expect, int update) {
-        return compareAndSetRaw(checkedByteOffset(i), expect, update);
-    }
-
-    private boolean compareAndSetRaw(long offset, int expect, int update) {
-        return unsafe.compareAndSwapInt(array, offset, expect, update);
+        return AA.compareAndSet(array, i, expect, update);
     }
 
     /**
@@ -220,7 +192,7 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * @return the previous value
      */
     public final int getAndAdd(int i, int delta) {
-        return unsafe.getAndAddInt(array, checkedByteOffset(i), delta);
+        return AA.getAndAdd(array, i, delta);
     }
 
     /**
@@ -267,12 +239,11 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * @since 1.8
      */
     public final int getAndUpdate(int i, IntUnaryOperator updateFunction) {
-        long offset = checkedByteOffset(i);
         int prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = updateFunction.applyAsInt(prev);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return prev;
     }
 
@@ -288,12 +259,11 @@ public class AtomicIntegerArray implements java.io.Serializable {
      * @since 1.8
      */
     public final int updateAndGet(int i, IntUnaryOperator updateFunction) {
-        long offset = checkedByteOffset(i);
         int prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = updateFunction.applyAsInt(prev);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return next;
     }
 
@@ -314,12 +284,11 @@ public class AtomicIntegerArray implements java.io.Serializable {
      */
     public final int getAndAccumulate(int i, int x,
                                       IntBinaryOperator accumulatorFunction) {
-        long offset = checkedByteOffset(i);
         int prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = accumulatorFunction.applyAsInt(prev, x);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return prev;
     }
 
@@ -340,12 +309,11 @@ public class AtomicIntegerArray implements java.io.Serializable {
      */
     public final int accumulateAndGet(int i, int x,
                                       IntBinaryOperator accumulatorFunction) {
-        long offset = checkedByteOffset(i);
         int prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = accumulatorFunction.applyAsInt(prev, x);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return next;
     }
 
@@ -361,7 +329,7 @@ public class AtomicIntegerArray implements java.io.Serializable {
         StringBuilder b = new StringBuilder();
         b.append('[');
         for (int i = 0; ; i++) {
-            b.append(getRaw(byteOffset(i)));
+            b.append(AA.getVolatile(array, i));
             if (i == iMax)
                 return b.append(']').toString();
             b.append(',').append(' ');
@@ -35,12 +35,12 @@
 
 package java.util.concurrent.atomic;
 
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
-import java.util.Objects;
 import java.util.function.IntBinaryOperator;
 import java.util.function.IntUnaryOperator;
 import sun.reflect.CallerSensitive;
@@ -370,15 +370,8 @@ public abstract class AtomicIntegerFieldUpdater<T> {
      */
     private static final class AtomicIntegerFieldUpdaterImpl<T>
         extends AtomicIntegerFieldUpdater<T> {
-        private static final sun.misc.Unsafe U = sun.misc.Unsafe.getUnsafe();
-        private final long offset;
-        /**
-         * if field is protected, the subclass constructing updater, else
-         * the same as tclass
-         */
-        private final Class<?> cclass;
-        /** class holding the field */
-        private final Class<T> tclass;
+        /** the field, whose handle also checks each receiver */
+        private final VarHandle.IntField<T> handle;
 
         AtomicIntegerFieldUpdaterImpl(final Class<T> tclass,
                                       final String fieldName,
@@ -413,19 +406,11 @@ public abstract class AtomicIntegerFieldUpdater<T> {
             if (!Modifier.isVolatile(modifiers))
                 throw new IllegalArgumentException("Must be volatile type");
 
-            // Access to protected field members is restricted to receivers only
-            // of the accessing class, or one of its subclasses, and the
-            // accessing class must in turn be a subclass (or package sibling)
-            // of the protected member's defining class.
-            // If the updater refers to a protected field of a declaring class
-            // outside the current package, the receiver argument will be
-            // narrowed to the type of the accessing class.
-            this.cclass = (Modifier.isProtected(modifiers) &&
-                           tclass.isAssignableFrom(caller) &&
-                           !isSamePackage(tclass, caller))
-                          ? caller : tclass;
-            this.tclass = tclass;
-            this.offset = U.objectFieldOffset(field);
+            try {
+                this.handle = VarHandle.intField(tclass, fieldName, caller);
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException(ex);
+            }
         }
 
         /**
@@ -444,81 +429,32 @@ public abstract class AtomicIntegerFieldUpdater<T> {
             return false;
         }
 
-        /**
-         * Returns true if the two classes have the same class loader and
-         * package qualifier
-         */
-        private static boolean isSamePackage(Class<?> class1, Class<?> class2) {
-            return class1.getClassLoader() == class2.getClassLoader()
-                   && Objects.equals(getPackageName(class1), getPackageName(class2));
-        }
-
-        private static String getPackageName(Class<?> cls) {
-            String cn = cls.getName();
-            int dot = cn.lastIndexOf('.');
-            return (dot != -1) ? cn.substring(0, dot) : "";
-        }
-
-        /**
-         * Checks that target argument is instance of cclass.  On
-         * failure, throws cause.
-         */
-        private final void accessCheck(T obj) {
-            if (!cclass.isInstance(obj))
-                throwAccessCheckException(obj);
-        }
-
-        /**
-         * Throws access exception if accessCheck failed due to
-         * protected access, else ClassCastException.
-         */
-        private final void throwAccessCheckException(T obj) {
-            if (cclass == tclass)
-                throw new ClassCastException();
-            else
-                throw new RuntimeException(
-                    new IllegalAccessException(
-                        "Class " +
-                        cclass.getName() +
-                        " can not access a protected member of class " +
-                        tclass.getName() +
-                        " using an instance of " +
-                        obj.getClass().getName()));
-        }
-
         public final boolean compareAndSet(T obj, int expect, int update) {
-            accessCheck(obj);
-            return U.compareAndSwapInt(obj, offset, expect, update);
+            return handle.compareAndSet(obj, expect, update);
         }
 
         public final boolean weakCompareAndSet(T obj, int expect, int update) {
-            accessCheck(obj);
-            return U.compareAndSwapInt(obj, offset, expect, update);
+            return handle.weakCompareAndSet(obj, expect, update);
         }
 
         public final void set(T obj, int newValue) {
-            accessCheck(obj);
-            U.putIntVolatile(obj, offset, newValue);
+            handle.setVolatile(obj, newValue);
         }
 
         public final void lazySet(T obj, int newValue) {
-            accessCheck(obj);
-            U.putOrderedInt(obj, offset, newValue);
+            handle.setRelease(obj, newValue);
         }
 
         public final int get(T obj) {
-            accessCheck(obj);
-            return U.getIntVolatile(obj, offset);
+            return handle.getVolatile(obj);
         }
 
         public final int getAndSet(T obj, int newValue) {
-            accessCheck(obj);
-            return U.getAndSetInt(obj, offset, newValue);
+            return handle.getAndSet(obj, newValue);
         }
 
         public final int getAndAdd(T obj, int delta) {
-            accessCheck(obj);
-            return U.getAndAddInt(obj, offset, delta);
+            return handle.getAndAdd(obj, delta);
         }
 
         public final int getAndIncrement(T obj) {
@@ -36,7 +36,7 @@
 package java.util.concurrent.atomic;
 import java.util.function.LongUnaryOperator;
 import java.util.function.LongBinaryOperator;
-import sun.misc.Unsafe;
+import java.lang.invoke.VarHandle;
 
 /**
  * A {@code long} value that may be updated atomically.  See the
@@ -54,9 +54,8 @@ import sun.misc.Unsafe;
 public class AtomicLong extends Number implements java.io.Serializable {
     private static final long serialVersionUID = 1927816293512124184L;
 
-    // setup to use Unsafe.compareAndSwapLong for updates
-    private static final Unsafe unsafe = Unsafe.getUnsafe();
-    private static final long valueOffset;
+    // setup to use a VarHandle for updates
+    private static final VarHandle.LongField<AtomicLong> VALUE;
 
     /**
      * Records whether the underlying JVM supports lockless
@@ -74,8 +73,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
 
     static {
         try {
-            valueOffset = unsafe.objectFieldOffset
-                (AtomicLong.class.getDeclaredField("value"));
+            VALUE = VarHandle.longField(AtomicLong.class, "value");
         } catch (Exception ex) { throw new Error(ex); }
     }
 
@@ -121,7 +119,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @since 1.6
      */
     public final void lazySet(long newValue) {
-        unsafe.putOrderedLong(this, valueOffset, newValue);
+        VALUE.setRelease(this, newValue);
     }
 
     /**
@@ -131,7 +129,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return the previous value
      */
     public final long getAndSet(long newValue) {
-        return unsafe.getAndSetLong(this, valueOffset, newValue);
+        return VALUE.getAndSet(this, newValue);
     }
 
     /**
@@ -144,7 +142,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * the actual value was not equal to the expected value.
      */
     public final boolean compareAndSet(long expect, long update) {
-        return unsafe.compareAndSwapLong(this, valueOffset, expect, update);
+        return VALUE.compareAndSet(this, expect, update);
     }
 
     /**
@@ -160,7 +158,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return {@code true} if successful
      */
     public final boolean weakCompareAndSet(long expect, long update) {
-        return unsafe.compareAndSwapLong(this, valueOffset, expect, update);
+        return VALUE.weakCompareAndSet(this, expect, update);
     }
 
     /**
@@ -169,7 +167,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return the previous value
      */
     public final long getAndIncrement() {
-        return unsafe.getAndAddLong(this, valueOffset, 1L);
+        return VALUE.getAndAdd(this, 1L);
     }
 
     /**
@@ -178,7 +176,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return the previous value
      */
     public final long getAndDecrement() {
-        return unsafe.getAndAddLong(this, valueOffset, -1L);
+        return VALUE.getAndAdd(this, -1L);
     }
 
     /**
@@ -188,7 +186,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return the previous value
      */
     public final long getAndAdd(long delta) {
-        return unsafe.getAndAddLong(this, valueOffset, delta);
+        return VALUE.getAndAdd(this, delta);
     }
 
     /**
@@ -197,7 +195,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return the updated value
      */
     public final long incrementAndGet() {
-        return unsafe.getAndAddLong(this, valueOffset, 1L) + 1L;
+        return VALUE.getAndAdd(this, 1L) + 1L;
     }
 
     /**
@@ -206,7 +204,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return the updated value
      */
     public final long decrementAndGet() {
-        return unsafe.getAndAddLong(this, valueOffset, -1L) - 1L;
+        return VALUE.getAndAdd(this, -1L) - 1L;
     }
 
     /**
@@ -216,7 +214,7 @@ public class AtomicLong extends Number implements java.io.Serializable {
      * @return the updated value
      */
     public final long addAndGet(long delta) {
-        return unsafe.getAndAddLong(this, valueOffset, delta) + delta;
+        return VALUE.getAndAdd(this, delta) + delta;
     }
 
     /**
@@ -36,7 +36,7 @@
 package java.util.concurrent.atomic;
 import java.util.function.LongUnaryOperator;
 import java.util.function.LongBinaryOperator;
-import sun.misc.Unsafe;
+import java.lang.invoke.VarHandle;
 
 /**
  * A {@code long} array in which elements may be updated atomically.
@@ -49,29 +49,9 @@ import sun.misc.Unsafe;
 public class AtomicLongArray implements java.io.Serializable {
     private static final long serialVersionUID = -2308431214976778248L;
 
-    private static final Unsafe unsafe = Unsafe.getUnsafe();
-    private static final int base = unsafe.arrayBaseOffset(long[].class);
-    private static final int shift;
+    private static final VarHandle.LongArray AA = VarHandle.longArrayElement();
     private final long[] array;
 
-    static {
-        int scale = unsafe.arrayIndexScale(long[].class);
-        if ((scale & (scale - 1)) != 0)
-            throw new Error("data type scale not a power of two");
-        shift = 31 - Integer.numberOfLeadingZeros(scale);
-    }
-
-    private long checkedByteOffset(int i) {
-        if (i < 0 || i >= array.length)
-            throw new IndexOutOfBoundsException("index " + i);
-
-        return byteOffset(i);
-    }
-
-    private static long byteOffset(int i) {
-        return ((long) i << shift) + base;
-    }
-
     /**
      * Creates a new AtomicLongArray of the given length, with all
      * elements initially zero.
@@ -110,11 +90,7 @@ public class AtomicLongArray implements java.io.Serializable {
      * @return the current value
      */
     public final long get(int i) {
-        return getRaw(checkedByteOffset(i));
-    }
-
-    private long getRaw(long offset) {
-        return unsafe.getLongVolatile(array, offset);
+        return AA.getVolatile(array, i);
     }
 
     /**
@@ -124,7 +100,7 @@ public class AtomicLongArray implements java.io.Serializable {
      * @param newValue the new value
      */
     public final void set(int i, long newValue) {
-        unsafe.putLongVolatile(array, checkedByteOffset(i), newValue);
+        AA.setVolatile(array, i, newValue);
     }
 
     /**
@@ -135,7 +111,7 @@ public class AtomicLongArray implements java.io.Serializable {
      * @since 1.6
      */
     public final void lazySet(int i, long newValue) {
-        unsafe.putOrderedLong(array, checkedByteOffset(i), newValue);
+        AA.setRelease(array, i, newValue);
     }
 
     /**
@@ -147,7 +123,7 @@ public class AtomicLongArray implements java.io.Serializable {
      * @return the previous value
      */
     public final long getAndSet(int i, long newValue) {
-        return unsafe.getAndSetLong(array, checkedByteOffset(i), newValue);
+        return AA.getAndSet(array, i, newValue);
     }
 
     /**
@@ -161,11 +137,7 @@ public class AtomicLongArray implements java.io.Serializable {
      * the actual value was not equal to the expected value.
      */
     public final boolean compareAndSet(int i, long expect, long update) {
-        return compareAndSetRaw(checkedByteOffset(i), expect, update);
-    }
-
-    private boolean compareAndSetRaw(long offset, long expect, long update) {
-        return unsafe.compareAndSwapLong(array, offset, expect, update);
+        return AA.compareAndSet(array, i, expect, update);
     }
 
     /**
@@ -213,7 +185,7 @@ public class AtomicLongArray implements java.io.Serializable {
      * @return the previous value
      */
     public final long getAndAdd(int i, long delta) {
-        return unsafe.getAndAddLong(array, checkedByteOffset(i), delta);
+        return AA.getAndAdd(array, i, delta);
     }
 
     /**
@@ -259,12 +231,11 @@ public class AtomicLongArray implements java.io.Serializable {
      * @since 1.8
      */
     public final long getAndUpdate(int i, LongUnaryOperator updateFunction) {
-        long offset = checkedByteOffset(i);
         long prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = updateFunction.applyAsLong(prev);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return prev;
     }
 
@@ -280,12 +251,11 @@ public class AtomicLongArray implements java.io.Serializable {
      * @since 1.8
      */
     public final long updateAndGet(int i, LongUnaryOperator updateFunction) {
-        long offset = checkedByteOffset(i);
         long prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = updateFunction.applyAsLong(prev);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return next;
     }
 
@@ -306,12 +276,11 @@ public class AtomicLongArray implements java.io.Serializable {
      */
     public final long getAndAccumulate(int i, long x,
                                       LongBinaryOperator accumulatorFunction) {
-        long offset = checkedByteOffset(i);
         long prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = accumulatorFunction.applyAsLong(prev, x);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return prev;
     }
 
@@ -332,12 +301,11 @@ public class AtomicLongArray implements java.io.Serializable {
      */
     public final long accumulateAndGet(int i, long x,
                                       LongBinaryOperator accumulatorFunction) {
-        long offset = checkedByteOffset(i);
         long prev, next;
         do {
-            prev = getRaw(offset);
+            prev = AA.getVolatile(array, i);
             next = accumulatorFunction.applyAsLong(prev, x);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return next;
     }
 
@@ -353,7 +321,7 @@ public class AtomicLongArray implements java.io.Serializable {
         StringBuilder b = new StringBuilder();
         b.append('[');
         for (int i = 0; ; i++) {
-            b.append(getRaw(byteOffset(i)));
+            b.append(AA.getVolatile(array, i));
             if (i == iMax)
                 return b.append(']').toString();
             b.append(',').append(' ');
@@ -35,12 +35,12 @@
 
 package java.util.concurrent.atomic;
 
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
-import java.util.Objects;
 import java.util.function.LongBinaryOperator;
 import java.util.function.LongUnaryOperator;
 import sun.reflect.CallerSensitive;
@@ -369,15 +369,8 @@ public abstract class AtomicLongFieldUpdater<T> {
     }
 
     private static final class CASUpdater<T> extends AtomicLongFieldUpdater<T> {
-        private static final sun.misc.Unsafe U = sun.misc.Unsafe.getUnsafe();
-        private final long offset;
-        /**
-         * if field is protected, the subclass constructing updater, else
-         * the same as tclass
-         */
-        private final Class<?> cclass;
-        /** class holding the field */
-        private final Class<T> tclass;
+        /** the field, whose handle also checks each receiver */
+        private final VarHandle.LongField<T> handle;
 
         CASUpdater(final Class<T> tclass, final String fieldName,
                    final Class<?> caller) {
@@ -411,81 +404,35 @@ public abstract class AtomicLongFieldUpdater<T> {
             if (!Modifier.isVolatile(modifiers))
                 throw new IllegalArgumentException("Must be volatile type");
 
-            // Access to protected field members is restricted to receivers only
-            // of the accessing class, or one of its subclasses, and the
-            // accessing class must in turn be a subclass (or package sibling)
-            // of the protected member's defining class.
-            // If the updater refers to a protected field of a declaring class
-            // outside the current package, the receiver argument will be
-            // narrowed to the type of the accessing class.
-            this.cclass = (Modifier.isProtected(modifiers) &&
-                           tclass.isAssignableFrom(caller) &&
-                           !isSamePackage(tclass, caller))
-                          ? caller : tclass;
-            this.tclass = tclass;
-            this.offset = U.objectFieldOffset(field);
-        }
-
-        /**
-         * Checks that target argument is instance of cclass.  On
-         * failure, throws cause.
-         */
-        private final void accessCheck(T obj) {
-            if (!cclass.isInstance(obj))
-                throwAccessCheckException(obj);
-        }
-
-        /**
-         * Throws access exception if accessCheck failed due to
-         * protected access, else ClassCastException.
-         */
-        private final void throwAccessCheckException(T obj) {
-            if (cclass == tclass)
-                throw new ClassCastException();
-            else
-                throw new RuntimeException(
-                    new IllegalAccessException(
-                        "Class " +
-                        cclass.getName() +
-                        " can not access a protected member of class " +
-                        tclass.getName() +
-                        " using an instance of " +
-                        obj.getClass().getName()));
+            this.handle = fieldHandle(tclass, fieldName, caller);
         }
 
         public final boolean compareAndSet(T obj, long expect, long update) {
-            accessCheck(obj);
-            return U.compareAndSwapLong(obj, offset, expect, update);
+            return handle.compareAndSet(obj, expect, update);
         }
 
         public final boolean weakCompareAndSet(T obj, long expect, long update) {
-            accessCheck(obj);
-            return U.compareAndSwapLong(obj, offset, expect, update);
+            return handle.weakCompareAndSet(obj, expect, update);
         }
 
         public final void set(T obj, long newValue) {
-            accessCheck(obj);
-            U.putLongVolatile(obj, offset, newValue);
+            handle.setVolatile(obj, newValue);
         }
 
         public final void lazySet(T obj, long newValue) {
-            accessCheck(obj);
-            U.putOrderedLong(obj, offset, newValue);
+            handle.setRelease(obj, newValue);
         }
 
         public final long get(T obj) {
-            accessCheck(obj);
-            return U.getLongVolatile(obj, offset);
+            return handle.getVolatile(obj);
         }
 
         public final long getAndSet(T obj, long newValue) {
-            accessCheck(obj);
-            return U.getAndSetLong(obj, offset, newValue);
+            return handle.getAndSet(obj, newValue);
         }
 
         public final long getAndAdd(T obj, long delta) {
-            accessCheck(obj);
-            return U.getAndAddLong(obj, offset, delta);
+            return handle.getAndAdd(obj, delta);
         }
 
         public final long getAndIncrement(T obj) {
@@ -510,15 +457,8 @@ public abstract class AtomicLongFieldUpdater<T> {
     }
 
     private static final class LockedUpdater<T> extends AtomicLongFieldUpdater<T> {
-        private static final sun.misc.Unsafe U = sun.misc.Unsafe.getUnsafe();
-        private final long offset;
-        /**
-         * if field is protected, the subclass constructing updater, else
-         * the same as tclass
-         */
-        private final Class<?> cclass;
-        /** class holding the field */
-        private final Class<T> tclass;
+        /** the field, whose handle also checks each receiver */
+        private final VarHandle.LongField<T> handle;
 
         LockedUpdater(final Class<T> tclass, final String fieldName,
                       final Class<?> caller) {
@@ -552,55 +492,15 @@ public abstract class AtomicLongFieldUpdater<T> {
             if (!Modifier.isVolatile(modifiers))
                 throw new IllegalArgumentException("Must be volatile type");
 
-            // Access to protected field members is restricted to receivers only
-            // of the accessing class, or one of its subclasses, and the
-            // accessing class must in turn be a subclass (or package sibling)
-            // of the protected member's defining class.
-            // If the updater refers to a protected field of a declaring class
-            // outside the current package, the receiver argument will be
-            // narrowed to the type of the accessing class.
-            this.cclass = (Modifier.isProtected(modifiers) &&
-                           tclass.isAssignableFrom(caller) &&
-                           !isSamePackage(tclass, caller))
-                          ? caller : tclass;
-            this.tclass = tclass;
-            this.offset = U.objectFieldOffset(field);
-        }
-
-        /**
-         * Checks that target argument is instance of cclass.  On
-         * failure, throws cause.
-         */
-        private final void accessCheck(T obj) {
-            if (!cclass.isInstance(obj))
-                throw accessCheckException(obj);
-        }
-
-        /**
-         * Returns access exception if accessCheck failed due to
-         * protected access, else ClassCastException.
-         */
-        private final RuntimeException accessCheckException(T obj) {
-            if (cclass == tclass)
-                return new ClassCastException();
-            else
-                return new RuntimeException(
-                    new IllegalAccessException(
-                        "Class " +
-                        cclass.getName() +
-                        " can not access a protected member of class " +
-                        tclass.getName() +
-                        " using an instance of " +
-                        obj.getClass().getName()));
+            this.handle = fieldHandle(tclass, fieldName, caller);
         }
 
         public final boolean compareAndSet(T obj, long expect, long update) {
-            accessCheck(obj);
             synchronized (this) {
-                long v = U.getLong(obj, offset);
+                long v = handle.get(obj);
                 if (v != expect)
                     return false;
-                U.putLong(obj, offset, update);
+                handle.set(obj, update);
                 return true;
             }
         }
@@ -610,9 +510,8 @@ public abstract class AtomicLongFieldUpdater<T> {
         }
 
         public final void set(T obj, long newValue) {
-            accessCheck(obj);
             synchronized (this) {
-                U.putLong(obj, offset, newValue);
+                handle.set(obj, newValue);
             }
         }
 
@@ -621,13 +520,26 @@ public abstract class AtomicLongFieldUpdater<T> {
         }
 
         public final long get(T obj) {
-            accessCheck(obj);
             synchronized (this) {
-                return U.getLong(obj, offset);
+                return handle.get(obj);
             }
         }
     }
 
+    /**
+     * Returns the handle for the field, whose accessibility from the
+     * caller has already been checked.
+     */
+    static <T> VarHandle.LongField<T> fieldHandle(Class<T> tclass,
+                                                  String fieldName,
+                                                  Class<?> caller) {
+        try {
+            return VarHandle.longField(tclass, fieldName, caller);
+        } catch (ReflectiveOperationException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     /**
      * Returns true if the second classloader can be found in the first
      * classloader's delegation chain.
@@ -643,19 +555,4 @@ public abstract class AtomicLongFieldUpdater<T> {
         } while (acl != null);
         return false;
     }
-
-    /**
-     * Returns true if the two classes have the same class loader and
-     * package qualifier
-     */
-    private static boolean isSamePackage(Class<?> class1, Class<?> class2) {
-        return class1.getClassLoader() == class2.getClassLoader()
-               && Objects.equals(getPackageName(class1), getPackageName(class2));
-}
-
-    private static String getPackageName(Class<?> cls) {
-        String cn = cls.getName();
-        int dot = cn.lastIndexOf('.');
-        return (dot != -1) ? cn.substring(0, dot) : "";
-    }
 }
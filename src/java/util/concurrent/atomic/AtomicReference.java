@@ -36,7 +36,7 @@
 package java.util.concurrent.atomic;
 import java.util.function.UnaryOperator;
 import java.util.function.BinaryOperator;
-import sun.misc.Unsafe;
+import java.lang.invoke.VarHandle;
 
 /**
  * An object reference 引用 that may be updated atomically. See the {@link
@@ -54,13 +54,13 @@ import sun.misc.Unsafe;
 public class AtomicReference<V> implements java.io.Serializable {
     private static final long serialVersionUID = -1848883965231344442L;
 
-    private static final Unsafe unsafe = Unsafe.getUnsafe();
-    private static final long valueOffset;
+    private static final VarHandle.ReferenceField<AtomicReference<?>,Object> VALUE;
 
     static {
         try {
-            valueOffset = unsafe.objectFieldOffset
-                (AtomicReference.class.getDeclaredField("value"));
+            @SuppressWarnings("unchecked")
+            Class<AtomicReference<?>> k = (Class<AtomicReference<?>>) (Class<?>) AtomicReference.class;
+            VALUE = VarHandle.referenceField(k, "value", Object.class);
         } catch (Exception ex) { throw new Error(ex); }
     }
 
@@ -106,7 +106,7 @@ public class AtomicReference<V> implements java.io.Serializable {
      * @since 1.6
      */
     public final void lazySet(V newValue) {
-        unsafe.putOrderedObject(this, valueOffset, newValue);
+        VALUE.setRelease(this, newValue);
     }
 
     /**
@@ -118,7 +118,7 @@ public class AtomicReference<V> implements java.io.Serializable {
      * the actual value was not equal to the expected value.
      */
     public final boolean compareAndSet(V expect, V update) {
-        return unsafe.compareAndSwapObject(this, valueOffset, expect, update);
+        return VALUE.compareAndSet(this, expect, update);
     }
 
     /**
@@ -134,7 +134,7 @@ public class AtomicReference<V> implements java.io.Serializable {
      * @return {@code true} if successful
      */
     public final boolean weakCompareAndSet(V expect, V update) {
-        return unsafe.compareAndSwapObject(this, valueOffset, expect, update);
+        return VALUE.weakCompareAndSet(this, expect, update);
     }
 
     /**
@@ -145,7 +145,7 @@ public class AtomicReference<V> implements java.io.Serializable {
      */
     @SuppressWarnings("unchecked")
     public final V getAndSet(V newValue) {
-        return (V)unsafe.getAndSetObject(this, valueOffset, newValue);
+        return (V)VALUE.getAndSet(this, newValue);
     }
 
     /**
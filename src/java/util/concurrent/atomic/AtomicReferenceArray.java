@@ -38,6 +38,7 @@ import java.util.function.UnaryOperator;
 import java.util.function.BinaryOperator;
 import java.util.Arrays;
 import java.lang.reflect.Array;
+import java.lang.invoke.VarHandle;
 import sun.misc.Unsafe;
 
 /**
@@ -53,9 +54,9 @@ import sun.misc.Unsafe;
 public class AtomicReferenceArray<E> implements java.io.Serializable {
     private static final long serialVersionUID = -6209656149925076980L;
 
+    private static final VarHandle.ReferenceArray<Object> AA =
+        VarHandle.referenceArrayElement(Object[].class);
     private static final Unsafe unsafe;
-    private static final int base;
-    private static final int shift;
     private static final long arrayFieldOffset;
     private final Object[] array; // must have exact type Object[]
 
@@ -64,27 +65,11 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
             unsafe = Unsafe.getUnsafe();
             arrayFieldOffset = unsafe.objectFieldOffset
                 (AtomicReferenceArray.class.getDeclaredField("array"));
-            base = unsafe.arrayBaseOffset(Object[].class);
-            int scale = unsafe.arrayIndexScale(Object[].class);
-            if ((scale & (scale - 1)) != 0)
-                throw new Error("data type scale not a power of two");
-            shift = 31 - Integer.numberOfLeadingZeros(scale);
         } catch (Exception e) {
             throw new Error(e);
         }
     }
 
-    private long checkedByteOffset(int i) {
-        if (i < 0 || i >= array.length)
-            throw new IndexOutOfBoundsException("index " + i);
-
-        return byteOffset(i);
-    }
-
-    private static long byteOffset(int i) {
-        return ((long) i << shift) + base;
-    }
-
     /**
      * Creates a new AtomicReferenceArray of the given length, with all
      * elements initially null.
@@ -123,12 +108,12 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      * @return the current value
      */
     public final E get(int i) {
-        return getRaw(checkedByteOffset(i));
+        return getVolatile(i);
     }
 
     @SuppressWarnings("unchecked")
-    private E getRaw(long offset) {
-        return (E) unsafe.getObjectVolatile(array, offset);
+    private E getVolatile(int i) {
+        return (E) AA.getVolatile(array, i);
     }
 
     /**
@@ -138,7 +123,7 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      * @param newValue the new value
      */
     public final void set(int i, E newValue) {
-        unsafe.putObjectVolatile(array, checkedByteOffset(i), newValue);
+        AA.setVolatile(array, i, newValue);
     }
 
     /**
@@ -149,7 +134,7 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      * @since 1.6
      */
     public final void lazySet(int i, E newValue) {
-        unsafe.putOrderedObject(array, checkedByteOffset(i), newValue);
+        AA.setRelease(array, i, newValue);
     }
 
     /**
@@ -162,7 +147,7 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      */
     @SuppressWarnings("unchecked")
     public final E getAndSet(int i, E newValue) {
-        return (E)unsafe.getAndSetObject(array, checkedByteOffset(i), newValue);
+        return (E)AA.getAndSet(array, i, newValue);
     }
 
     /**
@@ -176,11 +161,7 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      * the actual value was not equal to the expected value.
      */
     public final boolean compareAndSet(int i, E expect, E update) {
-        return compareAndSetRaw(checkedByteOffset(i), expect, update);
-    }
-
-    private boolean compareAndSetRaw(long offset, E expect, E update) {
-        return unsafe.compareAndSwapObject(array, offset, expect, update);
+        return AA.compareAndSet(array, i, expect, update);
     }
 
     /**
@@ -212,12 +193,11 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      * @since 1.8
      */
     public final E getAndUpdate(int i, UnaryOperator<E> updateFunction) {
-        long offset = checkedByteOffset(i);
         E prev, next;
         do {
-            prev = getRaw(offset);
+            prev = getVolatile(i);
             next = updateFunction.apply(prev);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return prev;
     }
 
@@ -233,12 +213,11 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      * @since 1.8
      */
     public final E updateAndGet(int i, UnaryOperator<E> updateFunction) {
-        long offset = checkedByteOffset(i);
         E prev, next;
         do {
-            prev = getRaw(offset);
+            prev = getVolatile(i);
             next = updateFunction.apply(prev);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return next;
     }
 
@@ -259,12 +238,11 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      */
     public final E getAndAccumulate(int i, E x,
                                     BinaryOperator<E> accumulatorFunction) {
-        long offset = checkedByteOffset(i);
         E prev, next;
         do {
-            prev = getRaw(offset);
+            prev = getVolatile(i);
             next = accumulatorFunction.apply(prev, x);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return prev;
     }
 
@@ -285,12 +263,11 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
      */
     public final E accumulateAndGet(int i, E x,
                                     BinaryOperator<E> accumulatorFunction) {
-        long offset = checkedByteOffset(i);
         E prev, next;
         do {
-            prev = getRaw(offset);
+            prev = getVolatile(i);
             next = accumulatorFunction.apply(prev, x);
-        } while (!compareAndSetRaw(offset, prev, next));
+        } while (!AA.compareAndSet(array, i, prev, next));
         return next;
     }
 
@@ -306,7 +283,7 @@ public class AtomicReferenceArray<E> implements java.io.Serializable {
         StringBuilder b = new StringBuilder();
         b.append('[');
         for (int i = 0; ; i++) {
-            b.append(getRaw(byteOffset(i)));
+            b.append(AA.getVolatile(array, i));
             if (i == iMax)
                 return b.append(']').toString();
             b.append(',').append(' ');
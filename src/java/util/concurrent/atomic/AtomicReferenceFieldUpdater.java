@@ -35,12 +35,12 @@
 
 package java.util.concurrent.atomic;
 
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
-import java.util.Objects;
 import java.util.function.BinaryOperator;
 import java.util.function.UnaryOperator;
 import sun.reflect.CallerSensitive;
@@ -287,29 +287,8 @@ public abstract class AtomicReferenceFieldUpdater<T,V> {
 
     private static final class AtomicReferenceFieldUpdaterImpl<T,V>
         extends AtomicReferenceFieldUpdater<T,V> {
-        private static final sun.misc.Unsafe U = sun.misc.Unsafe.getUnsafe();
-        private final long offset;
-        /**
-         * if field is protected, the subclass constructing updater, else
-         * the same as tclass
-         */
-        private final Class<?> cclass;
-        /** class holding the field */
-        private final Class<T> tclass;
-        /** field value type */
-        private final Class<V> vclass;
-
-        /*
-         * Internal type checks within all update methods contain
-         * internal inlined optimizations checking for the common
-         * cases where the class is final (in which case a simple
-         * getClass comparison suffices) or is of type Object (in
-         * which case no check is needed because all objects are
-         * instances of Object). The Object case is handled simply by
-         * setting vclass to null in constructor.  The targetCheck and
-         * updateCheck methods are invoked when these faster
-         * screenings fail.
-         */
+        /** the field, whose handle also checks each receiver and value */
+        private final VarHandle.ReferenceField<T,V> handle;
 
         AtomicReferenceFieldUpdaterImpl(final Class<T> tclass,
                                         final Class<V> vclass,
@@ -349,20 +328,11 @@ public abstract class AtomicReferenceFieldUpdater<T,V> {
             if (!Modifier.isVolatile(modifiers))
                 throw new IllegalArgumentException("Must be volatile type");
 
-            // Access to protected field members is restricted to receivers only
-            // of the accessing class, or one of its subclasses, and the
-            // accessing class must in turn be a subclass (or package sibling)
-            // of the protected member's defining class.
-            // If the updater refers to a protected field of a declaring class
-            // outside the current package, the receiver argument will be
-            // narrowed to the type of the accessing class.
-            this.cclass = (Modifier.isProtected(modifiers) &&
-                           tclass.isAssignableFrom(caller) &&
-                           !isSamePackage(tclass, caller))
-                          ? caller : tclass;
-            this.tclass = tclass;
-            this.vclass = vclass;
-            this.offset = U.objectFieldOffset(field);
+            try {
+                this.handle = VarHandle.referenceField(tclass, fieldName, vclass, caller);
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException(ex);
+            }
         }
 
         /**
@@ -381,93 +351,29 @@ public abstract class AtomicReferenceFieldUpdater<T,V> {
             return false;
         }
 
-        /**
-         * Returns true if the two classes have the same class loader and
-         * package qualifier
-         */
-        private static boolean isSamePackage(Class<?> class1, Class<?> class2) {
-            return class1.getClassLoader() == class2.getClassLoader()
-                   && Objects.equals(getPackageName(class1), getPackageName(class2));
-        }
-
-        private static String getPackageName(Class<?> cls) {
-            String cn = cls.getName();
-            int dot = cn.lastIndexOf('.');
-            return (dot != -1) ? cn.substring(0, dot) : "";
-        }
-
-        /**
-         * Checks that target argument is instance of cclass.  On
-         * failure, throws cause.
-         */
-        private final void accessCheck(T obj) {
-            if (!cclass.isInstance(obj))
-                throwAccessCheckException(obj);
-        }
-
-        /**
-         * Throws access exception if accessCheck failed due to
-         * protected access, else ClassCastException.
-         */
-        private final void throwAccessCheckException(T obj) {
-            if (cclass == tclass)
-                throw new ClassCastException();
-            else
-                throw new RuntimeException(
-                    new IllegalAccessException(
-                        "Class " +
-                        cclass.getName() +
-                        " can not access a protected member of class " +
-                        tclass.getName() +
-                        " using an instance of " +
-                        obj.getClass().getName()));
-        }
-
-        private final void valueCheck(V v) {
-            if (v != null && !(vclass.isInstance(v)))
-                throwCCE();
-        }
-
-        static void throwCCE() {
-            throw new ClassCastException();
-        }
-
         public final boolean compareAndSet(T obj, V expect, V update) {
-            accessCheck(obj);
-            valueCheck(update);
-            return U.compareAndSwapObject(obj, offset, expect, update);
+            return handle.compareAndSet(obj, expect, update);
         }
 
         public final boolean weakCompareAndSet(T obj, V expect, V update) {
             // same implementation as strong form for now
-            accessCheck(obj);
-            valueCheck(update);
-            return U.compareAndSwapObject(obj, offset, expect, update);
+            return handle.weakCompareAndSet(obj, expect, update);
         }
 
         public final void set(T obj, V newValue) {
-            accessCheck(obj);
-            valueCheck(newValue);
-            U.putObjectVolatile(obj, offset, newValue);
+            handle.setVolatile(obj, newValue);
         }
 
         public final void lazySet(T obj, V newValue) {
-            accessCheck(obj);
-            valueCheck(newValue);
-            U.putOrderedObject(obj, offset, newValue);
+            handle.setRelease(obj, newValue);
         }
 
-        @SuppressWarnings("unchecked")
         public final V get(T obj) {
-            accessCheck(obj);
-            return (V)U.getObjectVolatile(obj, offset);
+            return handle.getVolatile(obj);
         }
 
-        @SuppressWarnings("unchecked")
         public final V getAndSet(T obj, V newValue) {
-            accessCheck(obj);
-            valueCheck(newValue);
-            return (V)U.getAndSetObject(obj, offset, newValue);
+            return handle.getAndSet(obj, newValue);
         }
     }
 }
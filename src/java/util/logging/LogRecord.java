@@ -29,8 +29,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.io.*;
 
-import sun.misc.JavaLangAccess;
-import sun.misc.SharedSecrets;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * LogRecord objects are used to pass logging requests between
@@ -541,16 +542,36 @@ public class LogRecord implements java.io.Serializable {
     // Private method to infer the caller's class and method names
     private void inferCaller() {
         needToInferCaller = false;
-        JavaLangAccess access = SharedSecrets.getJavaLangAccess();
-        Throwable throwable = new Throwable();
-        int depth = access.getStackTraceDepth(throwable);
-
-        boolean lookingForLogger = true;
-        for (int ix = 0; ix < depth; ix++) {
-            // Calling getStackTraceElement directly prevents the VM
-            // from paying the cost of building the entire stack frame.
-            StackTraceElement frame =
-                access.getStackTraceElement(throwable, ix);
+        // The walk stops at the caller, so frames are only created for
+        // the logging frames above it.
+        StackWalker.StackFrame frame =
+            StackWalker.getInstance().walk(new CallerFinder());
+        if (frame != null) {
+            setSourceClassName(frame.getClassName());
+            setSourceMethodName(frame.getMethodName());
+        }
+        // If we haven't found a suitable frame, just punt.  This is
+        // OK as we are only committed to making a "best effort" here.
+    }
+
+    /*
+     * Finds the frame that called into the logger: skips all frames until
+     * the first logger frame, then the logger frames, and reflection
+     * frames.
+     */
+    private static final class CallerFinder
+        implements Function<Stream<StackWalker.StackFrame>, StackWalker.StackFrame>,
+                   Predicate<StackWalker.StackFrame>
+    {
+        private boolean lookingForLogger = true;
+
+        @Override
+        public StackWalker.StackFrame apply(Stream<StackWalker.StackFrame> frames) {
+            return frames.filter(this).findFirst().orElse(null);
+        }
+
+        @Override
+        public boolean test(StackWalker.StackFrame frame) {
             String cname = frame.getClassName();
             boolean isLoggerImpl = isLoggerImplFrame(cname);
             if (lookingForLogger) {
@@ -558,23 +579,16 @@ public class LogRecord implements java.io.Serializable {
                 if (isLoggerImpl) {
                     lookingForLogger = false;
                 }
-            } else {
-                if (!isLoggerImpl) {
-                    // skip reflection call
-                    if (!cname.startsWith("java.lang.reflect.") && !cname.startsWith("sun.reflect.")) {
-                       // We've found the relevant frame.
-                       setSourceClassName(cname);
-                       setSourceMethodName(frame.getMethodName());
-                       return;
-                    }
-                }
+                return false;
             }
+            // skip reflection call
+            return !isLoggerImpl &&
+                   !cname.startsWith("java.lang.reflect.") &&
+                   !cname.startsWith("sun.reflect.");
         }
-        // We haven't found a suitable frame, so just punt.  This is
-        // OK as we are only committed to making a "best effort" here.
     }
 
-    private boolean isLoggerImplFrame(String cname) {
+    private static boolean isLoggerImplFrame(String cname) {
         // the log record could be created for a platform logger
         return (cname.equals("java.util.logging.Logger") ||
                 cname.startsWith("java.util.logging.LoggingProxyImpl") ||
@@ -148,6 +148,12 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The diagnostics recorder if the terminal evaluation of this pipeline is
+     * being sampled, otherwise null; only valid for the source stage.
+     */
+    private StreamDiagnostics.Recorder diagnostics;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -229,9 +235,46 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_STREAM_LINKED);
         linkedOrConsumed = true;
 
-        return isParallel()
+        StreamDiagnostics.Recorder rec = beginDiagnostics(terminalOp);
+        R result = isParallel()
                ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
+        if (rec != null)
+            rec.end();
+        return result;
+    }
+
+    /**
+     * If stream diagnostics are enabled and this evaluation is sampled,
+     * creates a recorder for it and installs it on the source stage.  The
+     * stage names are only built for sampled evaluations.
+     *
+     * @param terminalOp the terminal operation, or {@code null} for
+     *        {@code toArray}
+     * @return the recorder, or {@code null} if this evaluation is not sampled
+     */
+    private StreamDiagnostics.Recorder beginDiagnostics(TerminalOp<?, ?> terminalOp) {
+        StreamDiagnostics.Listener listener = StreamDiagnostics.sample();
+        if (listener == null)
+            return null;
+        int stages = 0;
+        for (@SuppressWarnings("rawtypes") AbstractPipeline p = this; p.previousStage != null; p = p.previousStage)
+            stages++;
+        String[] names = new String[stages + 1];
+        for (@SuppressWarnings("rawtypes") AbstractPipeline p = this; p.previousStage != null; p = p.previousStage)
+            names[--stages] = stageName(p.getClass());
+        names[names.length - 1] = (terminalOp != null)
+                                  ? stageName(terminalOp.getClass())
+                                  : "toArray";
+        StreamDiagnostics.Recorder rec =
+            new StreamDiagnostics.Recorder(listener, names, isParallel());
+        sourceStage.diagnostics = rec;
+        return rec;
+    }
+
+    private static String stageName(Class<?> c) {
+        String name = c.getName();
+        return name.substring(name.lastIndexOf('.') + 1);
     }
 
     /**
@@ -246,6 +289,8 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             throw new IllegalStateException(MSG_STREAM_LINKED);
         linkedOrConsumed = true;
 
+        StreamDiagnostics.Recorder rec = beginDiagnostics(null);
+        Node<E_OUT> result;
         // If the last intermediate operation is stateful then
         // evaluate directly to avoid an extra collection step
         if (isParallel() && previousStage != null && opIsStateful()) {
@@ -254,11 +299,14 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             // upstream slice and upstream operations will not be included
             // in this slice
             depth = 0;
-            return opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            result = opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
         }
         else {
-            return evaluate(sourceSpliterator(0), true, generator);
+            result = evaluate(sourceSpliterator(0), true, generator);
         }
+        if (rec != null)
+            rec.end();
+        return result;
     }
 
     /**
@@ -513,12 +561,51 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     final <P_IN> Sink<P_IN> wrapSink(Sink<E_OUT> sink) {
         Objects.requireNonNull(sink);
 
-        for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
-            sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+        StreamDiagnostics.Recorder rec = sourceStage.diagnostics;
+        if (rec != null)
+            return (Sink<P_IN>) wrapSinkWithProbes(rec, sink);
+
+        for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; ) {
+            @SuppressWarnings("rawtypes") AbstractPipeline q = p.previousStage;
+            Sink<?> fused;
+            if (q.depth > 0 && (fused = p.opWrapSinkFused(q, sink)) != null) {
+                // Both this stage and the upstream stage are performed by
+                // the one fused sink
+                sink = (Sink<E_OUT>) fused;
+                p = q.previousStage;
+            }
+            else {
+                sink = p.opWrapSink(q.combinedFlags, sink);
+                p = q;
+            }
         }
         return (Sink<P_IN>) sink;
     }
 
+    /**
+     * Wraps the sink as {@link #wrapSink} does, but without fusing stages and
+     * with a diagnostic probe around the sink of each stage, and around the
+     * given sink, recording the elements flowing into that stage.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Sink<?> wrapSinkWithProbes(StreamDiagnostics.Recorder rec, Sink sink) {
+        // Stages are indexed by their distance from the source, less one
+        int index = 0;
+        for (AbstractPipeline p = this; p.previousStage != null; p = p.previousStage)
+            index++;
+        sink = (Sink) rec.probe(index, getOutputShape(), sink);
+        for (AbstractPipeline p = AbstractPipeline.this; p.depth > 0; p = p.previousStage) {
+            sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+            sink = (Sink) rec.probe(--index, p.previousStage.getOutputShape(), sink);
+        }
+        return sink;
+    }
+
+    @Override
+    final StreamDiagnostics.Recorder getDiagnostics() {
+        return sourceStage.diagnostics;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     final <P_IN> Spliterator<E_OUT> wrapSpliterator(Spliterator<P_IN> sourceSpliterator) {
@@ -657,6 +744,33 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     abstract Sink<E_IN> opWrapSink(int flags, Sink<E_OUT> sink);
 
+    /**
+     * Accepts a {@code Sink} which will receive the results of this operation,
+     * and, if this operation can be fused with the given upstream operation,
+     * returns a single {@code Sink} which accepts elements of the input type
+     * of the upstream operation and which performs both operations, passing
+     * the results to the provided {@code Sink}.
+     *
+     * <p>Fusing adjacent stateless operations removes one level of sink
+     * indirection per element, which shortens the chain of {@code accept}
+     * calls the compiler must inline through for common shapes such as
+     * {@code filter().map()}.
+     *
+     * @implSpec The default implementation returns {@code null}, indicating
+     * this operation is not fused.
+     *
+     * @param upstream the pipeline stage immediately upstream of this stage,
+     *        which is known to be an intermediate operation within the
+     *        same pipeline slice
+     * @param sink sink to which elements should be sent after processing
+     * @return a sink which accepts the input elements of the upstream
+     *         operation and performs both operations, or {@code null} if the
+     *         operations cannot be fused
+     */
+    Sink<?> opWrapSinkFused(AbstractPipeline<?, ?, ?> upstream, Sink<E_OUT> sink) {
+        return null;
+    }
+
     /**
      * Performs a parallel evaluation of the operation using the specified
      * {@code PipelineHelper} which describes the upstream intermediate
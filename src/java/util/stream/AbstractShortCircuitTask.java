@@ -105,6 +105,7 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
         boolean forkRight = false;
         @SuppressWarnings("unchecked") K task = (K) this;
         AtomicReference<R> sr = sharedResult;
+        StreamDiagnostics.Recorder rec = helper.getDiagnostics();
         R result;
         while ((result = sr.get()) == null) {
             if (task.taskCanceled()) {
@@ -112,6 +113,8 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
                 break;
             }
             if (sizeEstimate <= sizeThreshold || (ls = rs.trySplit()) == null) {
+                if (rec != null)
+                    recordLeaf(rec, task.getSplitDepth(), sizeEstimate);
                 result = task.doLeaf();
                 break;
             }
@@ -130,6 +133,8 @@ abstract class AbstractShortCircuitTask<P_IN, P_OUT, R,
                 task = rightChild;
                 taskToFork = leftChild;
             }
+            if (rec != null)
+                markForked(taskToFork);
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
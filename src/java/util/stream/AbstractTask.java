@@ -125,6 +125,15 @@ abstract class AbstractTask<P_IN, P_OUT, R,
     /** The result of this node, if completed */
     private R localResult;
 
+    /** The depth of this node in the task tree, zero for the root */
+    private final int splitDepth;
+
+    /**
+     * The thread that forked this node, recorded only when the computation
+     * is sampled by {@link StreamDiagnostics}, otherwise null
+     */
+    private Thread forker;
+
     /**
      * Constructor for root nodes.
      *
@@ -139,6 +148,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         this.helper = helper;
         this.spliterator = spliterator;
         this.targetSize = 0L;
+        this.splitDepth = 0;
     }
 
     /**
@@ -154,6 +164,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         this.spliterator = spliterator;
         this.helper = parent.helper;
         this.targetSize = parent.targetSize;
+        this.splitDepth = parent.getSplitDepth() + 1;
     }
 
     /**
@@ -294,6 +305,7 @@ abstract class AbstractTask<P_IN, P_OUT, R,
         long sizeThreshold = getTargetSize(sizeEstimate);
         boolean forkRight = false;
         @SuppressWarnings("unchecked") K task = (K) this;
+        StreamDiagnostics.Recorder rec = helper.getDiagnostics();
         while (sizeEstimate > sizeThreshold && (ls = rs.trySplit()) != null) {
             K leftChild, rightChild, taskToFork;
             task.leftChild  = leftChild = task.makeChild(ls);
@@ -310,13 +322,45 @@ abstract class AbstractTask<P_IN, P_OUT, R,
                 task = rightChild;
                 taskToFork = leftChild;
             }
+            if (rec != null)
+                markForked(taskToFork);
             taskToFork.fork();
             sizeEstimate = rs.estimateSize();
         }
+        if (rec != null)
+            recordLeaf(rec, task.getSplitDepth(), sizeEstimate);
         task.setLocalResult(task.doLeaf());
         task.tryComplete();
     }
 
+    /**
+     * Records a leaf task, computed within the {@code compute} method
+     * of this task, with the diagnostics recorder of the computation.
+     *
+     * @param rec the diagnostics recorder
+     * @param leafDepth the depth of the leaf task in the task tree
+     * @param leafSize the estimated size of the leaf task's input
+     */
+    final void recordLeaf(StreamDiagnostics.Recorder rec, int leafDepth, long leafSize) {
+        Thread f = forker;
+        rec.leaf(leafDepth, leafSize, f != null && f != Thread.currentThread());
+    }
+
+    /**
+     * Marks the given task, about to be forked from within the
+     * {@code compute} method, as forked by the current thread.
+     */
+    static void markForked(AbstractTask<?, ?, ?, ?> task) {
+        task.forker = Thread.currentThread();
+    }
+
+    /**
+     * Returns the depth of this node in the task tree, zero for the root.
+     */
+    final int getSplitDepth() {
+        return splitDepth;
+    }
+
     /**
      * {@inheritDoc}
      *
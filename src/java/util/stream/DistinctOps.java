@@ -24,14 +24,17 @@
  */
 package java.util.stream;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
+import java.util.function.LongConsumer;
 
 /**
  * Factory methods for transforming streams into duplicate-free streams, using
@@ -76,26 +79,23 @@ final class DistinctOps {
                     return reduce(helper, spliterator);
                 }
                 else {
-                    // Holder of null state since ConcurrentHashMap does not support null values
-                    AtomicBoolean seenNull = new AtomicBoolean(false);
-                    ConcurrentHashMap<T, Boolean> map = new ConcurrentHashMap<>();
-                    TerminalOp<T, Void> forEachOp = ForEachOps.makeRef(t -> {
-                        if (t == null)
-                            seenNull.set(true);
-                        else
-                            map.putIfAbsent(t, Boolean.TRUE);
-                    }, false);
-                    forEachOp.evaluateParallel(helper, spliterator);
-
-                    // If null has been seen then copy the key set into a HashSet that supports null values
-                    // and add null
-                    Set<T> keys = map.keySet();
-                    if (seenNull.get()) {
-                        // TODO Implement a more efficient set-union view, rather than copying
-                        keys = new HashSet<>(keys);
-                        keys.add(null);
-                    }
-                    return Nodes.node(keys);
+                    // Radix-partition the elements by hash, then remove
+                    // duplicates from each partition independently
+                    TerminalOp<T, RefPartitions<T>> partitionOp
+                            = ReduceOps.<T, RefPartitions<T>>makeRef(RefPartitions::new, RefPartitions::add,
+                                                                     RefPartitions::combine);
+                    RefPartitions<T> partitions = partitionOp.evaluateParallel(helper, spliterator);
+                    @SuppressWarnings("unchecked")
+                    Node<T>[] distinct = (Node<T>[]) new Node<?>[PARTITIONS];
+                    Arrays.parallelSetAll(distinct, i -> {
+                        Node<T> n = partitions.node(i);
+                        if (n == null)
+                            return null;
+                        Set<T> seen = new HashSet<>();
+                        n.forEach(seen::add);
+                        return Nodes.node(seen);
+                    });
+                    return concat(StreamShape.REFERENCE, distinct);
                 }
             }
 
@@ -180,4 +180,581 @@ final class DistinctOps {
             }
         };
     }
+
+    /**
+     * Appends a "distinct" operation to the provided {@code IntStream}, and
+     * returns the new stream.
+     *
+     * @param upstream an int stream
+     * @return the new stream
+     */
+    static IntStream makeInt(AbstractPipeline<?, Integer, ?> upstream) {
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                   StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<Integer[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    TerminalOp<Integer, OrderedIntSet> reduceOp
+                            = ReduceOps.makeInt(OrderedIntSet::new, OrderedIntSet::accept,
+                                                OrderedIntSet::combine);
+                    return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).order.asPrimitiveArray());
+                }
+                else {
+                    // Radix-partition the elements by hash, then remove
+                    // duplicates from each partition independently
+                    TerminalOp<Integer, IntPartitions> partitionOp
+                            = ReduceOps.makeInt(IntPartitions::new, IntPartitions::accept,
+                                                IntPartitions::combine);
+                    IntPartitions partitions = partitionOp.evaluateParallel(helper, spliterator);
+                    Node.OfInt[] distinct = new Node.OfInt[PARTITIONS];
+                    Arrays.parallelSetAll(distinct, i -> {
+                        Node.OfInt n = partitions.node(i);
+                        if (n == null)
+                            return null;
+                        IntHashSet seen = new IntHashSet();
+                        n.forEach((IntConsumer) seen::add);
+                        return Nodes.node(seen.toArray());
+                    });
+                    return concat(StreamShape.INT_VALUE, distinct);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Integer> opEvaluateParallelLazy(PipelineHelper<Integer> helper,
+                                                               Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return opEvaluateParallel(helper, spliterator, Integer[]::new).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        boolean seenAny;
+                        int lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (!seenAny || t != lastSeen) {
+                                seenAny = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedInt<Integer>(sink) {
+                        IntHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new IntHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(int t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided {@code LongStream}, and
+     * returns the new stream.
+     *
+     * @param upstream a long stream
+     * @return the new stream
+     */
+    static LongStream makeLong(AbstractPipeline<?, Long, ?> upstream) {
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                 StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                 Spliterator<P_IN> spliterator,
+                                                 IntFunction<Long[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                else if (StreamOpFlag.ORDERED.isKnown(helper.getStreamAndOpFlags())) {
+                    TerminalOp<Long, OrderedLongSet> reduceOp
+                            = ReduceOps.makeLong(OrderedLongSet::new, OrderedLongSet::accept,
+                                                 OrderedLongSet::combine);
+                    return Nodes.node(reduceOp.evaluateParallel(helper, spliterator).order.asPrimitiveArray());
+                }
+                else {
+                    // Radix-partition the elements by hash, then remove
+                    // duplicates from each partition independently
+                    TerminalOp<Long, LongPartitions> partitionOp
+                            = ReduceOps.makeLong(LongPartitions::new, LongPartitions::accept,
+                                                 LongPartitions::combine);
+                    LongPartitions partitions = partitionOp.evaluateParallel(helper, spliterator);
+                    Node.OfLong[] distinct = new Node.OfLong[PARTITIONS];
+                    Arrays.parallelSetAll(distinct, i -> {
+                        Node.OfLong n = partitions.node(i);
+                        if (n == null)
+                            return null;
+                        LongHashSet seen = new LongHashSet();
+                        n.forEach((LongConsumer) seen::add);
+                        return Nodes.node(seen.toArray());
+                    });
+                    return concat(StreamShape.LONG_VALUE, distinct);
+                }
+            }
+
+            @Override
+            <P_IN> Spliterator<Long> opEvaluateParallelLazy(PipelineHelper<Long> helper,
+                                                            Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                else {
+                    // Not lazy, barrier required
+                    return opEvaluateParallel(helper, spliterator, Long[]::new).spliterator();
+                }
+            }
+
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        boolean seenAny;
+                        long lastSeen;
+
+                        @Override
+                        public void begin(long size) {
+                            seenAny = false;
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (!seenAny || t != lastSeen) {
+                                seenAny = true;
+                                downstream.accept(lastSeen = t);
+                            }
+                        }
+                    };
+                } else {
+                    return new Sink.ChainedLong<Long>(sink) {
+                        LongHashSet seen;
+
+                        @Override
+                        public void begin(long size) {
+                            seen = new LongHashSet();
+                            downstream.begin(-1);
+                        }
+
+                        @Override
+                        public void end() {
+                            seen = null;
+                            downstream.end();
+                        }
+
+                        @Override
+                        public void accept(long t) {
+                            if (seen.add(t))
+                                downstream.accept(t);
+                        }
+                    };
+                }
+            }
+        };
+    }
+
+    // Hash partitioning for parallel unordered distinct
+
+    /**
+     * The number of hash partitions used by a parallel unordered distinct.
+     * A power of two, giving a few partitions per worker thread so that
+     * duplicate removal across partitions is load balanced.
+     */
+    static final int PARTITIONS;
+
+    /** The shift that selects a partition from the top bits of a hash */
+    private static final int PARTITION_SHIFT;
+
+    static {
+        int p = Integer.highestOneBit(Math.max(1, ForkJoinPool.getCommonPoolParallelism()) << 2);
+        PARTITIONS = Math.min(p << 1, 1 << 10);
+        PARTITION_SHIFT = Integer.numberOfLeadingZeros(PARTITIONS) + 1;
+    }
+
+    /**
+     * Returns the partition for a hash.  The hash is scrambled with a
+     * multiplicative (Fibonacci) hash and the partition selected by its top
+     * bits, leaving the low bits of the hash, used by the per-partition hash
+     * sets, well distributed within each partition.
+     */
+    static int partition(int h) {
+        return (h * 0x9E3779B9) >>> PARTITION_SHIFT;
+    }
+
+    static int partition(long v) {
+        return partition((int) (v ^ (v >>> 32)));
+    }
+
+    /**
+     * Concatenates the non-null nodes of the given array.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Node<T> concat(StreamShape shape, Node<? extends T>[] nodes) {
+        Node<T> result = null;
+        for (Node<? extends T> n : nodes) {
+            if (n != null && n.count() > 0)
+                result = (result == null) ? (Node<T>) n : Nodes.conc(shape, result, (Node<T>) n);
+        }
+        return (result == null) ? Nodes.emptyNode(shape) : result;
+    }
+
+    /**
+     * A mutable container for the radix-partition pass of a parallel
+     * unordered distinct on references.  Elements accepted by a leaf are
+     * buffered per partition; containers are combined by concatenating
+     * the nodes of each partition, without copying elements.
+     */
+    static final class RefPartitions<T> {
+        private final ArrayList<T>[] pending;
+        private final Node<T>[] combined;
+
+        @SuppressWarnings("unchecked")
+        RefPartitions() {
+            pending = (ArrayList<T>[]) new ArrayList<?>[PARTITIONS];
+            combined = (Node<T>[]) new Node<?>[PARTITIONS];
+        }
+
+        void add(T t) {
+            int i = (t == null) ? 0 : partition(t.hashCode());
+            ArrayList<T> l = pending[i];
+            if (l == null)
+                pending[i] = l = new ArrayList<>();
+            l.add(t);
+        }
+
+        /**
+         * Returns a node of the elements of the given partition, or
+         * {@code null} if there are none.
+         */
+        Node<T> node(int i) {
+            Node<T> n = combined[i];
+            ArrayList<T> l = pending[i];
+            if (l != null) {
+                pending[i] = null;
+                Node<T> p = Nodes.node(l);
+                combined[i] = n = (n == null) ? p : Nodes.conc(StreamShape.REFERENCE, n, p);
+            }
+            return n;
+        }
+
+        void combine(RefPartitions<T> other) {
+            for (int i = 0; i < PARTITIONS; i++) {
+                Node<T> r = other.node(i);
+                if (r != null) {
+                    Node<T> l = node(i);
+                    combined[i] = (l == null) ? r : Nodes.conc(StreamShape.REFERENCE, l, r);
+                }
+            }
+        }
+    }
+
+    /**
+     * A mutable container for the radix-partition pass of a parallel
+     * unordered distinct on ints, combined as for {@link RefPartitions}.
+     */
+    static final class IntPartitions {
+        private final SpinedBuffer.OfInt[] pending = new SpinedBuffer.OfInt[PARTITIONS];
+        private final Node.OfInt[] combined = new Node.OfInt[PARTITIONS];
+
+        void accept(int t) {
+            int i = partition(t);
+            SpinedBuffer.OfInt b = pending[i];
+            if (b == null)
+                pending[i] = b = new SpinedBuffer.OfInt();
+            b.accept(t);
+        }
+
+        /**
+         * Returns a node of the elements of the given partition, or
+         * {@code null} if there are none.
+         */
+        Node.OfInt node(int i) {
+            Node.OfInt n = combined[i];
+            SpinedBuffer.OfInt b = pending[i];
+            if (b != null) {
+                pending[i] = null;
+                Node.OfInt p = Nodes.node(b.asPrimitiveArray());
+                combined[i] = n = (n == null) ? p : (Node.OfInt) Nodes.conc(StreamShape.INT_VALUE, n, p);
+            }
+            return n;
+        }
+
+        IntPartitions combine(IntPartitions other) {
+            for (int i = 0; i < PARTITIONS; i++) {
+                Node.OfInt r = other.node(i);
+                if (r != null) {
+                    Node.OfInt l = node(i);
+                    combined[i] = (l == null) ? r : (Node.OfInt) Nodes.conc(StreamShape.INT_VALUE, l, r);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * A mutable container for the radix-partition pass of a parallel
+     * unordered distinct on longs, combined as for {@link RefPartitions}.
+     */
+    static final class LongPartitions {
+        private final SpinedBuffer.OfLong[] pending = new SpinedBuffer.OfLong[PARTITIONS];
+        private final Node.OfLong[] combined = new Node.OfLong[PARTITIONS];
+
+        void accept(long t) {
+            int i = partition(t);
+            SpinedBuffer.OfLong b = pending[i];
+            if (b == null)
+                pending[i] = b = new SpinedBuffer.OfLong();
+            b.accept(t);
+        }
+
+        /**
+         * Returns a node of the elements of the given partition, or
+         * {@code null} if there are none.
+         */
+        Node.OfLong node(int i) {
+            Node.OfLong n = combined[i];
+            SpinedBuffer.OfLong b = pending[i];
+            if (b != null) {
+                pending[i] = null;
+                Node.OfLong p = Nodes.node(b.asPrimitiveArray());
+                combined[i] = n = (n == null) ? p : (Node.OfLong) Nodes.conc(StreamShape.LONG_VALUE, n, p);
+            }
+            return n;
+        }
+
+        LongPartitions combine(LongPartitions other) {
+            for (int i = 0; i < PARTITIONS; i++) {
+                Node.OfLong r = other.node(i);
+                if (r != null) {
+                    Node.OfLong l = node(i);
+                    combined[i] = (l == null) ? r : (Node.OfLong) Nodes.conc(StreamShape.LONG_VALUE, l, r);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * A mutable container of distinct ints in encounter order, for a
+     * parallel ordered distinct.
+     */
+    static final class OrderedIntSet {
+        final IntHashSet seen = new IntHashSet();
+        final SpinedBuffer.OfInt order = new SpinedBuffer.OfInt();
+
+        void accept(int t) {
+            if (seen.add(t))
+                order.accept(t);
+        }
+
+        OrderedIntSet combine(OrderedIntSet other) {
+            other.order.forEach((IntConsumer) this::accept);
+            return this;
+        }
+    }
+
+    /**
+     * A mutable container of distinct longs in encounter order, for a
+     * parallel ordered distinct.
+     */
+    static final class OrderedLongSet {
+        final LongHashSet seen = new LongHashSet();
+        final SpinedBuffer.OfLong order = new SpinedBuffer.OfLong();
+
+        void accept(long t) {
+            if (seen.add(t))
+                order.accept(t);
+        }
+
+        OrderedLongSet combine(OrderedLongSet other) {
+            other.order.forEach((LongConsumer) this::accept);
+            return this;
+        }
+    }
+
+    /**
+     * An open-addressed, linear-probing set of ints.  Zero, which marks
+     * empty slots, is tracked separately.
+     */
+    static final class IntHashSet {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] table = new int[INITIAL_CAPACITY];
+        private int size;           // number of non-zero elements in table
+        private boolean containsZero;
+
+        private static int mix(int h) {
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * Adds the value to this set.
+         *
+         * @return {@code true} if the value was not already present
+         */
+        boolean add(int v) {
+            if (v == 0) {
+                if (containsZero)
+                    return false;
+                return containsZero = true;
+            }
+            int[] t = table;
+            int mask = t.length - 1;
+            for (int i = mix(v) & mask; ; i = (i + 1) & mask) {
+                int e = t[i];
+                if (e == v)
+                    return false;
+                if (e == 0) {
+                    t[i] = v;
+                    if (++size > (t.length >>> 1))
+                        resize();
+                    return true;
+                }
+            }
+        }
+
+        private void resize() {
+            int[] old = table;
+            int[] t = table = new int[old.length << 1];
+            int mask = t.length - 1;
+            for (int v : old) {
+                if (v != 0) {
+                    int i = mix(v) & mask;
+                    while (t[i] != 0)
+                        i = (i + 1) & mask;
+                    t[i] = v;
+                }
+            }
+        }
+
+        int[] toArray() {
+            int[] a = new int[containsZero ? size + 1 : size];
+            int j = 0;
+            if (containsZero)
+                a[j++] = 0;
+            for (int v : table) {
+                if (v != 0)
+                    a[j++] = v;
+            }
+            return a;
+        }
+    }
+
+    /**
+     * An open-addressed, linear-probing set of longs.  Zero, which marks
+     * empty slots, is tracked separately.
+     */
+    static final class LongHashSet {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private long[] table = new long[INITIAL_CAPACITY];
+        private int size;           // number of non-zero elements in table
+        private boolean containsZero;
+
+        private static int mix(long v) {
+            int h = (int) (v ^ (v >>> 32)) * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * Adds the value to this set.
+         *
+         * @return {@code true} if the value was not already present
+         */
+        boolean add(long v) {
+            if (v == 0L) {
+                if (containsZero)
+                    return false;
+                return containsZero = true;
+            }
+            long[] t = table;
+            int mask = t.length - 1;
+            for (int i = mix(v) & mask; ; i = (i + 1) & mask) {
+                long e = t[i];
+                if (e == v)
+                    return false;
+                if (e == 0L) {
+                    t[i] = v;
+                    if (++size > (t.length >>> 1))
+                        resize();
+                    return true;
+                }
+            }
+        }
+
+        private void resize() {
+            long[] old = table;
+            long[] t = table = new long[old.length << 1];
+            int mask = t.length - 1;
+            for (long v : old) {
+                if (v != 0L) {
+                    int i = mix(v) & mask;
+                    while (t[i] != 0L)
+                        i = (i + 1) & mask;
+                    t[i] = v;
+                }
+            }
+        }
+
+        long[] toArray() {
+            long[] a = new long[containsZero ? size + 1 : size];
+            int j = 0;
+            if (containsZero)
+                a[j++] = 0L;
+            for (long v : table) {
+                if (v != 0L)
+                    a[j++] = v;
+            }
+            return a;
+        }
+    }
 }
@@ -256,6 +256,10 @@ final class ForEachOps {
         private final Sink<S> sink;
         private final PipelineHelper<T> helper;
         private long targetSize;
+        // The depth of the split of this task, for diagnostics
+        private int splitDepth;
+        // The thread that forked this task, only if diagnostics are sampled
+        private Thread forker;
 
         ForEachTask(PipelineHelper<T> helper,
                     Spliterator<S> spliterator,
@@ -273,6 +277,7 @@ final class ForEachOps {
             this.sink = parent.sink;
             this.targetSize = parent.targetSize;
             this.helper = parent.helper;
+            this.splitDepth = parent.splitDepth + 1;
         }
 
         // Similar to AbstractTask but doesn't need to track child tasks
@@ -285,13 +290,18 @@ final class ForEachOps {
             boolean forkRight = false;
             Sink<S> taskSink = sink;
             ForEachTask<S, T> task = this;
+            StreamDiagnostics.Recorder rec = helper.getDiagnostics();
             while (!isShortCircuit || !taskSink.cancellationRequested()) {
                 if (sizeEstimate <= sizeThreshold ||
                     (leftSplit = rightSplit.trySplit()) == null) {
+                    if (rec != null)
+                        recordLeaf(rec, task.splitDepth, task.forker, sizeEstimate);
                     task.helper.copyInto(taskSink, rightSplit);
                     break;
                 }
                 ForEachTask<S, T> leftTask = new ForEachTask<>(task, leftSplit);
+                // task goes on with the right half of its split
+                task.splitDepth++;
                 task.addToPendingCount(1);
                 ForEachTask<S, T> taskToFork;
                 if (forkRight) {
@@ -304,6 +314,8 @@ final class ForEachOps {
                     forkRight = true;
                     taskToFork = leftTask;
                 }
+                if (rec != null)
+                    taskToFork.forker = Thread.currentThread();
                 taskToFork.fork();
                 sizeEstimate = rightSplit.estimateSize();
             }
@@ -312,6 +324,21 @@ final class ForEachOps {
         }
     }
 
+    /**
+     * Records a leaf task of a parallel for-each operation with the
+     * diagnostics recorder of the computation.
+     *
+     * @param rec the diagnostics recorder
+     * @param splitDepth the depth of the leaf task in the task tree
+     * @param forker the thread that forked the leaf task, or null
+     * @param leafSize the estimated size of the leaf task's input
+     */
+    static void recordLeaf(StreamDiagnostics.Recorder rec, int splitDepth,
+                           Thread forker, long leafSize) {
+        rec.leaf(splitDepth, leafSize,
+                 forker != null && forker != Thread.currentThread());
+    }
+
     /**
      * A {@code ForkJoinTask} for performing a parallel for-each operation
      * which visits the elements in encounter order
@@ -369,6 +396,10 @@ final class ForEachOps {
         private final Sink<T> action;
         private final ForEachOrderedTask<S, T> leftPredecessor;
         private Node<T> node;
+        // The depth of this task in the task tree, for diagnostics
+        private final int splitDepth;
+        // The thread that forked this task, only if diagnostics are sampled
+        private Thread forker;
 
         protected ForEachOrderedTask(PipelineHelper<T> helper,
                                      Spliterator<S> spliterator,
@@ -381,6 +412,7 @@ final class ForEachOps {
             this.completionMap = new ConcurrentHashMap<>(Math.max(16, AbstractTask.LEAF_TARGET << 1));
             this.action = action;
             this.leftPredecessor = null;
+            this.splitDepth = 0;
         }
 
         ForEachOrderedTask(ForEachOrderedTask<S, T> parent,
@@ -393,6 +425,7 @@ final class ForEachOps {
             this.completionMap = parent.completionMap;
             this.action = parent.action;
             this.leftPredecessor = leftPredecessor;
+            this.splitDepth = parent.splitDepth + 1;
         }
 
         @Override
@@ -404,6 +437,7 @@ final class ForEachOps {
             Spliterator<S> rightSplit = task.spliterator, leftSplit;
             long sizeThreshold = task.targetSize;
             boolean forkRight = false;
+            StreamDiagnostics.Recorder rec = task.helper.getDiagnostics();
             while (rightSplit.estimateSize() > sizeThreshold &&
                    (leftSplit = rightSplit.trySplit()) != null) {
                 ForEachOrderedTask<S, T> leftChild =
@@ -458,8 +492,13 @@ final class ForEachOps {
                     task = rightChild;
                     taskToFork = leftChild;
                 }
+                if (rec != null)
+                    taskToFork.forker = Thread.currentThread();
                 taskToFork.fork();
             }
+            if (rec != null)
+                recordLeaf(rec, task.splitDepth, task.forker,
+                           rightSplit.estimateSize());
 
             /*
              * Task's pending count is either 0 or 1.  If 1 then the completion
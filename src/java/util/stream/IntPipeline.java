@@ -392,9 +392,7 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final IntStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires an int-specific map/set implementation.
-        return boxed().distinct().mapToInt(i -> i);
+        return DistinctOps.makeInt(this);
     }
 
     // Terminal ops from IntStream
@@ -373,9 +373,7 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final LongStream distinct() {
-        // While functional and quick to implement, this approach is not very efficient.
-        // An efficient version requires a long-specific map/set implementation.
-        return boxed().distinct().mapToLong(i -> (long) i);
+        return DistinctOps.makeLong(this);
     }
 
     // Terminal ops from LongStream
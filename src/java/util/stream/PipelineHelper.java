@@ -160,6 +160,15 @@ abstract class PipelineHelper<P_OUT> {
      */
     abstract<P_IN> Spliterator<P_OUT> wrapSpliterator(Spliterator<P_IN> spliterator);
 
+    /**
+     * Returns the diagnostics recorder for the evaluation of this pipeline,
+     * if the evaluation is being sampled.
+     *
+     * @return the recorder, or {@code null} if the evaluation is not sampled
+     * @see StreamDiagnostics
+     */
+    abstract StreamDiagnostics.Recorder getDiagnostics();
+
     /**
      * Constructs a @{link Node.Builder} compatible with the output shape of
      * this {@code PipelineHelper}.
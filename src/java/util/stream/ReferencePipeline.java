@@ -159,42 +159,13 @@ abstract class ReferencePipeline<P_IN, P_OUT>
     @Override
     public final Stream<P_OUT> filter(Predicate<? super P_OUT> predicate) {
         Objects.requireNonNull(predicate);
-        return new StatelessOp<P_OUT, P_OUT>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SIZED) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<P_OUT> sink) {
-                return new Sink.ChainedReference<P_OUT, P_OUT>(sink) {
-                    @Override
-                    public void begin(long size) {
-                        downstream.begin(-1);
-                    }
-
-                    @Override
-                    public void accept(P_OUT u) {
-                        if (predicate.test(u))
-                            downstream.accept(u);
-                    }
-                };
-            }
-        };
+        return new FilterOp<>(this, predicate);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public final <R> Stream<R> map(Function<? super P_OUT, ? extends R> mapper) {
         Objects.requireNonNull(mapper);
-        return new StatelessOp<P_OUT, R>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<R> sink) {
-                return new Sink.ChainedReference<P_OUT, R>(sink) {
-                    @Override
-                    public void accept(P_OUT u) {
-                        downstream.accept(mapper.apply(u));
-                    }
-                };
-            }
-        };
+        return new MapOp<>(this, mapper);
     }
 
     @Override
@@ -625,6 +596,149 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         }
     }
 
+    /**
+     * Stage for {@link Stream#filter(Predicate)}, which may be fused with an
+     * immediately upstream filter or map stage.
+     *
+     * @param <T> type of elements
+     */
+    static final class FilterOp<T> extends StatelessOp<T, T> {
+        final Predicate<? super T> predicate;
+
+        FilterOp(AbstractPipeline<?, T, ?> upstream,
+                 Predicate<? super T> predicate) {
+            super(upstream, StreamShape.REFERENCE, StreamOpFlag.NOT_SIZED);
+            this.predicate = predicate;
+        }
+
+        @Override
+        Sink<T> opWrapSink(int flags, Sink<T> sink) {
+            Predicate<? super T> predicate = this.predicate;
+            return new Sink.ChainedReference<T, T>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(T u) {
+                    if (predicate.test(u))
+                        downstream.accept(u);
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Sink<?> opWrapSinkFused(AbstractPipeline<?, ?, ?> upstream, Sink<T> sink) {
+            Predicate<? super T> predicate = this.predicate;
+            if (upstream instanceof FilterOp) {
+                Predicate<? super T> first = ((FilterOp<T>) upstream).predicate;
+                return new Sink.ChainedReference<T, T>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T u) {
+                        if (first.test(u) && predicate.test(u))
+                            downstream.accept(u);
+                    }
+                };
+            }
+            else if (upstream instanceof MapOp) {
+                return fuseMapFilter((MapOp<Object, T>) upstream, predicate, sink);
+            }
+            return null;
+        }
+
+        private static <U, T> Sink<U> fuseMapFilter(MapOp<U, T> upstream,
+                                                    Predicate<? super T> predicate,
+                                                    Sink<T> sink) {
+            Function<? super U, ? extends T> mapper = upstream.mapper;
+            return new Sink.ChainedReference<U, T>(sink) {
+                @Override
+                public void begin(long size) {
+                    downstream.begin(-1);
+                }
+
+                @Override
+                public void accept(U u) {
+                    T t = mapper.apply(u);
+                    if (predicate.test(t))
+                        downstream.accept(t);
+                }
+            };
+        }
+    }
+
+    /**
+     * Stage for {@link Stream#map(Function)}, which may be fused with an
+     * immediately upstream filter or map stage.
+     *
+     * @param <T> type of elements in the upstream source
+     * @param <R> type of elements produced by this stage
+     */
+    static final class MapOp<T, R> extends StatelessOp<T, R> {
+        final Function<? super T, ? extends R> mapper;
+
+        MapOp(AbstractPipeline<?, T, ?> upstream,
+              Function<? super T, ? extends R> mapper) {
+            super(upstream, StreamShape.REFERENCE,
+                  StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT);
+            this.mapper = mapper;
+        }
+
+        @Override
+        Sink<T> opWrapSink(int flags, Sink<R> sink) {
+            Function<? super T, ? extends R> mapper = this.mapper;
+            return new Sink.ChainedReference<T, R>(sink) {
+                @Override
+                public void accept(T u) {
+                    downstream.accept(mapper.apply(u));
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        Sink<?> opWrapSinkFused(AbstractPipeline<?, ?, ?> upstream, Sink<R> sink) {
+            Function<? super T, ? extends R> mapper = this.mapper;
+            if (upstream instanceof FilterOp) {
+                Predicate<? super T> predicate = ((FilterOp<T>) upstream).predicate;
+                return new Sink.ChainedReference<T, R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T u) {
+                        if (predicate.test(u))
+                            downstream.accept(mapper.apply(u));
+                    }
+                };
+            }
+            else if (upstream instanceof MapOp) {
+                return fuseMapMap((MapOp<Object, T>) upstream, mapper, sink);
+            }
+            return null;
+        }
+
+        private static <U, T, R> Sink<U> fuseMapMap(MapOp<U, T> upstream,
+                                                    Function<? super T, ? extends R> mapper,
+                                                    Sink<R> sink) {
+            Function<? super U, ? extends T> first = upstream.mapper;
+            return new Sink.ChainedReference<U, R>(sink) {
+                @Override
+                public void accept(U u) {
+                    downstream.accept(mapper.apply(first.apply(u)));
+                }
+            };
+        }
+    }
+
     /**
      * Base class for a stateful intermediate stage of a Stream.
      *
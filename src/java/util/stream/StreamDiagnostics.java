@@ -0,0 +1,539 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in diagnostics for the evaluation of stream pipelines.
+ *
+ * <p>When a {@link Listener} is installed with
+ * {@link #setListener(Listener, int)}, a sample of terminal operations is
+ * instrumented and a {@link Report} describing each sampled evaluation is
+ * delivered to the listener once the terminal operation completes normally.
+ * A report records, for each stage of the pipeline, the number of elements
+ * that flowed into the stage and the time spent in it; and, for parallel
+ * evaluations, the shape of the fork/join task tree: the depth of the split
+ * tree, the sizes of leaf tasks and how many leaf tasks were executed by a
+ * thread other than the one that forked them.
+ *
+ * <p>Pipelines that are not sampled run with no instrumentation, so with a
+ * suitably large sampling interval diagnostics may be left enabled in
+ * production.  Sampled pipelines are markedly slower, since every element is
+ * timed at every stage.  Pipelines traversed through
+ * {@link BaseStream#iterator()} or {@link BaseStream#spliterator()} are never
+ * sampled.
+ *
+ * @apiNote
+ * Typical usage, reporting roughly one in a thousand pipeline evaluations:
+ * <pre>{@code
+ *     StreamDiagnostics.setListener(r -> log.fine(r.toString()), 1000);
+ * }</pre>
+ *
+ * @since 1.8
+ */
+public final class StreamDiagnostics {
+
+    private StreamDiagnostics() { }
+
+    /**
+     * A receiver of reports of sampled stream pipeline evaluations.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Invoked, on the thread that invoked the terminal operation, after
+         * a sampled terminal operation completes normally.  Exceptions
+         * thrown by this method propagate to the caller of the terminal
+         * operation.
+         *
+         * @param report the report of the evaluation
+         */
+        void evaluated(Report report);
+    }
+
+    /**
+     * Statistics for one stage of a sampled pipeline.
+     */
+    public static final class Stage {
+        private final String name;
+        private final long elements;
+        private final long nanos;
+
+        Stage(String name, long elements, long nanos) {
+            this.name = name;
+            this.elements = elements;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Returns a name identifying the operation of this stage.
+         *
+         * @return the name of the operation
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the number of elements that flowed into this stage,
+         * summed over all leaf tasks.
+         *
+         * @return the number of elements
+         */
+        public long getElementCount() {
+            return elements;
+        }
+
+        /**
+         * Returns the time, in nanoseconds and summed over all leaf tasks,
+         * spent processing elements in this stage and all stages downstream
+         * of it.  The time spent in this stage alone is this value less that
+         * of the next stage.
+         *
+         * @return the inclusive processing time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return name + "[elements=" + elements + ", nanos=" + nanos + "]";
+        }
+    }
+
+    /**
+     * A report of one sampled pipeline evaluation.
+     */
+    public static final class Report {
+        private final boolean parallel;
+        private final long elapsedNanos;
+        private final List<Stage> stages;
+        private final int maxSplitDepth;
+        private final long leafCount;
+        private final long minLeafSize;
+        private final long maxLeafSize;
+        private final long stolenLeafCount;
+
+        Report(boolean parallel, long elapsedNanos, List<Stage> stages,
+               int maxSplitDepth, long leafCount, long minLeafSize,
+               long maxLeafSize, long stolenLeafCount) {
+            this.parallel = parallel;
+            this.elapsedNanos = elapsedNanos;
+            this.stages = stages;
+            this.maxSplitDepth = maxSplitDepth;
+            this.leafCount = leafCount;
+            this.minLeafSize = minLeafSize;
+            this.maxLeafSize = maxLeafSize;
+            this.stolenLeafCount = stolenLeafCount;
+        }
+
+        /**
+         * Returns whether the pipeline was evaluated in parallel.
+         *
+         * @return {@code true} if the evaluation was parallel
+         */
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        /**
+         * Returns the wall-clock time taken by the terminal operation.
+         *
+         * @return the elapsed time in nanoseconds
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the statistics of each stage, ordered from the first
+         * intermediate operation to the terminal operation.
+         *
+         * @return an unmodifiable list of stage statistics
+         */
+        public List<Stage> getStages() {
+            return stages;
+        }
+
+        /**
+         * Returns the greatest depth of a leaf task in the fork/join task
+         * tree, where the root task has depth zero, or {@code -1} if the
+         * evaluation was sequential.
+         *
+         * @return the depth of the task tree
+         */
+        public int getMaxSplitDepth() {
+            return maxSplitDepth;
+        }
+
+        /**
+         * Returns the number of leaf tasks, or zero if the evaluation was
+         * sequential.
+         *
+         * @return the number of leaf tasks
+         */
+        public long getLeafCount() {
+            return leafCount;
+        }
+
+        /**
+         * Returns the smallest estimated size of the input of a leaf task,
+         * or {@code -1} if there were no leaf tasks.
+         *
+         * @return the smallest leaf size
+         */
+        public long getMinLeafSize() {
+            return minLeafSize;
+        }
+
+        /**
+         * Returns the largest estimated size of the input of a leaf task,
+         * or {@code -1} if there were no leaf tasks.
+         *
+         * @return the largest leaf size
+         */
+        public long getMaxLeafSize() {
+            return maxLeafSize;
+        }
+
+        /**
+         * Returns the number of leaf tasks executed by a thread other than
+         * the one that forked them.
+         *
+         * @return the number of stolen leaf tasks
+         */
+        public long getStolenLeafCount() {
+            return stolenLeafCount;
+        }
+
+        @Override
+        public String toString() {
+            return "StreamDiagnostics.Report[parallel=" + parallel
+                   + ", elapsedNanos=" + elapsedNanos
+                   + ", stages=" + stages
+                   + ", maxSplitDepth=" + maxSplitDepth
+                   + ", leafCount=" + leafCount
+                   + ", minLeafSize=" + minLeafSize
+                   + ", maxLeafSize=" + maxLeafSize
+                   + ", stolenLeafCount=" + stolenLeafCount + "]";
+        }
+    }
+
+    /** The installed listener and sampling interval, or null if disabled */
+    private static volatile Sampler sampler;
+
+    private static final class Sampler {
+        final Listener listener;
+        final int interval;
+
+        Sampler(Listener listener, int interval) {
+            this.listener = listener;
+            this.interval = interval;
+        }
+    }
+
+    /**
+     * Installs a listener to which reports of sampled pipeline evaluations
+     * are delivered, replacing any previously installed listener.
+     *
+     * @param listener the listener, or {@code null} to disable diagnostics
+     * @param samplingInterval the average number of terminal operations per
+     *        sampled terminal operation; {@code 1} samples every evaluation
+     * @throws IllegalArgumentException if {@code samplingInterval} is less
+     *         than one
+     * @throws SecurityException if a security manager exists and its
+     *         {@code checkPermission} method denies
+     *         {@code RuntimePermission("streamDiagnostics")}
+     */
+    public static void setListener(Listener listener, int samplingInterval) {
+        if (samplingInterval < 1)
+            throw new IllegalArgumentException("Illegal sampling interval: "
+                                               + samplingInterval);
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null)
+            sm.checkPermission(new RuntimePermission("streamDiagnostics"));
+        sampler = (listener == null) ? null : new Sampler(listener, samplingInterval);
+    }
+
+    /**
+     * Decides whether an evaluation is sampled.  When diagnostics are
+     * disabled this is a single volatile read.
+     *
+     * @return the listener to report the evaluation to if it is sampled,
+     *         otherwise {@code null}
+     */
+    static Listener sample() {
+        Sampler s = sampler;
+        if (s == null)
+            return null;
+        if (s.interval > 1 && ThreadLocalRandom.current().nextInt(s.interval) != 0)
+            return null;
+        return s.listener;
+    }
+
+    /**
+     * Accumulates statistics for one sampled evaluation.  Stage statistics
+     * are reported when each probe sink ends, and leaf statistics when each
+     * leaf task completes, possibly concurrently from multiple threads.
+     */
+    static final class Recorder {
+        private final Listener listener;
+        private final String[] names;
+        private final long[] elements;
+        private final long[] nanos;
+        private final boolean parallel;
+        private final long start;
+        private int maxSplitDepth = -1;
+        private long leafCount;
+        private long minLeafSize = -1L;
+        private long maxLeafSize = -1L;
+        private long stolenLeafCount;
+
+        /**
+         * @param listener the listener to report to
+         * @param stageNames the names of the intermediate and terminal
+         *        operations, in pipeline order
+         * @param parallel whether the evaluation is parallel
+         */
+        Recorder(Listener listener, String[] stageNames, boolean parallel) {
+            this.listener = listener;
+            this.names = stageNames;
+            this.elements = new long[names.length];
+            this.nanos = new long[names.length];
+            this.parallel = parallel;
+            this.start = System.nanoTime();
+        }
+
+        synchronized void stage(int index, long count, long time) {
+            elements[index] += count;
+            nanos[index] += time;
+        }
+
+        synchronized void leaf(int splitDepth, long size, boolean stolen) {
+            if (splitDepth > maxSplitDepth)
+                maxSplitDepth = splitDepth;
+            leafCount++;
+            if (size >= 0L && size != Long.MAX_VALUE) {
+                if (minLeafSize < 0L || size < minLeafSize)
+                    minLeafSize = size;
+                if (size > maxLeafSize)
+                    maxLeafSize = size;
+            }
+            if (stolen)
+                stolenLeafCount++;
+        }
+
+        /**
+         * Reports the evaluation to the listener.
+         */
+        void end() {
+            long elapsed = System.nanoTime() - start;
+            Report r;
+            synchronized (this) {
+                List<Stage> stages = new ArrayList<>(names.length);
+                for (int i = 0; i < names.length; i++)
+                    stages.add(new Stage(names[i], elements[i], nanos[i]));
+                r = new Report(parallel, elapsed, Collections.unmodifiableList(stages),
+                               maxSplitDepth, leafCount, minLeafSize, maxLeafSize,
+                               stolenLeafCount);
+            }
+            listener.evaluated(r);
+        }
+
+        /**
+         * Wraps a sink accepting elements of the given shape such that the
+         * elements accepted, and the time taken to accept them, are recorded
+         * against the stage at the given index.
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Sink<?> probe(int index, StreamShape shape, Sink<?> sink) {
+            switch (Objects.requireNonNull(shape)) {
+                case INT_VALUE:    return new IntProbe(this, index, (Sink.OfInt) sink);
+                case LONG_VALUE:   return new LongProbe(this, index, (Sink.OfLong) sink);
+                case DOUBLE_VALUE: return new DoubleProbe(this, index, (Sink.OfDouble) sink);
+                default:           return new RefProbe(this, index, sink);
+            }
+        }
+    }
+
+    /**
+     * Base class for probe sinks, which time each element passed to the
+     * wrapped sink and report the totals to the recorder when the sink ends.
+     */
+    private static abstract class Probe {
+        final Recorder recorder;
+        final int index;
+        long count;
+        long nanos;
+
+        Probe(Recorder recorder, int index) {
+            this.recorder = recorder;
+            this.index = index;
+        }
+
+        final void report() {
+            recorder.stage(index, count, nanos);
+            count = nanos = 0L;
+        }
+    }
+
+    private static final class RefProbe<T> extends Probe implements Sink<T> {
+        private final Sink<T> downstream;
+
+        RefProbe(Recorder recorder, int index, Sink<T> downstream) {
+            super(recorder, index);
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(size);
+        }
+
+        @Override
+        public void accept(T t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+
+        @Override
+        public void end() {
+            downstream.end();
+            report();
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+    }
+
+    private static final class IntProbe extends Probe implements Sink.OfInt {
+        private final Sink.OfInt downstream;
+
+        IntProbe(Recorder recorder, int index, Sink.OfInt downstream) {
+            super(recorder, index);
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(size);
+        }
+
+        @Override
+        public void accept(int t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+
+        @Override
+        public void end() {
+            downstream.end();
+            report();
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+    }
+
+    private static final class LongProbe extends Probe implements Sink.OfLong {
+        private final Sink.OfLong downstream;
+
+        LongProbe(Recorder recorder, int index, Sink.OfLong downstream) {
+            super(recorder, index);
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(size);
+        }
+
+        @Override
+        public void accept(long t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+
+        @Override
+        public void end() {
+            downstream.end();
+            report();
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+    }
+
+    private static final class DoubleProbe extends Probe implements Sink.OfDouble {
+        private final Sink.OfDouble downstream;
+
+        DoubleProbe(Recorder recorder, int index, Sink.OfDouble downstream) {
+            super(recorder, index);
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void begin(long size) {
+            downstream.begin(size);
+        }
+
+        @Override
+        public void accept(double t) {
+            long s = System.nanoTime();
+            downstream.accept(t);
+            nanos += System.nanoTime() - s;
+            count++;
+        }
+
+        @Override
+        public void end() {
+            downstream.end();
+            report();
+        }
+
+        @Override
+        public boolean cancellationRequested() {
+            return downstream.cancellationRequested();
+        }
+    }
+}
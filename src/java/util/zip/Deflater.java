@@ -25,6 +25,8 @@
 
 package java.util.zip;
 
+import java.util.function.LongConsumer;
+
 /**
  * This class provides support for general purpose compression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -82,6 +84,13 @@ class Deflater {
     private long bytesRead;
     private long bytesWritten;
 
+    // Ends a z_stream, as the cleaning action of ZStreamRef
+    private static final LongConsumer END_STREAM = new LongConsumer() {
+        public void accept(long addr) {
+            end(addr);
+        }
+    };
+
     /**
      * Compression method for the deflate algorithm (the only one currently
      * supported).
@@ -168,7 +177,8 @@ class Deflater {
     public Deflater(int level, boolean nowrap) {
         this.level = level;
         this.strategy = DEFAULT_STRATEGY;
-        this.zsRef = new ZStreamRef(init(level, DEFAULT_STRATEGY, nowrap));
+        this.zsRef = ZStreamRef.get(this, Deflater.class,
+                                    init(level, DEFAULT_STRATEGY, nowrap), END_STREAM);
     }
 
     /**
@@ -531,26 +541,24 @@ class Deflater {
     /**
      * Closes the compressor and discards any unprocessed input.
      * This method should be called when the compressor is no longer
-     * being used, but will also be called automatically by the
-     * finalize() method. Once this method is called, the behavior
+     * being used, but will also be called automatically once the
+     * object is no longer reachable. Once this method is called, the behavior
      * of the Deflater object is undefined.
      */
     public void end() {
         synchronized (zsRef) {
-            long addr = zsRef.address();
-            zsRef.clear();
-            if (addr != 0) {
-                end(addr);
-                buf = null;
-            }
+            zsRef.clean();
+            buf = null;
         }
     }
 
     /**
-     * Closes the compressor when garbage is collected.
+     * Does nothing.  The compressor is ended by a cleaner when it becomes
+     * phantom reachable, or, if a subclass overrides {@link #end}, by
+     * invoking that method when it is finalized.  This method remains for
+     * subclasses that invoke {@code super.finalize()}.
      */
     protected void finalize() {
-        end();
     }
 
     private void ensureOpen() {
@@ -25,6 +25,8 @@
 
 package java.util.zip;
 
+import java.util.function.LongConsumer;
+
 /**
  * This class provides support for general purpose decompression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -83,6 +85,13 @@ class Inflater {
 
     private static final byte[] defaultBuf = new byte[0];
 
+    // Ends a z_stream, as the cleaning action of ZStreamRef
+    private static final LongConsumer END_STREAM = new LongConsumer() {
+        public void accept(long addr) {
+            end(addr);
+        }
+    };
+
     static {
         /* Zip library is loaded from System.initializeSystemClass */
         initIDs();
@@ -100,7 +109,7 @@ class Inflater {
      * @param nowrap if true then support GZIP compatible compression
      */
     public Inflater(boolean nowrap) {
-        zsRef = new ZStreamRef(init(nowrap));
+        zsRef = ZStreamRef.get(this, Inflater.class, init(nowrap), END_STREAM);
     }
 
     /**
@@ -361,26 +370,24 @@ class Inflater {
     /**
      * Closes the decompressor and discards any unprocessed input.
      * This method should be called when the decompressor is no longer
-     * being used, but will also be called automatically by the finalize()
-     * method. Once this method is called, the behavior of the Inflater
-     * object is undefined.
+     * being used, but will also be called automatically once the object
+     * is no longer reachable. Once this method is called, the behavior of
+     * the Inflater object is undefined.
      */
     public void end() {
         synchronized (zsRef) {
-            long addr = zsRef.address();
-            zsRef.clear();
-            if (addr != 0) {
-                end(addr);
-                buf = null;
-            }
+            zsRef.clean();
+            buf = null;
         }
     }
 
     /**
-     * Closes the decompressor when garbage is collected.
+     * Does nothing.  The decompressor is ended by a cleaner when it becomes
+     * phantom reachable, or, if a subclass overrides {@link #end}, by
+     * invoking that method when it is finalized.  This method remains for
+     * subclasses that invoke {@code super.finalize()}.
      */
     protected void finalize() {
-        end();
     }
 
     private void ensureOpen () {
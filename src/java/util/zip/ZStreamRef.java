@@ -25,22 +25,92 @@
 
 package java.util.zip;
 
+import java.lang.ref.Cleaner;
+import java.util.function.LongConsumer;
+
 /**
- * A reference to the native zlib's z_stream structure.
+ * A reference to the native zlib's z_stream structure.  It is also the
+ * cleaning action of the owning Inflater or Deflater, which ends the
+ * z_stream when the owner becomes phantom reachable without having been
+ * ended.
  */
 
-class ZStreamRef {
+class ZStreamRef implements Runnable {
 
     private volatile long address;
-    ZStreamRef (long address) {
+    private final LongConsumer end;
+    private final Cleaner.Cleanable cleanable;
+
+    private ZStreamRef(Object owner, long address, LongConsumer end) {
         this.address = address;
+        this.end = end;
+        this.cleanable = (owner != null) ? ZipUtils.cleaner().register(owner, this)
+                                         : null;
+    }
+
+    /**
+     * Returns the reference for the z_stream at the given address, owned by
+     * the given Inflater or Deflater.  An owner whose class overrides the
+     * {@code end} method is not ended by the cleaner, but by a finalizer
+     * that invokes its {@code end} method as the {@code finalize} method of
+     * Inflater and Deflater used to.
+     */
+    static ZStreamRef get(Object owner, Class<?> ownerType, long address,
+                          LongConsumer end) {
+        Class<?> c = owner.getClass();
+        if (c != ownerType && ZipUtils.overrides(c, ownerType, "end"))
+            return new FinalizeZStreamRef(owner, address, end);
+        return new ZStreamRef(owner, address, end);
     }
 
     long address() {
         return address;
     }
 
-    void clear() {
+    /**
+     * Ends the z_stream, if it has not been ended yet.  Called by the
+     * owner with the lock of this reference held.
+     */
+    void clean() {
+        if (cleanable != null) {
+            cleanable.clean();
+        } else {
+            run();
+        }
+    }
+
+    /**
+     * Ends the z_stream.  Synchronized on this reference like the methods
+     * of the owner, so that the z_stream is not ended while in use.
+     */
+    @Override
+    public synchronized void run() {
+        long addr = address;
         address = 0;
+        if (addr != 0) {
+            end.accept(addr);
+        }
+    }
+
+    /**
+     * The reference of an owner that overrides {@code end}, which calls
+     * that method when the owner is finalized.
+     */
+    private static final class FinalizeZStreamRef extends ZStreamRef {
+        private final Object owner;
+
+        FinalizeZStreamRef(Object owner, long address, LongConsumer end) {
+            super(null, address, end);
+            this.owner = owner;
+        }
+
+        @Override
+        protected void finalize() {
+            if (owner instanceof Inflater) {
+                ((Inflater) owner).end();
+            } else if (owner instanceof Deflater) {
+                ((Deflater) owner).end();
+            }
+        }
     }
 }
@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.io.EOFException;
 import java.io.File;
+import java.lang.ref.Cleaner;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
@@ -42,6 +43,7 @@ import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.WeakHashMap;
+import java.util.jar.JarFile;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -64,6 +66,15 @@ class ZipFile implements ZipConstants, Closeable {
     private final boolean locsig;  // if zip file starts with LOCSIG (usually true)
     private volatile boolean closeRequested = false;
 
+    // Closes the native zip file and ends the cached inflaters, when this
+    // zip file is closed or becomes phantom reachable
+    private final Releaser releaser;
+    private final Cleaner.Cleanable cleanable;
+
+    // Invokes close() on finalization for subclasses that override it,
+    // null otherwise
+    private final CloseFinalizer closeFinalizer;
+
     private static final int STORED = ZipEntry.STORED;
     private static final int DEFLATED = ZipEntry.DEFLATED;
 
@@ -217,6 +228,12 @@ class ZipFile implements ZipConstants, Closeable {
         this.zc = ZipCoder.get(charset);
         long t0 = System.nanoTime();
         jzfile = open(name, mode, file.lastModified(), usemmap);
+        this.releaser = new Releaser(jzfile, inflaterCache);
+        this.cleanable = ZipUtils.cleaner().register(this, releaser);
+        Class<?> c = getClass();
+        this.closeFinalizer = (c != ZipFile.class && c != JarFile.class &&
+                               ZipUtils.overrides(c, ZipFile.class, "close"))
+                              ? new CloseFinalizer(this) : null;
         sun.misc.PerfCounter.getZipFileOpenTime().addElapsedTimeFrom(t0);
         sun.misc.PerfCounter.getZipFileCount().increment();
         this.name = name;
@@ -387,11 +404,15 @@ class ZipFile implements ZipConstants, Closeable {
         private volatile boolean closeRequested = false;
         private boolean eof = false;
         private final ZipFileInputStream zfin;
+        // Returns the inflater to the cache when closed or phantom reachable
+        private final Cleaner.Cleanable inflaterCleanup;
 
         ZipFileInflaterInputStream(ZipFileInputStream zfin, Inflater inf,
                 int size) {
             super(zfin, inf, size);
             this.zfin = zfin;
+            this.inflaterCleanup = ZipUtils.cleaner().register(this,
+                new InflaterReleaser(releaser, inf));
         }
 
         public void close() throws IOException {
@@ -400,13 +421,10 @@ class ZipFile implements ZipConstants, Closeable {
             closeRequested = true;
 
             super.close();
-            Inflater inf;
             synchronized (streams) {
-                inf = streams.remove(this);
-            }
-            if (inf != null) {
-                releaseInflater(inf);
+                streams.remove(this);
             }
+            inflaterCleanup.clean();
         }
 
         // Override fill() method to provide an extra "dummy" byte
@@ -432,10 +450,6 @@ class ZipFile implements ZipConstants, Closeable {
             return (avail > (long) Integer.MAX_VALUE ?
                     Integer.MAX_VALUE : (int) avail);
         }
-
-        protected void finalize() throws Throwable {
-            close();
-        }
     }
 
     /*
@@ -454,18 +468,6 @@ class ZipFile implements ZipConstants, Closeable {
         return new Inflater(true);
     }
 
-    /*
-     * Releases the specified inflater to the list of available inflaters.
-     */
-    private void releaseInflater(Inflater inf) {
-        if (false == inf.ended()) {
-            inf.reset();
-            synchronized (inflaterCache) {
-                inflaterCache.add(inf);
-            }
-        }
-    }
-
     // List of available Inflater objects for decompression
     private Deque<Inflater> inflaterCache = new ArrayDeque<>();
 
@@ -626,30 +628,21 @@ class ZipFile implements ZipConstants, Closeable {
                 }
             }
 
-            // Release cached inflaters
-            Inflater inf;
-            synchronized (inflaterCache) {
-                while (null != (inf = inflaterCache.poll())) {
-                    inf.end();
-                }
-            }
-
-            if (jzfile != 0) {
-                // Close the zip file
-                long zf = this.jzfile;
-                jzfile = 0;
-
-                close(zf);
-            }
+            // Close the zip file and release the cached inflaters
+            jzfile = 0;
+            cleanable.clean();
         }
     }
 
     /**
-     * Ensures that the system resources held by this ZipFile object are
-     * released when there are no more references to it.
+     * Does nothing.  The system resources held by this ZipFile object are
+     * released by a cleaner when there are no more references to it, or,
+     * if a subclass overrides {@link #close}, by invoking that method when
+     * this ZipFile is finalized.  This method remains for subclasses that
+     * invoke {@code super.finalize()}.
      *
      * <p>
-     * Since the time when GC would invoke this method is undetermined,
+     * Since the time when GC would release the resources is undetermined,
      * it is strongly recommended that applications invoke the <code>close</code>
      * method as soon they have finished accessing this <code>ZipFile</code>.
      * This will prevent holding up system resources for an undetermined
@@ -659,7 +652,122 @@ class ZipFile implements ZipConstants, Closeable {
      * @see    java.util.zip.ZipFile#close()
      */
     protected void finalize() throws IOException {
-        close();
+    }
+
+    /**
+     * The cleaning action of a ZipFile, which closes the native zip file and
+     * ends the cached inflaters.  It does not refer to the ZipFile, so that
+     * the ZipFile can become phantom reachable.  The native entries of the
+     * streams of the zip file are freed through it, so that they are never
+     * freed after the zip file is closed.
+     */
+    private static final class Releaser implements Runnable {
+        private volatile long zf;
+        private final Deque<Inflater> inflaterCache;
+
+        Releaser(long zf, Deque<Inflater> inflaterCache) {
+            this.zf = zf;
+            this.inflaterCache = inflaterCache;
+        }
+
+        /*
+         * Frees a native entry, unless the zip file has been closed.
+         */
+        synchronized void freeEntry(long jzentry) {
+            if (zf != 0) {
+                ZipFile.freeEntry(zf, jzentry);
+            }
+        }
+
+        /*
+         * Releases the specified inflater to the list of available
+         * inflaters, or ends it if the zip file has been closed.
+         */
+        void releaseInflater(Inflater inf) {
+            if (false == inf.ended()) {
+                inf.reset();
+                synchronized (inflaterCache) {
+                    if (zf != 0) {
+                        inflaterCache.add(inf);
+                        return;
+                    }
+                }
+                inf.end();
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                long addr = zf;
+                zf = 0;
+                if (addr != 0) {
+                    close(addr);
+                }
+            }
+            // Release cached inflaters; released inflaters are ended
+            // rather than cached once zf is 0
+            Inflater inf;
+            synchronized (inflaterCache) {
+                while (null != (inf = inflaterCache.poll())) {
+                    inf.end();
+                }
+            }
+        }
+    }
+
+    /**
+     * The cleaning action of an entry stream, which frees its native entry.
+     */
+    private static final class EntryReleaser implements Runnable {
+        private final Releaser releaser;
+        private final long jzentry;
+
+        EntryReleaser(Releaser releaser, long jzentry) {
+            this.releaser = releaser;
+            this.jzentry = jzentry;
+        }
+
+        @Override
+        public void run() {
+            releaser.freeEntry(jzentry);
+        }
+    }
+
+    /**
+     * The cleaning action of an inflating entry stream, which returns its
+     * inflater to the cache.
+     */
+    private static final class InflaterReleaser implements Runnable {
+        private final Releaser releaser;
+        private final Inflater inf;
+
+        InflaterReleaser(Releaser releaser, Inflater inf) {
+            this.releaser = releaser;
+            this.inf = inf;
+        }
+
+        @Override
+        public void run() {
+            releaser.releaseInflater(inf);
+        }
+    }
+
+    /**
+     * Invokes the close method of a subclass that overrides it when the
+     * zip file is finalized, as the finalize method of ZipFile used to.
+     */
+    private static final class CloseFinalizer {
+        private final ZipFile zf;
+
+        CloseFinalizer(ZipFile zf) {
+            this.zf = zf;
+        }
+
+        @Override
+        protected void finalize() throws IOException {
+            zf.close();
+        }
     }
 
     private static native void close(long jzfile);
@@ -690,12 +798,16 @@ class ZipFile implements ZipConstants, Closeable {
         private   long pos;     // current position within entry data
         protected long rem;     // number of remaining bytes within entry
         protected long size;    // uncompressed size of this entry
+        // Frees the native entry when closed or phantom reachable
+        private final Cleaner.Cleanable entryCleanup;
 
         ZipFileInputStream(long jzentry) {
             pos = 0;
             rem = getEntryCSize(jzentry);
             size = getEntrySize(jzentry);
             this.jzentry = jzentry;
+            this.entryCleanup = ZipUtils.cleaner().register(this,
+                new EntryReleaser(releaser, jzentry));
         }
 
         public int read(byte b[], int off, int len) throws IOException {
@@ -762,19 +874,16 @@ class ZipFile implements ZipConstants, Closeable {
 
             rem = 0;
             synchronized (ZipFile.this) {
-                if (jzentry != 0 && ZipFile.this.jzfile != 0) {
-                    freeEntry(ZipFile.this.jzfile, jzentry);
+                if (jzentry != 0) {
+                    // frees the entry unless the zip file is closed
                     jzentry = 0;
+                    entryCleanup.clean();
                 }
             }
             synchronized (streams) {
                 streams.remove(this);
             }
         }
-
-        protected void finalize() {
-            close();
-        }
     }
 
     static {
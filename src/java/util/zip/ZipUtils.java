@@ -25,7 +25,11 @@
 
 package java.util.zip;
 
+import java.lang.ref.Cleaner;
+import java.lang.reflect.Method;
 import java.nio.file.attribute.FileTime;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
@@ -144,4 +148,37 @@ class ZipUtils {
     public static final long get64(byte b[], int off) {
         return get32(b, off) | (get32(b, off+4) << 32);
     }
+
+    /**
+     * Returns the cleaner that releases the native resources of zip files,
+     * inflaters and deflaters that become phantom reachable without having
+     * been closed or ended.
+     */
+    static Cleaner cleaner() {
+        return CleanerHolder.cleaner;
+    }
+
+    private static class CleanerHolder {
+        static final Cleaner cleaner = Cleaner.create();
+    }
+
+    /**
+     * Returns true if the given class, or a superclass below the given base
+     * class, declares a method of the given name without parameters.  Used
+     * to find the subclasses that override {@code close} or {@code end} and
+     * expect it to be invoked when their instances are finalized.
+     */
+    static boolean overrides(final Class<?> c, final Class<?> base, final String name) {
+        return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            public Boolean run() {
+                for (Class<?> k = c; k != base; k = k.getSuperclass()) {
+                    for (Method m : k.getDeclaredMethods()) {
+                        if (m.getName().equals(name) && m.getParameterCount() == 0)
+                            return true;
+                    }
+                }
+                return false;
+            }
+        });
+    }
 }